@@ -10,7 +10,10 @@
  */
 package org.eclipse.sw360.common.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Properties;
+import java.util.UUID;
 
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 
@@ -19,13 +22,25 @@ public class BackendUtils {
     private static final String PROPERTIES_FILE_PATH = "/sw360.properties";
     protected static final Properties loadedProperties;
     public static final Boolean MAINLINE_STATE_ENABLED_FOR_USER;
+    public static final int ATTACHMENT_SHA1_THREADS;
+    public static final long INDEX_REFRESH_INTERVAL_MILLIS;
 
     static {
         loadedProperties = CommonUtils.loadProperties(BackendUtils.class, PROPERTIES_FILE_PATH);
         MAINLINE_STATE_ENABLED_FOR_USER = Boolean.parseBoolean(loadedProperties.getProperty("mainline.state.enabled.for.user", "false"));
+        ATTACHMENT_SHA1_THREADS = Integer.parseInt(loadedProperties.getProperty("attachment.sha1.threads", "2"));
+        INDEX_REFRESH_INTERVAL_MILLIS = Long.parseLong(loadedProperties.getProperty("index.refresh.interval.millis", "2000"));
     }
 
     protected BackendUtils() {
         // Utility class with only static functions
     }
+
+    /**
+     * Returns the node id of a document in a link tree. The id only depends on the ids on the path from the root to
+     * the node, so the same tree gets the same node ids on every request.
+     */
+    public static String generateNodeId(String id, Collection<String> path) {
+        return id == null ? null : id + "_" + UUID.nameUUIDFromBytes(String.join("/", path).getBytes(StandardCharsets.UTF_8));
+    }
 }
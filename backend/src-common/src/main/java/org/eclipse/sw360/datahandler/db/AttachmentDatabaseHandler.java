@@ -13,8 +13,11 @@ package org.eclipse.sw360.datahandler.db;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import org.eclipse.sw360.common.utils.BackendUtils;
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
@@ -32,10 +35,16 @@ import java.net.MalformedURLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.eclipse.sw360.datahandler.common.Duration.durationOf;
 import static org.eclipse.sw360.datahandler.common.SW360Assert.assertNotNull;
 import static org.eclipse.sw360.datahandler.thrift.ThriftValidate.validateAttachment;
@@ -55,6 +64,18 @@ public class AttachmentDatabaseHandler {
 
 
     private static final Logger log = Logger.getLogger(AttachmentDatabaseHandler.class);
+    private static final int SHA1_BATCH_SIZE = 100;
+    // shared by all computations of sha1s, its threads end when they have been idle for a minute
+    private static final ExecutorService sha1Executor;
+
+    static {
+        int threads = Math.max(1, BackendUtils.ATTACHMENT_SHA1_THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("attachment-sha1-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        sha1Executor = executor;
+    }
 
     public AttachmentDatabaseHandler(Supplier<HttpClient> httpClient, String dbName, String attachmentDbName) throws MalformedURLException {
         db = new DatabaseConnector(httpClient, attachmentDbName);
@@ -106,6 +127,46 @@ public class AttachmentDatabaseHandler {
         return attachmentConnector.getSha1FromAttachmentContentId(attachmentContentId);
     }
 
+    public List<String> getAttachmentContentIdsWithoutSha1() {
+        return attachmentContentRepository.getIdsWithoutSha1().stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Computes and stores the sha1 of the given attachment contents which do not have one yet. The contents are read
+     * by the threads of a shared pool, a batch of contents at a time.
+     */
+    public RequestSummary computeSha1s(List<String> ids) {
+        RequestSummary requestSummary = new RequestSummary().setTotalElements(ids.size()).setTotalAffectedElements(0);
+        if (ids.isEmpty()) {
+            return requestSummary.setRequestStatus(RequestStatus.SUCCESS);
+        }
+
+        int computed = 0;
+        List<Future<String>> sha1s = ImmutableList.of();
+        try {
+            for (List<String> batch : Lists.partition(ids, SHA1_BATCH_SIZE)) {
+                sha1s = db.get(AttachmentContent.class, batch, true).stream()
+                        .map(attachmentContent -> sha1Executor.submit(() -> attachmentConnector.getOrComputeSha1(attachmentContent)))
+                        .collect(Collectors.toList());
+                for (Future<String> sha1 : sha1s) {
+                    if (!isNullOrEmpty(sha1.get())) {
+                        computed++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Computing the sha1 of attachments has been interrupted");
+        } catch (ExecutionException e) {
+            log.error("Could not compute the sha1 of attachments", e);
+        } finally {
+            sha1s.forEach(sha1 -> sha1.cancel(true));
+        }
+
+        return requestSummary.setTotalAffectedElements(computed)
+                .setRequestStatus(computed == ids.size() ? RequestStatus.SUCCESS : RequestStatus.FAILURE);
+    }
+
     public void deleteUsagesBy(Source usedBy) throws SW360Exception {
         List<AttachmentUsage> existingUsages = attachmentUsageRepository.getUsedAttachments(usedBy.getFieldValue().toString());
         if (!existingUsages.isEmpty()) {
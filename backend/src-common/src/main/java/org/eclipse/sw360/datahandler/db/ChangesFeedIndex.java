@@ -0,0 +1,260 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.common.utils.BackendUtils;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.MapperFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Base of the in-memory indexes of a database.
+ *
+ * There is one index of each kind per database and JVM, shared by all handlers (see
+ * {@link #shared(Class, DatabaseConnector, Function)}). The index is loaded once with paged reads of all documents and
+ * afterwards kept up to date by following the CouchDB changes feed from the last seen sequence. Reads catch up with
+ * the feed at most once per refresh interval, so changes made by other services show up after at most that long.
+ * Handlers either apply their own writes to the index directly or {@link #invalidate()} it, so that they see them on
+ * their next read. If the database has been recreated, the index is loaded again. A load holds the write lock from
+ * clearing the index until the last page is in, and reads before the first load wait for it, so readers never see
+ * an empty or partially loaded index.
+ *
+ * Subclasses keep their state in plain collections, {@link #put(String, JsonNode)}, {@link #remove(String)} and
+ * {@link #clear()} are only called while the write lock is held and readers go through {@link #read(Supplier)}.
+ */
+public abstract class ChangesFeedIndex {
+
+    private static final Logger log = Logger.getLogger(ChangesFeedIndex.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final Map<String, ChangesFeedIndex> SHARED = new ConcurrentHashMap<>();
+
+    private final ChangesFeedSource source;
+    private final String name;
+    private final long refreshIntervalMillis;
+    protected final ObjectMapper mapper;
+
+    private final Object refreshLock = new Object();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile String instance;
+    private volatile String sequence;
+    private volatile long lastRefreshMillis;
+    private volatile boolean invalidated = true;
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
+
+    ChangesFeedIndex(ChangesFeedSource source, String name, long refreshIntervalMillis) {
+        this.source = source;
+        this.name = name;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.mapper = new MapperFactory().createObjectMapper();
+    }
+
+    /**
+     * Returns the index of the given kind for the database of the connector, creating it with the refresh interval
+     * configured in {@link BackendUtils#INDEX_REFRESH_INTERVAL_MILLIS} on first use. The index is invalidated, so the
+     * next read of the new handler sees the current state of the database.
+     */
+    static <I extends ChangesFeedIndex> I shared(Class<I> type, DatabaseConnector db,
+                                                 Function<ChangesFeedSource, I> create) {
+        String key = type.getName() + "/" + db.getDbName();
+        I index = type.cast(SHARED.computeIfAbsent(key, k -> create.apply(ChangesFeedSource.forDatabase(db))));
+        index.invalidate();
+        return index;
+    }
+
+    static long getConfiguredRefreshIntervalMillis() {
+        return BackendUtils.INDEX_REFRESH_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Catches up with all changes of the database since the last refresh, loads the index on first use or if the
+     * database has been recreated
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            // cleared before reading, so that an invalidation while refreshing leads to another refresh
+            invalidated = false;
+            lastRefreshMillis = System.currentTimeMillis();
+            try {
+                catchUp();
+            } catch (RuntimeException e) {
+                if (sequence == null) {
+                    // nothing to serve, the next read tries again
+                    invalidated = true;
+                    throw e;
+                }
+                log.warn("Could not read the state of the database, serving " + name + " at sequence " + sequence, e);
+            }
+        }
+    }
+
+    /**
+     * Catches up with the changes feed if the index has been invalidated or the refresh interval has passed, waits
+     * for the load if the index has not been loaded yet
+     */
+    public void refreshIfDue() {
+        if (sequence == null || invalidated || System.currentTimeMillis() - lastRefreshMillis >= refreshIntervalMillis) {
+            refresh();
+        }
+    }
+
+    /**
+     * Makes the next read catch up with the changes feed, for writers which do not apply their changes to the index
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Registers a listener which is called with the id of every document changed after the initial load, or with
+     * null if the index has been loaded again and any document may have changed. It is called while the index is
+     * being updated, so it must not read from the index.
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    protected void notifyChanged(String id) {
+        for (Consumer<String> listener : changeListeners) {
+            listener.accept(id);
+        }
+    }
+
+    protected abstract void clear();
+
+    /**
+     * Adds or replaces the document with the given id, other document types have to be ignored
+     */
+    protected abstract void put(String id, JsonNode document);
+
+    protected abstract void remove(String id);
+
+    protected <T> T read(Supplier<T> reader) {
+        refreshIfDue();
+        return readWithoutRefresh(reader);
+    }
+
+    /**
+     * Reads the state of the last refresh, for callers which refresh once before a series of reads
+     */
+    protected <T> T readWithoutRefresh(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a change which is known to be in the database already, the changes feed will replay it later on
+     */
+    protected void write(Runnable writer) {
+        lock.writeLock().lock();
+        try {
+            writer.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected static <T> List<T> copies(Collection<T> documents, Function<T, T> copy) {
+        return documents.stream().map(copy).collect(Collectors.toList());
+    }
+
+    private void catchUp() {
+        ChangesFeedSource.Position position = source.getPosition();
+        if (sequence == null) {
+            load(position);
+        } else if (!position.getInstance().equals(instance)) {
+            log.info("The database of the " + name + " has been recreated");
+            load(position);
+            notifyChanged(null);
+        } else if (!position.getSequence().equals(sequence)) {
+            followChanges();
+        }
+    }
+
+    private void load(ChangesFeedSource.Position startPosition) {
+        // remember the sequence before reading, changes made while paging are replayed afterwards
+        String startSequence = startPosition.getSequence();
+        log.info("Loading " + name + " at sequence " + startSequence);
+
+        int count = 0;
+        lock.writeLock().lock();
+        try {
+            sequence = null;
+            clear();
+            String lastId = null;
+            List<JsonNode> page;
+            do {
+                page = source.getDocuments(lastId, PAGE_SIZE);
+                for (JsonNode document : page) {
+                    lastId = document.path("_id").asText();
+                    put(lastId, document);
+                }
+                count += page.size();
+            } while (page.size() == PAGE_SIZE);
+
+            instance = startPosition.getInstance();
+            sequence = startSequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded " + count + " documents into the " + name);
+        followChanges();
+    }
+
+    private void followChanges() {
+        List<ChangesFeedSource.Change> changes;
+        do {
+            try {
+                changes = source.getChanges(sequence, PAGE_SIZE);
+            } catch (RuntimeException e) {
+                log.warn("Could not follow the changes feed, serving " + name + " at sequence " + sequence, e);
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                for (ChangesFeedSource.Change change : changes) {
+                    if (change.isDeleted() || change.getDocument() == null) {
+                        remove(change.getId());
+                    } else {
+                        put(change.getId(), change.getDocument());
+                    }
+                    sequence = change.getSequence();
+                    notifyChanged(change.getId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (changes.size() == PAGE_SIZE);
+    }
+}
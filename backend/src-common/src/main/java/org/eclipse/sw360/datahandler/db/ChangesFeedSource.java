@@ -0,0 +1,134 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.ektorp.DbInfo;
+import org.ektorp.ViewQuery;
+import org.ektorp.ViewResult;
+import org.ektorp.changes.ChangesCommand;
+import org.ektorp.changes.DocumentChange;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Access to the documents and the changes feed of a database, used by the in-memory indexes of this package
+ */
+interface ChangesFeedSource {
+
+    Position getPosition();
+
+    /**
+     * @return up to limit documents ordered by id, starting after the given id (from the start if null)
+     */
+    List<JsonNode> getDocuments(String startAfterId, int limit);
+
+    List<Change> getChanges(String sinceSequence, int limit);
+
+    static ChangesFeedSource forDatabase(DatabaseConnector db) {
+        return new DatabaseSource(db);
+    }
+
+    /**
+     * The current update sequence of a database, together with the instance of the database it refers to, which
+     * changes when the database is deleted and created again
+     */
+    class Position {
+        private final String instance;
+        private final String sequence;
+
+        Position(String instance, String sequence) {
+            this.instance = instance;
+            this.sequence = sequence;
+        }
+
+        String getInstance() {
+            return instance;
+        }
+
+        String getSequence() {
+            return sequence;
+        }
+    }
+
+    class Change {
+        private final String id;
+        private final String sequence;
+        private final boolean deleted;
+        private final JsonNode document;
+
+        Change(String id, String sequence, boolean deleted, JsonNode document) {
+            this.id = id;
+            this.sequence = sequence;
+            this.deleted = deleted;
+            this.document = document;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getSequence() {
+            return sequence;
+        }
+
+        boolean isDeleted() {
+            return deleted;
+        }
+
+        JsonNode getDocument() {
+            return document;
+        }
+    }
+
+    class DatabaseSource implements ChangesFeedSource {
+        private final DatabaseConnector db;
+
+        private DatabaseSource(DatabaseConnector db) {
+            this.db = db;
+        }
+
+        @Override
+        public Position getPosition() {
+            DbInfo info = db.getDbInfo();
+            return new Position(String.valueOf(info.getInstanceStartTime()), info.getUpdateSeqAsString());
+        }
+
+        @Override
+        public List<JsonNode> getDocuments(String startAfterId, int limit) {
+            ViewQuery query = new ViewQuery().allDocs().includeDocs(true).limit(limit);
+            if (startAfterId != null) {
+                query.startKey(startAfterId).skip(1);
+            }
+            ViewResult result = db.queryView(query);
+            return result.getRows().stream()
+                    .map(ViewResult.Row::getDocAsNode)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<Change> getChanges(String sinceSequence, int limit) {
+            ChangesCommand command = new ChangesCommand.Builder()
+                    .since(sinceSequence)
+                    .includeDocs(true)
+                    .limit(limit)
+                    .build();
+            List<DocumentChange> changes = db.changes(command);
+            return changes.stream()
+                    .map(change -> new Change(change.getId(), change.getStringSequence(), change.isDeleted(), change.getDocAsNode()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import org.eclipse.sw360.datahandler.thrift.components.ReleaseClearingStateSummary;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.eclipse.sw360.datahandler.businessrules.ReleaseClearingStateSummaryComputer.computeReleaseClearingStateSummary;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyMap;
+
+/**
+ * Materialized release clearing state summaries of projects, once for the releases of the project itself and once
+ * including the releases of its subprojects.
+ *
+ * Summaries are computed on first use from the {@link ProjectGraph} and the {@link ComponentCatalogIndex} and kept
+ * until one of their inputs changes: a change of a release drops the summaries of the projects using it, a change of
+ * a project drops its own summaries, and both drop the subproject-inclusive summaries of all projects above. Projects
+ * whose links differ from the stored version, e.g. while being edited, are computed on the fly and not stored.
+ */
+public class ClearingStateSummaryStore {
+
+    private static final Map<List<ChangesFeedIndex>, ClearingStateSummaryStore> SHARED = new ConcurrentHashMap<>();
+
+    // queued by a listener if an index has been loaded again, all summaries have to be dropped
+    private static final String ALL = "";
+
+    private final ProjectGraph projectGraph;
+    private final ComponentCatalogIndex catalogIndex;
+
+    private final Queue<String> changedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Map<String, ReleaseClearingStateSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, ReleaseClearingStateSummary> summariesIncludingSubprojects = new ConcurrentHashMap<>();
+
+    ClearingStateSummaryStore(ProjectGraph projectGraph, ComponentCatalogIndex catalogIndex) {
+        this.projectGraph = projectGraph;
+        this.catalogIndex = catalogIndex;
+        projectGraph.addChangeListener(this::changed);
+        catalogIndex.addChangeListener(this::changed);
+    }
+
+    /**
+     * Returns the store shared by all handlers using the given indexes, which are shared per database themselves
+     */
+    public static ClearingStateSummaryStore forIndexes(ProjectGraph projectGraph, ComponentCatalogIndex catalogIndex) {
+        return SHARED.computeIfAbsent(Arrays.asList(projectGraph, catalogIndex),
+                key -> new ClearingStateSummaryStore(projectGraph, catalogIndex));
+    }
+
+    private void changed(String id) {
+        changedIds.add(id == null ? ALL : id);
+    }
+
+    /**
+     * Sets the summary of the releases of each project itself
+     */
+    public void fillSummaries(Collection<Project> projects) {
+        fill(projects, summaries, project -> nullToEmptyMap(project.getReleaseIdToUsage()).keySet());
+    }
+
+    /**
+     * Sets the summary of the releases of each project and its subprojects, see
+     * {@link ProjectGraph#getClearingRelevantReleaseIdsWithoutRefresh(Project)} for which of them count
+     */
+    public void fillSummariesIncludingSubprojects(Collection<Project> projects) {
+        fill(projects, summariesIncludingSubprojects, projectGraph::getClearingRelevantReleaseIdsWithoutRefresh);
+    }
+
+    private void fill(Collection<Project> projects, Map<String, ReleaseClearingStateSummary> materialized,
+                      Function<Project, Set<String>> releaseIdsOf) {
+        refresh();
+        for (Project project : projects) {
+            ReleaseClearingStateSummary summary;
+            if (projectGraph.hasSameLinksWithoutRefresh(project)) {
+                summary = getOrCompute(project, materialized, releaseIdsOf);
+            } else {
+                summary = compute(project, releaseIdsOf);
+            }
+            project.setReleaseClearingStateSummary(new ReleaseClearingStateSummary(summary));
+        }
+    }
+
+    private void refresh() {
+        projectGraph.refreshIfDue();
+        catalogIndex.refreshIfDue();
+
+        Set<String> invalidProjectIds = new HashSet<>();
+        boolean invalidAll = false;
+        String id;
+        while ((id = changedIds.poll()) != null) {
+            if (ALL.equals(id)) {
+                invalidAll = true;
+                continue;
+            }
+            // the id may be the one of a project, a release or any other document
+            invalidProjectIds.add(id);
+            invalidProjectIds.addAll(projectGraph.getProjectIdsByReleaseIdWithoutRefresh(id));
+        }
+        if (invalidAll) {
+            invalidations.incrementAndGet();
+            summaries.clear();
+            summariesIncludingSubprojects.clear();
+            return;
+        }
+        if (invalidProjectIds.isEmpty()) {
+            return;
+        }
+        Set<String> invalidAncestorIds = projectGraph.getAncestorIdsWithoutRefresh(invalidProjectIds);
+
+        // counted before removing so that a summary computed concurrently from older data is not kept, see getOrCompute
+        invalidations.incrementAndGet();
+        summaries.keySet().removeAll(invalidProjectIds);
+        summariesIncludingSubprojects.keySet().removeAll(invalidProjectIds);
+        summariesIncludingSubprojects.keySet().removeAll(invalidAncestorIds);
+    }
+
+    private ReleaseClearingStateSummary getOrCompute(Project project, Map<String, ReleaseClearingStateSummary> materialized,
+                                                     Function<Project, Set<String>> releaseIdsOf) {
+        ReleaseClearingStateSummary summary = materialized.get(project.getId());
+        if (summary != null) {
+            return summary;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        summary = compute(project, releaseIdsOf);
+        materialized.put(project.getId(), summary);
+        if (invalidations.get() != invalidationsBefore) {
+            // an invalidation ran while computing, it may have removed the entry before it was put
+            materialized.remove(project.getId(), summary);
+        }
+        return summary;
+    }
+
+    private ReleaseClearingStateSummary compute(Project project, Function<Project, Set<String>> releaseIdsOf) {
+        return computeReleaseClearingStateSummary(catalogIndex.getClearingStatesWithoutRefresh(releaseIdsOf.apply(project)));
+    }
+}
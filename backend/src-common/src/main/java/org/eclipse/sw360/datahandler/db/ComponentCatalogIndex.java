@@ -0,0 +1,189 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.thrift.components.ClearingState;
+import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.vendors.Vendor;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyMap;
+
+/**
+ * In-memory index of all releases, components and vendors of a database, kept up to date with the changes feed.
+ * Returned documents are copies and can be modified freely.
+ */
+public class ComponentCatalogIndex extends ChangesFeedIndex {
+
+    private static final Logger log = Logger.getLogger(ComponentCatalogIndex.class);
+
+    private static final String TYPE_RELEASE = "release";
+    private static final String TYPE_COMPONENT = "component";
+    private static final String TYPE_VENDOR = "vendor";
+
+    private final Map<String, Release> releasesById = new HashMap<>();
+    private final Map<String, Component> componentsById = new HashMap<>();
+    private final Map<String, Vendor> vendorsById = new HashMap<>();
+    private final SetMultimap<String, String> releaseIdsByComponentId = HashMultimap.create();
+    private final SetMultimap<String, String> releaseIdsByVendorId = HashMultimap.create();
+    private final Map<String, SetMultimap<String, String>> releaseIdsByExternalId = new HashMap<>();
+
+    ComponentCatalogIndex(ChangesFeedSource source, long refreshIntervalMillis) {
+        super(source, "component catalog index", refreshIntervalMillis);
+    }
+
+    /**
+     * Returns the component catalog index shared by all handlers of the database
+     */
+    public static ComponentCatalogIndex forDatabase(DatabaseConnector db) {
+        return shared(ComponentCatalogIndex.class, db, source -> new ComponentCatalogIndex(source, getConfiguredRefreshIntervalMillis()));
+    }
+
+    public List<Release> getAllReleases() {
+        return read(() -> copies(releasesById.values(), Release::new));
+    }
+
+    public Map<String, Release> getReleasesById() {
+        return read(() -> releasesById.values().stream().map(Release::new)
+                .collect(Collectors.toMap(Release::getId, Function.identity())));
+    }
+
+    public Optional<Release> getRelease(String id) {
+        return read(() -> Optional.ofNullable(releasesById.get(id)).map(Release::new));
+    }
+
+    public List<Release> getReleasesByComponentId(String componentId) {
+        return read(() -> releasesFor(releaseIdsByComponentId.get(componentId)));
+    }
+
+    public List<Release> getReleasesByVendorId(String vendorId) {
+        return read(() -> releasesFor(releaseIdsByVendorId.get(vendorId)));
+    }
+
+    public List<Release> getReleasesByExternalId(String externalIdKey, String externalIdValue) {
+        return read(() -> {
+            SetMultimap<String, String> byValue = releaseIdsByExternalId.get(externalIdKey);
+            return byValue == null ? new ArrayList<>() : releasesFor(byValue.get(externalIdValue));
+        });
+    }
+
+    /**
+     * Returns the clearing states of the given releases as of the last refresh, unknown releases are skipped
+     */
+    List<ClearingState> getClearingStatesWithoutRefresh(Collection<String> releaseIds) {
+        return readWithoutRefresh(() -> releaseIds.stream()
+                .map(releasesById::get)
+                .filter(Objects::nonNull)
+                .map(Release::getClearingState)
+                .collect(Collectors.toList()));
+    }
+
+    public List<Component> getAllComponents() {
+        return read(() -> copies(componentsById.values(), Component::new));
+    }
+
+    public List<Vendor> getAllVendors() {
+        return read(() -> copies(vendorsById.values(), Vendor::new));
+    }
+
+    public Optional<Vendor> getVendor(String id) {
+        return read(() -> Optional.ofNullable(vendorsById.get(id)).map(Vendor::new));
+    }
+
+    private List<Release> releasesFor(Set<String> ids) {
+        return ids.stream()
+                .map(releasesById::get)
+                .filter(Objects::nonNull)
+                .map(Release::new)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected void clear() {
+        releasesById.clear();
+        componentsById.clear();
+        vendorsById.clear();
+        releaseIdsByComponentId.clear();
+        releaseIdsByVendorId.clear();
+        releaseIdsByExternalId.clear();
+    }
+
+    @Override
+    protected void put(String id, JsonNode document) {
+        String type = document.path("type").asText();
+        try {
+            switch (type) {
+                case TYPE_RELEASE:
+                    remove(id);
+                    addRelease(mapper.treeToValue(document, Release.class));
+                    break;
+                case TYPE_COMPONENT:
+                    componentsById.put(id, mapper.treeToValue(document, Component.class));
+                    break;
+                case TYPE_VENDOR:
+                    vendorsById.put(id, mapper.treeToValue(document, Vendor.class));
+                    break;
+                default:
+                    // other document types are not indexed
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Document " + id + " of type " + type + " could not be read into the component catalog index", e);
+            remove(id);
+        }
+    }
+
+    private void addRelease(Release release) {
+        String id = release.getId();
+        releasesById.put(id, release);
+        if (!isNullOrEmpty(release.getComponentId())) {
+            releaseIdsByComponentId.put(release.getComponentId(), id);
+        }
+        if (!isNullOrEmpty(release.getVendorId())) {
+            releaseIdsByVendorId.put(release.getVendorId(), id);
+        }
+        for (Map.Entry<String, String> externalId : nullToEmptyMap(release.getExternalIds()).entrySet()) {
+            releaseIdsByExternalId.computeIfAbsent(externalId.getKey(), key -> HashMultimap.create())
+                    .put(externalId.getValue(), id);
+        }
+    }
+
+    @Override
+    protected void remove(String id) {
+        componentsById.remove(id);
+        vendorsById.remove(id);
+        Release release = releasesById.remove(id);
+        if (release != null) {
+            if (release.isSetComponentId()) {
+                releaseIdsByComponentId.remove(release.getComponentId(), id);
+            }
+            if (release.isSetVendorId()) {
+                releaseIdsByVendorId.remove(release.getVendorId(), id);
+            }
+            for (Map.Entry<String, String> externalId : nullToEmptyMap(release.getExternalIds()).entrySet()) {
+                SetMultimap<String, String> byValue = releaseIdsByExternalId.get(externalId.getKey());
+                if (byValue != null) {
+                    byValue.remove(externalId.getValue(), id);
+                }
+            }
+        }
+    }
+}
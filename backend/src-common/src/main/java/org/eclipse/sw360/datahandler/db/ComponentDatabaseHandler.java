@@ -20,6 +20,7 @@ import org.eclipse.sw360.datahandler.common.SW360Constants;
 import org.eclipse.sw360.datahandler.common.SW360Utils;
 import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.ThriftConflictResolutionStrategy;
 import org.eclipse.sw360.datahandler.entitlement.ComponentModerator;
 import org.eclipse.sw360.datahandler.entitlement.ReleaseModerator;
 import org.eclipse.sw360.datahandler.permissions.DocumentPermissions;
@@ -93,6 +94,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     private final VendorRepository vendorRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ComponentCatalogIndex catalogIndex;
 
     private final AttachmentConnector attachmentConnector;
     /**
@@ -107,6 +109,10 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     public ComponentDatabaseHandler(Supplier<HttpClient> httpClient, String dbName, String attachmentDbName, ComponentModerator moderator, ReleaseModerator releaseModerator) throws MalformedURLException {
         super(httpClient, dbName, attachmentDbName);
         DatabaseConnector db = new DatabaseConnector(httpClient, dbName);
+        db.setConflictResolutionStrategy(Component.class,
+                new ThriftConflictResolutionStrategy<Component, Component._Fields>(Component._Fields.values()));
+        db.setConflictResolutionStrategy(Release.class,
+                new ThriftConflictResolutionStrategy<Release, Release._Fields>(Release._Fields.values()));
 
         // Create the repositories
         vendorRepository = new VendorRepository(db);
@@ -114,6 +120,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         componentRepository = new ComponentRepository(db, releaseRepository, vendorRepository);
         projectRepository = new ProjectRepository(db);
         userRepository = new UserRepository(db);
+        catalogIndex = ComponentCatalogIndex.forDatabase(db);
 
         // Create the moderator
         this.moderator = moderator;
@@ -157,6 +164,10 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         return componentRepository.getComponentSummary(user);
     }
 
+    public ComponentPage getComponentSummaryPage(PaginationData pagination, User user) {
+        return componentRepository.getComponentSummaryPage(pagination, user);
+    }
+
     public List<Component> getComponentSummaryForExport() {
         return componentRepository.getSummaryForExport();
     }
@@ -166,7 +177,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     public List<Release> getReleaseSummary() throws TException {
-        List<Release> releases = releaseRepository.getReleaseSummary();
+        List<Release> releases = releaseRepository.makeSummaryFromFullDocs(SummaryType.SUMMARY, catalogIndex.getAllReleases());
         releases.forEach(ThriftValidate::ensureEccInformationIsSet);
 
 
@@ -300,6 +311,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         // Add the component to the database and return ID
         componentRepository.add(component);
+        catalogIndex.invalidate();
         sendMailNotificationsForNewComponent(component, user);
         return new AddDocumentRequestSummary()
                 .setRequestStatus(AddDocumentRequestStatus.SUCCESS)
@@ -333,6 +345,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         setMainlineState(release, user, null);
         // Add release to database
         releaseRepository.add(release);
+        catalogIndex.invalidate();
         final String id = release.getId();
 
         // Update the underlying component
@@ -353,6 +366,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         updateReleaseDependentFieldsForComponent(component, release);
         componentRepository.update(component);
+        catalogIndex.invalidate();
 
         sendMailNotificationsForNewRelease(release, user.getEmail());
         return new AddDocumentRequestSummary()
@@ -458,6 +472,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         for (Release release : releaseRepository.getReleasesFromComponentId(component.getId())) {
             release.setName(name);
             releaseRepository.update(release);
+            catalogIndex.invalidate();
         }
     }
 
@@ -481,6 +496,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     private void updateComponentInternal(Component updated, Component current, User user) {
         // Update the database with the component
         componentRepository.update(updated);
+        catalogIndex.invalidate();
 
         //clean up attachments in database
         attachmentConnector.deleteAttachmentDifference(current.getAttachments(), updated.getAttachments());
@@ -730,6 +746,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
                 // check for MainlineState change
                 setMainlineState(release, user, actual);
                 releaseRepository.update(release);
+                catalogIndex.invalidate();
                 updateReleaseDependentFieldsForComponentId(release.getComponentId());
                 // clean up attachments in database
                 attachmentConnector.deleteAttachmentDifference(nullToEmptySet(actual.getAttachments()),
@@ -853,6 +870,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         if (PermissionUtils.isAdmin(user)) {
             // Prepare component for database
             final List<DocumentOperationResult> documentOperationResults = componentRepository.executeBulk(storedReleases);
+            catalogIndex.invalidate();
 
             if (documentOperationResults.isEmpty()) {
 
@@ -903,6 +921,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         Component component = componentRepository.get(componentId);
         recomputeReleaseDependentFields(component, null);
         componentRepository.update(component);
+        catalogIndex.invalidate();
 
         return component;
     }
@@ -1123,6 +1142,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
             autosetReleaseClearingState(release, actual);
         }
         releaseRepository.update(release);
+        catalogIndex.invalidate();
 
         //clean up attachments in database
         if(cleanup) {
@@ -1240,6 +1260,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
             attachmentConnector.deleteAttachments(component.getAttachments());
             attachmentDatabaseHandler.deleteUsagesBy(Source.componentId(id));
             componentRepository.remove(component);
+            catalogIndex.invalidate();
             moderator.notifyModeratorOnDelete(id);
             return RequestStatus.SUCCESS;
         } else {
@@ -1289,6 +1310,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         moderator.notifyModeratorOnDelete(release.getId());
         releaseRepository.remove(release);
+        catalogIndex.invalidate();
 
         return component;
     }
@@ -1316,6 +1338,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         recomputeReleaseDependentFields(component, releaseId);
         component.getReleaseIds().remove(releaseId);
         componentRepository.update(component);
+        catalogIndex.invalidate();
     }
 
     /////////////////////
@@ -1336,12 +1359,15 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     public List<Release> getAllReleases() {
-        return releaseRepository.getAll();
+        return catalogIndex.getAllReleases();
+    }
+
+    ComponentCatalogIndex getCatalogIndex() {
+        return catalogIndex;
     }
 
     public Map<String, Release> getAllReleasesIdMap() {
-        final List<Release> releases = getAllReleases();
-        return ThriftUtils.getIdMap(releases);
+        return catalogIndex.getReleasesById();
     }
 
     @NotNull
@@ -1365,7 +1391,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
             if (release != null) {
                 releaseLink = createReleaseLink(release);
                 fillValueFieldInReleaseLink(releaseLink, relation);
-                releaseLink.setNodeId(generateNodeId(id));
+                releaseLink.setNodeId(BackendUtils.generateNodeId(id, visitedIds));
                 releaseLink.setParentNodeId(parentNodeId);
                 if (release.isSetMainLicenseIds()) {
                     releaseLink.setLicenseIds(release.getMainLicenseIds());
@@ -1409,10 +1435,6 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         return releaseLink;
     }
 
-    private String generateNodeId(String id) {
-        return id == null ? null : id + "_" + UUID.randomUUID();
-    }
-
     public List<Release> searchReleaseByNamePrefix(String name) {
         return releaseRepository.searchByNamePrefix(name);
     }
@@ -1421,6 +1443,20 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         return releaseRepository.makeSummary(SummaryType.SHORT, ids);
     }
 
+    /**
+     * Same as {@link #getReleases(Set)}, but ids of releases which do not exist (any more) are skipped.
+     */
+    public List<Release> getExistingReleases(Set<String> ids) {
+        return releaseRepository.makeSummaryFromFullDocs(SummaryType.SHORT, releaseRepository.getExisting(ids));
+    }
+
+    /**
+     * Same as {@link #getComponentsShort(Set)}, but ids of components which do not exist (any more) are skipped.
+     */
+    public List<Component> getExistingComponentsShort(Set<String> ids) {
+        return componentRepository.makeSummaryFromFullDocs(SummaryType.SHORT, componentRepository.getExisting(ids));
+    }
+
     public Set<Component> searchComponentsByExternalIds(Map<String, Set<String>> externalIds) {
         return componentRepository.searchByExternalIds(externalIds);
     }
@@ -1431,7 +1467,6 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
     /**
      * Returns full documents straight from repository. Don't want this to get abused, that's why it's package-private.
-     * Used for bulk-computing ReleaseClearingStateSummaries by ProjectDatabaseHandler.
      * The reason for this hack is that making summaries (like in getReleases()) takes way too long for a lot of
      * releases.
      */
@@ -1457,6 +1492,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         component.addToSubscribers(user.getEmail());
         componentRepository.update(component);
+        catalogIndex.invalidate();
         return RequestStatus.SUCCESS;
     }
 
@@ -1466,6 +1502,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         release.addToSubscribers(user.getEmail());
         releaseRepository.update(release);
+        catalogIndex.invalidate();
         return RequestStatus.SUCCESS;
     }
 
@@ -1482,6 +1519,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
         }
 
         componentRepository.update(component);
+        catalogIndex.invalidate();
         return RequestStatus.SUCCESS;
     }
 
@@ -1496,6 +1534,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
             release.setSubscribers(subscribers);
         }
         releaseRepository.update(release);
+        catalogIndex.invalidate();
         return RequestStatus.SUCCESS;
     }
 
@@ -1604,7 +1643,7 @@ public class ComponentDatabaseHandler extends AttachmentAwareDatabaseHandler {
     public Map<String, List<String>> getDuplicateComponents() {
         ListMultimap<String, String> componentIdentifierToComponentId = ArrayListMultimap.create();
 
-        for (Component component : componentRepository.getAll()) {
+        for (Component component : catalogIndex.getAllComponents()) {
             componentIdentifierToComponentId.put(SW360Utils.printName(component), component.getId());
         }
         return CommonUtils.getIdentifierToListOfDuplicates(componentIdentifierToComponentId);
@@ -10,12 +10,17 @@
  */
 package org.eclipse.sw360.datahandler.db;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import org.eclipse.sw360.components.summary.ComponentSummary;
 import org.eclipse.sw360.components.summary.SummaryType;
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.MapperFactory;
 import org.eclipse.sw360.datahandler.couchdb.SummaryAwareRepository;
+import org.eclipse.sw360.datahandler.thrift.PaginationData;
 import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.ComponentPage;
 import org.eclipse.sw360.datahandler.thrift.users.User;
 
 import org.ektorp.ViewQuery;
@@ -23,6 +28,9 @@ import org.ektorp.support.View;
 import org.ektorp.support.Views;
 
 import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Strings.nullToEmpty;
 
 /**
  * CRUD access for the Component class
@@ -31,6 +39,10 @@ import java.util.*;
  * @author Johannes.Najjar@tngtech.com
  */
 @Views({
+        @View(name = ComponentRepository.SORTED_BY_NAME_VIEW, map = ComponentRepository.SORTED_BY_NAME),
+        @View(name = ComponentRepository.SORTED_BY_CREATED_ON_VIEW, map = ComponentRepository.SORTED_BY_CREATED_ON),
+        @View(name = ComponentRepository.SORTED_BY_CREATED_BY_VIEW, map = ComponentRepository.SORTED_BY_CREATED_BY),
+        @View(name = ComponentRepository.SORTED_BY_COMPONENT_TYPE_VIEW, map = ComponentRepository.SORTED_BY_COMPONENT_TYPE),
         @View(name = "all",
                 map = "function(doc) { if (doc.type == 'component') emit(null, doc) }"),
         @View(name = "byCreatedOn",
@@ -113,10 +125,41 @@ import java.util.*;
 })
 public class ComponentRepository extends SummaryAwareRepository<Component> {
 
+    // sort views for paging, the keys mirror the comparators of the REST ResourceComparatorGenerator:
+    // case insensitive, missing values first, ties ordered by name
+    private static final String SORT_KEY_NAME = "doc.name ? doc.name.toLowerCase() : null";
+    static final String SORTED_BY_NAME_VIEW = "sortedByName";
+    static final String SORTED_BY_NAME =
+            "function(doc) { if (doc.type == 'component') { emit([" + SORT_KEY_NAME + "], null); } }";
+    static final String SORTED_BY_CREATED_ON_VIEW = "sortedByCreatedOn";
+    static final String SORTED_BY_CREATED_ON =
+            "function(doc) { if (doc.type == 'component') { " +
+                    "emit([doc.createdOn ? doc.createdOn.toLowerCase() : null, " + SORT_KEY_NAME + "], null); } }";
+    static final String SORTED_BY_CREATED_BY_VIEW = "sortedByCreatedBy";
+    static final String SORTED_BY_CREATED_BY =
+            "function(doc) { if (doc.type == 'component') { " +
+                    "emit([doc.createdBy ? doc.createdBy.toLowerCase() : null, " + SORT_KEY_NAME + "], null); } }";
+    static final String SORTED_BY_COMPONENT_TYPE_VIEW = "sortedByComponentType";
+    static final String SORTED_BY_COMPONENT_TYPE =
+            "function(doc) { if (doc.type == 'component') { " +
+                    "emit([doc.componentType ? doc.componentType.toLowerCase() : null, " + SORT_KEY_NAME + "], null); } }";
+
+    private static final Map<String, String> SORT_VIEWS_BY_FIELD = ImmutableMap.of(
+            Component._Fields.NAME.getFieldName(), SORTED_BY_NAME_VIEW,
+            Component._Fields.CREATED_ON.getFieldName(), SORTED_BY_CREATED_ON_VIEW,
+            Component._Fields.CREATED_BY.getFieldName(), SORTED_BY_CREATED_BY_VIEW,
+            Component._Fields.COMPONENT_TYPE.getFieldName(), SORTED_BY_COMPONENT_TYPE_VIEW);
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final SortedViewPager pager;
+    private final ObjectMapper mapper = new MapperFactory().createObjectMapper();
+
     public ComponentRepository(DatabaseConnector db, ReleaseRepository releaseRepository, VendorRepository vendorRepository) {
         super(Component.class, db, new ComponentSummary(releaseRepository, vendorRepository));
 
         initStandardDesignDocument();
+        pager = new SortedViewPager(this::createQuery, db::queryView);
     }
 
     public List<Component> getRecentComponentsSummary(int limit, User user) {
@@ -157,6 +200,19 @@ public class ComponentRepository extends SummaryAwareRepository<Component> {
         return makeSummaryWithPermissionsFromFullDocs(SummaryType.SUMMARY, componentList, user);
     }
 
+    public ComponentPage getComponentSummaryPage(PaginationData pagination, User user) {
+        String viewName = SORT_VIEWS_BY_FIELD.getOrDefault(nullToEmpty(pagination.getSortField()), SORTED_BY_NAME_VIEW);
+        int pageSize = pagination.getPageSize() > 0 ? pagination.getPageSize() : DEFAULT_PAGE_SIZE;
+        int offset = Math.max(pagination.getPageNumber(), 0) * pageSize;
+
+        SortedViewPager.Page page = pager.getPage(viewName, !pagination.isSetAscending() || pagination.isAscending(), offset, pageSize);
+        List<Component> components = page.getRows().stream()
+                .map(row -> mapper.convertValue(row.getDocAsNode(), Component.class))
+                .collect(Collectors.toList());
+
+        return new ComponentPage(makeSummaryWithPermissionsFromFullDocs(SummaryType.SUMMARY, components, user), page.getTotalRows());
+    }
+
     public Set<String> getComponentIdsByName(String name) {
         return queryForIdsAsValue("byname", name);
     }
@@ -17,10 +17,10 @@ import com.google.common.collect.*;
 
 import org.eclipse.sw360.common.utils.BackendUtils;
 import org.eclipse.sw360.components.summary.SummaryType;
-import org.eclipse.sw360.datahandler.businessrules.ReleaseClearingStateSummaryComputer;
 import org.eclipse.sw360.datahandler.common.*;
 import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.ThriftConflictResolutionStrategy;
 import org.eclipse.sw360.datahandler.entitlement.ProjectModerator;
 import org.eclipse.sw360.datahandler.permissions.PermissionUtils;
 import org.eclipse.sw360.datahandler.thrift.*;
@@ -38,10 +38,8 @@ import org.apache.thrift.TException;
 import org.ektorp.http.HttpClient;
 
 import java.net.MalformedURLException;
-import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -70,28 +68,13 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
     private static final String SEPARATOR = " -> ";
 
     private final ProjectRepository repository;
+    private final ProjectGraph projectGraph;
     private final ProjectVulnerabilityRatingRepository pvrRepository;
     private final ProjectModerator moderator;
     private final AttachmentConnector attachmentConnector;
     private final ComponentDatabaseHandler componentDatabaseHandler;
     private final MailUtil mailUtil = new MailUtil();
-
-    // this caching structure is only used for filling clearing state summaries and
-    // should be avoided anywhere else so that no other outdated information will be
-    // provided
-    // for the clearing state it is
-    // 1. necessary because they take a long time to get calculated which might be a
-    // good reason for service clients to query not for all projects at once, but to
-    // divide the queries in subsets of project (and we do not want to load the
-    // whole project map for each of this subset queries)
-    // 2. okay because the data normally "only moves forward", meaning that already
-    // approved clearing reports will not be revoked. So worst case of caching is
-    // that outdated data is provided, not wrong one (as it would be okay to see a
-    // cleared project that is displayed as not yet cleared - but it won't be okay
-    // to see a uncleared project that is displayed as cleared but isn't anymore)
-    private static final java.time.Duration ALL_PROJECTS_ID_MAP_CACHE_LIFETIME = java.time.Duration.ofMinutes(2);
-    private Map<String, Project> cachedAllProjectsIdMap;
-    private Instant cachedAllProjectsIdMapLoadingInstant;
+    private final ClearingStateSummaryStore clearingStateSummaryStore;
 
     public ProjectDatabaseHandler(Supplier<HttpClient> httpClient, String dbName, String attachmentDbName) throws MalformedURLException {
         this(httpClient, dbName, attachmentDbName, new ProjectModerator(),
@@ -105,9 +88,12 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
                                   AttachmentDatabaseHandler attachmentDatabaseHandler) throws MalformedURLException {
         super(attachmentDatabaseHandler);
         DatabaseConnector db = new DatabaseConnector(httpClient, dbName);
+        db.setConflictResolutionStrategy(Project.class,
+                new ThriftConflictResolutionStrategy<Project, Project._Fields>(Project._Fields.values()));
 
         // Create the repositories
         repository = new ProjectRepository(db);
+        projectGraph = ProjectGraph.forDatabase(db);
         pvrRepository = new ProjectVulnerabilityRatingRepository(db);
 
         // Create the moderator
@@ -117,6 +103,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
         attachmentConnector = new AttachmentConnector(httpClient, attachmentDbName, Duration.durationOf(30, TimeUnit.SECONDS));
 
         this.componentDatabaseHandler = componentDatabaseHandler;
+        clearingStateSummaryStore = ClearingStateSummaryStore.forIndexes(projectGraph, componentDatabaseHandler.getCatalogIndex());
     }
 
     /////////////////////
@@ -145,6 +132,18 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
     public Project getProjectById(String id, User user) throws SW360Exception {
         Project project = repository.get(id);
+        return assertReadable(project, user);
+    }
+
+    /**
+     * Same as {@link #getProjectById(String, User)} but served from the project graph, for tree traversals
+     */
+    private Project getLinkedProjectById(String id, User user) throws SW360Exception {
+        Project project = projectGraph.getProject(id).orElse(null);
+        return assertReadable(project, user);
+    }
+
+    private Project assertReadable(Project project, User user) throws SW360Exception {
         assertNotNull(project);
 
         if(!makePermission(project, user).isActionAllowed(RequestedAction.READ)) {
@@ -177,6 +176,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         // Add project to database and return ID
         repository.add(project);
+        projectGraph.put(project);
         sendMailNotificationsForNewProject(project, user.getEmail());
         return new AddDocumentRequestSummary().setId(project.getId()).setRequestStatus(AddDocumentRequestStatus.SUCCESS);
     }
@@ -211,6 +211,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
             setReleaseRelations(project, user, actual);
             updateProjectDependentLinkedFields(project, actual);
             repository.update(project);
+            projectGraph.put(project);
 
             //clean up attachments in database
             attachmentConnector.deleteAttachmentDifference(actual.getAttachments(), project.getAttachments());
@@ -226,6 +227,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
         Project project = repository.get(id);
         project.setLinkedObligations(obligationStatusMap);
         repository.update(project);
+        projectGraph.put(project);
         log.info("Successfully updated linked obligations of project: " + id);
     }
 
@@ -374,14 +376,14 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     public boolean checkIfInUse(String projectId) {
-        final Set<Project> usingProjects = repository.searchByLinkingProjectId(projectId);
-       return !usingProjects.isEmpty();
+        return !projectGraph.getLinkingProjectIds(projectId).isEmpty();
     }
 
     private void removeProjectAndCleanUp(Project project) throws SW360Exception {
         attachmentConnector.deleteAttachments(project.getAttachments());
         attachmentDatabaseHandler.deleteUsagesBy(Source.projectId(project.getId()));
         repository.remove(project);
+        projectGraph.delete(project.getId());
         moderator.notifyModeratorOnDelete(project.getId());
     }
 
@@ -393,7 +395,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
         final Map<String, Project> dbProjectMap;
         if (deep){
-            dbProjectMap = ThriftUtils.getIdMap(repository.getAll());
+            dbProjectMap = projectGraph.getProjectTree(getProjectIdsToLoad(project));
         } else {
             dbProjectMap = preloadLinkedProjects(project, user);
         }
@@ -411,11 +413,15 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     private Map<String, Project> preloadLinkedProjects(Project project, User user) {
+        return ThriftUtils.getIdMap(getProjectsById(getProjectIdsToLoad(project), user));
+    }
+
+    private List<String> getProjectIdsToLoad(Project project) {
         List<String> projectIdsToLoad = new ArrayList<>(nullToEmptyMap(project.getLinkedProjects()).keySet());
         if (project.isSetId()) {
             projectIdsToLoad.add(project.getId());
         }
-        return ThriftUtils.getIdMap(getProjectsById(projectIdsToLoad, user));
+        return projectIdsToLoad;
     }
 
     private Map<String, Release> preloadLinkedReleases(Map<String, Project> projectMap) {
@@ -433,7 +439,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
     public List<ProjectLink> getLinkedProjects(Map<String, ProjectRelationship> relations) {
         List<ProjectLink> out;
-        final Map<String, Project> projectMap = ThriftUtils.getIdMap(repository.getAll());
+        final Map<String, Project> projectMap = projectGraph.getProjectTree(relations.keySet());
         final Map<String, Release> releaseMap = preloadLinkedReleases(projectMap);
 
         Deque<String> visitedIds = new ArrayDeque<>();
@@ -467,7 +473,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
                 }
 
                 projectLink
-                        .setNodeId(generateNodeId(id))
+                        .setNodeId(BackendUtils.generateNodeId(id, visitedIds))
                         .setParentNodeId(parentNodeId)
                         .setRelation(relationship)
                         .setVersion(project.getVersion())
@@ -494,10 +500,6 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
         }
     }
 
-    private String generateNodeId(String id) {
-        return id == null ? null : id + "_" + UUID.randomUUID();
-    }
-
     public Set<Project> searchByReleaseId(String id, User user) {
         return repository.searchByReleaseId(id, user);
     }
@@ -598,19 +600,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     public List<Project> fillClearingStateSummary(List<Project> projects, User user) {
-        Function<Project, Set<String>> extractReleaseIds = project -> CommonUtils.nullToEmptyMap(project.getReleaseIdToUsage()).keySet();
-
-        Set<String> allReleaseIds = projects.stream().map(extractReleaseIds).reduce(Sets.newHashSet(), Sets::union);
-        if (!allReleaseIds.isEmpty()) {
-            Map<String, Release> releasesById = ThriftUtils.getIdMap(componentDatabaseHandler.getReleasesForClearingStateSummary(allReleaseIds));
-            for (Project project : projects) {
-                final Set<String> releaseIds = extractReleaseIds.apply(project);
-                List<Release> releases = releaseIds.stream().map(releasesById::get).collect(Collectors.toList());
-                final ReleaseClearingStateSummary releaseClearingStateSummary = ReleaseClearingStateSummaryComputer.computeReleaseClearingStateSummary(releases, project
-                        .getClearingTeam());
-                project.setReleaseClearingStateSummary(releaseClearingStateSummary);
-            }
-        }
+        clearingStateSummaryStore.fillSummaries(projects);
         return projects;
     }
 
@@ -658,7 +648,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
         String firstProjFullName = SW360Utils.printName(project);
         linkedProjectPath.put(project.getId(), firstProjFullName);
         Object[] cyclicLinkedProjectPresenceAndLastProjectInCycle = getCyclicProjectPresenceAndLastProjectInCycle(
-                project, user, linkedProjectPath);
+                project, user, linkedProjectPath, new HashSet<>());
         String cyclicHierarchy = "";
         boolean isCyclicLinkedProjectPresent = (Boolean) cyclicLinkedProjectPresenceAndLastProjectInCycle[0];
         if (isCyclicLinkedProjectPresent) {
@@ -685,7 +675,7 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
                 for (String projectId : linkedProjects.keySet()) {
                     if (visitedProjectIds.contains(projectId)) continue;
 
-                    Project linkedProject = getProjectById(projectId, user);
+                    Project linkedProject = getLinkedProjectById(projectId, user);
                     releaseIdToProjects(linkedProject, user, visitedProjectIds, releaseIdToProjects);
                 }
         }
@@ -707,92 +697,11 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
     }
 
     public List<Project> fillClearingStateSummaryIncludingSubprojects(List<Project> projects, User user) {
-        final Map<String, Project> allProjectsIdMap = getRefreshedAllProjectsIdMap();
-
-        projects.stream().forEach(project -> {
-            // build project tree, get all linked release ids and fetch the releases
-            // current decision is to not check any permissions for subproject visibility
-            Set<String> releaseIdsOfProjectTree = getReleaseIdsOfProjectTree(project, Sets.newHashSet(),
-                    allProjectsIdMap, user, null);
-            List<Release> releasesForClearingStateSummary = componentDatabaseHandler
-                    .getReleasesForClearingStateSummary(releaseIdsOfProjectTree);
-            // compute the summaries
-            final ReleaseClearingStateSummary releaseClearingStateSummary = ReleaseClearingStateSummaryComputer
-                    .computeReleaseClearingStateSummary(releasesForClearingStateSummary, project.getClearingTeam());
-
-            project.setReleaseClearingStateSummary(releaseClearingStateSummary);
-        });
-
+        // current decision is to not check any permissions for subproject visibility
+        clearingStateSummaryStore.fillSummariesIncludingSubprojects(projects);
         return projects;
     }
 
-    /**
-     * Synchronization is not really necessary, we could also remove it. Worst case
-     * would then be that the projects map would be loaded twice if one thread just
-     * loaded it but has not yet updated the loadingInstant field while another
-     * thread queries already (if we change the order and set the instant first and
-     * then load the new map, worst case would be that the other thread would get an
-     * older map as the new one is not yet set).
-     */
-    private synchronized Map<String, Project> getRefreshedAllProjectsIdMap() {
-        if (cachedAllProjectsIdMap != null && Instant.now()
-                .isBefore(cachedAllProjectsIdMapLoadingInstant.plus(ALL_PROJECTS_ID_MAP_CACHE_LIFETIME))) {
-            return cachedAllProjectsIdMap;
-        }
-
-        cachedAllProjectsIdMap = ThriftUtils.getIdMap(repository.getAll());
-        cachedAllProjectsIdMapLoadingInstant = Instant.now();
-
-        return cachedAllProjectsIdMap;
-    }
-
-    private Set<String> getReleaseIdsOfProjectTree(Project project, Set<String> visitedProjectIds,
-            Map<String, Project> allProjectsIdMap, User user, List<RequestedAction> permissionsFilter) {
-        // no need to visit a project twice
-        if (visitedProjectIds.contains(project.getId())) {
-            return Collections.emptySet();
-        }
-
-        // we are now checking this project so no need for further examination in
-        // recursion
-        visitedProjectIds.add(project.getId());
-
-        // container to aggregate results
-        Set<String> releaseIds = Sets.newHashSet();
-
-        // traverse linked projects with relation type other than "REFERRED" and
-        // "DUPLICATE" and add the result to this result
-        if (project.isSetLinkedProjects()) {
-            project.getLinkedProjects().entrySet().stream().forEach(e -> {
-                if (!ProjectRelationship.REFERRED.equals(e.getValue())
-                        && !ProjectRelationship.DUPLICATE.equals(e.getValue())) {
-                    Project childProject = allProjectsIdMap.get(e.getKey());
-                    if (childProject != null) {
-                        // since we fetched all project up front we did not yet check any permission -
-                        // so do it now
-                        if (permissionsFilter == null || permissionsFilter.isEmpty()
-                                || makePermission(childProject, user).areActionsAllowed(permissionsFilter)) {
-                            // recursion inside :-)
-                            releaseIds.addAll(getReleaseIdsOfProjectTree(childProject, visitedProjectIds,
-                                    allProjectsIdMap, user, permissionsFilter));
-                        }
-                    }
-                }
-            });
-        }
-
-        // add own releases to result if they are not just "REFERRED"
-        if (project.isSetReleaseIdToUsage()) {
-            project.getReleaseIdToUsage().entrySet().stream().forEach(e -> {
-                if (!ReleaseRelationship.REFERRED.equals(e.getValue().getReleaseRelation())) {
-                    releaseIds.add(e.getKey());
-                }
-            });
-        }
-
-        return releaseIds;
-    }
-
     private void sendMailNotificationsForNewProject(Project project, String user) {
         mailUtil.sendMail(project.getProjectResponsible(),
                 MailConstants.SUBJECT_FOR_NEW_PROJECT,
@@ -869,15 +778,19 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
                 project.getName(), project.getVersion());
     }
 
+    // projects in acyclicProjectIds have been fully explored without finding a cycle and are not visited again
     private Object[] getCyclicProjectPresenceAndLastProjectInCycle(Project project, User user,
-            Map<String, String> linkedProjectPath) throws TException {
+            Map<String, String> linkedProjectPath, Set<String> acyclicProjectIds) throws TException {
         Map<String, ProjectRelationship> linkedProjects = project.getLinkedProjects();
         if (linkedProjects != null) {
             Iterator<String> linkedProjectIterator = linkedProjects.keySet().iterator();
 
             while (linkedProjectIterator.hasNext()) {
                 String linkedProjectId = linkedProjectIterator.next();
-                Project linkedProject = getProjectById(linkedProjectId, user);
+                if (acyclicProjectIds.contains(linkedProjectId)) {
+                    continue;
+                }
+                Project linkedProject = getLinkedProjectById(linkedProjectId, user);
                 String projFullName = SW360Utils.printName(linkedProject);
                 if (linkedProjectPath.containsKey(linkedProjectId)) {
                     return new Object[] { Boolean.TRUE, projFullName };
@@ -885,13 +798,14 @@ public class ProjectDatabaseHandler extends AttachmentAwareDatabaseHandler {
 
                 linkedProjectPath.put(linkedProjectId, projFullName);
                 Object[] cyclicLinkedProjectPresenceAndLastProjectInCycle = getCyclicProjectPresenceAndLastProjectInCycle(
-                        linkedProject, user, linkedProjectPath);
+                        linkedProject, user, linkedProjectPath, acyclicProjectIds);
                 boolean isCyclicLinkedProjectPresent = (Boolean) cyclicLinkedProjectPresenceAndLastProjectInCycle[0];
 
                 if (isCyclicLinkedProjectPresent) {
                     return cyclicLinkedProjectPresenceAndLastProjectInCycle;
                 }
                 linkedProjectPath.remove(linkedProjectId);
+                acyclicProjectIds.add(linkedProjectId);
             }
         }
         return new Object[] { Boolean.FALSE, null };
@@ -0,0 +1,234 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.thrift.ProjectReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.ReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.projects.ProjectRelationship;
+
+import java.util.*;
+
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyMap;
+
+/**
+ * In-memory graph of all projects of a database with their links to subprojects and releases, kept up to date with
+ * the changes feed and by the project write paths of {@link ProjectDatabaseHandler}.
+ *
+ * Traversals only touch the edges reachable from their start, no documents are fetched. Returned projects are copies
+ * and can be modified freely.
+ */
+public class ProjectGraph extends ChangesFeedIndex {
+
+    private static final Logger log = Logger.getLogger(ProjectGraph.class);
+
+    private static final String TYPE_PROJECT = "project";
+
+    private final Map<String, Project> projectsById = new HashMap<>();
+    private final SetMultimap<String, String> linkingProjectIdsById = HashMultimap.create();
+    private final SetMultimap<String, String> projectIdsByReleaseId = HashMultimap.create();
+
+    ProjectGraph(ChangesFeedSource source, long refreshIntervalMillis) {
+        super(source, "project graph", refreshIntervalMillis);
+    }
+
+    /**
+     * Returns the project graph shared by all handlers of the database
+     */
+    public static ProjectGraph forDatabase(DatabaseConnector db) {
+        return shared(ProjectGraph.class, db, source -> new ProjectGraph(source, getConfiguredRefreshIntervalMillis()));
+    }
+
+    /**
+     * Takes over a project which has just been written to the database
+     */
+    public void put(Project project) {
+        Project copy = new Project(project);
+        write(() -> {
+            remove(copy.getId());
+            addProject(copy);
+        });
+        notifyChanged(copy.getId());
+    }
+
+    /**
+     * Drops a project which has just been removed from the database
+     */
+    public void delete(String id) {
+        write(() -> remove(id));
+        notifyChanged(id);
+    }
+
+    public Optional<Project> getProject(String id) {
+        return read(() -> Optional.ofNullable(projectsById.get(id)).map(Project::new));
+    }
+
+    /**
+     * Returns the given projects and all projects reachable from them over project links, unknown ids are skipped
+     */
+    public Map<String, Project> getProjectTree(Collection<String> rootIds) {
+        return read(() -> {
+            Map<String, Project> tree = new HashMap<>();
+            for (String id : getReachableIds(rootIds)) {
+                tree.put(id, new Project(projectsById.get(id)));
+            }
+            return tree;
+        });
+    }
+
+    /**
+     * Returns the ids of all projects reachable from the given ones over project links, including the given ones
+     */
+    public Set<String> getDescendantIds(Collection<String> rootIds) {
+        return read(() -> getReachableIds(rootIds));
+    }
+
+    public Set<String> getLinkingProjectIds(String projectId) {
+        return read(() -> ImmutableSet.copyOf(linkingProjectIdsById.get(projectId)));
+    }
+
+    public Set<String> getProjectIdsByReleaseId(String releaseId) {
+        return read(() -> ImmutableSet.copyOf(projectIdsByReleaseId.get(releaseId)));
+    }
+
+    /**
+     * Returns the ids of all projects linking to the given ones, directly or over other projects, as of the last
+     * refresh
+     */
+    Set<String> getAncestorIdsWithoutRefresh(Collection<String> projectIds) {
+        return readWithoutRefresh(() -> {
+            Set<String> reached = new HashSet<>();
+            Deque<String> queue = new ArrayDeque<>(projectIds);
+            while (!queue.isEmpty()) {
+                for (String parentId : linkingProjectIdsById.get(queue.poll())) {
+                    if (reached.add(parentId)) {
+                        queue.add(parentId);
+                    }
+                }
+            }
+            return reached;
+        });
+    }
+
+    Set<String> getProjectIdsByReleaseIdWithoutRefresh(String releaseId) {
+        return readWithoutRefresh(() -> ImmutableSet.copyOf(projectIdsByReleaseId.get(releaseId)));
+    }
+
+    /**
+     * Returns true if the graph knows the project with the same project and release links as the given one, as of the
+     * last refresh
+     */
+    boolean hasSameLinksWithoutRefresh(Project project) {
+        return readWithoutRefresh(() -> {
+            Project known = project.isSetId() ? projectsById.get(project.getId()) : null;
+            return known != null
+                    && nullToEmptyMap(known.getLinkedProjects()).equals(nullToEmptyMap(project.getLinkedProjects()))
+                    && nullToEmptyMap(known.getReleaseIdToUsage()).equals(nullToEmptyMap(project.getReleaseIdToUsage()));
+        });
+    }
+
+    /**
+     * Returns the ids of the releases which count for the clearing state of the project including its subprojects,
+     * as of the last refresh. Subprojects which are only referred or duplicates and releases which are only referred
+     * are left out. The given project is used as it is, its subprojects are taken from the graph.
+     */
+    Set<String> getClearingRelevantReleaseIdsWithoutRefresh(Project project) {
+        return readWithoutRefresh(() -> {
+            Set<String> releaseIds = new HashSet<>();
+            Set<String> visitedProjectIds = new HashSet<>();
+            Deque<Project> queue = new ArrayDeque<>();
+            queue.add(project);
+            visitedProjectIds.add(project.getId());
+            while (!queue.isEmpty()) {
+                Project current = queue.poll();
+                for (Map.Entry<String, ProjectRelationship> link : nullToEmptyMap(current.getLinkedProjects()).entrySet()) {
+                    Project child = projectsById.get(link.getKey());
+                    if (child != null && link.getValue() != ProjectRelationship.REFERRED
+                            && link.getValue() != ProjectRelationship.DUPLICATE
+                            && visitedProjectIds.add(link.getKey())) {
+                        queue.add(child);
+                    }
+                }
+                for (Map.Entry<String, ProjectReleaseRelationship> usage : nullToEmptyMap(current.getReleaseIdToUsage()).entrySet()) {
+                    if (usage.getValue().getReleaseRelation() != ReleaseRelationship.REFERRED) {
+                        releaseIds.add(usage.getKey());
+                    }
+                }
+            }
+            return releaseIds;
+        });
+    }
+
+    private Set<String> getReachableIds(Collection<String> rootIds) {
+        Set<String> reached = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(rootIds);
+        while (!queue.isEmpty()) {
+            String id = queue.poll();
+            Project project = projectsById.get(id);
+            if (project == null || !reached.add(id)) {
+                continue;
+            }
+            queue.addAll(nullToEmptyMap(project.getLinkedProjects()).keySet());
+        }
+        return reached;
+    }
+
+    @Override
+    protected void clear() {
+        projectsById.clear();
+        linkingProjectIdsById.clear();
+        projectIdsByReleaseId.clear();
+    }
+
+    @Override
+    protected void put(String id, JsonNode document) {
+        if (!TYPE_PROJECT.equals(document.path("type").asText())) {
+            return;
+        }
+        remove(id);
+        try {
+            addProject(mapper.treeToValue(document, Project.class));
+        } catch (JsonProcessingException e) {
+            log.error("Project " + id + " could not be read into the project graph", e);
+        }
+    }
+
+    private void addProject(Project project) {
+        String id = project.getId();
+        projectsById.put(id, project);
+        for (String linkedProjectId : nullToEmptyMap(project.getLinkedProjects()).keySet()) {
+            linkingProjectIdsById.put(linkedProjectId, id);
+        }
+        for (String releaseId : nullToEmptyMap(project.getReleaseIdToUsage()).keySet()) {
+            projectIdsByReleaseId.put(releaseId, id);
+        }
+    }
+
+    @Override
+    protected void remove(String id) {
+        Project project = projectsById.remove(id);
+        if (project != null) {
+            for (String linkedProjectId : nullToEmptyMap(project.getLinkedProjects()).keySet()) {
+                linkingProjectIdsById.remove(linkedProjectId, id);
+            }
+            for (String releaseId : nullToEmptyMap(project.getReleaseIdToUsage()).keySet()) {
+                projectIdsByReleaseId.remove(releaseId, id);
+            }
+        }
+    }
+}
@@ -252,18 +252,14 @@ public class ProjectRepository extends SummaryAwareRepository<Project> {
     }
 
     @NotNull
+    @View(name = ProjectVisibilityQueryPlanner.VIEW_NAME, map = ProjectVisibilityQueryPlanner.BY_VISIBILITY_VIEW)
     public Set<Project> getAccessibleProjects(User user) {
-        /** This implementation requires multiple DB requests and has its logic distributed in multiple places **/
-//        final Set<Project> buProjects = new HashSet<>(getBUProjects(organisation));
-//        final Set<Project> myProjects = getMyProjects(user);
-//        return Sets.union(buProjects, myProjects);
-
-        /** I have only one day left in the project so I try this, but if there is time this should be reviewed
-         *  The ideal solution would be to make a smarter query with a combined key, but I do not know how easy
-         *  this is to refactor if say an enum value gets renamed...
-         * **/
-        final List<Project> all = getAll();
-        return all.stream().filter(ProjectPermissions.isVisible(user)::test).collect(Collectors.toSet());
+        Set<String> candidateIds = new HashSet<>();
+        for (ProjectVisibilityQueryPlanner.KeyRange range : ProjectVisibilityQueryPlanner.getKeyRanges(user)) {
+            candidateIds.addAll(queryForIds(ProjectVisibilityQueryPlanner.VIEW_NAME, range.getStartKey(), range.getEndKey()));
+        }
+        // the key ranges may over-approximate (e.g. business unit prefixes), the permission check stays authoritative
+        return filterAccessibleProjectsByIds(user, candidateIds);
     }
 
     public List<Project> searchByName(String name, User user) {
@@ -272,14 +268,15 @@ public class ProjectRepository extends SummaryAwareRepository<Project> {
 
     @NotNull
     private Set<Project> filterAccessibleProjectsByIds(User user, Set<String> searchIds) {
-        final Set<Project> accessibleProjects = getAccessibleProjects(user);
-
-        final Set<Project> output = new HashSet<>();
-        for (Project accessibleProject : accessibleProjects) {
-            if (searchIds.contains(accessibleProject.getId())) output.add(accessibleProject);
+        if (searchIds.isEmpty()) {
+            return new HashSet<>();
         }
+        return filterVisible(user, get(searchIds));
+    }
 
-        return output;
+    @NotNull
+    private static Set<Project> filterVisible(User user, Collection<Project> projects) {
+        return projects.stream().filter(ProjectPermissions.isVisible(user)).collect(Collectors.toSet());
     }
 
     private Set<Project> getAccessibleProjectSummary(User user, Set<String> searchIds) {
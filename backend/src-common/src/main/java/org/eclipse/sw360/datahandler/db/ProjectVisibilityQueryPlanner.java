@@ -0,0 +1,216 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.sw360.datahandler.thrift.Visibility;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.ektorp.ComplexKey;
+
+import java.util.*;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptySet;
+import static org.eclipse.sw360.datahandler.common.SW360Utils.getBUFromOrganisation;
+import static org.eclipse.sw360.datahandler.permissions.PermissionUtils.isUserAtLeast;
+import static org.eclipse.sw360.datahandler.thrift.users.UserGroup.CLEARING_ADMIN;
+
+/**
+ * Translates the rules of {@link org.eclipse.sw360.datahandler.permissions.ProjectPermissions#isVisible(User)}
+ * into the few key ranges of the {@link #VIEW_NAME} view which contain all projects a given user can see.
+ *
+ * The view emits composite keys of the form
+ * <ul>
+ * <li>[EVERYONE]</li>
+ * <li>[visibility, "user", email] for the creator (PRIVATE) or every moderator-equivalent user</li>
+ * <li>[BUISNESSUNIT_AND_MODERATORS, "bu", businessUnit] for every project with the business unit visibility</li>
+ * </ul>
+ * so that a user's visible projects are the union of at most five key ranges.
+ */
+public class ProjectVisibilityQueryPlanner {
+
+    public static final String VIEW_NAME = "byvisibility";
+
+    static final String USER_KEY = "user";
+    static final String BU_KEY = "bu";
+
+    private static final Visibility DEFAULT_VISIBILITY = Visibility.BUISNESSUNIT_AND_MODERATORS;
+    private static final String HIGH_VALUE_UNICODE_CHARACTER = "\ufff0";
+
+    // the default visibility has to match DEFAULT_VISIBILITY, it is spelled out as annotations require a constant
+    public static final String BY_VISIBILITY_VIEW =
+            "function(doc) {" +
+                    "  if (doc.type == 'project') {" +
+                    "    var visibility = doc.visbility ? doc.visbility : 'BUISNESSUNIT_AND_MODERATORS';" +
+                    "    if (visibility == 'EVERYONE') {" +
+                    "      emit([visibility], null);" +
+                    "    } else if (visibility == 'PRIVATE') {" +
+                    "      if (doc.createdBy)" +
+                    "        emit([visibility, '" + USER_KEY + "', doc.createdBy], null);" +
+                    "    } else if (visibility == 'ME_AND_MODERATORS' || visibility == 'BUISNESSUNIT_AND_MODERATORS') {" +
+                    "      var acc = {};" +
+                    "      if (doc.createdBy)" +
+                    "        acc[doc.createdBy] = 1;" +
+                    "      if (doc.leadArchitect)" +
+                    "        acc[doc.leadArchitect] = 1;" +
+                    "      if (doc.projectResponsible)" +
+                    "        acc[doc.projectResponsible] = 1;" +
+                    "      for (var i in doc.moderators) {" +
+                    "        acc[doc.moderators[i]] = 1;" +
+                    "      }" +
+                    "      for (var i in doc.contributors) {" +
+                    "        acc[doc.contributors[i]] = 1;" +
+                    "      }" +
+                    "      for (var u in acc) {" +
+                    "        emit([visibility, '" + USER_KEY + "', u], null);" +
+                    "      }" +
+                    "      if (visibility == 'BUISNESSUNIT_AND_MODERATORS')" +
+                    "        emit([visibility, '" + BU_KEY + "', doc.businessUnit ? doc.businessUnit : ''], null);" +
+                    "    }" +
+                    "  }" +
+                    "}";
+
+    private ProjectVisibilityQueryPlanner() {
+        // only static helpers
+    }
+
+    /**
+     * Returns the key ranges of the visibility view which contain at least all projects visible to the user.
+     */
+    public static List<KeyRange> getKeyRanges(User user) {
+        String email = user.getEmail();
+        List<KeyRange> ranges = new ArrayList<>();
+
+        ranges.add(KeyRange.exact(Visibility.EVERYONE.name()));
+        ranges.add(KeyRange.exact(Visibility.PRIVATE.name(), USER_KEY, email));
+        ranges.add(KeyRange.exact(Visibility.ME_AND_MODERATORS.name(), USER_KEY, email));
+
+        String buVisibility = Visibility.BUISNESSUNIT_AND_MODERATORS.name();
+        if (isUserAtLeast(CLEARING_ADMIN, user)) {
+            ranges.add(KeyRange.all(buVisibility));
+        } else {
+            ranges.add(KeyRange.exact(buVisibility, USER_KEY, email));
+            String department = user.getDepartment();
+            String bu = getBUFromOrganisation(department);
+            if (!isNullOrEmpty(department) && !isNullOrEmpty(bu)) {
+                ranges.add(KeyRange.prefix(bu, buVisibility, BU_KEY));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Java counterpart of {@link #BY_VISIBILITY_VIEW}, returns the keys the view emits for the given project.
+     */
+    static Set<List<String>> getEmittedKeys(Project project) {
+        Visibility visibility = project.isSetVisbility() ? project.getVisbility() : DEFAULT_VISIBILITY;
+        Set<List<String>> keys = new HashSet<>();
+
+        switch (visibility) {
+            case EVERYONE:
+                keys.add(ImmutableList.of(visibility.name()));
+                break;
+            case PRIVATE:
+                if (!isNullOrEmpty(project.getCreatedBy())) {
+                    keys.add(ImmutableList.of(visibility.name(), USER_KEY, project.getCreatedBy()));
+                }
+                break;
+            case ME_AND_MODERATORS:
+            case BUISNESSUNIT_AND_MODERATORS:
+                Set<String> users = new HashSet<>();
+                addIfNotEmpty(users, project.getCreatedBy());
+                addIfNotEmpty(users, project.getLeadArchitect());
+                addIfNotEmpty(users, project.getProjectResponsible());
+                users.addAll(nullToEmptySet(project.getModerators()));
+                users.addAll(nullToEmptySet(project.getContributors()));
+                for (String user : users) {
+                    keys.add(ImmutableList.of(visibility.name(), USER_KEY, user));
+                }
+                if (visibility == Visibility.BUISNESSUNIT_AND_MODERATORS) {
+                    String businessUnit = project.getBusinessUnit();
+                    keys.add(ImmutableList.of(visibility.name(), BU_KEY, businessUnit == null ? "" : businessUnit));
+                }
+                break;
+        }
+        return keys;
+    }
+
+    private static void addIfNotEmpty(Set<String> users, String user) {
+        if (!isNullOrEmpty(user)) {
+            users.add(user);
+        }
+    }
+
+    /**
+     * A range of composite view keys which either matches one key exactly, all keys below a fixed key prefix
+     * or all keys whose last component starts with a string prefix.
+     */
+    public static class KeyRange {
+        private final List<String> fixed;
+        private final String lastComponentPrefix;
+        private final boolean matchesChildren;
+
+        private KeyRange(List<String> fixed, String lastComponentPrefix, boolean matchesChildren) {
+            this.fixed = fixed;
+            this.lastComponentPrefix = lastComponentPrefix;
+            this.matchesChildren = matchesChildren;
+        }
+
+        static KeyRange exact(String... components) {
+            return new KeyRange(ImmutableList.copyOf(components), null, false);
+        }
+
+        static KeyRange all(String... components) {
+            return new KeyRange(ImmutableList.copyOf(components), null, true);
+        }
+
+        static KeyRange prefix(String lastComponentPrefix, String... components) {
+            return new KeyRange(ImmutableList.copyOf(components), lastComponentPrefix, false);
+        }
+
+        public ComplexKey getStartKey() {
+            List<Object> start = new ArrayList<>(fixed);
+            if (lastComponentPrefix != null) {
+                start.add(lastComponentPrefix);
+            }
+            return ComplexKey.of(start.toArray());
+        }
+
+        public ComplexKey getEndKey() {
+            List<Object> end = new ArrayList<>(fixed);
+            if (lastComponentPrefix != null) {
+                end.add(lastComponentPrefix + HIGH_VALUE_UNICODE_CHARACTER);
+            } else if (matchesChildren) {
+                end.add(ComplexKey.emptyObject());
+            }
+            return ComplexKey.of(end.toArray());
+        }
+
+        boolean contains(List<String> key) {
+            if (lastComponentPrefix != null) {
+                return key.size() == fixed.size() + 1
+                        && key.subList(0, fixed.size()).equals(fixed)
+                        && key.get(fixed.size()).startsWith(lastComponentPrefix);
+            } else if (matchesChildren) {
+                return key.size() >= fixed.size() && key.subList(0, fixed.size()).equals(fixed);
+            } else {
+                return key.equals(fixed);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "KeyRange{" + fixed + (lastComponentPrefix != null ? " prefix " + lastComponentPrefix : "")
+                    + (matchesChildren ? " and below" : "") + "}";
+        }
+    }
+}
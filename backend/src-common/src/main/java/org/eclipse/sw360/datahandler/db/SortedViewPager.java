@@ -0,0 +1,151 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.ektorp.ViewQuery;
+import org.ektorp.ViewResult;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reads pages of a view whose keys are sort keys, so that sorting and paging happen in the database.
+ *
+ * Skipping rows is linear in the offset in CouchDB. Every page read therefore remembers the key of the first row of
+ * the following page, and a request for that page starts right there with startkey/startkey_docid. Paging forward
+ * page by page never skips rows, other jumps skip once and continue from the remembered positions afterwards.
+ *
+ * A remembered position only marks the same offset as long as the view is unchanged. It is stored with the
+ * update_seq of the view, and if a read from it returns another update_seq the page is read again with skip.
+ */
+class SortedViewPager {
+
+    private static final int MAX_CURSORS = 10000;
+    private static final long CURSOR_LIFETIME_MINUTES = 10;
+
+    private final Function<String, ViewQuery> queryFactory;
+    private final Function<ViewQuery, ViewResult> queryExecutor;
+    private final Cache<CursorKey, Cursor> cursors = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CURSORS)
+            .expireAfterWrite(CURSOR_LIFETIME_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    SortedViewPager(Function<String, ViewQuery> queryFactory, Function<ViewQuery, ViewResult> queryExecutor) {
+        this.queryFactory = queryFactory;
+        this.queryExecutor = queryExecutor;
+    }
+
+    /**
+     * @return the rows of the page including their documents, and the total number of rows of the view
+     */
+    Page getPage(String viewName, boolean ascending, int offset, int limit) {
+        CursorKey cursorKey = new CursorKey(viewName, ascending, offset);
+        Cursor cursor = offset > 0 ? cursors.getIfPresent(cursorKey) : null;
+
+        ViewResult result = null;
+        if (cursor != null) {
+            result = queryExecutor.apply(createQuery(viewName, ascending, limit)
+                    .startKey(cursor.key)
+                    .startDocId(cursor.docId));
+            if (!cursor.updateSeq.equals(result.getUpdateSeqAsString())) {
+                // rows before the cursor may have been added or removed since, so it no longer marks the offset
+                cursors.invalidate(cursorKey);
+                result = null;
+            }
+        }
+        if (result == null) {
+            ViewQuery query = createQuery(viewName, ascending, limit);
+            if (offset > 0) {
+                query.skip(offset);
+            }
+            result = queryExecutor.apply(query);
+        }
+
+        List<ViewResult.Row> rows = result.getRows();
+        if (rows.size() > limit) {
+            ViewResult.Row next = rows.get(limit);
+            String updateSeq = result.getUpdateSeqAsString();
+            if (updateSeq != null) {
+                cursors.put(new CursorKey(viewName, ascending, offset + limit), new Cursor(next.getKeyAsNode(), next.getId(), updateSeq));
+            }
+            rows = rows.subList(0, limit);
+        }
+        return new Page(rows, result.getTotalRows());
+    }
+
+    private ViewQuery createQuery(String viewName, boolean ascending, int limit) {
+        return queryFactory.apply(viewName)
+                .includeDocs(true)
+                .updateSeq(true)
+                .descending(!ascending)
+                .limit(limit + 1);
+    }
+
+    static class Page {
+        private final List<ViewResult.Row> rows;
+        private final int totalRows;
+
+        private Page(List<ViewResult.Row> rows, int totalRows) {
+            this.rows = rows;
+            this.totalRows = totalRows;
+        }
+
+        List<ViewResult.Row> getRows() {
+            return rows;
+        }
+
+        int getTotalRows() {
+            return totalRows;
+        }
+    }
+
+    private static class CursorKey {
+        private final String viewName;
+        private final boolean ascending;
+        private final int offset;
+
+        private CursorKey(String viewName, boolean ascending, int offset) {
+            this.viewName = viewName;
+            this.ascending = ascending;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CursorKey that = (CursorKey) o;
+            return ascending == that.ascending && offset == that.offset && viewName.equals(that.viewName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(viewName, ascending, offset);
+        }
+    }
+
+    private static class Cursor {
+        private final JsonNode key;
+        private final String docId;
+        private final String updateSeq;
+
+        private Cursor(JsonNode key, String docId, String updateSeq) {
+            this.key = key;
+            this.docId = docId;
+            this.updateSeq = updateSeq;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.sw360.datahandler.thrift.MainlineState;
+import org.eclipse.sw360.datahandler.thrift.ProjectReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.ReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.components.ClearingState;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.components.ReleaseClearingStateSummary;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.projects.ProjectRelationship;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ClearingStateSummaryStoreTest {
+
+    private StubChangesFeedSource source;
+    private ClearingStateSummaryStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        source = new StubChangesFeedSource();
+        store = new ClearingStateSummaryStore(new ProjectGraph(source, 0), new ComponentCatalogIndex(source, 0));
+
+        source.write(release("R1", ClearingState.APPROVED));
+        source.write(release("R2", ClearingState.NEW_CLEARING));
+        source.write(release("R3", ClearingState.UNDER_CLEARING));
+        source.write(release("R4", ClearingState.REPORT_AVAILABLE));
+
+        // P1 contains P2 and refers to P3, P2 uses R2 and refers to R4, P3 uses R3
+        source.write(new Project().setId("P1").setName("p1")
+                .setLinkedProjects(ImmutableMap.of("P2", ProjectRelationship.CONTAINED, "P3", ProjectRelationship.REFERRED))
+                .setReleaseIdToUsage(ImmutableMap.of("R1", usage(ReleaseRelationship.CONTAINED))));
+        source.write(new Project().setId("P2").setName("p2")
+                .setReleaseIdToUsage(ImmutableMap.of("R2", usage(ReleaseRelationship.CONTAINED), "R4", usage(ReleaseRelationship.REFERRED))));
+        source.write(new Project().setId("P3").setName("p3")
+                .setReleaseIdToUsage(ImmutableMap.of("R3", usage(ReleaseRelationship.CONTAINED))));
+    }
+
+    @Test
+    public void testSummaries() throws Exception {
+        assertThat(summary("P1"), is(summary(0, 0, 0, 0, 1)));
+        assertThat(summary("P2"), is(summary(1, 0, 0, 1, 0)));
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(1, 0, 0, 0, 1)));
+        assertThat(summaryIncludingSubprojects("P2"), is(summary(1, 0, 0, 0, 0)));
+    }
+
+    @Test
+    public void testReleaseChangeUpdatesUsingProjectsAndTheirParents() throws Exception {
+        assertThat(summary("P2"), is(summary(1, 0, 0, 1, 0)));
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(1, 0, 0, 0, 1)));
+
+        source.write(release("R2", ClearingState.APPROVED));
+
+        assertThat(summary("P2"), is(summary(0, 0, 0, 1, 1)));
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(0, 0, 0, 0, 2)));
+    }
+
+    @Test
+    public void testProjectChangeUpdatesParents() throws Exception {
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(1, 0, 0, 0, 1)));
+
+        source.write(new Project().setId("P2").setName("p2").setLinkedProjects(ImmutableMap.of("P3", ProjectRelationship.CONTAINED)));
+
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(0, 0, 1, 0, 1)));
+    }
+
+    @Test
+    public void testEditedProjectIsComputedFromItsOwnLinks() throws Exception {
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(1, 0, 0, 0, 1)));
+
+        Project edited = new Project().setId("P1").setName("p1")
+                .setLinkedProjects(ImmutableMap.of("P3", ProjectRelationship.CONTAINED));
+        store.fillSummariesIncludingSubprojects(ImmutableList.of(edited));
+
+        assertThat(edited.getReleaseClearingStateSummary(), is(summary(0, 0, 1, 0, 0)));
+        assertThat(summaryIncludingSubprojects("P1"), is(summary(1, 0, 0, 0, 1)));
+    }
+
+    @Test
+    public void testRecreatedDatabaseDropsAllSummaries() throws Exception {
+        assertThat(summary("P3"), is(summary(0, 0, 1, 0, 0)));
+
+        source.recreate();
+        source.write(release("R3", ClearingState.APPROVED));
+        source.write(new Project().setId("P3").setName("p3")
+                .setReleaseIdToUsage(ImmutableMap.of("R3", usage(ReleaseRelationship.CONTAINED))));
+
+        assertThat(summary("P3"), is(summary(0, 0, 0, 0, 1)));
+    }
+
+    private ReleaseClearingStateSummary summary(String projectId) {
+        Project project = storedProject(projectId);
+        store.fillSummaries(ImmutableList.of(project));
+        return project.getReleaseClearingStateSummary();
+    }
+
+    private ReleaseClearingStateSummary summaryIncludingSubprojects(String projectId) {
+        Project project = storedProject(projectId);
+        store.fillSummariesIncludingSubprojects(ImmutableList.of(project));
+        return project.getReleaseClearingStateSummary();
+    }
+
+    private Project storedProject(String projectId) {
+        ProjectGraph graph = new ProjectGraph(source, 0);
+        return graph.getProject(projectId).get();
+    }
+
+    private static ReleaseClearingStateSummary summary(int newRelease, int sentToClearingTool, int underClearing,
+                                                       int reportAvailable, int approved) {
+        return new ReleaseClearingStateSummary(newRelease, sentToClearingTool, underClearing, reportAvailable, approved);
+    }
+
+    private static Release release(String id, ClearingState clearingState) {
+        return new Release().setId(id).setName("release " + id).setVersion("1.0").setClearingState(clearingState);
+    }
+
+    private static ProjectReleaseRelationship usage(ReleaseRelationship relation) {
+        return new ProjectReleaseRelationship(relation, MainlineState.OPEN);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.vendors.Vendor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ComponentCatalogIndexTest {
+
+    private StubChangesFeedSource source;
+    private ComponentCatalogIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        source = new StubChangesFeedSource();
+        index = new ComponentCatalogIndex(source, 0);
+    }
+
+    @Test
+    public void testColdStartReadsAllPages() throws Exception {
+        for (int i = 0; i < 2500; i++) {
+            source.write(release("R" + i, "C" + (i % 10), "V" + (i % 3)));
+        }
+        source.write(new Component().setId("C1").setName("component"));
+        source.write(new Vendor().setId("V1").setShortname("vendor").setFullname("vendor").setUrl("url"));
+        source.write(new Project().setId("P1").setName("project"));
+
+        assertThat(index.getAllReleases(), hasSize(2500));
+        assertThat(index.getAllComponents(), hasSize(1));
+        assertThat(index.getAllVendors(), hasSize(1));
+        assertThat(index.getReleasesByComponentId("C1"), hasSize(250));
+        assertThat(source.getDocumentPagesRead(), is(3));
+    }
+
+    @Test
+    public void testFollowsChangesIncrementally() throws Exception {
+        source.write(release("R1", "C1", "V1"));
+        assertThat(index.getReleasesById().keySet(), contains("R1"));
+        int pagesAfterLoad = source.getDocumentPagesRead();
+
+        source.write(release("R2", "C1", "V2").setExternalIds(ImmutableMap.of("mainline-id", "42")));
+        source.write(release("R1", "C2", "V1").setName("renamed"));
+
+        assertThat(index.getRelease("R1").get().getName(), is("renamed"));
+        assertThat(ids(index.getReleasesByComponentId("C1")), contains("R2"));
+        assertThat(ids(index.getReleasesByComponentId("C2")), contains("R1"));
+        assertThat(ids(index.getReleasesByVendorId("V2")), contains("R2"));
+        assertThat(ids(index.getReleasesByExternalId("mainline-id", "42")), contains("R2"));
+
+        source.delete("R2");
+        assertThat(index.getRelease("R2").isPresent(), is(false));
+        assertThat(index.getReleasesByComponentId("C1"), is(empty()));
+        assertThat(index.getReleasesByExternalId("mainline-id", "42"), is(empty()));
+
+        assertThat(source.getDocumentPagesRead(), is(pagesAfterLoad));
+    }
+
+    @Test
+    public void testConvergesWithChangesDuringColdStart() throws Exception {
+        for (int i = 0; i < 1500; i++) {
+            source.write(release("R" + i, "C1", "V1"));
+        }
+        source.setOnNextPage(() -> {
+            source.write(release("R0", "C2", "V1").setName("changed while loading"));
+            source.write(release("R9999", "C2", "V1"));
+            source.delete("R1499");
+        });
+
+        Map<String, Release> indexed = index.getReleasesById();
+
+        assertThat(indexed.keySet(), is(source.getIdsOfType("release")));
+        assertThat(indexed.get("R0").getName(), is("changed while loading"));
+        assertThat(ids(index.getReleasesByComponentId("C2")), containsInAnyOrder("R0", "R9999"));
+    }
+
+    @Test
+    public void testReturnsCopies() throws Exception {
+        source.write(release("R1", "C1", "V1"));
+
+        index.getAllReleases().get(0).setName("modified by caller");
+
+        assertThat(index.getRelease("R1").get().getName(), is("release"));
+    }
+
+    @Test
+    public void testReadsWithinRefreshIntervalDoNotFollowTheChangesFeed() throws Exception {
+        ComponentCatalogIndex throttled = new ComponentCatalogIndex(source, 60_000);
+        source.write(release("R1", "C1", "V1"));
+        assertThat(throttled.getReleasesById().keySet(), contains("R1"));
+        int positionsAfterLoad = source.getPositionsRead();
+
+        source.write(release("R2", "C1", "V1"));
+
+        assertThat(throttled.getReleasesById().keySet(), contains("R1"));
+        assertThat(source.getPositionsRead(), is(positionsAfterLoad));
+
+        throttled.invalidate();
+
+        assertThat(throttled.getReleasesById().keySet(), containsInAnyOrder("R1", "R2"));
+        assertThat(source.getPositionsRead(), is(positionsAfterLoad + 1));
+    }
+
+    @Test
+    public void testReloadsRecreatedDatabase() throws Exception {
+        source.write(release("R1", "C1", "V1"));
+        source.write(release("R2", "C1", "V1"));
+        assertThat(index.getAllReleases(), hasSize(2));
+        List<String> reloaded = new ArrayList<>();
+        index.addChangeListener(reloaded::add);
+
+        source.recreate();
+        source.write(release("R3", "C1", "V1"));
+
+        assertThat(index.getReleasesById().keySet(), contains("R3"));
+        assertThat(reloaded, contains((String) null));
+    }
+
+    @Test
+    public void testReadersDuringTheFirstLoadWaitForIt() throws Exception {
+        ComponentCatalogIndex throttled = new ComponentCatalogIndex(source, 60_000);
+        for (int i = 0; i < 2500; i++) {
+            source.write(release("R" + i, "C1", "V1"));
+        }
+        AtomicInteger readerCount = new AtomicInteger(-1);
+        Thread reader = new Thread(() -> readerCount.set(throttled.getAllReleases().size()));
+        source.setOnNextPage(() -> startBlockedBy(reader));
+
+        assertThat(throttled.getAllReleases(), hasSize(2500));
+        reader.join(5000);
+        assertThat(readerCount.get(), is(2500));
+    }
+
+    @Test
+    public void testReadersDuringTheReloadOfARecreatedDatabaseWaitForIt() throws Exception {
+        ComponentCatalogIndex throttled = new ComponentCatalogIndex(source, 60_000);
+        source.write(release("R1", "C1", "V1"));
+        assertThat(throttled.getAllReleases(), hasSize(1));
+
+        source.recreate();
+        for (int i = 0; i < 2500; i++) {
+            source.write(release("R" + i, "C1", "V1"));
+        }
+        AtomicInteger readerCount = new AtomicInteger(-1);
+        Thread reader = new Thread(() -> readerCount.set(throttled.getAllReleases().size()));
+        source.setOnNextPage(() -> startBlockedBy(reader));
+        throttled.invalidate();
+
+        assertThat(throttled.getAllReleases(), hasSize(2500));
+        reader.join(5000);
+        assertThat(readerCount.get(), is(2500));
+    }
+
+    /**
+     * Starts the reader while the index is being loaded and lets the load go on once the reader waits for it
+     */
+    private static void startBlockedBy(Thread reader) {
+        reader.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reader.getState() != Thread.State.BLOCKED && reader.getState() != Thread.State.WAITING
+                && reader.isAlive() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertThat(reader.getState(), isOneOf(Thread.State.BLOCKED, Thread.State.WAITING));
+    }
+
+    private static Release release(String id, String componentId, String vendorId) {
+        return new Release().setId(id).setName("release").setVersion("1.0").setComponentId(componentId).setVendorId(vendorId);
+    }
+
+    private static Set<String> ids(Collection<Release> releases) {
+        return releases.stream().map(Release::getId).collect(Collectors.toSet());
+    }
+}
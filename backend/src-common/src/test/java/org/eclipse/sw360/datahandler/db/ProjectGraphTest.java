@@ -0,0 +1,113 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.sw360.datahandler.thrift.MainlineState;
+import org.eclipse.sw360.datahandler.thrift.ProjectReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.ReleaseRelationship;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.projects.ProjectRelationship;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ProjectGraphTest {
+
+    private StubChangesFeedSource source;
+    private ProjectGraph graph;
+
+    @Before
+    public void setUp() throws Exception {
+        source = new StubChangesFeedSource();
+        graph = new ProjectGraph(source, 0);
+
+        // P1 -> P2 -> {P3, P4}, P4 -> P1 closes a cycle, P5 is not connected
+        source.write(project("P1", "P2").setReleaseIdToUsage(ImmutableMap.of("R1", relation())));
+        source.write(project("P2", "P3", "P4").setReleaseIdToUsage(ImmutableMap.of("R1", relation(), "R2", relation())));
+        source.write(project("P3"));
+        source.write(project("P4", "P1"));
+        source.write(project("P5"));
+        source.write(new Release().setId("R1").setName("release").setVersion("1.0"));
+    }
+
+    @Test
+    public void testProjectTreeContainsReachableProjects() throws Exception {
+        Map<String, Project> tree = graph.getProjectTree(ImmutableList.of("P2"));
+
+        assertThat(tree.keySet(), containsInAnyOrder("P1", "P2", "P3", "P4"));
+        assertThat(graph.getDescendantIds(ImmutableList.of("P3", "P5", "unknown")), containsInAnyOrder("P3", "P5"));
+    }
+
+    @Test
+    public void testReverseLookups() throws Exception {
+        assertThat(graph.getLinkingProjectIds("P1"), contains("P4"));
+        assertThat(graph.getLinkingProjectIds("P5"), is(empty()));
+        assertThat(graph.getProjectIdsByReleaseId("R1"), containsInAnyOrder("P1", "P2"));
+        assertThat(graph.getProjectIdsByReleaseId("R2"), contains("P2"));
+    }
+
+    @Test
+    public void testFollowsChanges() throws Exception {
+        assertThat(graph.getProject("P3").isPresent(), is(true));
+        int pagesAfterLoad = source.getDocumentPagesRead();
+
+        source.write(project("P4"));
+        source.write(project("P5", "P3"));
+        source.delete("P2");
+
+        assertThat(graph.getLinkingProjectIds("P1"), is(empty()));
+        assertThat(graph.getLinkingProjectIds("P3"), contains("P5"));
+        assertThat(graph.getProjectIdsByReleaseId("R2"), is(empty()));
+        assertThat(graph.getProjectTree(ImmutableList.of("P1")).keySet(), contains("P1"));
+        assertThat(source.getDocumentPagesRead(), is(pagesAfterLoad));
+    }
+
+    @Test
+    public void testWritesAreVisibleBeforeTheFeedCatchesUp() throws Exception {
+        graph.refresh();
+
+        graph.put(project("P3", "P5"));
+        assertThat(graph.getLinkingProjectIds("P5"), contains("P3"));
+
+        graph.delete("P5");
+        assertThat(graph.getProject("P5").isPresent(), is(false));
+        assertThat(graph.getDescendantIds(ImmutableSet.of("P3")), contains("P3"));
+    }
+
+    @Test
+    public void testReturnsCopies() throws Exception {
+        graph.getProject("P1").get().setName("modified by caller");
+        graph.getProjectTree(ImmutableList.of("P1")).get("P2").setName("modified by caller");
+
+        assertThat(graph.getProject("P1").get().getName(), is("project P1"));
+        assertThat(graph.getProject("P2").get().getName(), is("project P2"));
+    }
+
+    private static Project project(String id, String... linkedProjectIds) {
+        ImmutableMap.Builder<String, ProjectRelationship> linkedProjects = ImmutableMap.builder();
+        for (String linkedProjectId : linkedProjectIds) {
+            linkedProjects.put(linkedProjectId, ProjectRelationship.CONTAINED);
+        }
+        return new Project().setId(id).setName("project " + id).setLinkedProjects(linkedProjects.build());
+    }
+
+    private static ProjectReleaseRelationship relation() {
+        return new ProjectReleaseRelationship(ReleaseRelationship.CONTAINED, MainlineState.OPEN);
+    }
+}
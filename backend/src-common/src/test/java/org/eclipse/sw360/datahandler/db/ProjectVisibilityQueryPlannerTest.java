@@ -0,0 +1,114 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import org.eclipse.sw360.datahandler.permissions.ProjectPermissions;
+import org.eclipse.sw360.datahandler.thrift.Visibility;
+import org.eclipse.sw360.datahandler.thrift.projects.Project;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.datahandler.thrift.users.UserGroup;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class ProjectVisibilityQueryPlannerTest {
+
+    private static final String[] EMAILS = {"alice@sw360.org", "bob@sw360.org", "carol@sw360.org", "dave@sw360.org"};
+    private static final String[] BUSINESS_UNITS = {"AB CD EF", "AB CD EFG", "AB CD FE", "ab cd ef", "XY", "", null};
+    private static final String[] DEPARTMENTS = {"AB CD EF", "AB CD EF GH", "AB CD", "ab cd ef", "XY Z", "", null};
+
+    private final Random random = new Random(4711);
+
+    @Test
+    public void testKeyRangesSelectExactlyTheVisibleProjects() {
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            projects.add(randomProject("P" + i));
+        }
+
+        for (User user : allUsers()) {
+            List<ProjectVisibilityQueryPlanner.KeyRange> ranges = ProjectVisibilityQueryPlanner.getKeyRanges(user);
+            assertThat(ranges.size(), lessThanOrEqualTo(5));
+
+            for (Project project : projects) {
+                boolean visible = ProjectPermissions.isVisible(user).test(project);
+                boolean selected = ProjectVisibilityQueryPlanner.getEmittedKeys(project).stream()
+                        .anyMatch(key -> ranges.stream().anyMatch(range -> range.contains(key)));
+
+                assertThat("project " + project + " for user " + user, selected, is(visible));
+            }
+        }
+    }
+
+    @Test
+    public void testProjectWithoutVisibilityUsesDefault() {
+        Project project = new Project().setId("P").setName("name").setBusinessUnit("AB CD EF");
+        User user = new User().setEmail(EMAILS[0]).setDepartment("AB CD EF GH").setUserGroup(UserGroup.USER);
+
+        assertThat(ProjectPermissions.isVisible(user).test(project), is(true));
+        assertThat(ProjectVisibilityQueryPlanner.getEmittedKeys(project).stream()
+                .anyMatch(key -> ProjectVisibilityQueryPlanner.getKeyRanges(user).stream().anyMatch(range -> range.contains(key))), is(true));
+    }
+
+    private List<User> allUsers() {
+        List<User> users = new ArrayList<>();
+        for (String email : EMAILS) {
+            for (String department : DEPARTMENTS) {
+                for (UserGroup group : UserGroup.values()) {
+                    users.add(new User().setEmail(email).setDepartment(department).setUserGroup(group));
+                }
+                users.add(new User().setEmail(email).setDepartment(department));
+            }
+        }
+        return users;
+    }
+
+    private Project randomProject(String id) {
+        Project project = new Project().setId(id).setName("project " + id);
+
+        int visibility = random.nextInt(Visibility.values().length + 1);
+        if (visibility < Visibility.values().length) {
+            project.setVisbility(Visibility.values()[visibility]);
+        }
+        project.setBusinessUnit(pick(BUSINESS_UNITS));
+
+        String createdBy = pickOrNull(EMAILS);
+        if (createdBy != null) project.setCreatedBy(createdBy);
+        String leadArchitect = pickOrNull(EMAILS);
+        if (leadArchitect != null) project.setLeadArchitect(leadArchitect);
+        String projectResponsible = pickOrNull(EMAILS);
+        if (projectResponsible != null) project.setProjectResponsible(projectResponsible);
+        if (random.nextBoolean()) project.setModerators(randomSubset(EMAILS));
+        if (random.nextBoolean()) project.setContributors(randomSubset(EMAILS));
+
+        return project;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String pickOrNull(String[] values) {
+        return random.nextInt(3) == 0 ? null : pick(values);
+    }
+
+    private Set<String> randomSubset(String[] values) {
+        Set<String> subset = new HashSet<>();
+        for (String value : values) {
+            if (random.nextInt(4) == 0) subset.add(value);
+        }
+        return subset;
+    }
+}
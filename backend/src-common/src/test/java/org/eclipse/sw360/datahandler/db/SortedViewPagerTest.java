@@ -0,0 +1,103 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.ektorp.ViewQuery;
+import org.ektorp.ViewResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SortedViewPagerTest {
+
+    private final List<ViewQuery> queries = new ArrayList<>();
+    private final Queue<ViewResult> results = new LinkedList<>();
+    private final SortedViewPager pager = new SortedViewPager(
+            viewName -> new ViewQuery().designDocId("_design/Component").viewName(viewName),
+            query -> {
+                queries.add(query);
+                return results.remove();
+            });
+
+    @Test
+    public void testNextPageStartsAtTheRememberedRow() {
+        results.add(result("1", "a", "b", "c"));
+        results.add(result("1", "c", "d"));
+
+        pager.getPage("byname", true, 0, 2);
+        SortedViewPager.Page page = pager.getPage("byname", true, 2, 2);
+
+        assertThat(ids(page), contains("c", "d"));
+        assertThat(queries.size(), is(2));
+        assertThat(queries.get(1).getStartDocId(), is("c"));
+        assertThat(queries.get(1).getSkip(), is(0));
+    }
+
+    @Test
+    public void testRememberedRowOfChangedViewIsNotUsed() {
+        results.add(result("1", "a", "b", "c"));
+        results.add(result("2", "c", "d"));
+        results.add(result("2", "b", "c"));
+
+        pager.getPage("byname", true, 0, 2);
+        SortedViewPager.Page page = pager.getPage("byname", true, 2, 2);
+
+        assertThat(ids(page), contains("b", "c"));
+        assertThat(queries.size(), is(3));
+        assertThat(queries.get(2).getStartDocId(), is(nullValue()));
+        assertThat(queries.get(2).getSkip(), is(2));
+    }
+
+    @Test
+    public void testRememberedRowIsOnlyUsedForTheSameOrder() {
+        results.add(result("1", "a", "b", "c"));
+        results.add(result("1", "x", "y"));
+
+        pager.getPage("byname", true, 0, 2);
+        pager.getPage("byname", false, 2, 2);
+
+        assertThat(queries.get(1).getStartDocId(), is(nullValue()));
+        assertThat(queries.get(1).getSkip(), is(2));
+    }
+
+    private static ViewResult result(String updateSeq, String... ids) {
+        List<ViewResult.Row> rows = Stream.of(ids).map(SortedViewPagerTest::row).collect(Collectors.toList());
+        ViewResult result = mock(ViewResult.class);
+        when(result.getRows()).thenReturn(rows);
+        when(result.getTotalRows()).thenReturn(10);
+        when(result.getUpdateSeqAsString()).thenReturn(updateSeq);
+        return result;
+    }
+
+    private static ViewResult.Row row(String id) {
+        ViewResult.Row row = mock(ViewResult.Row.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getKeyAsNode()).thenReturn(new TextNode(id));
+        return row;
+    }
+
+    private static List<String> ids(SortedViewPager.Page page) {
+        return page.getRows().stream().map(ViewResult.Row::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.db;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.sw360.datahandler.couchdb.MapperFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal in-memory stand-in for the documents and the changes feed of a CouchDB database
+ */
+class StubChangesFeedSource implements ChangesFeedSource {
+
+    private final ObjectMapper mapper = new MapperFactory().createObjectMapper();
+
+    private final TreeMap<String, JsonNode> documents = new TreeMap<>();
+    private final List<Change> feed = new ArrayList<>();
+    private int instance = 1;
+    private int positionsRead = 0;
+    private int documentPagesRead = 0;
+    private Runnable onNextPage;
+
+    void write(Object document) {
+        JsonNode node = mapper.valueToTree(document);
+        String id = node.path("_id").asText();
+        documents.put(id, node);
+        feed.add(new Change(id, String.valueOf(feed.size() + 1), false, node));
+    }
+
+    void delete(String id) {
+        documents.remove(id);
+        feed.add(new Change(id, String.valueOf(feed.size() + 1), true, null));
+    }
+
+    /**
+     * Deletes the database and creates it again, the update sequence starts from the beginning
+     */
+    void recreate() {
+        documents.clear();
+        feed.clear();
+        instance++;
+    }
+
+    Set<String> getIdsOfType(String type) {
+        return documents.entrySet().stream()
+                .filter(e -> type.equals(e.getValue().path("type").asText()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    int getPositionsRead() {
+        return positionsRead;
+    }
+
+    int getDocumentPagesRead() {
+        return documentPagesRead;
+    }
+
+    /**
+     * Runs the action once, while the next page of documents is read
+     */
+    void setOnNextPage(Runnable onNextPage) {
+        this.onNextPage = onNextPage;
+    }
+
+    @Override
+    public Position getPosition() {
+        positionsRead++;
+        return new Position(String.valueOf(instance), String.valueOf(feed.size()));
+    }
+
+    @Override
+    public List<JsonNode> getDocuments(String startAfterId, int limit) {
+        SortedMap<String, JsonNode> remaining = startAfterId == null ? documents : documents.tailMap(startAfterId, false);
+        List<JsonNode> page = remaining.values().stream().limit(limit).collect(Collectors.toList());
+        documentPagesRead++;
+        if (onNextPage != null) {
+            Runnable action = onNextPage;
+            onNextPage = null;
+            action.run();
+        }
+        return page;
+    }
+
+    @Override
+    public List<Change> getChanges(String sinceSequence, int limit) {
+        int since = Integer.parseInt(sinceSequence);
+        return new ArrayList<>(feed.subList(since, Math.min(feed.size(), since + limit)));
+    }
+}
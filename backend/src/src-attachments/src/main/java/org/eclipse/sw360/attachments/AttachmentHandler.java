@@ -92,6 +92,17 @@ public class AttachmentHandler implements AttachmentService.Iface {
         return handler.getSha1FromAttachmentContentId(attachmentContentId);
     }
 
+    @Override
+    public List<String> getAttachmentContentIdsWithoutSha1() throws TException {
+        return handler.getAttachmentContentIdsWithoutSha1();
+    }
+
+    @Override
+    public RequestSummary computeAttachmentSha1s(List<String> attachmentContentIds) throws TException {
+        assertNotNull(attachmentContentIds);
+        return handler.computeSha1s(attachmentContentIds);
+    }
+
     @Override
     public AttachmentUsage makeAttachmentUsage(AttachmentUsage attachmentUsage) throws TException {
         assertNotNull(attachmentUsage);
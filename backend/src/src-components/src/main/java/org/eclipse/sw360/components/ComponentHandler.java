@@ -18,6 +18,7 @@ import org.eclipse.sw360.datahandler.db.ReleaseSearchHandler;
 import org.eclipse.sw360.datahandler.thrift.*;
 import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
 import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.ComponentPage;
 import org.eclipse.sw360.datahandler.thrift.components.ComponentService;
 import org.eclipse.sw360.datahandler.thrift.components.Release;
 import org.eclipse.sw360.datahandler.thrift.components.ReleaseLink;
@@ -87,6 +88,14 @@ public class ComponentHandler implements ComponentService.Iface {
         return handler.getRecentComponentsSummary(limit, user);
     }
 
+    @Override
+    public ComponentPage getComponentSummaryPage(PaginationData pagination, User user) throws TException {
+        assertUser(user);
+        assertNotNull(pagination);
+
+        return handler.getComponentSummaryPage(pagination, user);
+    }
+
     @Override
     public int getTotalComponentsCount(User user) throws TException {
         assertUser(user);
@@ -50,6 +50,8 @@ import java.util.concurrent.TimeUnit;
 
 import static org.eclipse.sw360.datahandler.TestUtils.assertTestString;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -298,6 +300,22 @@ public class ProjectDatabaseHandlerTest {
         assertThat(linkedProjects, contains(link5));
     }
 
+    @Test
+    public void testGetLinkedProjectsHasStableNodeIds() throws Exception {
+        Project project = handler.getProjectById("P5", user);
+
+        List<ProjectLink> first = handler.getLinkedProjects(project, true, user);
+        List<ProjectLink> second = handler.getLinkedProjects(project, true, user);
+
+        assertThat(second, is(first));
+        ProjectLink link5 = first.get(0);
+        ProjectLink link6 = link5.getSubprojects().get(0);
+        ProjectLink link7_5 = link5.getSubprojects().get(1);
+        ProjectLink link7_6 = link6.getSubprojects().get(0);
+        assertThat(link7_6.getNodeId(), not(link7_5.getNodeId()));
+        assertThat(link7_6.getParentNodeId(), is(link6.getNodeId()));
+    }
+
     private void stripRandomPartsOfNodeIds(List<ProjectLink> linkedProjects) {
         linkedProjects.forEach(pl -> {
             if (pl.isSetNodeId()){
@@ -12,7 +12,9 @@
 package org.eclipse.sw360.cvesearch.datasink;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
 
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator.VulnerabilityWithRelation;
 import org.eclipse.sw360.datahandler.common.DatabaseSettings;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
 import org.eclipse.sw360.datahandler.db.*;
@@ -29,6 +31,8 @@ import org.eclipse.sw360.vulnerabilities.db.VulnerabilityDatabaseHandler;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class VulnerabilityConnector {
 
@@ -140,6 +144,67 @@ public class VulnerabilityConnector {
         return currentVulnerabilityUpdateStatus;
     }
 
+    /**
+     * Writes the vulnerabilities found for one release. The vulnerabilities which exist already are looked up with one
+     * query and all new and changed vulnerabilities are written with one bulk request, and so are their relations.
+     */
+    public VulnerabilityUpdateStatus addOrUpdate(List<VulnerabilityWithRelation> vulnerabilitiesWithRelations,
+                                                 VulnerabilityUpdateStatus currentVulnerabilityUpdateStatus) {
+        Map<String, Vulnerability> foundVulnerabilities = new LinkedHashMap<>();
+        for (VulnerabilityWithRelation vulnerabilityWithRelation : vulnerabilitiesWithRelations) {
+            foundVulnerabilities.putIfAbsent(vulnerabilityWithRelation.vulnerability.getExternalId(), vulnerabilityWithRelation.vulnerability);
+        }
+        Map<String, Vulnerability> dbVulnerabilities = vulnerabilityDatabaseHandler.getByExternalIds(foundVulnerabilities.keySet())
+                .stream()
+                .collect(Collectors.toMap(Vulnerability::getExternalId, Function.identity(), (first, second) -> first));
+
+        Map<String, UpdateType> updateTypes = new HashMap<>();
+        Map<String, Vulnerability> storedVulnerabilities = new HashMap<>();
+        List<Vulnerability> vulnerabilitiesToWrite = new ArrayList<>();
+        for (Vulnerability vulnerability : foundVulnerabilities.values()) {
+            String externalId = vulnerability.getExternalId();
+            Vulnerability dbVulnerability = dbVulnerabilities.get(externalId);
+            if (dbVulnerability == null) {
+                updateTypes.put(externalId, UpdateType.NEW);
+                vulnerabilitiesToWrite.add(vulnerability);
+                storedVulnerabilities.put(externalId, vulnerability);
+            } else if (isMoreRecent(vulnerability, dbVulnerability)) {
+                updateTypes.put(externalId, UpdateType.UPDATED);
+                dbVulnerability = VulnerabilityMapper.updateFromVulnerability(dbVulnerability, vulnerability);
+                vulnerabilitiesToWrite.add(dbVulnerability);
+                storedVulnerabilities.put(externalId, dbVulnerability);
+            } else {
+                updateTypes.put(externalId, UpdateType.OLD);
+                storedVulnerabilities.put(externalId, dbVulnerability);
+            }
+        }
+        for (Vulnerability failed : vulnerabilityDatabaseHandler.addOrUpdateVulnerabilities(vulnerabilitiesToWrite)) {
+            updateTypes.put(failed.getExternalId(), UpdateType.FAILED);
+        }
+
+        List<ReleaseVulnerabilityRelation> relationsToWrite = new ArrayList<>();
+        for (VulnerabilityWithRelation vulnerabilityWithRelation : vulnerabilitiesWithRelations) {
+            String externalId = vulnerabilityWithRelation.vulnerability.getExternalId();
+            if (!UpdateType.FAILED.equals(updateTypes.get(externalId))) {
+                vulnerabilityWithRelation.relation.setVulnerabilityId(storedVulnerabilities.get(externalId).getId());
+                relationsToWrite.add(vulnerabilityWithRelation.relation);
+            }
+        }
+        Set<ReleaseVulnerabilityRelation> failedRelations = Sets.newIdentityHashSet();
+        failedRelations.addAll(vulnerabilityDatabaseHandler.addOrUpdateRelations(relationsToWrite));
+
+        for (VulnerabilityWithRelation vulnerabilityWithRelation : vulnerabilitiesWithRelations) {
+            String externalId = vulnerabilityWithRelation.vulnerability.getExternalId();
+            UpdateType updateType = failedRelations.contains(vulnerabilityWithRelation.relation)
+                    ? UpdateType.FAILED
+                    : updateTypes.get(externalId);
+            currentVulnerabilityUpdateStatus.getStatusToVulnerabilityIds()
+                    .get(updateType)
+                    .add(externalId);
+        }
+        return currentVulnerabilityUpdateStatus;
+    }
+
     public Map<UpdateType, List<Vulnerability>> addOrUpdateVulnerabilityAndSetId(
             Vulnerability vulnerability,
             Map<UpdateType, List<Vulnerability>> statusToVulnerabilities){
@@ -22,7 +22,6 @@ import org.apache.log4j.Logger;
 import java.io.BufferedReader;
 import java.lang.reflect.Type;
 import java.io.*;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -35,6 +34,7 @@ public class CveSearchApiImpl implements CveSearchApi {
     private Logger log = Logger.getLogger(CveSearchApiImpl.class);
 
     private String host;
+    private CveSearchHttpClient httpClient;
 
     private String CVE_SEARCH_SEARCH  = "search";
     private String CVE_SEARCH_CVEFOR  = "cvefor";
@@ -45,12 +45,17 @@ public class CveSearchApiImpl implements CveSearchApi {
     private Type META_TARGET_TYPE = new TypeToken<Map<String,Object>>(){}.getType();
 
     public CveSearchApiImpl(String host) {
+        this(host, new CveSearchHttpClient());
+    }
+
+    public CveSearchApiImpl(String host, CveSearchHttpClient httpClient) {
         this.host = host;
+        this.httpClient = httpClient;
     }
 
     private <T> T getParsedContentFor(String query, Function<BufferedReader,T> parser) throws IOException {
         log.debug("Execute query: " + query);
-        try(InputStream is = new URL(query).openStream();
+        try(InputStream is = httpClient.get(query);
             InputStreamReader inputStreamReader = new InputStreamReader(is, Charset.forName("UTF-8"));
             BufferedReader content = new BufferedReader(inputStreamReader)) {
             return parser.apply(content);
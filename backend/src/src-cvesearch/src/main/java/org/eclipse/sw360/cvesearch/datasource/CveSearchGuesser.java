@@ -11,19 +11,34 @@
  */
 package org.eclipse.sw360.cvesearch.datasource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.eclipse.sw360.cvesearch.datasource.matcher.ListMatcher;
 import org.eclipse.sw360.cvesearch.datasource.matcher.Match;
+import org.eclipse.sw360.cvesearch.service.CveSearchHandler;
+import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class CveSearchGuesser {
 
+    // the matchers of a CVE-Search are shared by all guessers and threads which use it, they are built again after
+    // cvesearch.cache.max.age so that vendors and products added to CVE-Search are found
+    private static final long MATCHERS_MAX_AGE_SECONDS = Long.parseLong(CommonUtils
+            .loadProperties(CveSearchGuesser.class, "/cvesearch.properties")
+            .getProperty(CveSearchHandler.CVESEARCH_CACHE_MAX_AGE_PROPERTY, "3600"));
+    private static final Cache<CveSearchApi, Matchers> SHARED_MATCHERS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .expireAfterWrite(MATCHERS_MAX_AGE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
     private final CveSearchApi cveSearchApi;
-    private ListMatcher vendorMatcher;
-    private Map<String,ListMatcher> productMatchers;
+    private final Matchers unsharedMatchers;
 
     private int vendorThreshold = 0;
     private int productThreshold = 0;
@@ -33,8 +48,11 @@ public class CveSearchGuesser {
 
     public CveSearchGuesser(CveSearchApi cveSearchApi) {
         this.cveSearchApi=cveSearchApi;
-        vendorMatcher = null;
-        productMatchers = new HashMap<>();
+        unsharedMatchers = cveSearchApi == null ? new Matchers() : null;
+    }
+
+    private Matchers getMatchers() {
+        return cveSearchApi == null ? unsharedMatchers : SHARED_MATCHERS.asMap().computeIfAbsent(cveSearchApi, api -> new Matchers());
     }
 
     public void setVendorThreshold(int vendorThreshold) {
@@ -50,27 +68,36 @@ public class CveSearchGuesser {
     }
 
     public boolean addVendorGuesserIfNeeded() {
-        if(vendorMatcher == null) {
-            try {
-                vendorMatcher = new ListMatcher(cveSearchApi.allVendorNames());
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-                return false;
+        return getVendorMatcher(getMatchers()) != null;
+    }
+
+    private ListMatcher getVendorMatcher(Matchers matchers) {
+        if(matchers.vendorMatcher == null) {
+            synchronized (matchers) {
+                if(matchers.vendorMatcher == null) {
+                    try {
+                        matchers.vendorMatcher = new ListMatcher(cveSearchApi.allVendorNames());
+                    } catch (IOException e) {
+                        log.error(e.getMessage(), e);
+                        return null;
+                    }
+                }
             }
         }
-        return true;
+        return matchers.vendorMatcher;
     }
 
     public boolean addProductGuesserIfNeeded(String vendor) {
-        if(! productMatchers.containsKey(vendor)) {
-            try {
-                productMatchers.put(vendor, new ListMatcher(cveSearchApi.allProductsOfVendor(vendor)));
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-                return false;
-            }
+        return getProductMatcher(vendor) != null;
+    }
+
+    private ListMatcher getProductMatcher(String vendor) {
+        try {
+            return getMatchers().productMatchers.get(vendor, () -> new ListMatcher(cveSearchApi.allProductsOfVendor(vendor)));
+        } catch (ExecutionException e) {
+            log.error(e.getCause().getMessage(), e.getCause());
+            return null;
         }
-        return true;
     }
 
     public List<Match> getBest(List<Match> matches, int threshold) {
@@ -94,17 +121,19 @@ public class CveSearchGuesser {
     }
 
     public List<Match> guessVendors(String vendorHaystack) throws IOException {
-        if (!addVendorGuesserIfNeeded()){
+        ListMatcher vendorMatcher = getVendorMatcher(getMatchers());
+        if (vendorMatcher == null){
             throw new IOException("Was not able to instantiate vendor guesser");
         }
-        return getBest(vendorMatcher.getMatches(vendorHaystack), vendorThreshold);
+        return getBest(vendorMatcher.getMatches(vendorHaystack, vendorThreshold, cutoff), vendorThreshold);
     }
 
     public List<Match> guessProducts(String vendor, String productHaystack) throws IOException {
-        if (!addProductGuesserIfNeeded(vendor)) {
+        ListMatcher productMatcher = getProductMatcher(vendor);
+        if (productMatcher == null) {
             throw new IOException("Was not able to instantiate product guesser for vendor " + vendor);
         }
-        return getBest(productMatchers.get(vendor).getMatches(productHaystack), productThreshold);
+        return getBest(productMatcher.getMatches(productHaystack, productThreshold, cutoff), productThreshold);
     }
 
     public List<Match> guessVendorAndProducts(String haystack) throws IOException {
@@ -126,4 +155,11 @@ public class CveSearchGuesser {
                 .filter(sm -> cutoff == 0 || cutoff > sm.getDistance())
                 .collect(Collectors.toList());
     }
+
+    private static class Matchers {
+        private volatile ListMatcher vendorMatcher = null;
+        private final Cache<String, ListMatcher> productMatchers = CacheBuilder.newBuilder()
+                .expireAfterWrite(MATCHERS_MAX_AGE_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
 }
@@ -0,0 +1,365 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.cvesearch.datasource;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
+
+/**
+ * Http client for the queries to CVE-Search.
+ *
+ * Connections are pooled and reused, connecting and reading are bounded by timeouts and the requests which actually
+ * go to CVE-Search can be limited to a number per second, also if many updates run at once. If a cache directory is
+ * configured, responses are kept on disk together with their ETag and Last-Modified header. Responses younger than the
+ * maximum age are served from disk, older ones are revalidated with a conditional request, so that only changed data
+ * is downloaded again. If CVE-Search cannot be reached or fails, the last known response is served instead. When the
+ * cached responses exceed their maximum size, the least recently fetched or revalidated ones are deleted.
+ */
+public class CveSearchHttpClient implements Closeable {
+    private static final Logger log = Logger.getLogger(CveSearchHttpClient.class);
+
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    public static final int DEFAULT_READ_TIMEOUT = 60000;
+    public static final int DEFAULT_MAX_CONNECTIONS = 8;
+    public static final long DEFAULT_MAX_CACHE_BYTES = 512L * 1024 * 1024;
+
+    private static final String CACHE_FILE_SUFFIX = ".response";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Path cacheDirectory;
+    private final long maxAgeMillis;
+    private final long maxCacheBytes;
+    // size of the cached responses, read from the cache directory once and kept up to date by the writes
+    private final AtomicLong cacheBytes = new AtomicLong();
+    private final RateLimiter rateLimiter;
+
+    /**
+     * @param connectTimeout timeout in milliseconds for connecting to CVE-Search
+     * @param readTimeout    timeout in milliseconds between two packets of a response
+     * @param maxConnections number of connections to CVE-Search which are kept open
+     * @param cacheDirectory directory of the cached responses, if null or not writable responses are not cached
+     * @param maxAgeMillis   age of cached responses which are served without asking CVE-Search
+     * @param maxRequestsPerSecond number of requests per second sent to CVE-Search, 0 for no limit
+     * @param maxCacheBytes  size of the cached responses above which the oldest ones are deleted, 0 for no limit
+     */
+    public CveSearchHttpClient(int connectTimeout, int readTimeout, int maxConnections, File cacheDirectory, long maxAgeMillis,
+                               double maxRequestsPerSecond, long maxCacheBytes) {
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxCacheBytes = maxCacheBytes;
+        this.rateLimiter = maxRequestsPerSecond > 0 ? RateLimiter.create(maxRequestsPerSecond) : null;
+        this.cacheDirectory = cacheDirectory == null ? null : createCacheDirectory(cacheDirectory);
+        if (this.cacheDirectory != null) {
+            cacheBytes.set(listCachedResponses().stream().mapToLong(CacheEntry::getSize).sum());
+        }
+
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .build();
+
+        // system properties keep the proxy settings which applied to the plain url connections before
+        httpClient = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    public CveSearchHttpClient(int connectTimeout, int readTimeout, int maxConnections, File cacheDirectory, long maxAgeMillis,
+                               double maxRequestsPerSecond) {
+        this(connectTimeout, readTimeout, maxConnections, cacheDirectory, maxAgeMillis, maxRequestsPerSecond, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    public CveSearchHttpClient(int connectTimeout, int readTimeout, int maxConnections, File cacheDirectory, long maxAgeMillis) {
+        this(connectTimeout, readTimeout, maxConnections, cacheDirectory, maxAgeMillis, 0);
+    }
+
+    public CveSearchHttpClient() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_MAX_CONNECTIONS, null, 0);
+    }
+
+    private static Path createCacheDirectory(File cacheDirectory) {
+        try {
+            return Files.createDirectories(cacheDirectory.toPath());
+        } catch (IOException e) {
+            log.error("Cannot create cache directory " + cacheDirectory + ", responses of CVE-Search are not cached", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the body of the response, which has to be closed by the caller
+     */
+    public InputStream get(String url) throws IOException {
+        if (cacheDirectory == null) {
+            return getUncached(url);
+        }
+
+        Path cacheFile = cacheDirectory.resolve(DigestUtils.sha1Hex(url) + CACHE_FILE_SUFFIX);
+        CachedResponse cached = CachedResponse.read(cacheFile, url);
+        if (cached != null && cached.getAgeMillis() < maxAgeMillis) {
+            log.debug("Serving " + url + " from cache");
+            return cached.body;
+        }
+
+        InputStream body;
+        try {
+            body = getConditionally(url, cacheFile, cached);
+        } catch (IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            log.warn("Could not revalidate " + url + ", serving cached response instead: " + e.getMessage());
+            return cached.body;
+        } catch (RuntimeException e) {
+            closeQuietly(cached == null ? null : cached.body, log);
+            throw e;
+        }
+        if (cached != null && body != cached.body) {
+            cached.body.close();
+        }
+        return body;
+    }
+
+    private InputStream getUncached(String url) throws IOException {
+        CloseableHttpResponse response = execute(new HttpGet(url));
+        try {
+            int status = response.getStatusLine().getStatusCode();
+            if (status != HttpStatus.SC_OK || response.getEntity() == null) {
+                throw new IOException("CVE-Search answered " + response.getStatusLine() + " to " + url);
+            }
+            return new FilterInputStream(response.getEntity().getContent()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    private InputStream getConditionally(String url, Path cacheFile, CachedResponse cached) throws IOException {
+        HttpGet request = new HttpGet(url);
+        if (cached != null) {
+            if (!cached.etag.isEmpty()) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag);
+            }
+            if (!cached.lastModified.isEmpty()) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+            }
+        }
+
+        try (CloseableHttpResponse response = execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                EntityUtils.consume(response.getEntity());
+                log.debug(url + " has not been modified");
+                Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+                return cached.body;
+            }
+            if (status != HttpStatus.SC_OK || response.getEntity() == null) {
+                EntityUtils.consume(response.getEntity());
+                throw new IOException("CVE-Search answered " + response.getStatusLine() + " to " + url);
+            }
+
+            Path tempFile = Files.createTempFile(cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    CachedResponse.writeHeader(out, url, getHeader(response, HttpHeaders.ETAG), getHeader(response, HttpHeaders.LAST_MODIFIED));
+                    response.getEntity().writeTo(out);
+                }
+                long replacedBytes = Files.exists(cacheFile) ? Files.size(cacheFile) : 0;
+                long writtenBytes = Files.size(tempFile);
+                // readers of the previous response keep their open file, the new one replaces it at once
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                cacheBytes.addAndGet(writtenBytes - replacedBytes);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        if (maxCacheBytes > 0 && cacheBytes.get() > maxCacheBytes) {
+            pruneCache(cacheFile);
+        }
+
+        CachedResponse fetched = CachedResponse.read(cacheFile, url);
+        if (fetched == null) {
+            throw new IOException("Could not read cached response to " + url);
+        }
+        return fetched.body;
+    }
+
+    /**
+     * Deletes the least recently fetched or revalidated responses, except for the given one, until the cached
+     * responses take at most three quarters of their maximum size, so that the cache is not pruned on every write
+     */
+    private synchronized void pruneCache(Path keptFile) {
+        List<CacheEntry> entries = listCachedResponses();
+        long size = entries.stream().mapToLong(CacheEntry::getSize).sum();
+        long targetSize = maxCacheBytes / 4 * 3;
+        entries.sort(Comparator.comparingLong(CacheEntry::getLastModified));
+        int deleted = 0;
+        for (CacheEntry entry : entries) {
+            if (size <= targetSize) {
+                break;
+            }
+            if (entry.file.equals(keptFile)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(entry.file);
+                size -= entry.size;
+                deleted++;
+            } catch (IOException e) {
+                log.debug("Could not delete cached response " + entry.file + ": " + e.getMessage());
+            }
+        }
+        cacheBytes.set(size);
+        log.info("Deleted " + deleted + " cached responses of CVE-Search, " + size + " bytes are left");
+    }
+
+    private List<CacheEntry> listCachedResponses() {
+        List<CacheEntry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + CACHE_FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    entries.add(new CacheEntry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (NoSuchFileException e) {
+                    // replaced or deleted in the meantime
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list the cached responses in " + cacheDirectory, e);
+        }
+        return entries;
+    }
+
+    private CloseableHttpResponse execute(HttpGet request) throws IOException {
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+        return httpClient.execute(request);
+    }
+
+    private static String getHeader(CloseableHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? "" : header.getValue();
+    }
+
+    int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private static class CacheEntry {
+        private final Path file;
+        private final long size;
+        private final long lastModified;
+
+        private CacheEntry(Path file, long size, long lastModified) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * A cached response is one file, a header with the url and the validators followed by the body as it was sent.
+     */
+    private static class CachedResponse {
+        private final String etag;
+        private final String lastModified;
+        private final long fetchedAt;
+        private final InputStream body;
+
+        private CachedResponse(String etag, String lastModified, long fetchedAt, InputStream body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchedAt = fetchedAt;
+            this.body = body;
+        }
+
+        long getAgeMillis() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+
+        static void writeHeader(OutputStream out, String url, String etag, String lastModified) throws IOException {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeUTF(url);
+            header.writeUTF(etag);
+            header.writeUTF(lastModified);
+            header.flush();
+        }
+
+        static CachedResponse read(Path cacheFile, String url) {
+            DataInputStream in = null;
+            try {
+                long fetchedAt = Files.getLastModifiedTime(cacheFile).toMillis();
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)));
+                if (!url.equals(in.readUTF())) {
+                    in.close();
+                    return null;
+                }
+                return new CachedResponse(in.readUTF(), in.readUTF(), fetchedAt, in);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable cached response " + cacheFile, e);
+                closeQuietly(in, log);
+                return null;
+            }
+        }
+    }
+}
@@ -13,18 +13,43 @@ package org.eclipse.sw360.cvesearch.datasource.matcher;
 
 import org.apache.log4j.Logger;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.eclipse.sw360.cvesearch.datasource.matcher.ModifiedLevenshteinDistance.levenshteinMatch;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyString;
 
+/**
+ * Matches a haystack against a fixed list of needles.
+ *
+ * The needles are indexed by their characters. Every needle character which is not in the haystack costs at least
+ * one edit, so the characters a needle shares with the haystack bound its distance from below. Needles which share no
+ * character cannot match at all. This lets {@link #getMatches(String, int, int)} compute the distance only for the
+ * needles which can still be close enough. The index is not changed after construction, so a matcher can be used by
+ * several threads at once.
+ */
 public class ListMatcher {
-    private Collection<String> needleList;
+    private final List<String> needleList;
+    private final Map<Character, Postings> postingsByChar;
+    private final int maxNeedleLength;
     Logger log = Logger.getLogger(ListMatcher.class);
 
     public ListMatcher(Collection<String> needleList){
-        this.needleList = needleList;
+        this.needleList = new ArrayList<>(needleList);
+
+        Map<Character, Postings> postings = new HashMap<>();
+        int maxLength = 0;
+        for (int needleIndex = 0; needleIndex < this.needleList.size(); needleIndex++) {
+            String needle = this.needleList.get(needleIndex);
+            maxLength = Math.max(maxLength, needle.length());
+            for (Map.Entry<Character, Integer> charCount : countChars(needle).entrySet()) {
+                postings.computeIfAbsent(charCount.getKey(), c -> new Postings())
+                        .add(needleIndex, charCount.getValue());
+            }
+        }
+        postings.values().forEach(Postings::trim);
+        this.postingsByChar = postings;
+        this.maxNeedleLength = maxLength;
     }
 
     public List<Match> getMatches(String haystack){
@@ -33,4 +58,119 @@ public class ListMatcher {
                 .sorted((sm1,sm2) -> sm1.compareTo(sm2))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Returns the matches with a distance of at most threshold more than the best match and below the cutoff, in the
+     * same order as {@link #getMatches(String)}. Needles which do not match at all are left out.
+     */
+    public List<Match> getMatches(String haystack, int threshold, int cutoff){
+        String preparedHaystack = nullToEmptyString(haystack).replace(' ', '_');
+
+        int[] sharedChars = new int[needleList.size()];
+        for (Map.Entry<Character, Integer> charCount : countChars(preparedHaystack).entrySet()) {
+            Postings postings = postingsByChar.get(charCount.getKey());
+            if (postings != null) {
+                for (int k = 0; k < postings.size; k++) {
+                    sharedChars[postings.needles[k]] += Math.min(postings.counts[k], charCount.getValue());
+                }
+            }
+        }
+
+        int[] candidates = sortByLowerBound(sharedChars);
+        ModifiedLevenshteinDistance levenshteinDistance = new ModifiedLevenshteinDistance();
+        List<IndexedMatch> matches = new ArrayList<>();
+        int bestDistance = Integer.MAX_VALUE;
+        for (int needleIndex : candidates) {
+            int lowerBound = lowerBound(needleIndex, sharedChars);
+            if (lowerBound >= cutoff || (long) lowerBound > (long) bestDistance + threshold) {
+                break;
+            }
+            String needle = needleList.get(needleIndex);
+            long maxDistance = Math.min((long) cutoff - 1, (long) bestDistance + threshold);
+            int distance = levenshteinDistance.distance(needle, preparedHaystack, (int) Math.min(maxDistance, Integer.MAX_VALUE));
+            if (distance != Integer.MAX_VALUE) {
+                matches.add(new IndexedMatch(needleIndex, new Match(needle, distance)));
+                bestDistance = Math.min(bestDistance, distance);
+            }
+        }
+
+        long maxDistance = (long) bestDistance + threshold;
+        return matches.stream()
+                .filter(indexedMatch -> indexedMatch.match.getDistance() <= maxDistance
+                        && indexedMatch.match.getDistance() < cutoff)
+                .sorted(Comparator.<IndexedMatch>naturalOrder())
+                .map(indexedMatch -> indexedMatch.match)
+                .collect(Collectors.toList());
+    }
+
+    private int lowerBound(int needleIndex, int[] sharedChars) {
+        return needleList.get(needleIndex).length() - sharedChars[needleIndex];
+    }
+
+    private int[] sortByLowerBound(int[] sharedChars) {
+        int[] bucketStarts = new int[maxNeedleLength + 2];
+        int candidateCount = 0;
+        for (int needleIndex = 0; needleIndex < sharedChars.length; needleIndex++) {
+            if (sharedChars[needleIndex] > 0) {
+                bucketStarts[lowerBound(needleIndex, sharedChars) + 1]++;
+                candidateCount++;
+            }
+        }
+        for (int i = 1; i < bucketStarts.length; i++) {
+            bucketStarts[i] += bucketStarts[i - 1];
+        }
+        int[] candidates = new int[candidateCount];
+        for (int needleIndex = 0; needleIndex < sharedChars.length; needleIndex++) {
+            if (sharedChars[needleIndex] > 0) {
+                candidates[bucketStarts[lowerBound(needleIndex, sharedChars)]++] = needleIndex;
+            }
+        }
+        return candidates;
+    }
+
+    private static Map<Character, Integer> countChars(String string) {
+        Map<Character, Integer> charCounts = new HashMap<>();
+        for (int i = 0; i < string.length(); i++) {
+            charCounts.merge(Character.toLowerCase(string.charAt(i)), 1, Integer::sum);
+        }
+        return charCounts;
+    }
+
+    private static class Postings {
+        private int[] needles = new int[4];
+        private int[] counts = new int[4];
+        private int size = 0;
+
+        void add(int needleIndex, int count) {
+            if (size == needles.length) {
+                needles = Arrays.copyOf(needles, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            needles[size] = needleIndex;
+            counts[size] = count;
+            size++;
+        }
+
+        void trim() {
+            needles = Arrays.copyOf(needles, size);
+            counts = Arrays.copyOf(counts, size);
+        }
+    }
+
+    private static class IndexedMatch implements Comparable<IndexedMatch> {
+        private final int needleIndex;
+        private final Match match;
+
+        IndexedMatch(int needleIndex, Match match) {
+            this.needleIndex = needleIndex;
+            this.match = match;
+        }
+
+        @Override
+        public int compareTo(IndexedMatch other) {
+            // equal matches keep the order of the needle list, like the stable sort of getMatches
+            int byMatch = match.compareTo(other.match);
+            return byMatch != 0 ? byMatch : Integer.compare(needleIndex, other.needleIndex);
+        }
+    }
 }
@@ -13,57 +13,27 @@ package org.eclipse.sw360.cvesearch.datasource.matcher;
 
 import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyString;
 
+/**
+ * Calculates the modified Levenshtein distance on two rolling rows of ints.
+ *
+ * An instance keeps its rows between calculations, so matching one haystack against many needles does not allocate.
+ * An instance must not be used by several threads at once, the static methods create their own instance.
+ */
 public class ModifiedLevenshteinDistance {
 
-    public static Match levenshteinMatch(String needle, String haystack){
-        return new Match(needle,
-                calculateModifiedLevenshteinDistance(needle, nullToEmptyString(haystack).replace(' ', '_')));
-    }
-
-    public static class LevenshteinCost {
+    private static final char SPACE = '_';
 
-        private final int d;
-        private final boolean matched;
+    // a cost is encoded as 2 * distance + (matched ? 0 : 1), so the smaller code is the smaller distance and for equal
+    // distances the one which has matched
+    private static final int NOT_MATCHED = 1;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
 
-        public LevenshteinCost(int d){
-            this.d = d;
-            this.matched = false;
-        }
+    private int[] oldcost = new int[0];
+    private int[] curcost = new int[0];
 
-        private LevenshteinCost(int d, boolean matched){
-            this.d = d;
-            this.matched = matched;
-        }
-
-        public int getD() {
-            return d;
-        }
-
-        public boolean hasMatched() {
-            return matched;
-        }
-
-        public LevenshteinCost increment() {
-            return new LevenshteinCost(d + 1, matched);
-        }
-
-        public LevenshteinCost incrementOrMatch(boolean hasMatched) {
-            if(hasMatched){
-                return new LevenshteinCost(d, true);
-            }else{
-                return this.increment();
-            }
-        }
-
-        public LevenshteinCost merge(LevenshteinCost le){
-            if(d > le.getD()){
-                return le;
-            }
-            if(d == le.getD()){
-                return new LevenshteinCost(d, matched || le.hasMatched());
-            }
-            return this;
-        }
+    public static Match levenshteinMatch(String needle, String haystack){
+        return new Match(needle,
+                calculateModifiedLevenshteinDistance(needle, nullToEmptyString(haystack).replace(' ', SPACE)));
     }
 
     /**
@@ -79,7 +49,7 @@ public class ModifiedLevenshteinDistance {
      * @return the modified Levenshtein distance between the needle and the haystack
      */
     public static int calculateModifiedLevenshteinDistance(String needle, String haystack) {
-        return calculateModifiedLevenshteinDistance(needle, haystack,'_');
+        return calculateModifiedLevenshteinDistance(needle, haystack, SPACE);
     }
 
     /**
@@ -96,6 +66,26 @@ public class ModifiedLevenshteinDistance {
      * @return the modified Levenshtein distance between the needle and the haystack
      */
     public static int calculateModifiedLevenshteinDistance(String needle, String haystack, char space){
+        return new ModifiedLevenshteinDistance().distance(needle, haystack, space, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #calculateModifiedLevenshteinDistance(String, String)}, but stops as soon as the distance is
+     * known to be larger than maxDistance.
+     */
+    public int distance(String needle, String haystack, int maxDistance){
+        return distance(needle, haystack, SPACE, maxDistance);
+    }
+
+    /**
+     * Same as {@link #calculateModifiedLevenshteinDistance(String, String, char)}, but stops as soon as the distance
+     * is known to be larger than maxDistance.
+     *
+     * @param maxDistance the largest distance which is of interest
+     * @return the modified Levenshtein distance between the needle and the haystack, or Integer.MAX_VALUE if it is
+     * larger than maxDistance
+     */
+    public int distance(String needle, String haystack, char space, int maxDistance){
 
         if (needle.length() == 0 || haystack.length() == 0){
             return Integer.MAX_VALUE;
@@ -103,48 +93,69 @@ public class ModifiedLevenshteinDistance {
 
         int needleLength = needle.length() + 1;
         int haystackLength = haystack.length() + 1;
+        long maxCost = 2L * maxDistance + NOT_MATCHED;
 
-        LevenshteinCost[] oldcost = new LevenshteinCost[needleLength];
-        LevenshteinCost[] curcost = new LevenshteinCost[needleLength];
+        if (oldcost.length < needleLength) {
+            oldcost = new int[needleLength];
+            curcost = new int[needleLength];
+        }
+        int[] oldcost = this.oldcost;
+        int[] curcost = this.curcost;
 
-        for (int i = 0; i < needleLength; i++) oldcost[i] = new LevenshteinCost(i);
+        for (int i = 0; i < needleLength; i++) oldcost[i] = 2 * i + NOT_MATCHED;
 
         int savedCostsWhenSkippedSpaceSeparatedPrefix = 0;
-        LevenshteinCost minimalCostsWhenSkippedSpaceSeperatedPostfix = new LevenshteinCost(Integer.MAX_VALUE);
+        int minimalCostsWhenSkippedSpaceSeperatedPostfix = UNREACHABLE;
+        int nextSpace = -1;
         for (int j = 1; j < haystackLength; j++) {
             //=========================================================================================================
-            if (j > 0 && haystack.charAt(j - 1) == space) {
+            char haystackChar = Character.toLowerCase(haystack.charAt(j - 1));
+            if (haystack.charAt(j - 1) == space) {
                 // skipping prefix of haystack does not cost anything, if it ends with a space
                 savedCostsWhenSkippedSpaceSeparatedPrefix = j;
             }
-            curcost[0] = new LevenshteinCost(j - savedCostsWhenSkippedSpaceSeparatedPrefix);
+            curcost[0] = 2 * (j - savedCostsWhenSkippedSpaceSeparatedPrefix) + NOT_MATCHED;
+            int minimalCostInRow = curcost[0];
 
             //=========================================================================================================
             for(int i = 1; i < needleLength; i++) {
-                boolean charsMatch = Character.toLowerCase(needle.charAt(i - 1)) == Character.toLowerCase(haystack.charAt(j - 1));
-                LevenshteinCost costReplace = oldcost[i - 1].incrementOrMatch(charsMatch);
-                LevenshteinCost costInsert  = oldcost[i].increment();
-                LevenshteinCost costDelete  = curcost[i - 1].increment();
-
-                curcost[i] = costReplace.merge(costInsert).merge(costDelete);
+                int costReplace = Character.toLowerCase(needle.charAt(i - 1)) == haystackChar
+                        ? oldcost[i - 1] & ~NOT_MATCHED
+                        : oldcost[i - 1] + 2;
+                int costInsert  = oldcost[i] + 2;
+                int costDelete  = curcost[i - 1] + 2;
+
+                int cost = Math.min(costReplace, Math.min(costInsert, costDelete));
+                curcost[i] = cost;
+                minimalCostInRow = Math.min(minimalCostInRow, cost);
             }
 
             //=========================================================================================================
             if(haystack.charAt(j - 1) == space) {
                 // skipping postfix of haystack does not cost anything, if it starts with a space
                 minimalCostsWhenSkippedSpaceSeperatedPostfix =
-                        minimalCostsWhenSkippedSpaceSeperatedPostfix.merge(oldcost[needleLength - 1]);
+                        Math.min(minimalCostsWhenSkippedSpaceSeperatedPostfix, oldcost[needleLength - 1]);
             }
 
             //=========================================================================================================
-            LevenshteinCost[] swap = oldcost; oldcost = curcost; curcost = swap;
+            int[] swap = oldcost; oldcost = curcost; curcost = swap;
+
+            //=========================================================================================================
+            if (minimalCostInRow > maxCost && minimalCostsWhenSkippedSpaceSeperatedPostfix > maxCost) {
+                // no cell of the next rows gets cheaper, only starting again after a space can still be close enough
+                if (nextSpace < j) {
+                    nextSpace = haystack.indexOf(space, j);
+                }
+                if (nextSpace < 0 || needle.length() - (haystack.length() - nextSpace - 1) > maxDistance) {
+                    return Integer.MAX_VALUE;
+                }
+            }
         }
 
-        LevenshteinCost finalCost = oldcost[needleLength - 1]
-                .merge(minimalCostsWhenSkippedSpaceSeperatedPostfix);
+        int finalCost = Math.min(oldcost[needleLength - 1], minimalCostsWhenSkippedSpaceSeperatedPostfix);
 
-        if(finalCost.hasMatched()){
-            return finalCost.getD();
+        if((finalCost & NOT_MATCHED) == 0 && finalCost >> 1 <= maxDistance){
+            return finalCost >> 1;
         }else{
             return Integer.MAX_VALUE;
         }
@@ -14,11 +14,12 @@ package org.eclipse.sw360.cvesearch.service;
 
 import org.eclipse.sw360.cvesearch.datasink.VulnerabilityConnector;
 import org.eclipse.sw360.cvesearch.datasource.CveSearchApiImpl;
-import org.eclipse.sw360.cvesearch.datasource.CveSearchData;
+import org.eclipse.sw360.cvesearch.datasource.CveSearchHttpClient;
 import org.eclipse.sw360.cvesearch.datasource.CveSearchWrapper;
 import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator;
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
 import org.eclipse.sw360.datahandler.thrift.components.Component;
 import org.eclipse.sw360.datahandler.thrift.components.Release;
 import org.eclipse.sw360.datahandler.thrift.cvesearch.CveSearchService;
@@ -28,8 +29,10 @@ import org.eclipse.sw360.datahandler.thrift.projects.Project;
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.eclipse.sw360.cvesearch.helper.VulnerabilityUtils.*;
@@ -39,8 +42,17 @@ public class CveSearchHandler implements CveSearchService.Iface {
     private static final Logger log = Logger.getLogger(CveSearchHandler.class);
 
     public static final String CVESEARCH_HOST_PROPERTY = "cvesearch.host";
+    public static final String CVESEARCH_CONNECT_TIMEOUT_PROPERTY = "cvesearch.connect.timeout";
+    public static final String CVESEARCH_READ_TIMEOUT_PROPERTY = "cvesearch.read.timeout";
+    public static final String CVESEARCH_MAX_CONNECTIONS_PROPERTY = "cvesearch.max.connections";
+    public static final String CVESEARCH_CACHE_DIR_PROPERTY = "cvesearch.cache.dir";
+    public static final String CVESEARCH_CACHE_MAX_AGE_PROPERTY = "cvesearch.cache.max.age";
+    public static final String CVESEARCH_CACHE_MAX_SIZE_PROPERTY = "cvesearch.cache.max.size";
+    public static final String CVESEARCH_REQUESTS_PER_SECOND_PROPERTY = "cvesearch.requests.per.second";
+    public static final String CVESEARCH_UPDATE_THREADS_PROPERTY = "cvesearch.update.threads";
     private VulnerabilityConnector vulnerabilityConnector;
     private CveSearchWrapper cveSearchWrapper;
+    private FullUpdater fullUpdater;
 
 
     public CveSearchHandler() {
@@ -53,34 +65,46 @@ public class CveSearchHandler implements CveSearchService.Iface {
         Properties props = CommonUtils.loadProperties(CveSearchHandler.class, "/cvesearch.properties");
         String host = props.getProperty(CVESEARCH_HOST_PROPERTY, "https://localhost:5000");
 
+        String cacheDir = props.getProperty(CVESEARCH_CACHE_DIR_PROPERTY,
+                new File(System.getProperty("java.io.tmpdir"), "sw360-cvesearch").getPath());
+
         log.info("Using " + host + " for CVE search...");
 
-        cveSearchWrapper = new CveSearchWrapper(new CveSearchApiImpl(host));
+        CveSearchHttpClient httpClient = new CveSearchHttpClient(
+                Integer.parseInt(props.getProperty(CVESEARCH_CONNECT_TIMEOUT_PROPERTY, String.valueOf(CveSearchHttpClient.DEFAULT_CONNECT_TIMEOUT))),
+                Integer.parseInt(props.getProperty(CVESEARCH_READ_TIMEOUT_PROPERTY, String.valueOf(CveSearchHttpClient.DEFAULT_READ_TIMEOUT))),
+                Integer.parseInt(props.getProperty(CVESEARCH_MAX_CONNECTIONS_PROPERTY, String.valueOf(CveSearchHttpClient.DEFAULT_MAX_CONNECTIONS))),
+                cacheDir.trim().isEmpty() ? null : new File(cacheDir.trim()),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(props.getProperty(CVESEARCH_CACHE_MAX_AGE_PROPERTY, "3600"))),
+                Double.parseDouble(props.getProperty(CVESEARCH_REQUESTS_PER_SECOND_PROPERTY, "20")),
+                Long.parseLong(props.getProperty(CVESEARCH_CACHE_MAX_SIZE_PROPERTY,
+                        String.valueOf(CveSearchHttpClient.DEFAULT_MAX_CACHE_BYTES / (1024 * 1024)))) * 1024 * 1024);
+
+        cveSearchWrapper = new CveSearchWrapper(new CveSearchApiImpl(host, httpClient));
+        fullUpdater = new FullUpdater(Integer.parseInt(props.getProperty(CVESEARCH_UPDATE_THREADS_PROPERTY, "4")),
+                this::searchForRelease, this::writeForRelease);
     }
 
-    private VulnerabilityUpdateStatus updateForRelease(Release release) {
-        Optional<List<CveSearchData>> cveSearchDatas = cveSearchWrapper.searchForRelease(release);
-        if(!cveSearchDatas.isPresent()) {
-            return new VulnerabilityUpdateStatus().setRequestStatus(RequestStatus.FAILURE);
-        }
+    private Optional<List<CveSearchDataTranslator.VulnerabilityWithRelation>> searchForRelease(Release release) {
+        return cveSearchWrapper.searchForRelease(release)
+                .map(cveSearchDatas -> {
+                    CveSearchDataTranslator cveSearchDataTranslator = new CveSearchDataTranslator();
+                    return cveSearchDatas.stream()
+                            .map(cveSearchDataTranslator)
+                            .map(vulnerabilityWithRelation -> {
+                                vulnerabilityWithRelation.relation.setReleaseId(release.getId());
+                                return vulnerabilityWithRelation;
+                            })
+                            .collect(Collectors.toList());
+                });
+    }
 
-        CveSearchDataTranslator cveSearchDataTranslator = new CveSearchDataTranslator();
-        List<CveSearchDataTranslator.VulnerabilityWithRelation> translated = cveSearchDatas.get().stream()
-                .map(cveSearchDataTranslator)
-                .map(vulnerabilityWithRelation -> {
-                    vulnerabilityWithRelation.relation.setReleaseId(release.getId());
-                    return vulnerabilityWithRelation;
-                })
-                .collect(Collectors.toList());
-
-        VulnerabilityUpdateStatus updateStatus = getEmptyVulnerabilityUpdateStatus();
-        for (CveSearchDataTranslator.VulnerabilityWithRelation vulnerabilityWithRelation : translated) {
-            updateStatus = vulnerabilityConnector.addOrUpdate(vulnerabilityWithRelation.vulnerability,
-                    vulnerabilityWithRelation.relation,
-                    updateStatus);
-        }
+    private VulnerabilityUpdateStatus writeForRelease(Release release, List<CveSearchDataTranslator.VulnerabilityWithRelation> translated) {
+        return vulnerabilityConnector.addOrUpdate(translated, getEmptyVulnerabilityUpdateStatus());
+    }
 
-        return updateStatus;
+    private VulnerabilityUpdateStatus updateForRelease(Release release) {
+        return fullUpdater.updateRelease(release);
     }
 
     @Override
@@ -122,10 +146,12 @@ public class CveSearchHandler implements CveSearchService.Iface {
     public VulnerabilityUpdateStatus fullUpdate() throws TException {
         List<Release> allReleases = vulnerabilityConnector.getAllReleases();
 
-        return allReleases.stream()
-                .map(this::updateForRelease)
-                .reduce(getEmptyVulnerabilityUpdateStatus(),
-                        (r1, r2) -> reduceVulnerabilityUpdateStatus(r1,r2));
+        return fullUpdater.updateAll(allReleases);
+    }
+
+    @Override
+    public RequestSummary getUpdateProgress() {
+        return fullUpdater.getProgress();
     }
 
     @Override
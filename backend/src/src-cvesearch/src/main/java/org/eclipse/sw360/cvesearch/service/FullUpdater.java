@@ -0,0 +1,188 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.cvesearch.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator.VulnerabilityWithRelation;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.cvesearch.VulnerabilityUpdateStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.eclipse.sw360.cvesearch.helper.VulnerabilityUtils.getEmptyVulnerabilityUpdateStatus;
+import static org.eclipse.sw360.cvesearch.helper.VulnerabilityUtils.reduceVulnerabilityUpdateStatus;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyString;
+
+/**
+ * Updates the vulnerabilities of releases.
+ *
+ * A full update searches the releases on a bounded pool of named threads. Releases which share a vulnerability write
+ * their vulnerabilities one after another, so that they do not both create a new vulnerability. If the update of a
+ * release fails, the release is reported as failed and the other releases are updated nevertheless. Only one full
+ * update runs at a time and its progress can be read while it runs.
+ */
+class FullUpdater {
+    private static final Logger log = Logger.getLogger(FullUpdater.class);
+
+    private final int threads;
+    private final Function<Release, Optional<List<VulnerabilityWithRelation>>> search;
+    private final BiFunction<Release, List<VulnerabilityWithRelation>, VulnerabilityUpdateStatus> write;
+    private final Striped<Lock> vulnerabilityLocks;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Progress progress = null;
+
+    /**
+     * @param threads number of releases which are searched at the same time
+     * @param search  searches the vulnerabilities of a release, empty if the search failed
+     * @param write   writes the vulnerabilities found for a release
+     */
+    FullUpdater(int threads,
+                Function<Release, Optional<List<VulnerabilityWithRelation>>> search,
+                BiFunction<Release, List<VulnerabilityWithRelation>, VulnerabilityUpdateStatus> write) {
+        this.threads = Math.max(1, threads);
+        this.vulnerabilityLocks = Striped.lock(this.threads * 16);
+        this.search = search;
+        this.write = write;
+    }
+
+    VulnerabilityUpdateStatus updateRelease(Release release) {
+        Optional<List<VulnerabilityWithRelation>> found = search.apply(release);
+        if (!found.isPresent()) {
+            return getEmptyVulnerabilityUpdateStatus(RequestStatus.FAILURE);
+        }
+        List<String> externalIds = found.get().stream()
+                .map(vulnerabilityWithRelation -> nullToEmptyString(vulnerabilityWithRelation.vulnerability.getExternalId()))
+                .collect(Collectors.toList());
+        // the locks come in a fixed order, so that two releases cannot wait for each other
+        List<Lock> locks = Lists.newArrayList(vulnerabilityLocks.bulkGet(externalIds));
+        locks.forEach(Lock::lock);
+        try {
+            return write.apply(release, found.get());
+        } finally {
+            Lists.reverse(locks).forEach(Lock::unlock);
+        }
+    }
+
+    VulnerabilityUpdateStatus updateAll(List<Release> releases) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Not starting a full update of " + releases.size() + " releases, another one is still running");
+            return getEmptyVulnerabilityUpdateStatus(RequestStatus.FAILURE);
+        }
+        Progress currentProgress = new Progress(releases.size());
+        progress = currentProgress;
+        log.info("Starting full update of " + releases.size() + " releases on " + threads + " threads");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("cvesearch-update-%d").setDaemon(true).build());
+        try {
+            CompletionService<VulnerabilityUpdateStatus> completionService = new ExecutorCompletionService<>(executor);
+            for (Release release : releases) {
+                completionService.submit(() -> updateIsolated(release, currentProgress));
+            }
+
+            VulnerabilityUpdateStatus[] statuses = new VulnerabilityUpdateStatus[releases.size()];
+            for (int i = 0; i < statuses.length; i++) {
+                try {
+                    statuses[i] = completionService.take().get();
+                } catch (ExecutionException e) {
+                    log.error("Update of a release failed", e.getCause());
+                    statuses[i] = getEmptyVulnerabilityUpdateStatus(RequestStatus.FAILURE);
+                }
+            }
+            return reduceVulnerabilityUpdateStatus(statuses);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Full update has been interrupted after " + currentProgress.getDone() + " of " + releases.size() + " releases");
+            return getEmptyVulnerabilityUpdateStatus(RequestStatus.FAILURE);
+        } finally {
+            executor.shutdownNow();
+            currentProgress.finish();
+            running.set(false);
+            log.info("Full update " + currentProgress.getDescription());
+        }
+    }
+
+    RequestSummary getProgress() {
+        Progress currentProgress = progress;
+        if (currentProgress == null) {
+            return new RequestSummary(RequestStatus.SUCCESS)
+                    .setTotalElements(0)
+                    .setTotalAffectedElements(0)
+                    .setMessage("no full update has run yet");
+        }
+        return new RequestSummary(RequestStatus.SUCCESS)
+                .setTotalElements(currentProgress.total)
+                .setTotalAffectedElements(currentProgress.getDone())
+                .setMessage(currentProgress.getDescription());
+    }
+
+    private VulnerabilityUpdateStatus updateIsolated(Release release, Progress currentProgress) {
+        VulnerabilityUpdateStatus status;
+        try {
+            status = updateRelease(release);
+        } catch (RuntimeException e) {
+            log.error("Update of release with name=" + release.getName() + " and id=" + release.getId() + " failed", e);
+            status = getEmptyVulnerabilityUpdateStatus(RequestStatus.FAILURE);
+        }
+        currentProgress.releaseDone(RequestStatus.FAILURE.equals(status.getRequestStatus()));
+        return status;
+    }
+
+    private static class Progress {
+        private final int total;
+        private final int logInterval;
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile long finishedAt = 0;
+
+        private Progress(int total) {
+            this.total = total;
+            this.logInterval = Math.max(1, total / 20);
+        }
+
+        void releaseDone(boolean releaseFailed) {
+            if (releaseFailed) {
+                failed.incrementAndGet();
+            }
+            if (done.incrementAndGet() % logInterval == 0) {
+                log.info("Full update " + getDescription());
+            }
+        }
+
+        void finish() {
+            finishedAt = System.currentTimeMillis();
+        }
+
+        int getDone() {
+            return done.get();
+        }
+
+        String getDescription() {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            return (finishedAt > 0 ? "finished: " : "running: ") + done.get() + " of " + total + " releases done, "
+                    + failed.get() + " failed, " + TimeUnit.MILLISECONDS.toSeconds(end - startedAt) + "s";
+        }
+    }
+}
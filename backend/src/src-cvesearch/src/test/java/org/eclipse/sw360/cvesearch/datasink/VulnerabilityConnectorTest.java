@@ -11,21 +11,32 @@
  */
 package org.eclipse.sw360.cvesearch.datasink;
 
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator;
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator.VulnerabilityWithRelation;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
 import org.eclipse.sw360.datahandler.thrift.cvesearch.UpdateType;
+import org.eclipse.sw360.datahandler.thrift.cvesearch.VulnerabilityUpdateStatus;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.Vulnerability;
 import org.eclipse.sw360.vulnerabilities.db.VulnerabilityDatabaseHandler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.*;
 
+import static org.eclipse.sw360.cvesearch.helper.VulnerabilityUtils.getEmptyVulnerabilityUpdateStatus;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 
@@ -149,6 +160,58 @@ public class VulnerabilityConnectorTest {
         assertThat(resultMap.get(UpdateType.FAILED), is(Collections.EMPTY_LIST));
     }
 
+    @Test
+    public void testAddOrUpdateWritesVulnerabilitiesAndRelationsInBulk() {
+        Vulnerability dbVulnerability = new Vulnerability().setLastExternalUpdate("1999-12-31").setId("idv2").setExternalId("eid2");
+        VulnerabilityWithRelation newVulnerability = vulnerabilityWithRelation(new Vulnerability().setExternalId("eid1"));
+        VulnerabilityWithRelation updatedVulnerability = vulnerabilityWithRelation(new Vulnerability().setLastExternalUpdate("2000-01-01").setExternalId("eid2"));
+
+        when(vulnerabilityDatabaseHandler.getByExternalIds(any())).thenReturn(Collections.singletonList(dbVulnerability));
+        when(vulnerabilityDatabaseHandler.addOrUpdateVulnerabilities(anyCollection())).thenAnswer(invocation -> {
+            Collection<Vulnerability> written = (Collection<Vulnerability>) invocation.getArguments()[0];
+            written.stream().filter(vulnerability -> !vulnerability.isSetId()).forEach(vulnerability -> vulnerability.setId("idv1"));
+            return Collections.emptyList();
+        });
+        when(vulnerabilityDatabaseHandler.addOrUpdateRelations(anyCollection())).thenReturn(Collections.emptyList());
+
+        VulnerabilityUpdateStatus status = vulnerabilityConnector.addOrUpdate(Arrays.asList(newVulnerability, updatedVulnerability),
+                getEmptyVulnerabilityUpdateStatus());
+
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.NEW), contains("eid1"));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.UPDATED), contains("eid2"));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.FAILED), is(empty()));
+        assertThat(newVulnerability.relation.getVulnerabilityId(), is("idv1"));
+        assertThat(updatedVulnerability.relation.getVulnerabilityId(), is("idv2"));
+        ArgumentCaptor<Collection> relations = ArgumentCaptor.forClass(Collection.class);
+        verify(vulnerabilityDatabaseHandler).addOrUpdateRelations(relations.capture());
+        assertThat((Collection<ReleaseVulnerabilityRelation>) relations.getValue(),
+                containsInAnyOrder(newVulnerability.relation, updatedVulnerability.relation));
+        verify(vulnerabilityDatabaseHandler, never()).getRelationByIds(any(ReleaseVulnerabilityRelation.class));
+        verify(vulnerabilityDatabaseHandler, never()).add(any());
+        verify(vulnerabilityDatabaseHandler, never()).update(any());
+    }
+
+    @Test
+    public void testAddOrUpdateReportsFailedRelations() {
+        VulnerabilityWithRelation first = vulnerabilityWithRelation(new Vulnerability().setId("idv1").setExternalId("eid1"));
+        VulnerabilityWithRelation second = vulnerabilityWithRelation(new Vulnerability().setId("idv2").setExternalId("eid2"));
+
+        when(vulnerabilityDatabaseHandler.getByExternalIds(any())).thenReturn(Arrays.asList(first.vulnerability, second.vulnerability));
+        when(vulnerabilityDatabaseHandler.addOrUpdateVulnerabilities(anyCollection())).thenReturn(Collections.emptyList());
+        when(vulnerabilityDatabaseHandler.addOrUpdateRelations(anyCollection())).thenReturn(Collections.singletonList(second.relation));
+
+        VulnerabilityUpdateStatus status = vulnerabilityConnector.addOrUpdate(Arrays.asList(first, second),
+                getEmptyVulnerabilityUpdateStatus());
+
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.FAILED), contains("eid2"));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.UPDATED), contains("eid1"));
+    }
+
+    private static VulnerabilityWithRelation vulnerabilityWithRelation(Vulnerability vulnerability) {
+        ReleaseVulnerabilityRelation relation = new ReleaseVulnerabilityRelation().setReleaseId("rid");
+        return new CveSearchDataTranslator().new VulnerabilityWithRelation(vulnerability, relation);
+    }
+
     @Test
     public void testIsMoreRecentEmpty() throws Exception {
         Vulnerability v1 = new Vulnerability();
@@ -0,0 +1,176 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.cvesearch.datasource;
+
+import com.google.common.io.CharStreams;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.sw360.cvesearch.CveSearchFixtureServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CveSearchHttpClientTest {
+
+    private static final String PATH = "/api/cve/CVE-2008-1160";
+    private static final String OTHER_PATH = "/api/cve/CVE-2008-1161";
+    private static final String THIRD_PATH = "/api/cve/CVE-2008-1162";
+    private static final String CVE = "{\"id\": \"CVE-2008-1160\", \"summary\": \"ZyXEL ZyWALL 1050 allows bypass\"}";
+    private static final String CHANGED_CVE = "{\"id\": \"CVE-2008-1160\", \"summary\": \"ZyXEL ZyWALL 1050 allows bypass, updated\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CveSearchFixtureServer server;
+    private CveSearchHttpClient httpClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new CveSearchFixtureServer();
+        server.setResponse(PATH, CVE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.close();
+    }
+
+    @Test
+    public void testFreshResponsesAreServedFromCache() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), TimeUnit.HOURS.toMillis(1));
+
+        assertThat(get(PATH), is(CVE));
+        assertThat(get(PATH), is(CVE));
+
+        assertThat(server.getRequests(), is(1));
+    }
+
+    @Test
+    public void testUnchangedResponsesAreRevalidated() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), 0);
+
+        assertThat(get(PATH), is(CVE));
+        assertThat(get(PATH), is(CVE));
+        assertThat(get(PATH), is(CVE));
+
+        assertThat(server.getRequests(), is(3));
+        assertThat(server.getFullResponses(), is(1));
+        assertThat(httpClient.getLeasedConnections(), is(0));
+    }
+
+    @Test
+    public void testChangedResponsesAreDownloadedAgain() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), 0);
+
+        assertThat(get(PATH), is(CVE));
+        server.setResponse(PATH, CHANGED_CVE);
+        assertThat(get(PATH), is(CHANGED_CVE));
+        assertThat(get(PATH), is(CHANGED_CVE));
+
+        assertThat(server.getFullResponses(), is(2));
+    }
+
+    @Test
+    public void testCachedResponseIsServedIfCveSearchFails() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), 0);
+
+        assertThat(get(PATH), is(CVE));
+        server.setFailureStatus(503);
+        assertThat(get(PATH), is(CVE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailureWithoutCachedResponse() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), 0);
+        server.setFailureStatus(503);
+
+        get(PATH);
+    }
+
+    @Test(expected = IOException.class)
+    public void testSlowResponsesTimeOut() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 200, 2, null, 0);
+        server.setDelayMillis(2000);
+
+        get(PATH);
+    }
+
+    @Test
+    public void testResponsesWithoutCache() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, null, 0);
+
+        assertThat(get(PATH), is(CVE));
+        assertThat(get(PATH), is(CVE));
+
+        assertThat(server.getFullResponses(), is(2));
+        assertThat(httpClient.getLeasedConnections(), is(0));
+    }
+
+    @Test
+    public void testCveSearchApiReadsThroughCache() throws Exception {
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), 0);
+        CveSearchApi cveSearchApi = new CveSearchApiImpl(server.getHost(), httpClient);
+
+        assertThat(cveSearchApi.cve("cve-2008-1160").getId(), is("CVE-2008-1160"));
+        assertThat(cveSearchApi.cve("CVE-2008-1160").getSummary(), is("ZyXEL ZyWALL 1050 allows bypass"));
+
+        assertThat(server.getFullResponses(), is(1));
+    }
+
+    @Test
+    public void testLeastRecentlyFetchedResponsesAreDeletedWhenTheCacheIsFull() throws Exception {
+        server.setResponse(OTHER_PATH, CVE);
+        server.setResponse(THIRD_PATH, CVE);
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), TimeUnit.HOURS.toMillis(1));
+        get(PATH);
+        httpClient.close();
+        long responseBytes = cacheFile(PATH).length();
+        Files.setLastModifiedTime(cacheFile(PATH).toPath(), FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+        // the response cached before is counted as well, the third response exceeds the maximum size
+        httpClient = new CveSearchHttpClient(1000, 1000, 2, folder.getRoot(), TimeUnit.HOURS.toMillis(1), 0, 3 * responseBytes - 1);
+        get(OTHER_PATH);
+        assertThat(cacheFile(PATH).exists(), is(true));
+        get(THIRD_PATH);
+
+        assertThat(cacheFile(PATH).exists(), is(false));
+        assertThat(cacheFile(OTHER_PATH).exists(), is(true));
+        assertThat(cacheFile(THIRD_PATH).exists(), is(true));
+        assertThat(get(THIRD_PATH), is(CVE));
+        assertThat(server.getRequests(), is(3));
+    }
+
+    private File cacheFile(String path) {
+        return new File(folder.getRoot(), DigestUtils.sha1Hex(server.getHost() + path) + ".response");
+    }
+
+    private String get(String path) throws IOException {
+        try (InputStream body = httpClient.get(server.getHost() + path)) {
+            return CharStreams.toString(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -11,11 +11,20 @@
  */
 package org.eclipse.sw360.cvesearch.datasource.matcher;
 
+import com.google.common.io.Resources;
+import org.eclipse.sw360.cvesearch.datasource.CveSearchGuesser;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 
 public class ListMatcherTest {
 
@@ -44,4 +53,56 @@ public class ListMatcherTest {
         assert(matches.get(1).getDistance() != 0);
         assert(matches.get(2).getDistance() != 0);
     }
+
+    @Test
+    public void testIndexedMatchesAreTheBestOfAllMatches() throws IOException {
+        List<String> haystacks = Arrays.asList("apache", "Apache Software Foundation", "apache_tomcat", "tomcat",
+                "Tomcat 8", "log4j", "log4j2", "http server", "commons-io", "openssl", "open ssl", "OpenSSL Project",
+                "Microsoft Corporation", "microsft", "Oracle America", "jackson-databind", "FasterXML", "zywall",
+                "Zyxel Communications", "x", "xyz", "", "  ", "spring framework", "pivotal", "node.js", "Qt", "libpng16");
+
+        for (String dictionary : Arrays.asList("vendors.txt", "products-apache.txt")) {
+            List<String> needles = readDictionary(dictionary);
+            ListMatcher matcher = new ListMatcher(needles);
+            for (String haystack : withMisspelledNeedles(haystacks, needles)) {
+                for (int threshold : new int[]{0, 1, 2, 5}) {
+                    for (int cutoff : new int[]{3, 6, Integer.MAX_VALUE}) {
+                        CveSearchGuesser bruteForce = new CveSearchGuesser(null);
+                        bruteForce.setCutoff(cutoff);
+                        List<Match> expected = bruteForce.getBest(matcher.getMatches(haystack), threshold);
+
+                        List<Match> indexed = bruteForce.getBest(matcher.getMatches(haystack, threshold, cutoff), threshold);
+
+                        assertThat(dictionary + ", " + haystack + ", " + threshold + ", " + cutoff,
+                                indexed.toString(), is(expected.toString()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> withMisspelledNeedles(List<String> haystacks, List<String> needles) {
+        Random random = new Random(42);
+        List<String> result = new ArrayList<>(haystacks);
+        for (int i = 0; i < 50; i++) {
+            StringBuilder misspelled = new StringBuilder(needles.get(random.nextInt(needles.size())));
+            int position = random.nextInt(misspelled.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    misspelled.deleteCharAt(position);
+                    break;
+                case 1:
+                    misspelled.insert(position, (char) ('a' + random.nextInt(26)));
+                    break;
+                default:
+                    misspelled.setCharAt(position, (char) ('a' + random.nextInt(26)));
+            }
+            result.add(random.nextBoolean() ? misspelled.toString() : "The " + misspelled + " Project");
+        }
+        return result;
+    }
+
+    private static List<String> readDictionary(String name) throws IOException {
+        return Resources.readLines(Resources.getResource("matcher/" + name), StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.cvesearch.datasource.matcher;
+
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Compares the object based and the int based modified Levenshtein distance on the recorded vendor dictionary.
+ * It is not run as a test, start it with the test classpath.
+ */
+public class ModifiedLevenshteinDistanceBenchmark {
+
+    private static final int ROUNDS = 200;
+    private static final List<String> HAYSTACKS = Arrays.asList("Apache_Software_Foundation", "Microsoft_Corporation",
+            "The_Eclipse_Foundation", "OpenSSL_Project", "FasterXML", "zyxel", "jackson-databind", "log4j");
+
+    public static void main(String[] args) throws IOException {
+        List<String> vendors = Resources.readLines(Resources.getResource("matcher/vendors.txt"), StandardCharsets.UTF_8);
+        ModifiedLevenshteinDistance levenshteinDistance = new ModifiedLevenshteinDistance();
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            run("objects", vendors, (needle, haystack) ->
+                    ObjectLevenshteinDistance.calculateModifiedLevenshteinDistance(needle, haystack, '_'));
+            run("ints", vendors, ModifiedLevenshteinDistance::calculateModifiedLevenshteinDistance);
+            run("ints, reused rows", vendors, (needle, haystack) ->
+                    levenshteinDistance.distance(needle, haystack, Integer.MAX_VALUE));
+            run("ints, reused rows, bound 1", vendors, (needle, haystack) ->
+                    levenshteinDistance.distance(needle, haystack, 1));
+        }
+    }
+
+    private static void run(String name, List<String> vendors, ToIntBiFunction<String, String> distance) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long checksum = 0;
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String haystack : HAYSTACKS) {
+                for (String vendor : vendors) {
+                    checksum += distance.applyAsInt(vendor, haystack);
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long calculations = (long) ROUNDS * HAYSTACKS.size() * vendors.size();
+        System.out.printf("%-28s %8.1f ns and %8.1f bytes per distance (checksum %d)%n",
+                name, (double) nanos / calculations, (double) allocated / calculations, checksum);
+    }
+}
@@ -13,6 +13,9 @@ package org.eclipse.sw360.cvesearch.datasource.matcher;
 
 import org.junit.Test;
 
+import java.util.Random;
+
+import static org.eclipse.sw360.cvesearch.datasource.matcher.ModifiedLevenshteinDistance.calculateModifiedLevenshteinDistance;
 import static org.eclipse.sw360.cvesearch.datasource.matcher.ModifiedLevenshteinDistance.levenshteinMatch;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -157,4 +160,46 @@ public class ModifiedLevenshteinDistanceTest {
 
         assertThat(match.getDistance(), is(noise.length())) ;
     }
+
+    @Test
+    public void testSameDistanceAsObjectImplementation() {
+        Random random = new Random(4711);
+        for (int i = 0; i < 20000; i++) {
+            String needle = randomString(random, 8);
+            String haystack = randomString(random, 16);
+
+            assertThat(needle + " in " + haystack, calculateModifiedLevenshteinDistance(needle, haystack),
+                    is(ObjectLevenshteinDistance.calculateModifiedLevenshteinDistance(needle, haystack, '_')));
+            assertThat(needle + " in " + haystack, calculateModifiedLevenshteinDistance(needle, haystack, 'b'),
+                    is(ObjectLevenshteinDistance.calculateModifiedLevenshteinDistance(needle, haystack, 'b')));
+        }
+    }
+
+    @Test
+    public void testBoundedDistance() {
+        Random random = new Random(42);
+        // one instance for all calculations, so that rows of longer needles are reused for shorter ones
+        ModifiedLevenshteinDistance levenshteinDistance = new ModifiedLevenshteinDistance();
+        for (int i = 0; i < 20000; i++) {
+            String needle = randomString(random, 8);
+            String haystack = randomString(random, 16);
+            int maxDistance = random.nextInt(6);
+            int distance = ObjectLevenshteinDistance.calculateModifiedLevenshteinDistance(needle, haystack, '_');
+
+            assertThat(needle + " in " + haystack + " up to " + maxDistance,
+                    levenshteinDistance.distance(needle, haystack, maxDistance),
+                    is(distance <= maxDistance ? distance : Integer.MAX_VALUE));
+        }
+    }
+
+    private static String randomString(Random random, int maxLength) {
+        // few different chars, so that there are many matches, spaces and upper case chars
+        String chars = "abcAB_";
+        StringBuilder string = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            string.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return string.toString();
+    }
 }
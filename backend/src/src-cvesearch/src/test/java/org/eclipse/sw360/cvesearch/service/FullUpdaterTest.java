@@ -0,0 +1,162 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.cvesearch.service;
+
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator;
+import org.eclipse.sw360.cvesearch.entitytranslation.CveSearchDataTranslator.VulnerabilityWithRelation;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.cvesearch.UpdateType;
+import org.eclipse.sw360.datahandler.thrift.cvesearch.VulnerabilityUpdateStatus;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.Vulnerability;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.sw360.cvesearch.helper.VulnerabilityUtils.getEmptyVulnerabilityUpdateStatus;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class FullUpdaterTest {
+
+    private static final int RELEASES = 400;
+    private static final long SEARCH_MILLIS = 10;
+
+    @Test
+    public void testReleasesAreSearchedInParallel() throws Exception {
+        FullUpdater fullUpdater = new FullUpdater(8, release -> search(release, SEARCH_MILLIS), this::write);
+
+        long start = System.currentTimeMillis();
+        VulnerabilityUpdateStatus status = fullUpdater.updateAll(releases(RELEASES));
+        long millis = System.currentTimeMillis() - start;
+
+        assertThat(status.getRequestStatus(), is(RequestStatus.SUCCESS));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.NEW), hasSize(RELEASES));
+        // one release after another it takes RELEASES * SEARCH_MILLIS, with 8 threads about an eighth of it
+        assertThat(millis, lessThan(RELEASES * SEARCH_MILLIS / 2));
+    }
+
+    @Test
+    public void testFailingReleasesDoNotStopTheUpdate() throws Exception {
+        FullUpdater fullUpdater = new FullUpdater(4, release -> {
+            if ("3".equals(release.getId())) {
+                throw new IllegalStateException("unexpected search result");
+            }
+            if ("5".equals(release.getId())) {
+                return Optional.empty();
+            }
+            return search(release, 0);
+        }, this::write);
+
+        VulnerabilityUpdateStatus status = fullUpdater.updateAll(releases(10));
+
+        assertThat(status.getRequestStatus(), is(RequestStatus.FAILURE));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.NEW), hasSize(8));
+        assertThat(status.getStatusToVulnerabilityIds().get(UpdateType.NEW), not(hasItems("CVE-3", "CVE-5")));
+
+        RequestSummary progress = fullUpdater.getProgress();
+        assertThat(progress.getTotalElements(), is(10));
+        assertThat(progress.getTotalAffectedElements(), is(10));
+        assertThat(progress.getMessage(), containsString("2 failed"));
+    }
+
+    @Test
+    public void testWritesOfTheSameVulnerabilityDoNotOverlap() throws Exception {
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        FullUpdater fullUpdater = new FullUpdater(8, release -> {
+            List<VulnerabilityWithRelation> found = new ArrayList<>(search(release, 1).get());
+            found.add(vulnerabilityWithRelation("CVE-shared", release));
+            return Optional.of(found);
+        }, (release, found) -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writing.decrementAndGet();
+            return write(release, found);
+        });
+
+        fullUpdater.updateAll(releases(100));
+
+        assertThat(maxWriting.get(), is(1));
+    }
+
+    @Test
+    public void testOnlyOneFullUpdateRunsAtATime() throws Exception {
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FullUpdater fullUpdater = new FullUpdater(2, r -> {
+            searching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return search(r, 0);
+        }, this::write);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<VulnerabilityUpdateStatus> first = executor.submit(() -> fullUpdater.updateAll(releases(2)));
+            assertTrue(searching.await(5, TimeUnit.SECONDS));
+            assertThat(fullUpdater.getProgress().getMessage(), startsWith("running"));
+
+            VulnerabilityUpdateStatus second = fullUpdater.updateAll(releases(2));
+            assertThat(second.getRequestStatus(), is(RequestStatus.FAILURE));
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getRequestStatus(), is(RequestStatus.SUCCESS));
+            assertThat(fullUpdater.getProgress().getMessage(), startsWith("finished"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Release> releases(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Release().setId(String.valueOf(i)).setName("release" + i))
+                .collect(Collectors.toList());
+    }
+
+    private static Optional<List<VulnerabilityWithRelation>> search(Release release, long latencyMillis) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.of(singletonList(vulnerabilityWithRelation("CVE-" + release.getId(), release)));
+    }
+
+    private static VulnerabilityWithRelation vulnerabilityWithRelation(String externalId, Release release) {
+        Vulnerability vulnerability = new Vulnerability().setExternalId(externalId);
+        ReleaseVulnerabilityRelation relation = new ReleaseVulnerabilityRelation().setReleaseId(release.getId());
+        return new CveSearchDataTranslator().new VulnerabilityWithRelation(vulnerability, relation);
+    }
+
+    private VulnerabilityUpdateStatus write(Release release, List<VulnerabilityWithRelation> found) {
+        VulnerabilityUpdateStatus status = getEmptyVulnerabilityUpdateStatus();
+        found.forEach(vulnerabilityWithRelation -> status.getStatusToVulnerabilityIds()
+                .get(UpdateType.NEW)
+                .add(vulnerabilityWithRelation.vulnerability.getExternalId()));
+        return status;
+    }
+}
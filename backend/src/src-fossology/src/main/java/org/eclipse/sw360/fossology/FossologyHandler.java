@@ -459,7 +459,8 @@ public class FossologyHandler implements FossologyService.Iface {
         Attachment attachment = CommonUtils.getNewAttachment(user, attachmentContent.getId(),
                 attachmentContent.getFilename());
         attachment.setAttachmentType(AttachmentType.COMPONENT_LICENSE_INFO_XML);
-        attachment.setSha1(attachmentConnector.getSha1FromAttachmentContentId(attachmentContent.getId()));
+        // the sha1 has been computed while uploading the content
+        attachment.setSha1(attachmentContent.getSha1());
 
         // get release again because it has been updated in the meantime so version
         // changed and update might otherwise result in update conflict
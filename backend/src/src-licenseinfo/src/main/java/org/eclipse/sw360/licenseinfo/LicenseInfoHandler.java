@@ -18,12 +18,14 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.common.DatabaseSettings;
 import org.eclipse.sw360.datahandler.common.SW360Constants;
 import org.eclipse.sw360.datahandler.common.SW360Utils;
 import org.eclipse.sw360.datahandler.common.WrappedException.WrappedTException;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
 import org.eclipse.sw360.datahandler.db.AttachmentDatabaseHandler;
 import org.eclipse.sw360.datahandler.db.ComponentDatabaseHandler;
 import org.eclipse.sw360.datahandler.db.ProjectDatabaseHandler;
@@ -44,7 +46,7 @@ import org.apache.thrift.TException;
 import java.net.MalformedURLException;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -66,6 +68,21 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
     private static final String DEFAULT_OBLIGATIONS_FILE = "/DefaultObligations.txt";
     private static final String DEFAULT_OBLIGATIONS_TEXT = dropCommentedLine(DEFAULT_OBLIGATIONS_FILE);
     private static final String MSG_NO_RELEASE_GIVEN = "No release given";
+    private static final String PROPERTIES_FILE_PATH = "/sw360.properties";
+    private static final int PARSING_THREADS;
+    private static final int PARSING_THREADS_PER_REQUEST;
+    private static final ExecutorService parsingExecutor;
+
+    static {
+        Properties props = CommonUtils.loadProperties(LicenseInfoHandler.class, PROPERTIES_FILE_PATH);
+        PARSING_THREADS = Math.max(1, Integer.parseInt(props.getProperty("licenseinfo.parsing.threads", "8")));
+        PARSING_THREADS_PER_REQUEST = Math.max(1, Integer.parseInt(props.getProperty("licenseinfo.parsing.threads.per.request", "4")));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(PARSING_THREADS, PARSING_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("licenseinfo-parser-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        parsingExecutor = executor;
+    }
 
     protected List<LicenseInfoParser> parsers;
     protected List<OutputGenerator<?>> outputGenerators;
@@ -74,18 +91,28 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
     protected Cache<String, List<LicenseInfoParsingResult>> licenseInfoCache;
     protected Cache<String, List<ObligationParsingResult>> obligationCache;
     protected Cache<String, LicenseInfoParsingResult> licenseObligationMappingCache;
+    protected int parsingThreadsPerRequest = PARSING_THREADS_PER_REQUEST;
+    protected LicenseInfoResultStore resultStore;
 
     public LicenseInfoHandler() throws MalformedURLException {
         this(new AttachmentDatabaseHandler(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_DATABASE, DatabaseSettings.COUCH_DB_ATTACHMENTS),
                 new ComponentDatabaseHandler(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_DATABASE, DatabaseSettings.COUCH_DB_ATTACHMENTS),
-                new ProjectDatabaseHandler(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_DATABASE, DatabaseSettings.COUCH_DB_ATTACHMENTS));
+                new ProjectDatabaseHandler(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_DATABASE, DatabaseSettings.COUCH_DB_ATTACHMENTS),
+                new LicenseInfoResultStore(new DatabaseConnector(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_LICENSEINFO_RESULTS)));
     }
 
     @VisibleForTesting
     protected LicenseInfoHandler(AttachmentDatabaseHandler attachmentDatabaseHandler,
                               ComponentDatabaseHandler componentDatabaseHandler, ProjectDatabaseHandler projectDatabaseHandler) throws MalformedURLException {
+        this(attachmentDatabaseHandler, componentDatabaseHandler, projectDatabaseHandler, null);
+    }
+
+    @VisibleForTesting
+    protected LicenseInfoHandler(AttachmentDatabaseHandler attachmentDatabaseHandler, ComponentDatabaseHandler componentDatabaseHandler,
+                                 ProjectDatabaseHandler projectDatabaseHandler, LicenseInfoResultStore resultStore) throws MalformedURLException {
         this.componentDatabaseHandler = componentDatabaseHandler;
         this.projectDatabaseHandler = projectDatabaseHandler;
+        this.resultStore = resultStore;
         this.licenseInfoCache = CacheBuilder.newBuilder().expireAfterWrite(CACHE_TIMEOUT_MINUTES, TimeUnit.MINUTES)
                 .maximumSize(CACHE_MAX_ITEMS).build();
         this.obligationCache = CacheBuilder.newBuilder().expireAfterWrite(CACHE_TIMEOUT_MINUTES, TimeUnit.MINUTES)
@@ -215,7 +242,7 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
             }
 
             List<LicenseInfoParsingResult> results = applicableParsers.stream()
-                    .map(parser -> wrapTException(() -> parser.getLicenseInfos(attachment, user, release))).flatMap(Collection::stream)
+                    .map(parser -> wrapTException(() -> parseLicenseInfos(parser, attachment, user, release))).flatMap(Collection::stream)
                     .collect(Collectors.toList());
             filterEmptyLicenses(results);
 
@@ -432,7 +459,7 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
             }
 
             List<ObligationParsingResult> results = applicableParsers.stream()
-                    .map(parser -> wrapTException(() -> parser.getObligations(attachment, user, release)))
+                    .map(parser -> wrapTException(() -> parseObligations(parser, attachment, user, release)))
                     .collect(Collectors.toList());
 
             results = assignReleaseToObligationParsingResults(results, release);
@@ -444,6 +471,20 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
         }
     }
 
+    private List<LicenseInfoParsingResult> parseLicenseInfos(LicenseInfoParser parser, Attachment attachment, User user, Release release) throws TException {
+        if (resultStore == null) {
+            return parser.getLicenseInfos(attachment, user, release);
+        }
+        return resultStore.getLicenseInfos(parser, attachment, () -> parser.getLicenseInfos(attachment, user, release));
+    }
+
+    private ObligationParsingResult parseObligations(LicenseInfoParser parser, Attachment attachment, User user, Release release) throws TException {
+        if (resultStore == null) {
+            return parser.getObligations(attachment, user, release);
+        }
+        return resultStore.getObligations(parser, attachment, () -> parser.getObligations(attachment, user, release));
+    }
+
     private LicenseInfoParsingResult assignFileNameToLicenseInfoParsingResult(LicenseInfoParsingResult licenseInfoParsingResult, String filename) {
         if (licenseInfoParsingResult.getLicenseInfo() == null) {
             licenseInfoParsingResult.setLicenseInfo(new LicenseInfo());
@@ -486,37 +527,96 @@ public class LicenseInfoHandler implements LicenseInfoService.Iface {
 
     protected Collection<LicenseInfoParsingResult> getAllReleaseLicenseInfos(Map<Release, Set<String>> releaseToSelectedAttachmentIds,
             User user, Map<String, Set<LicenseNameWithText>> excludedLicensesPerAttachment) throws TException {
-        List<LicenseInfoParsingResult> results = Lists.newArrayList();
+        List<Callable<List<LicenseInfoParsingResult>>> tasks = Lists.newArrayList();
 
         for (Entry<Release, Set<String>> entry : releaseToSelectedAttachmentIds.entrySet()) {
             for (String attachmentContentId : entry.getValue()) {
                 if (attachmentContentId != null) {
                     Set<LicenseNameWithText> licencesToExclude = excludedLicensesPerAttachment.getOrDefault(attachmentContentId,
                             Sets.newHashSet());
-                    List<LicenseInfoParsingResult> parsedLicenses = getLicenseInfoForAttachment(entry.getKey(), attachmentContentId, user);
-
-                    results.addAll(
-                            parsedLicenses.stream().map(result -> filterLicenses(result, licencesToExclude)).collect(Collectors.toList()));
+                    tasks.add(() -> {
+                        List<LicenseInfoParsingResult> parsedLicenses = getLicenseInfoForAttachment(entry.getKey(), attachmentContentId, user);
+                        return parsedLicenses.stream().map(result -> filterLicenses(result, licencesToExclude)).collect(Collectors.toList());
+                    });
                 }
             }
         }
 
-        return results;
+        return parseAll(tasks);
     }
 
-    private Collection<ObligationParsingResult> getAllReleaseObligations(Map<Release, Set<String>> releaseToSelectedAttachmentIds, User user)
+    protected Collection<ObligationParsingResult> getAllReleaseObligations(Map<Release, Set<String>> releaseToSelectedAttachmentIds, User user)
             throws TException {
-        List<ObligationParsingResult> results = Lists.newArrayList();
+        List<Callable<List<ObligationParsingResult>>> tasks = Lists.newArrayList();
 
         for (Entry<Release, Set<String>> entry : releaseToSelectedAttachmentIds.entrySet()) {
             for (String attachmentContentId : entry.getValue()) {
                 if (attachmentContentId != null) {
-                    results.addAll(getObligationsForAttachment(entry.getKey(), attachmentContentId, user));
+                    tasks.add(() -> getObligationsForAttachment(entry.getKey(), attachmentContentId, user));
                 }
             }
         }
 
-        return results;
+        return parseAll(tasks);
+    }
+
+    /**
+     * Runs the parsing tasks on the shared parsing executor with at most {@link #parsingThreadsPerRequest} of them at a
+     * time and returns their results in the order of the tasks, no matter in which order they finish
+     */
+    private <T> List<T> parseAll(List<Callable<List<T>>> tasks) throws TException {
+        List<T> results = Lists.newArrayList();
+        if (parsingThreadsPerRequest <= 1 || tasks.size() <= 1) {
+            for (Callable<List<T>> task : tasks) {
+                results.addAll(callParsingTask(task));
+            }
+            return results;
+        }
+
+        Semaphore permits = new Semaphore(parsingThreadsPerRequest);
+        List<Future<List<T>>> futures = Lists.newArrayList();
+        try {
+            for (Callable<List<T>> task : tasks) {
+                permits.acquire();
+                futures.add(parsingExecutor.submit(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<List<T>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TException("Interrupted while parsing attachments for license information", e);
+        } catch (ExecutionException e) {
+            throw unwrapParsingException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> List<T> callParsingTask(Callable<List<T>> task) throws TException {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw unwrapParsingException(e);
+        }
+    }
+
+    private static TException unwrapParsingException(Throwable cause) {
+        if (cause instanceof TException) {
+            return (TException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new TException(cause);
     }
 
     protected LicenseInfoParsingResult filterLicenses(LicenseInfoParsingResult result, Set<LicenseNameWithText> licencesToExclude) {
@@ -0,0 +1,216 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.licenseinfo;
+
+import org.apache.log4j.Logger;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
+import org.eclipse.sw360.datahandler.thrift.licenseinfo.*;
+import org.eclipse.sw360.licenseinfo.parsers.LicenseInfoParser;
+import org.ektorp.support.CouchDbDocument;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Durable store of parsing results in a database of its own, so that attachments are not parsed again after a
+ * restart or after they dropped out of the in-memory caches of the {@link LicenseInfoHandler}.
+ *
+ * Results are stored by the sha1 of the attachment and by parser and its {@link LicenseInfoParser#getResultVersion()},
+ * so that an attachment with the same content is parsed once and results of older parser versions are not used
+ * anymore. Only successful results of parsers which depend on the content alone are stored. The attachment content
+ * id and the file name in stored results are replaced by the ones of the attachment asked for.
+ */
+public class LicenseInfoResultStore {
+
+    private static final Logger log = Logger.getLogger(LicenseInfoResultStore.class);
+
+    private static final String KIND_LICENSE_INFO = "licenseInfo";
+    private static final String KIND_OBLIGATIONS = "obligations";
+    private static final int STATISTICS_LOG_INTERVAL = 100;
+
+    private final DatabaseConnector db;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong parsingMillisSaved = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Parsing<T> {
+        T parse() throws TException;
+    }
+
+    public LicenseInfoResultStore(DatabaseConnector db) {
+        this.db = db;
+    }
+
+    public List<LicenseInfoParsingResult> getLicenseInfos(LicenseInfoParser parser, Attachment attachment,
+                                                          Parsing<List<LicenseInfoParsingResult>> parsing) throws TException {
+        return getOrParse(KIND_LICENSE_INFO, parser, attachment, LicenseInfoParsingResult::new, parsing,
+                result -> result.getStatus() == LicenseInfoRequestStatus.SUCCESS,
+                result -> {
+                    if (result.isSetAttachmentContentId()) {
+                        result.setAttachmentContentId(attachment.getAttachmentContentId());
+                    }
+                    if (result.isSetLicenseInfo() && result.getLicenseInfo().isSetFilenames()) {
+                        result.getLicenseInfo().setFilenames(Collections.singletonList(attachment.getFilename()));
+                    }
+                });
+    }
+
+    public ObligationParsingResult getObligations(LicenseInfoParser parser, Attachment attachment,
+                                                  Parsing<ObligationParsingResult> parsing) throws TException {
+        return getOrParse(KIND_OBLIGATIONS, parser, attachment, ObligationParsingResult::new,
+                () -> Collections.singletonList(parsing.parse()),
+                result -> result.getStatus() == ObligationInfoRequestStatus.SUCCESS,
+                result -> {
+                    if (result.isSetAttachmentContentId()) {
+                        result.setAttachmentContentId(attachment.getAttachmentContentId());
+                    }
+                }).get(0);
+    }
+
+    /**
+     * @return lookups, hit ratio, size of the results served from the store and the parsing time this saved
+     */
+    public String getStatistics() {
+        long lookupCount = lookups.get();
+        long hitCount = hits.get();
+        return String.format(Locale.ROOT, "%d lookups, %d hits (%.1f%%), %d bytes of results served, %d ms of parsing saved",
+                lookupCount, hitCount, lookupCount == 0 ? 0.0 : 100.0 * hitCount / lookupCount,
+                bytesServed.get(), parsingMillisSaved.get());
+    }
+
+    private <T extends TBase<?, ?>> List<T> getOrParse(String kind, LicenseInfoParser parser, Attachment attachment,
+                                                       Supplier<T> emptyResult, Parsing<List<T>> parsing,
+                                                       Predicate<T> isSuccess, Consumer<T> assignToAttachment) throws TException {
+        if (!parser.isResultDependingOnContentOnly() || isNullOrEmpty(attachment.getSha1())) {
+            return parsing.parse();
+        }
+
+        String id = String.join(":", kind, parser.getClass().getSimpleName(), parser.getResultVersion(), attachment.getSha1());
+        Optional<List<T>> stored = load(id, emptyResult);
+        countLookup(stored.isPresent());
+        if (stored.isPresent()) {
+            stored.get().forEach(assignToAttachment);
+            return stored.get();
+        }
+
+        long start = System.currentTimeMillis();
+        List<T> results = parsing.parse();
+        long parsingMillis = System.currentTimeMillis() - start;
+        if (!results.isEmpty() && results.stream().allMatch(isSuccess)) {
+            save(id, results, parsingMillis);
+        }
+        return results;
+    }
+
+    private <T extends TBase<?, ?>> Optional<List<T>> load(String id, Supplier<T> emptyResult) {
+        ResultDocument document;
+        try {
+            document = db.find(ResultDocument.class, id);
+        } catch (RuntimeException e) {
+            log.warn("Could not read stored license info results " + id, e);
+            return Optional.empty();
+        }
+        if (document == null) {
+            return Optional.empty();
+        }
+
+        try {
+            TDeserializer deserializer = new TDeserializer(new TCompactProtocol.Factory());
+            List<T> results = new ArrayList<>();
+            long bytes = 0;
+            for (String serialized : document.getResults()) {
+                byte[] serializedBytes = Base64.getDecoder().decode(serialized);
+                T result = emptyResult.get();
+                deserializer.deserialize(result, serializedBytes);
+                results.add(result);
+                bytes += serializedBytes.length;
+            }
+            bytesServed.addAndGet(bytes);
+            parsingMillisSaved.addAndGet(document.getParsingMillis());
+            return Optional.of(results);
+        } catch (TException | IllegalArgumentException e) {
+            log.warn("Stored license info results " + id + " could not be read, parsing again", e);
+            return Optional.empty();
+        }
+    }
+
+    private <T extends TBase<?, ?>> void save(String id, List<T> results, long parsingMillis) {
+        try {
+            TSerializer serializer = new TSerializer(new TCompactProtocol.Factory());
+            List<String> serializedResults = new ArrayList<>();
+            for (T result : results) {
+                serializedResults.add(Base64.getEncoder().encodeToString(serializer.serialize(result)));
+            }
+            ResultDocument document = new ResultDocument();
+            document.setId(id);
+            document.setResults(serializedResults);
+            document.setParsingMillis(parsingMillis);
+            // a concurrent request may have stored the same results already, add then just returns false
+            db.add(document);
+        } catch (TException | RuntimeException e) {
+            log.warn("Could not store license info results " + id, e);
+        }
+    }
+
+    private void countLookup(boolean hit) {
+        long lookupCount = lookups.incrementAndGet();
+        if (hit) {
+            hits.incrementAndGet();
+        }
+        if (lookupCount % STATISTICS_LOG_INTERVAL == 0) {
+            log.info("License info result store: " + getStatistics());
+        }
+    }
+
+    public static class ResultDocument extends CouchDbDocument {
+        private String type = "licenseInfoResult";
+        private List<String> results;
+        private long parsingMillis;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public List<String> getResults() {
+            return results;
+        }
+
+        public void setResults(List<String> results) {
+            this.results = results;
+        }
+
+        public long getParsingMillis() {
+            return parsingMillis;
+        }
+
+        public void setParsingMillis(long parsingMillis) {
+            this.parsingMillis = parsingMillis;
+        }
+    }
+}
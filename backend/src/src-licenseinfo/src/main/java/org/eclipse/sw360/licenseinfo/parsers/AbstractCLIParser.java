@@ -10,7 +10,7 @@
  */
 package org.eclipse.sw360.licenseinfo.parsers;
 
-import com.google.common.collect.Sets;
+import com.google.common.base.Strings;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -21,26 +21,16 @@ import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentContent;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseNameWithText;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.Obligation;
 import org.eclipse.sw360.datahandler.thrift.users.User;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.xpath.*;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.function.Consumer;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
 import static org.eclipse.sw360.datahandler.common.SW360Constants.LICENSE_NAME_UNKNOWN;
 import static org.eclipse.sw360.datahandler.common.SW360Constants.OBLIGATION_TOPIC_UNKNOWN;
@@ -66,6 +56,12 @@ public abstract class AbstractCLIParser extends LicenseInfoParser {
     private static final String OBLIGATION_TEXT_ELEMENT_NAME = "Text";
     private static final String OBLIGATION_LICENSE_ELEMENT_NAME = "Licenses";
 
+    private static final String REPORT_CDATA_PROPERTY = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    // factories are expensive to look up, but not guaranteed to be thread-safe
+    private static final ThreadLocal<XMLInputFactory> ROOT_ELEMENT_INPUT_FACTORY = ThreadLocal.withInitial(XMLInputFactory::newFactory);
+    private static final ThreadLocal<XMLInputFactory> DOCUMENT_INPUT_FACTORY = ThreadLocal.withInitial(AbstractCLIParser::createDocumentInputFactory);
+
     public AbstractCLIParser(AttachmentConnector attachmentConnector, AttachmentContentProvider attachmentContentProvider) {
         super(attachmentConnector, attachmentContentProvider);
     }
@@ -75,37 +71,33 @@ public abstract class AbstractCLIParser extends LicenseInfoParser {
         return Collections.singletonList(XML_FILE_EXTENSION);
     }
 
-    protected static String normalizeEscapedXhtml(Node node) {
-        return StringEscapeUtils.unescapeHtml(StringEscapeUtils.unescapeXml(node.getTextContent().trim()));
-    }
-
-    protected static String normalizeSpace(Node node) {
-        return StringUtils.normalizeSpace(node.getTextContent());
-    }
-
-    protected Optional<Node> findNamedAttribute(Node node, String name) {
-        NamedNodeMap childNodes = node.getAttributes();
-        return Optional.ofNullable(childNodes.getNamedItem(name));
+    /**
+     * Element names and CDATA sections are reported like the DOM parser which was used before did, so that
+     * the results stay the same.
+     */
+    private static XMLInputFactory createDocumentInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        if (factory.isPropertySupported(REPORT_CDATA_PROPERTY)) {
+            factory.setProperty(REPORT_CDATA_PROPERTY, true);
+        }
+        return factory;
     }
 
-    protected Optional<Node> findNamedSubelement(Node node, String name) {
-        NodeList childNodes = node.getChildNodes();
-        return streamFromNodeList(childNodes).filter(n -> n.getNodeName().equals(name)).findFirst();
+    protected static String normalizeEscapedXhtml(CLINode node) {
+        return StringEscapeUtils.unescapeHtml(StringEscapeUtils.unescapeXml(node.getTextContent().trim()));
     }
 
-    private Stream<Node> streamFromNodeList(NodeList nodes) {
-        Iterator<Node> iter = new NodeListIterator(nodes);
-        Iterable<Node> iterable = () -> iter;
-        return StreamSupport.stream(iterable.spliterator(), false);
+    protected static String normalizeSpace(CLINode node) {
+        return StringUtils.normalizeSpace(node.getTextContent());
     }
 
     protected <T> boolean hasThisXMLRootElement(AttachmentContent content, String rootElementNamespace, String rootElementName, User user, T context) throws TException {
-        XMLInputFactory xmlif = XMLInputFactory.newFactory();
         XMLStreamReader xmlStreamReader = null;
         InputStream attachmentStream = null;
         try {
             attachmentStream = attachmentConnector.getAttachmentStream(content, user, context);
-            xmlStreamReader = xmlif.createXMLStreamReader(attachmentStream);
+            xmlStreamReader = ROOT_ELEMENT_INPUT_FACTORY.get().createXMLStreamReader(attachmentStream);
 
             //skip to first element
             while (xmlStreamReader.hasNext() && xmlStreamReader.next() != XMLStreamConstants.START_ELEMENT) ;
@@ -114,74 +106,149 @@ public abstract class AbstractCLIParser extends LicenseInfoParser {
         } catch (XMLStreamException | SW360Exception e) {
             return false;
         } finally {
-            if (null != xmlStreamReader) {
-                try {
-                    xmlStreamReader.close();
-                } catch (XMLStreamException e) {
-                    // ignore it
+            closeReaderQuietly(xmlStreamReader);
+            closeQuietly(attachmentStream, log);
+        }
+    }
+
+    /**
+     * Reads a CLI file in a single pass. Only the attributes of the root element and the element directly below the
+     * root which is handled at the moment are kept in memory, so the memory needed does not grow with the file.
+     *
+     * @param childElementHandlers handlers by name of the elements directly below the root
+     * @return the root element without children, if it has the expected name
+     */
+    protected Optional<CLINode> readCLIDocument(InputStream attachmentStream, String rootElementName,
+                                                Map<String, Consumer<CLINode>> childElementHandlers) throws XMLStreamException {
+        XMLStreamReader reader = DOCUMENT_INPUT_FACTORY.get().createXMLStreamReader(attachmentStream);
+        try {
+            Optional<CLINode> root = Optional.empty();
+            int depth = 0;
+            // the whole file is read even if the root does not match, so that malformed files fail as before
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = getQualifiedName(reader);
+                    if (depth == 1 && rootElementName.equals(name)) {
+                        root = Optional.of(CLINode.element(name, getAttributes(reader)));
+                    } else if (depth == 2 && root.isPresent() && childElementHandlers.containsKey(name)) {
+                        childElementHandlers.get(name).accept(readElement(reader));
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
                 }
             }
-            closeQuietly(attachmentStream, log);
+            return root;
+        } finally {
+            closeReaderQuietly(reader);
         }
     }
 
-    protected Document getDocument(InputStream attachmentStream) throws ParserConfigurationException, SAXException, IOException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        return builder.parse(attachmentStream);
+    /**
+     * Reads the element the reader is at, including its descendants, and leaves the reader at its end.
+     */
+    private CLINode readElement(XMLStreamReader reader) throws XMLStreamException {
+        Deque<CLINode> openElements = new ArrayDeque<>();
+        CLINode element = CLINode.element(getQualifiedName(reader), getAttributes(reader));
+        openElements.push(element);
+        while (!openElements.isEmpty()) {
+            int event = reader.next();
+            CLINode parent = openElements.peek();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    CLINode child = CLINode.element(getQualifiedName(reader), getAttributes(reader));
+                    parent.appendChild(child);
+                    openElements.push(child);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    openElements.pop();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    parent.appendText(reader.getText());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    parent.appendChild(CLINode.text(CLINode.Type.CDATA, reader.getText()));
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    parent.appendChild(CLINode.text(CLINode.Type.COMMENT, reader.getText()));
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    parent.appendChild(CLINode.processingInstruction(reader.getPITarget(), Strings.nullToEmpty(reader.getPIData())));
+                    break;
+                default:
+                    // nothing else can occur within an element
+            }
+        }
+        return element;
     }
 
-    protected NodeList getNodeListByXpath(Document doc, String xpathString) throws XPathExpressionException {
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        XPathExpression xpathExpression = xpath.compile(xpathString);
-        return (NodeList) xpathExpression.evaluate(doc, XPathConstants.NODESET);
+    private static String getQualifiedName(XMLStreamReader reader) {
+        return getQualifiedName(reader.getPrefix(), reader.getLocalName());
     }
 
-    protected Set<String> nodeListToStringSet(NodeList nodes) {
-        Set<String> strings = Sets.newHashSet();
-        for (int i = 0; i < nodes.getLength(); i++) {
-            strings.add(normalizeEscapedXhtml(nodes.item(i)));
+    private static String getQualifiedName(String prefix, String localName) {
+        return isNullOrEmpty(prefix) ? localName : prefix + ":" + localName;
+    }
+
+    private static Map<String, String> getAttributes(XMLStreamReader reader) {
+        int attributeCount = reader.getAttributeCount();
+        if (attributeCount == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put(getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private static void closeReaderQuietly(XMLStreamReader reader) {
+        if (null != reader) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // ignore it
+            }
         }
-        return strings;
     }
 
-    protected LicenseNameWithText getLicenseNameWithTextFromLicenseNode(Node node) {
+    protected LicenseNameWithText getLicenseNameWithTextFromLicenseNode(CLINode node) {
         return new LicenseNameWithText()
-                .setLicenseText(findNamedSubelement(node, LICENSE_CONTENT_ELEMENT_NAME)
+                .setLicenseText(node.findChild(LICENSE_CONTENT_ELEMENT_NAME)
                         .map(AbstractCLIParser::normalizeEscapedXhtml)
                         .orElse(null))
-                .setAcknowledgements(findNamedSubelement(node, LICENSE_ACKNOWLEDGEMENTS_ELEMENT_NAME)
+                .setAcknowledgements(node.findChild(LICENSE_ACKNOWLEDGEMENTS_ELEMENT_NAME)
                         .map(AbstractCLIParser::normalizeEscapedXhtml)
                         .orElse(null))
-                .setLicenseName(findNamedAttribute(node, LICENSENAME_ATTRIBUTE_NAME)
-                        .map(Node::getNodeValue)
+                .setLicenseName(node.findAttribute(LICENSENAME_ATTRIBUTE_NAME)
                         .orElse(LICENSE_NAME_UNKNOWN))
-                .setLicenseSpdxId(findNamedAttribute(node, SPDX_IDENTIFIER_ATTRIBUTE_NAME)
-                        .map(AbstractCLIParser::normalizeSpace)
+                .setLicenseSpdxId(node.findAttribute(SPDX_IDENTIFIER_ATTRIBUTE_NAME)
+                        .map(StringUtils::normalizeSpace)
                         .orElse(SPDX_IDENTIFIER_UNKNOWN))
-                .setType(findNamedAttribute(node, TYPE_ATTRIBUTE_NAME)
-                        .map(Node::getNodeValue)
+                .setType(node.findAttribute(TYPE_ATTRIBUTE_NAME)
                         .orElse(TYPE_UNKNOWN));
     }
 
-    protected Obligation getObligationFromObligationNode(Node node) {
+    protected Obligation getObligationFromObligationNode(CLINode node) {
 
         return new Obligation()
-                .setTopic(findNamedSubelement(node, OBLIGATION_TOPIC_ELEMENT_NAME)
-                    .map(Node::getFirstChild)
+                .setTopic(node.findChild(OBLIGATION_TOPIC_ELEMENT_NAME)
+                    .flatMap(CLINode::getFirstChild)
                     .map(AbstractCLIParser::normalizeSpace)
                     .orElse(OBLIGATION_TOPIC_UNKNOWN))
-                .setText(findNamedSubelement(node, OBLIGATION_TEXT_ELEMENT_NAME)
-                    .map(Node::getFirstChild)
-                    .map(Node::getTextContent)
+                .setText(node.findChild(OBLIGATION_TEXT_ELEMENT_NAME)
+                    .flatMap(CLINode::getFirstChild)
+                    .map(CLINode::getTextContent)
                     .orElse(OBLIGATION_TEXT_UNKNOWN))
-                .setLicenseIDs(findNamedSubelement(node, OBLIGATION_LICENSE_ELEMENT_NAME)
-                    .map((Node n) -> {
+                .setLicenseIDs(node.findChild(OBLIGATION_LICENSE_ELEMENT_NAME)
+                    .map((CLINode n) -> {
                         List<String> strings = new ArrayList<String>();
-                        NodeListIterator it = new NodeListIterator(n.getChildNodes());
-                        while (it.hasNext()) {
-                            Node child = it.next();
-                            if(child.getFirstChild() != null) {
+                        for (CLINode child : n.getChildNodes()) {
+                            if (child.hasChildNodes()) {
                                 strings.add(normalizeSpace(child));
                             }
                         }
@@ -189,29 +256,4 @@ public abstract class AbstractCLIParser extends LicenseInfoParser {
                     })
                     .orElse(new ArrayList<String>()));
     }
-
-    protected class NodeListIterator implements Iterator<Node> {
-        private final NodeList nodes;
-        private int i;
-
-        public NodeListIterator(NodeList nodes) {
-            this.nodes = nodes;
-            this.i = 0;
-        }
-
-        @Override
-        public boolean hasNext() {
-            return i < nodes.getLength();
-        }
-
-        @Override
-        public Node next() {
-            if (hasNext()) {
-                i++;
-                return nodes.item(i - 1);
-            } else {
-                throw new NoSuchElementException();
-            }
-        }
-    }
 }
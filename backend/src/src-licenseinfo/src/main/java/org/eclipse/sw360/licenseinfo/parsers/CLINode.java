@@ -0,0 +1,141 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.licenseinfo.parsers;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Node of a part of a CLI file which has been read by {@link AbstractCLIParser#readCLIDocument}.
+ *
+ * It behaves like the corresponding DOM node for what the CLI parsers need: adjacent text is one text node, CDATA
+ * sections, comments and processing instructions are nodes of their own and the text content of an element is the
+ * text of all its text and CDATA descendants.
+ */
+class CLINode {
+
+    enum Type {
+        ELEMENT(null), TEXT("#text"), CDATA("#cdata-section"), COMMENT("#comment"), PROCESSING_INSTRUCTION(null);
+
+        private final String nodeName;
+
+        Type(String nodeName) {
+            this.nodeName = nodeName;
+        }
+    }
+
+    private final Type type;
+    private final String name;
+    private final Map<String, String> attributes;
+    private final List<CLINode> children;
+    private final StringBuilder data;
+
+    private CLINode(Type type, String name, Map<String, String> attributes, String data) {
+        this.type = type;
+        this.name = name;
+        this.attributes = attributes;
+        this.children = type == Type.ELEMENT ? new ArrayList<>() : Collections.emptyList();
+        this.data = new StringBuilder(data);
+    }
+
+    static CLINode element(String name, Map<String, String> attributes) {
+        return new CLINode(Type.ELEMENT, name, attributes, "");
+    }
+
+    static CLINode text(Type type, String data) {
+        return new CLINode(type, type.nodeName, Collections.emptyMap(), data);
+    }
+
+    static CLINode processingInstruction(String target, String data) {
+        return new CLINode(Type.PROCESSING_INSTRUCTION, target, Collections.emptyMap(), data);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void appendChild(CLINode child) {
+        children.add(child);
+    }
+
+    /**
+     * Adds text to the last child if it is a text node as well, or as a new text node otherwise.
+     */
+    void appendText(String text) {
+        CLINode last = children.isEmpty() ? null : children.get(children.size() - 1);
+        if (last != null && last.type == Type.TEXT) {
+            last.data.append(text);
+        } else {
+            children.add(text(Type.TEXT, text));
+        }
+    }
+
+    Optional<String> findAttribute(String attributeName) {
+        return Optional.ofNullable(attributes.get(attributeName));
+    }
+
+    Optional<CLINode> getFirstChild() {
+        return children.stream().findFirst();
+    }
+
+    boolean hasChildNodes() {
+        return !children.isEmpty();
+    }
+
+    List<CLINode> getChildNodes() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * @return the first child node with this name, like a look up of a named subelement in the DOM
+     */
+    Optional<CLINode> findChild(String childName) {
+        return children.stream().filter(child -> child.name.equals(childName)).findFirst();
+    }
+
+    /**
+     * @return all child elements with this name, like a child step in an XPath expression
+     */
+    List<CLINode> getChildElements(String childName) {
+        return children.stream()
+                .filter(child -> child.type == Type.ELEMENT && child.name.equals(childName))
+                .collect(Collectors.toList());
+    }
+
+    String getTextContent() {
+        if (type != Type.ELEMENT) {
+            return data.toString();
+        }
+        StringBuilder textContent = new StringBuilder();
+        appendTextContent(textContent);
+        return textContent.toString();
+    }
+
+    private void appendTextContent(StringBuilder textContent) {
+        for (CLINode child : children) {
+            switch (child.type) {
+                case ELEMENT:
+                    child.appendTextContent(textContent);
+                    break;
+                case TEXT:
+                case CDATA:
+                    textContent.append(child.data);
+                    break;
+                default:
+                    // comments and processing instructions are not part of the text content
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@
  */
 package org.eclipse.sw360.licenseinfo.parsers;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.log4j.Logger;
@@ -26,18 +27,13 @@ import org.eclipse.sw360.datahandler.thrift.licenseinfo.ObligationInfoRequestSta
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseInfoRequestStatus;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseNameWithText;
 import org.eclipse.sw360.datahandler.thrift.users.User;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Node;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPathExpressionException;
-import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
@@ -49,11 +45,11 @@ import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
 public class CLIParser extends AbstractCLIParser {
 
     private static final Logger log = Logger.getLogger(CLIParser.class);
-    private static final String COPYRIGHTS_XPATH = "/ComponentLicenseInformation/Copyright/Content";
-    private static final String LICENSES_XPATH = "/ComponentLicenseInformation/License";
-    private static final String OBLIGATIONS_XPATH = "/ComponentLicenseInformation/Obligation";
+    private static final String COPYRIGHT_ELEMENT_NAME = "Copyright";
+    private static final String COPYRIGHT_CONTENT_ELEMENT_NAME = "Content";
+    private static final String LICENSE_ELEMENT_NAME = "License";
+    private static final String OBLIGATION_ELEMENT_NAME = "Obligation";
     private static final String CLI_ROOT_ELEMENT_NAME = "ComponentLicenseInformation";
-    private static final String CLI_ROOT_XPATH = "/ComponentLicenseInformation";
     private static final String CLI_ROOT_ELEMENT_NAMESPACE = null;
 
     public CLIParser(AttachmentConnector attachmentConnector, AttachmentContentProvider attachmentContentProvider) {
@@ -79,19 +75,22 @@ public class CLIParser extends AbstractCLIParser {
 
         try {
             attachmentStream = attachmentConnector.getAttachmentStream(attachmentContent, user, context);
-            Document doc = getDocument(attachmentStream);
+            Set<String> copyrights = Sets.newHashSet();
+            Set<LicenseNameWithText> licenseNamesWithTexts = Sets.newHashSet();
+            Optional<CLINode> root = readCLIDocument(attachmentStream, CLI_ROOT_ELEMENT_NAME, ImmutableMap.of(
+                    COPYRIGHT_ELEMENT_NAME, copyright -> copyright.getChildElements(COPYRIGHT_CONTENT_ELEMENT_NAME)
+                            .forEach(content -> copyrights.add(normalizeEscapedXhtml(content))),
+                    LICENSE_ELEMENT_NAME, license -> licenseNamesWithTexts.add(getLicenseNameWithTextFromLicenseNode(license))));
 
-            Set<String> copyrights = getCopyrights(doc);
             licenseInfo.setCopyrights(copyrights);
+            licenseInfo.setLicenseNamesWithTexts(licenseNamesWithTexts);
 
-            licenseInfo.setLicenseNamesWithTexts(getLicenseNameWithTexts(doc));
-
-            licenseInfo.setSha1Hash(getSha1Hash(doc));
-            licenseInfo.setComponentName(getComponent(doc));
+            licenseInfo.setSha1Hash(getRootAttribute(root, "componentSHA1"));
+            licenseInfo.setComponentName(getRootAttribute(root, "component"));
 
             result.setAttachmentContentId(attachment.getAttachmentContentId());
             result.setStatus(LicenseInfoRequestStatus.SUCCESS);
-        } catch (ParserConfigurationException | IOException | XPathExpressionException | SAXException | SW360Exception e) {
+        } catch (XMLStreamException | SW360Exception e) {
             log.error(e);
             result.setStatus(LicenseInfoRequestStatus.FAILURE).setMessage("Error while parsing CLI file: " + e.toString());
         } finally {
@@ -109,12 +108,14 @@ public class CLIParser extends AbstractCLIParser {
 
         try {
             attachmentStream = attachmentConnector.getAttachmentStream(attachmentContent, user, context);
-            Document doc = getDocument(attachmentStream);
+            List<Obligation> obligations = Lists.newArrayList();
+            readCLIDocument(attachmentStream, CLI_ROOT_ELEMENT_NAME, ImmutableMap.of(
+                    OBLIGATION_ELEMENT_NAME, obligation -> obligations.add(getObligationFromObligationNode(obligation))));
 
-            result.setObligations(getObligations(doc));
+            result.setObligations(obligations);
             result.setAttachmentContentId(attachment.getAttachmentContentId());
             result.setStatus(ObligationInfoRequestStatus.SUCCESS);
-        } catch (ParserConfigurationException | IOException | XPathExpressionException | SAXException | SW360Exception e) {
+        } catch (XMLStreamException | SW360Exception e) {
             log.error(e);
             result.setStatus(ObligationInfoRequestStatus.FAILURE).setMessage("Error while parsing CLI file: " + e.toString());
         } finally {
@@ -123,60 +124,7 @@ public class CLIParser extends AbstractCLIParser {
         return result;
     }
 
-    private List<Obligation> getObligations(Document doc) throws XPathExpressionException {
-        NodeList obligationNodes = getNodeListByXpath(doc, OBLIGATIONS_XPATH);
-        return nodeListToObligationList(obligationNodes);
-    }
-
-    private Set<LicenseNameWithText> getLicenseNameWithTexts(Document doc) throws XPathExpressionException {
-        NodeList licenseNodes = getNodeListByXpath(doc, LICENSES_XPATH);
-        return nodeListToLicenseNamesWithTextsSet(licenseNodes);
-    }
-
-    private Set<String> getCopyrights(Document doc) throws XPathExpressionException {
-        NodeList copyrightNodes = getNodeListByXpath(doc, COPYRIGHTS_XPATH);
-        return nodeListToStringSet(copyrightNodes);
-    }
-
-    private String getSha1Hash(Document doc) throws XPathExpressionException {
-        NodeList copyrightNodes = getNodeListByXpath(doc, CLI_ROOT_XPATH);
-
-        if(copyrightNodes.getLength() < 1) {
-            return "";
-        }
-
-        String result = findNamedAttribute(copyrightNodes.item(0), "componentSHA1")
-                        .map(Node::getNodeValue)
-                        .orElse("");
-        return result;
-    }
-
-    private String getComponent(Document doc) throws XPathExpressionException {
-        NodeList copyrightNodes = getNodeListByXpath(doc, CLI_ROOT_XPATH);
-
-        if(copyrightNodes.getLength() < 1) {
-            return "";
-        }
-
-        String result = findNamedAttribute(copyrightNodes.item(0), "component")
-                        .map(Node::getNodeValue)
-                        .orElse("");
-        return result;
-    }
-
-    private Set<LicenseNameWithText> nodeListToLicenseNamesWithTextsSet(NodeList nodes){
-        Set<LicenseNameWithText> licenseNamesWithTexts= Sets.newHashSet();
-        for (int i = 0; i < nodes.getLength(); i++){
-            licenseNamesWithTexts.add(getLicenseNameWithTextFromLicenseNode(nodes.item(i)));
-        }
-        return licenseNamesWithTexts;
-    }
-
-    private List<Obligation> nodeListToObligationList(NodeList nodes) {
-        List<Obligation> obligations = Lists.newArrayList();
-        for (int i = 0; i < nodes.getLength(); i++) {
-            obligations.add(getObligationFromObligationNode(nodes.item(i)));
-        }
-        return obligations;
+    private String getRootAttribute(Optional<CLINode> root, String attributeName) {
+        return root.flatMap(node -> node.findAttribute(attributeName)).orElse("");
     }
 }
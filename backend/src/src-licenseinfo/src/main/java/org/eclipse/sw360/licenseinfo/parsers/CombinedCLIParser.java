@@ -10,6 +10,7 @@
  */
 package org.eclipse.sw360.licenseinfo.parsers;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.log4j.Logger;
@@ -28,14 +29,8 @@ import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseInfoRequestStatus
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseNameWithText;
 import org.eclipse.sw360.datahandler.thrift.users.User;
 import org.jetbrains.annotations.NotNull;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPathExpressionException;
-import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
 import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -50,8 +45,8 @@ import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
 public class CombinedCLIParser extends AbstractCLIParser{
 
     private static final Logger log = Logger.getLogger(CombinedCLIParser.class);
-    private static final String COPYRIGHTS_XPATH = "/CombinedCLI/Copyright";
-    private static final String LICENSES_XPATH = "/CombinedCLI/License";
+    private static final String COPYRIGHT_ELEMENT_NAME = "Copyright";
+    private static final String LICENSE_ELEMENT_NAME = "License";
     private static final String COPYRIGHT_CONTENT_ELEMENT_NAME = "Content";
     private static final String EXTERNAL_ID_ATTRIBUTE_NAME = "srcComponent";
     private static final String COMBINED_CLI_ROOT_ELEMENT_NAME = "CombinedCLI";
@@ -76,6 +71,12 @@ public class CombinedCLIParser extends AbstractCLIParser{
         return releaseExternalIdCorrelationKey;
     }
 
+    @Override
+    public boolean isResultDependingOnContentOnly() {
+        // the referenced releases are looked up in the database
+        return false;
+    }
+
     @Override
     public <T> boolean isApplicableTo(Attachment attachment, User user, T context) throws TException {
         AttachmentContent attachmentContent = attachmentContentProvider.getAttachmentContent(attachment);
@@ -91,21 +92,22 @@ public class CombinedCLIParser extends AbstractCLIParser{
         AttachmentContent attachmentContent = attachmentContentProvider.getAttachmentContent(attachment);
         InputStream attachmentStream = null;
         List<LicenseInfoParsingResult> parsingResults = new ArrayList<>();
-        Map<String, Release> releasesByExternalId = prepareReleasesByExternalId(getCorrelationKey());
 
         try {
             attachmentStream = attachmentConnector.getAttachmentStream(attachmentContent, user, context);
-            Document doc = getDocument(attachmentStream);
-
-            Map<String, Set<String>> copyrightSetsByExternalId = getCopyrightSetsByExternalIdsMap(doc);
-            Map<String, Set<LicenseNameWithText>> licenseNamesWithTextsByExternalId = getLicenseNamesWithTextsByExternalIdsMap(doc);
+            Map<String, Set<String>> copyrightSetsByExternalId = Maps.newHashMap();
+            Map<String, Set<LicenseNameWithText>> licenseNamesWithTextsByExternalId = Maps.newHashMap();
+            readCLIDocument(attachmentStream, COMBINED_CLI_ROOT_ELEMENT_NAME, ImmutableMap.of(
+                    COPYRIGHT_ELEMENT_NAME, copyright -> addCopyright(copyrightSetsByExternalId, copyright),
+                    LICENSE_ELEMENT_NAME, license -> addLicenseNameWithText(licenseNamesWithTextsByExternalId, license)));
 
             Set<String> allExternalIds = Sets.union(copyrightSetsByExternalId.keySet(), licenseNamesWithTextsByExternalId.keySet());
+            Map<String, Release> releasesByExternalId = prepareReleasesByExternalId(getCorrelationKey(), allExternalIds);
             allExternalIds.forEach(extId -> {
                 LicenseInfoParsingResult parsingResult = getLicenseInfoParsingResultForExternalId(attachmentContent, releasesByExternalId, copyrightSetsByExternalId, licenseNamesWithTextsByExternalId, extId);
                 parsingResults.add(parsingResult);
             });
-        } catch (ParserConfigurationException | IOException | XPathExpressionException | SAXException | SW360Exception e) {
+        } catch (XMLStreamException | SW360Exception e) {
             log.error(e);
             parsingResults.add(new LicenseInfoParsingResult()
                     .setStatus(LicenseInfoRequestStatus.FAILURE)
@@ -116,16 +118,6 @@ public class CombinedCLIParser extends AbstractCLIParser{
         return parsingResults;
     }
 
-    private Map<String, Set<LicenseNameWithText>> getLicenseNamesWithTextsByExternalIdsMap(Document doc) throws XPathExpressionException {
-        NodeList licenseNodes = getNodeListByXpath(doc, LICENSES_XPATH);
-        return nodeListToLicenseNamesWithTextsSetsByExternalId(licenseNodes, EXTERNAL_ID_ATTRIBUTE_NAME);
-    }
-
-    private Map<String, Set<String>> getCopyrightSetsByExternalIdsMap(Document doc) throws XPathExpressionException {
-        NodeList copyrightNodes = getNodeListByXpath(doc, COPYRIGHTS_XPATH);
-        return nodeListToStringSetsByExternalId(copyrightNodes, EXTERNAL_ID_ATTRIBUTE_NAME, COPYRIGHT_CONTENT_ELEMENT_NAME);
-    }
-
     @NotNull
     private LicenseInfoParsingResult getLicenseInfoParsingResultForExternalId(AttachmentContent attachmentContent, Map<String, Release> releasesByExternalId, Map<String, Set<String>> copyrightSetsByExternalId, Map<String, Set<LicenseNameWithText>> licenseNamesWithTextsByExternalId, String extId) {
         LicenseInfo licenseInfo = new LicenseInfo().setFilenames(Arrays.asList(attachmentContent.getFilename()));
@@ -144,10 +136,22 @@ public class CombinedCLIParser extends AbstractCLIParser{
         return parsingResult;
     }
 
-    private Map<String, Release> prepareReleasesByExternalId(String correlationKey) {
-        Map<String, Release> idMap = componentDatabaseHandler.getAllReleasesIdMap();
-        Map<String, Release> releasesByExternalId = idMap.values().stream()
-                .filter(r -> r.getExternalIds() != null && r.getExternalIds().containsKey(correlationKey))
+    /**
+     * Looks up only the releases with the external ids of the file, so that parsing does not depend on the number of
+     * releases in the database.
+     */
+    private Map<String, Release> prepareReleasesByExternalId(String correlationKey, Set<String> externalIds) {
+        Set<String> searchedExternalIds = externalIds.stream()
+                .filter(externalId -> !isNullOrEmpty(externalId))
+                .collect(Collectors.toSet());
+        if (isNullOrEmpty(correlationKey) || searchedExternalIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Set<String>> externalIdsQuery = new HashMap<>();
+        externalIdsQuery.put(correlationKey, searchedExternalIds);
+        Map<String, Release> releasesByExternalId = componentDatabaseHandler.searchReleasesByExternalIds(externalIdsQuery).stream()
+                .filter(r -> r.getExternalIds() != null && searchedExternalIds.contains(r.getExternalIds().get(correlationKey)))
                 .collect(Collectors.toMap(r -> r.getExternalIds().get(correlationKey), r -> r, (r1, r2) -> {
                     log.warn(String.format("Duplicate externalId in releases %s and %s", SW360Utils.printFullname(r1), SW360Utils.printFullname(r2)));
                     return r1;
@@ -155,37 +159,17 @@ public class CombinedCLIParser extends AbstractCLIParser{
         return releasesByExternalId;
     }
 
-    private Map<String, Set<String>> nodeListToStringSetsByExternalId(NodeList nodes, String externalIdAttributeName, String contentElementName){
-        Map<String, Set<String>> result = Maps.newHashMap();
-        for (int i = 0; i < nodes.getLength(); i++){
-            Optional<Node> externalIdOptional = findNamedAttribute(nodes.item(i), externalIdAttributeName);
-            String externalId = externalIdOptional.map(Node::getNodeValue).orElse(null);
-            String contentText = findNamedSubelement(nodes.item(i), contentElementName)
-                    .map(AbstractCLIParser::normalizeEscapedXhtml)
-                    .orElse(null);
-            if (!result.containsKey(externalId)){
-                result.put(externalId, Sets.newHashSet());
-            }
-            result.get(externalId).add(contentText);
-        }
-        return result;
+    private void addCopyright(Map<String, Set<String>> copyrightSetsByExternalId, CLINode copyright) {
+        String externalId = copyright.findAttribute(EXTERNAL_ID_ATTRIBUTE_NAME).orElse(null);
+        String contentText = copyright.findChild(COPYRIGHT_CONTENT_ELEMENT_NAME)
+                .map(AbstractCLIParser::normalizeEscapedXhtml)
+                .orElse(null);
+        copyrightSetsByExternalId.computeIfAbsent(externalId, id -> Sets.newHashSet()).add(contentText);
     }
 
-    private Map<String, Set<LicenseNameWithText>> nodeListToLicenseNamesWithTextsSetsByExternalId(NodeList nodes, String externalIdAttributeName){
-        Map<String, Set<LicenseNameWithText>> result = Maps.newHashMap();
-        for (int i = 0; i < nodes.getLength(); i++){
-            Node node = nodes.item(i);
-            Optional<Node> externalIdOptional = findNamedAttribute(node, externalIdAttributeName);
-            String externalId = externalIdOptional.map(Node::getNodeValue).orElse(null);
-
-            LicenseNameWithText licenseNameWithText = getLicenseNameWithTextFromLicenseNode(node);
-
-            if (!result.containsKey(externalId)) {
-                result.put(externalId, Sets.newHashSet());
-            }
-            result.get(externalId).add(licenseNameWithText);
-
-        }
-        return result;
+    private void addLicenseNameWithText(Map<String, Set<LicenseNameWithText>> licenseNamesWithTextsByExternalId, CLINode license) {
+        String externalId = license.findAttribute(EXTERNAL_ID_ATTRIBUTE_NAME).orElse(null);
+        licenseNamesWithTextsByExternalId.computeIfAbsent(externalId, id -> Sets.newHashSet())
+                .add(getLicenseNameWithTextFromLicenseNode(license));
     }
 }
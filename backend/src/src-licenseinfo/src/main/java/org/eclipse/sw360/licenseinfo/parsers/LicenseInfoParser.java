@@ -35,6 +35,21 @@ public abstract class LicenseInfoParser {
 
     public abstract List<String> getApplicableFileExtensions();
 
+    /**
+     * Version of the results of this parser. It has to be changed whenever a change of the parser or of its
+     * configuration changes the results for the same attachment, stored results of other versions are not used.
+     */
+    public String getResultVersion() {
+        return "1";
+    }
+
+    /**
+     * Whether the results only depend on the content of the attachment, so that they can be stored by its sha1
+     */
+    public boolean isResultDependingOnContentOnly() {
+        return true;
+    }
+
     public <T> boolean isApplicableTo(Attachment attachmentContent, User user, T context) throws TException {
         List<String> applicableFileExtensions = getApplicableFileExtensions();
         if(applicableFileExtensions.size() == 0){
@@ -56,6 +56,11 @@ public class SPDXParser extends LicenseInfoParser {
         return Collections.singletonList(FILETYPE_SPDX_EXTENSION);
     }
 
+    @Override
+    public String getResultVersion() {
+        return SPDXParserTools.isUsingLicenseInfoFromFiles() ? "1-files" : "1";
+    }
+
     @Override
     public <T> List<LicenseInfoParsingResult> getLicenseInfos(Attachment attachment, User user, T context) throws TException {
         return Collections.singletonList(getLicenseInfo(attachment, user, context));
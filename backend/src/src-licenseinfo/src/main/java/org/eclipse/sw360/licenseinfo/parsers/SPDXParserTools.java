@@ -45,6 +45,10 @@ public class SPDXParserTools {
                 .valueOf(properties.getOrDefault(PROPERTY_KEY_USE_LICENSE_INFO_FROM_FILES, "true").toString());
     }
 
+    static boolean isUsingLicenseInfoFromFiles() {
+        return USE_LICENSE_INFO_FROM_FILES;
+    }
+
     private static String extractLicenseName(AnyLicenseInfo licenseConcluded) {
         return licenseConcluded.getResource().getLocalName();
     }
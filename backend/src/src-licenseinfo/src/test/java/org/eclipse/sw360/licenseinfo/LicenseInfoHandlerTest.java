@@ -16,11 +16,15 @@ import com.google.common.collect.ImmutableSet;
 import org.apache.thrift.TException;
 import org.eclipse.sw360.datahandler.db.AttachmentDatabaseHandler;
 import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
+import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
 import org.eclipse.sw360.datahandler.thrift.components.Release;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseInfo;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseInfoParsingResult;
 import org.eclipse.sw360.datahandler.thrift.licenseinfo.LicenseNameWithText;
+import org.eclipse.sw360.datahandler.thrift.licenseinfo.ObligationInfoRequestStatus;
+import org.eclipse.sw360.datahandler.thrift.licenseinfo.ObligationParsingResult;
 import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.licenseinfo.parsers.LicenseInfoParser;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -32,6 +36,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -148,6 +156,66 @@ public class LicenseInfoHandlerTest {
         // @formatter:on
     }
 
+    @Test
+    public void testThatParallelParsingKeepsTheSequentialOrder() throws Exception {
+        Map<Release, Set<String>> releaseToAttachmentIds = new LinkedHashMap<>();
+        for (int i = 0; i < 300; i++) {
+            Release release = new Release().setId("release" + i).setName("release" + i).setVersion("1.0");
+            Set<String> attachmentIds = new LinkedHashSet<>();
+            for (int j = 0; j < 3; j++) {
+                String attachmentContentId = "release" + i + "-attachment" + j;
+                release.addToAttachments(new Attachment(attachmentContentId, attachmentContentId + ".xml"));
+                attachmentIds.add(attachmentContentId);
+            }
+            releaseToAttachmentIds.put(release, attachmentIds);
+        }
+
+        List<String> sequential = parseObligations(releaseToAttachmentIds, 1);
+        List<String> parallel = parseObligations(releaseToAttachmentIds, 8);
+
+        Assert.assertThat(sequential.size(), Matchers.is(900));
+        Assert.assertThat(sequential.get(0), Matchers.is("release0/release0-attachment0"));
+        Assert.assertThat(parallel, Matchers.is(sequential));
+    }
+
+    private List<String> parseObligations(Map<Release, Set<String>> releaseToAttachmentIds, int threadsPerRequest) throws Exception {
+        LicenseInfoHandler licenseInfoHandler = new LicenseInfoHandler(attachmentDatabaseHandler, null, null);
+        licenseInfoHandler.parsers = ImmutableList.of(new SlowObligationParser(connector));
+        licenseInfoHandler.parsingThreadsPerRequest = threadsPerRequest;
+
+        return licenseInfoHandler.getAllReleaseObligations(releaseToAttachmentIds, user).stream()
+                .map(result -> result.getRelease().getId() + "/" + result.getAttachmentContentId())
+                .collect(Collectors.toList());
+    }
+
+    private static class SlowObligationParser extends LicenseInfoParser {
+        private SlowObligationParser(AttachmentConnector attachmentConnector) {
+            super(attachmentConnector, null);
+        }
+
+        @Override
+        public List<String> getApplicableFileExtensions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public <T> List<LicenseInfoParsingResult> getLicenseInfos(Attachment attachment, User user, T context) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public <T> ObligationParsingResult getObligations(Attachment attachment, User user, T context) throws TException {
+            try {
+                // finish in a different order than started
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                throw new TException(e);
+            }
+            return new ObligationParsingResult().setStatus(ObligationInfoRequestStatus.SUCCESS)
+                    .setAttachmentContentId(attachment.getAttachmentContentId());
+        }
+    }
+
     private LicenseNameWithText createLicense(String name, String text, String acknowledgements) {
         LicenseNameWithText licenseNameWithText = new LicenseNameWithText();
         licenseNameWithText.setLicenseName(name);
@@ -0,0 +1,137 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.licenseinfo;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
+import org.eclipse.sw360.datahandler.thrift.licenseinfo.*;
+import org.eclipse.sw360.licenseinfo.parsers.LicenseInfoParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LicenseInfoResultStoreTest {
+
+    @Mock
+    private DatabaseConnector db;
+
+    @Mock
+    private LicenseInfoParser parser;
+
+    private LicenseInfoResultStore store;
+    private Map<String, LicenseInfoResultStore.ResultDocument> documents;
+    private AtomicInteger parsings;
+
+    @Before
+    public void setUp() {
+        documents = new HashMap<>();
+        when(db.add(any(LicenseInfoResultStore.ResultDocument.class))).then(invocation -> {
+            LicenseInfoResultStore.ResultDocument document = (LicenseInfoResultStore.ResultDocument) invocation.getArguments()[0];
+            documents.put(document.getId(), document);
+            return true;
+        });
+        when(db.find(eq(LicenseInfoResultStore.ResultDocument.class), anyString()))
+                .then(invocation -> documents.get((String) invocation.getArguments()[1]));
+        when(parser.isResultDependingOnContentOnly()).thenReturn(true);
+        when(parser.getResultVersion()).thenReturn("1");
+
+        store = new LicenseInfoResultStore(db);
+        parsings = new AtomicInteger();
+    }
+
+    @Test
+    public void testSameContentIsParsedOnce() throws Exception {
+        List<LicenseInfoParsingResult> first = store.getLicenseInfos(parser, attachment("a1", "cli.xml", "sha"), this::parse);
+        List<LicenseInfoParsingResult> second = store.getLicenseInfos(parser, attachment("a2", "copy.xml", "sha"), this::parse);
+
+        assertThat(parsings.get(), is(1));
+        assertThat(second.size(), is(1));
+        assertThat(second.get(0).getAttachmentContentId(), is("a2"));
+        assertThat(second.get(0).getLicenseInfo().getFilenames(), is(Collections.singletonList("copy.xml")));
+        assertThat(second.get(0).getLicenseInfo().getCopyrights(), is(first.get(0).getLicenseInfo().getCopyrights()));
+        assertThat(store.getStatistics(), startsWith("2 lookups, 1 hits (50.0%)"));
+    }
+
+    @Test
+    public void testNewParserVersionParsesAgain() throws Exception {
+        store.getLicenseInfos(parser, attachment("a1", "cli.xml", "sha"), this::parse);
+        when(parser.getResultVersion()).thenReturn("2");
+        store.getLicenseInfos(parser, attachment("a1", "cli.xml", "sha"), this::parse);
+
+        assertThat(parsings.get(), is(2));
+    }
+
+    @Test
+    public void testResultsWithoutSha1OrDependingOnTheDatabaseAreNotStored() throws Exception {
+        store.getLicenseInfos(parser, attachment("a1", "cli.xml", null), this::parse);
+        when(parser.isResultDependingOnContentOnly()).thenReturn(false);
+        store.getLicenseInfos(parser, attachment("a1", "cli.xml", "sha"), this::parse);
+        store.getLicenseInfos(parser, attachment("a1", "cli.xml", "sha"), this::parse);
+
+        assertThat(parsings.get(), is(3));
+        verify(db, never()).add(any());
+    }
+
+    @Test
+    public void testFailuresAreNotStored() throws Exception {
+        ObligationParsingResult failure = new ObligationParsingResult().setStatus(ObligationInfoRequestStatus.FAILURE);
+        store.getObligations(parser, attachment("a1", "cli.xml", "sha"), () -> failure);
+
+        verify(db, never()).add(any());
+    }
+
+    @Test
+    public void testObligations() throws Exception {
+        ObligationParsingResult parsed = new ObligationParsingResult().setStatus(ObligationInfoRequestStatus.SUCCESS)
+                .setAttachmentContentId("a1")
+                .setObligations(Collections.singletonList(new Obligation("topic", "text", Collections.singletonList("MIT"))));
+        store.getObligations(parser, attachment("a1", "cli.xml", "sha"), () -> parsed);
+        ObligationParsingResult stored = store.getObligations(parser, attachment("a2", "cli.xml", "sha"), () -> {
+            throw new AssertionError("parsed again");
+        });
+
+        assertThat(stored.getAttachmentContentId(), is("a2"));
+        assertThat(stored.getObligations(), is(parsed.getObligations()));
+    }
+
+    private List<LicenseInfoParsingResult> parse() {
+        parsings.incrementAndGet();
+        LicenseInfo licenseInfo = new LicenseInfo()
+                .setFilenames(Collections.singletonList("cli.xml"))
+                .setCopyrights(ImmutableSet.of("Copyright (c) 2019 Someone"));
+        return Collections.singletonList(new LicenseInfoParsingResult()
+                .setStatus(LicenseInfoRequestStatus.SUCCESS)
+                .setAttachmentContentId("a1")
+                .setLicenseInfo(licenseInfo));
+    }
+
+    private static Attachment attachment(String attachmentContentId, String filename, String sha1) {
+        return new Attachment(attachmentContentId, filename).setSha1(sha1);
+    }
+}
@@ -92,6 +92,22 @@ public class CLIParserTest {
             "</Copyright>\n" +
             "</ComponentLicenseInformation>";
 
+    private static final String CLI_MIXED_CONTENT_TESTFILE = "<?xml version=\"1.0\"?>\n" +
+            "<ComponentLicenseInformation component=\"a &amp; b\" componentSHA1=\"1234\">\n" +
+            "<!-- written by hand -->\n" +
+            "<License name=\"MIT License\" spdxidentifier=\" MIT \">\n" +
+            "<Content> text &amp; <i>more</i> text <![CDATA[&lt;b&gt; end]]> </Content>\n" +
+            "<Content>ignored</Content>\n" +
+            "<Acknowledgements><!-- no text -->ack</Acknowledgements>\n" +
+            "</License>\n" +
+            "<Obligation>\n" +
+            "<Topic><![CDATA[ do not   change ]]>ignored</Topic>\n" +
+            "<Text>a &amp; b <![CDATA[ignored]]></Text>\n" +
+            "<Licenses><!-- none --><License> GPL-2.0 </License><License/><License><![CDATA[MIT]]></License></Licenses>\n" +
+            "</Obligation>\n" +
+            "<Copyright><Content>(c) a</Content><Content>(c) b</Content><Files>a.c</Files></Copyright>\n" +
+            "</ComponentLicenseInformation>";
+
     @Mock
     private AttachmentConnector connector;
     private CLIParser parser;
@@ -155,6 +171,35 @@ public class CLIParserTest {
         assertThat(oblRes.getObligations().get(1).getLicenseIDs(), containsInAnyOrder("GPL-1.0+", "GPL-2.0", "GPL-2.0+", "LGPL-2.1+"));
     }
 
+    @Test
+    public void testGetCLIWithMixedContent() throws Exception {
+        Attachment cliAttachment = new Attachment("A1", "a.xml");
+        when(connector.getAttachmentStream(anyObject(), anyObject(), anyObject())).thenReturn(new ReaderInputStream(new StringReader(CLI_MIXED_CONTENT_TESTFILE)));
+        LicenseInfoParsingResult res = parser.getLicenseInfos(cliAttachment, new User(), new Project()).get(0);
+        assertThat(res.getStatus(), is(LicenseInfoRequestStatus.SUCCESS));
+        assertThat(res.getLicenseInfo().getSha1Hash(), is("1234"));
+        assertThat(res.getLicenseInfo().getComponentName(), is("a & b"));
+        assertThat(res.getLicenseInfo().getCopyrights(), containsInAnyOrder("(c) a", "(c) b"));
+        LicenseNameWithText license = res.getLicenseInfo().getLicenseNamesWithTexts().iterator().next();
+        assertThat(license.getLicenseName(), is("MIT License"));
+        assertThat(license.getLicenseSpdxId(), is("MIT"));
+        assertThat(license.getLicenseText(), is("text & more text <b> end"));
+        assertThat(license.getAcknowledgements(), is("ack"));
+    }
+
+    @Test
+    public void testGetCLIObligationsWithMixedContent() throws Exception {
+        Attachment cliAttachment = new Attachment("A1", "a.xml");
+        when(connector.getAttachmentStream(anyObject(), anyObject(), anyObject())).thenReturn(new ReaderInputStream(new StringReader(CLI_MIXED_CONTENT_TESTFILE)));
+        ObligationParsingResult oblRes = parser.getObligations(cliAttachment, new User(), new Project());
+        assertThat(oblRes.getStatus(), is(ObligationInfoRequestStatus.SUCCESS));
+        assertThat(oblRes.getObligationsSize(), is(1));
+        // like in the DOM, topic and text are the first node only
+        assertThat(oblRes.getObligations().get(0).getTopic(), is("do not change"));
+        assertThat(oblRes.getObligations().get(0).getText(), is("a & b "));
+        assertThat(oblRes.getObligations().get(0).getLicenseIDs(), contains("GPL-2.0", "MIT"));
+    }
+
     @Test
     public void testGetCLIFailsOnMalformedXML() throws Exception {
         Attachment cliAttachment = new Attachment("A1", "a.xml");
@@ -11,7 +11,9 @@
  */
 package org.eclipse.sw360.licenseinfo.parsers;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
 import org.eclipse.sw360.datahandler.db.ComponentDatabaseHandler;
@@ -35,6 +37,8 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.StringReader;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.eclipse.sw360.licenseinfo.TestHelper.assertLicenseInfoParsingResult;
@@ -46,7 +50,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -92,7 +98,15 @@ public class CombinedCLIParserTest {
                 .setVendor(new Vendor().setFullname("VendorD Fullname").setShortname("VendorD"))
                 .setExternalIds(ImmutableMap.of("some_external_id", "1234"));
 
-        when(componentDatabaseHandler.getAllReleasesIdMap()).thenReturn(ImmutableMap.of(r1.getId(), r1, r2.getId(), r2, r3.getId(), r3, r4.getId(), r4));
+        List<Release> releases = ImmutableList.of(r1, r2, r3, r4);
+
+        when(componentDatabaseHandler.searchReleasesByExternalIds(anyObject())).then(invocation -> {
+            Map<String, Set<String>> externalIds = (Map<String, Set<String>>) invocation.getArguments()[0];
+            return releases.stream()
+                    .filter(r -> r.isSetExternalIds() && externalIds.entrySet().stream()
+                            .anyMatch(e -> e.getValue().contains(r.getExternalIds().get(e.getKey()))))
+                    .collect(Collectors.toSet());
+        });
     }
 
     @Test
@@ -134,5 +148,7 @@ public class CombinedCLIParserTest {
         assertThat(res.getVendor(), is("VendorA"));
         assertThat(res.getName(), is("r1"));
         assertThat(res.getVersion(), is("1.0"));
+        verify(componentDatabaseHandler).searchReleasesByExternalIds(ImmutableMap.of("external-correlation-id", ImmutableSet.of("1234")));
+        verify(componentDatabaseHandler, never()).getAllReleasesIdMap();
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.common.SW360Utils;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseRepository;
+import org.eclipse.sw360.datahandler.couchdb.ThriftConflictResolutionStrategy;
 import org.eclipse.sw360.datahandler.db.CustomPropertiesRepository;
 import org.eclipse.sw360.datahandler.db.ReleaseRepository;
 import org.eclipse.sw360.datahandler.db.VendorRepository;
@@ -75,6 +76,8 @@ public class LicenseDatabaseHandler {
     public LicenseDatabaseHandler(Supplier<HttpClient> httpClient, String dbName) throws MalformedURLException {
         // Create the connector
         db = new DatabaseConnector(httpClient, dbName);
+        db.setConflictResolutionStrategy(License.class,
+                new ThriftConflictResolutionStrategy<License, License._Fields>(License._Fields.values()));
 
         // Create the repository
         licenseRepository = new LicenseRepository(db);
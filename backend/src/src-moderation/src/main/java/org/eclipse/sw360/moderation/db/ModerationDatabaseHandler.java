@@ -17,6 +17,7 @@ import org.eclipse.sw360.datahandler.common.SW360Constants;
 import org.eclipse.sw360.datahandler.common.SW360Utils;
 import org.eclipse.sw360.datahandler.common.ThriftEnumUtils;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.ThriftConflictResolutionStrategy;
 import org.eclipse.sw360.datahandler.db.ComponentDatabaseHandler;
 import org.eclipse.sw360.datahandler.db.ProjectDatabaseHandler;
 import org.eclipse.sw360.datahandler.permissions.PermissionUtils;
@@ -74,6 +75,8 @@ public class ModerationDatabaseHandler {
 
     public ModerationDatabaseHandler(Supplier<HttpClient> httpClient, String dbName, String attachmentDbName) throws MalformedURLException {
         db = new DatabaseConnector(httpClient, dbName);
+        db.setConflictResolutionStrategy(ModerationRequest.class,
+                new ThriftConflictResolutionStrategy<ModerationRequest, ModerationRequest._Fields>(ModerationRequest._Fields.values()));
 
         // Create the repository
         repository = new ModerationRequestRepository(db);
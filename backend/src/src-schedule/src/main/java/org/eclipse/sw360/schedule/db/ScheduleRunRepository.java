@@ -0,0 +1,65 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.db;
+
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseRepository;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.schedule.timer.RunHistory;
+
+import org.ektorp.ComplexKey;
+import org.ektorp.ViewQuery;
+import org.ektorp.support.View;
+import org.ektorp.support.Views;
+
+import java.util.List;
+
+/**
+ * CRUD access for the ScheduleRun class, which keeps only the latest runs of every service
+ */
+@Views({
+        @View(name = "all", map = "function(doc) { if (doc.type == 'schedulerun') emit(null, doc._id) }"),
+        @View(name = "byServiceNameAndStartedAt", map = "function(doc) { if (doc.type == 'schedulerun') emit([doc.serviceName, doc.startedAt], null) }")
+})
+public class ScheduleRunRepository extends DatabaseRepository<ScheduleRun> implements RunHistory {
+
+    private final int historySize;
+
+    public ScheduleRunRepository(DatabaseConnector db, int historySize) {
+        super(ScheduleRun.class, db);
+        this.historySize = historySize;
+
+        initStandardDesignDocument();
+    }
+
+    @Override
+    public void record(ScheduleRun run) {
+        add(run);
+
+        List<ScheduleRun> outdatedRuns = queryView(latestRuns(run.getServiceName()).skip(historySize));
+        if (!outdatedRuns.isEmpty()) {
+            deleteBulk(outdatedRuns);
+        }
+    }
+
+    @Override
+    public List<ScheduleRun> getRuns(String serviceName, int limit) {
+        return queryView(latestRuns(serviceName).limit(limit));
+    }
+
+    private ViewQuery latestRuns(String serviceName) {
+        return createQuery("byServiceNameAndStartedAt")
+                .includeDocs(true)
+                .descending(true)
+                .startKey(ComplexKey.of(serviceName, ComplexKey.emptyObject()))
+                .endKey(ComplexKey.of(serviceName));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import com.google.common.collect.Lists;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentService;
+import org.apache.thrift.TException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the sha1 of the attachment contents stored before it was computed on upload, a batch at a time. The
+ * checkpoint is the id of the last content of the last batch, so a run resumes after the contents which have been
+ * done already. Contents whose sha1 could not be computed are tried again by the next run after a complete one.
+ */
+public class AttachmentSha1Job implements SchedulableJob {
+
+    static final int BATCH_SIZE = 100;
+
+    private final ThriftClients thriftClients;
+
+    public AttachmentSha1Job(ThriftClients thriftClients) {
+        this.thriftClients = thriftClients;
+    }
+
+    @Override
+    public String getServiceName() {
+        return ThriftClients.ATTACHMENT_SHA1_SERVICE;
+    }
+
+    @Override
+    public RequestSummary run(JobContext context) throws TException {
+        AttachmentService.Iface attachmentClient = thriftClients.makeAttachmentClient();
+        String checkpoint = context.getCheckpoint().orElse("");
+        List<String> ids = attachmentClient.getAttachmentContentIdsWithoutSha1().stream()
+                .filter(id -> id.compareTo(checkpoint) > 0)
+                .sorted()
+                .collect(Collectors.toList());
+        context.setTotal(ids.size());
+
+        for (List<String> batch : Lists.partition(ids, BATCH_SIZE)) {
+            context.checkCancelled();
+            RequestSummary batchSummary = attachmentClient.computeAttachmentSha1s(batch);
+            context.addDone(batchSummary.getTotalAffectedElements());
+            context.addFailed(batch.size() - batchSummary.getTotalAffectedElements());
+            context.setCheckpoint(batch.get(batch.size() - 1));
+        }
+
+        return new RequestSummary(context.getFailed() == 0 ? RequestStatus.SUCCESS : RequestStatus.FAILURE)
+                .setTotalElements(ids.size())
+                .setTotalAffectedElements(context.getDone())
+                .setMessage("computed the sha1 of " + context.getDone() + " of " + ids.size() + " attachments");
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.apache.thrift.TException;
+
+import java.util.Set;
+
+/**
+ * Deletes the attachment contents which are not used by any component, release or project
+ */
+public class AttachmentVacuumJob implements SchedulableJob {
+
+    private final ThriftClients thriftClients;
+
+    public AttachmentVacuumJob(ThriftClients thriftClients) {
+        this.thriftClients = thriftClients;
+    }
+
+    @Override
+    public String getServiceName() {
+        return ThriftClients.ATTACHMENT_VACUUM_SERVICE;
+    }
+
+    @Override
+    public RequestSummary run(JobContext context) throws TException {
+        Set<String> usedIds = thriftClients.makeComponentClient().getUsedAttachmentContentIds();
+        context.checkCancelled();
+
+        RequestSummary requestSummary = thriftClients.makeAttachmentClient().vacuumAttachmentDB(context.getUser(), usedIds);
+        context.setTotal(requestSummary.getTotalElements());
+        context.addDone(requestSummary.getTotalAffectedElements());
+        if (RequestStatus.SUCCESS.equals(requestSummary.getRequestStatus())) {
+            requestSummary.setMessage("deleted " + requestSummary.getTotalAffectedElements() + " of "
+                    + requestSummary.getTotalElements() + " attachment contents");
+        }
+        return requestSummary;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.apache.thrift.TException;
+
+/**
+ * Updates the vulnerabilities of all releases from CVE-Search. The update runs in the CVE search service, which
+ * reports its progress itself and cannot be cancelled.
+ */
+public class CveSearchJob implements SchedulableJob {
+
+    private final ThriftClients thriftClients;
+
+    public CveSearchJob(ThriftClients thriftClients) {
+        this.thriftClients = thriftClients;
+    }
+
+    @Override
+    public String getServiceName() {
+        return ThriftClients.CVESEARCH_SERVICE;
+    }
+
+    @Override
+    public RequestSummary run(JobContext context) throws TException {
+        return new RequestSummary(thriftClients.makeCvesearchClient().update());
+    }
+
+    @Override
+    public RequestSummary getProgress(JobContext latestRun) throws TException {
+        return thriftClients.makeCvesearchClient().getUpdateProgress();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.eclipse.sw360.datahandler.thrift.components.ComponentService;
+import org.apache.log4j.Logger;
+import org.apache.thrift.TException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.log4j.Logger.getLogger;
+import static org.eclipse.sw360.datahandler.common.SW360Constants.*;
+
+/**
+ * Looks for components, releases, release sources and projects with the same name. The duplicates are counted in the
+ * message of the run and recorded as its details, keyed by the DUPLICATE_* constants of SW360Constants, from where
+ * the database sanitation portlet shows them.
+ */
+public class DuplicatesJob implements SchedulableJob {
+    private static final Logger log = getLogger(DuplicatesJob.class);
+
+    private final ThriftClients thriftClients;
+
+    public DuplicatesJob(ThriftClients thriftClients) {
+        this.thriftClients = thriftClients;
+    }
+
+    @Override
+    public String getServiceName() {
+        return ThriftClients.DUPLICATES_SERVICE;
+    }
+
+    @Override
+    public RequestSummary run(JobContext context) throws TException {
+        ComponentService.Iface componentClient = thriftClients.makeComponentClient();
+        Map<String, Map<String, List<String>>> duplicates = new LinkedHashMap<>();
+        context.setTotal(4);
+
+        add(duplicates, DUPLICATE_COMPONENTS, componentClient.getDuplicateComponents(), context);
+        context.checkCancelled();
+        add(duplicates, DUPLICATE_RELEASES, componentClient.getDuplicateReleases(), context);
+        context.checkCancelled();
+        add(duplicates, DUPLICATE_RELEASE_SOURCES, componentClient.getDuplicateReleaseSources(), context);
+        context.checkCancelled();
+        add(duplicates, DUPLICATE_PROJECTS, thriftClients.makeProjectClient().getDuplicateProjects(), context);
+
+        context.setDetails(duplicates);
+        List<String> found = new ArrayList<>();
+        duplicates.forEach((documents, duplicatesOfKind) -> found.add(duplicatesOfKind.size() + " duplicate " + documents));
+        return new RequestSummary(RequestStatus.SUCCESS).setMessage(String.join(", ", found));
+    }
+
+    private static void add(Map<String, Map<String, List<String>>> duplicates, String documents,
+                            Map<String, List<String>> duplicatesOfKind, JobContext context) {
+        context.addDone(1);
+        if (!duplicatesOfKind.isEmpty()) {
+            log.warn("Found duplicate " + documents + ": " + duplicatesOfKind.keySet());
+        }
+        duplicates.put(documents, duplicatesOfKind);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.apache.thrift.TException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One run of a {@link SchedulableJob}: the user it acts as, whether it has been cancelled, its progress and the
+ * checkpoint of its service
+ */
+public class JobContext {
+
+    @FunctionalInterface
+    public interface UserSupplier {
+        User get() throws TException;
+    }
+
+    enum State {
+        RUNNING, FINISHED, FAILED, CANCELLED
+    }
+
+    private final String serviceName;
+    private final UserSupplier user;
+    private final Map<String, String> checkpoints;
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total = 0;
+    private volatile String message;
+    private volatile Map<String, Map<String, List<String>>> details;
+    private volatile boolean cancelled = false;
+    private volatile State state = State.RUNNING;
+    private volatile long finishedAt = 0;
+
+    JobContext(String serviceName, UserSupplier user, Map<String, String> checkpoints) {
+        this.serviceName = serviceName;
+        this.user = user;
+        this.checkpoints = checkpoints;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * @return the admin who started the run, or the configured user for scheduled runs
+     */
+    public User getUser() throws TException {
+        return user.get();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the run has been cancelled, which stops the job
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("cancelled after " + done.get() + " of " + total + " done");
+        }
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public void addDone(int count) {
+        done.addAndGet(count);
+    }
+
+    public void addFailed(int count) {
+        failed.addAndGet(count);
+    }
+
+    public int getDone() {
+        return done.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Describes the result of the run, shown with its progress
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Keeps findings of the run by kind, which are recorded with the run in the run history
+     */
+    public void setDetails(Map<String, Map<String, List<String>>> details) {
+        this.details = details;
+    }
+
+    Optional<Map<String, Map<String, List<String>>>> getDetails() {
+        return Optional.ofNullable(details);
+    }
+
+    /**
+     * @return the checkpoint saved by the last run of the service which has not been done, empty if it has been done
+     */
+    public Optional<String> getCheckpoint() {
+        return Optional.ofNullable(checkpoints.get(serviceName));
+    }
+
+    public void setCheckpoint(String checkpoint) {
+        checkpoints.put(serviceName, checkpoint);
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void finish(State state) {
+        this.state = state;
+        finishedAt = System.currentTimeMillis();
+    }
+
+    boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    RequestSummary getProgress() {
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        String description = state.name().toLowerCase() + ": " + done.get() + " of " + total + " done, "
+                + failed.get() + " failed, " + TimeUnit.MILLISECONDS.toSeconds(end - startedAt) + "s"
+                + (message != null ? ", " + message : "");
+        return new RequestSummary(RequestStatus.SUCCESS)
+                .setTotalElements(total)
+                .setTotalAffectedElements(done.get())
+                .setMessage(description);
+    }
+}
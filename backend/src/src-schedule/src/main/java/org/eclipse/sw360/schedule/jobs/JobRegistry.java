@@ -0,0 +1,128 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.apache.log4j.Logger;
+import org.apache.thrift.TException;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.apache.log4j.Logger.getLogger;
+
+/**
+ * The jobs of the services which can be scheduled, together with their latest runs and checkpoints. The checkpoints
+ * are kept in memory, so a run resumes where a cancelled or failed run stopped as long as the schedule service is
+ * not restarted.
+ */
+public class JobRegistry {
+    private static final Logger log = getLogger(JobRegistry.class);
+
+    private final Map<String, SchedulableJob> jobs = new LinkedHashMap<>();
+    private final Map<String, JobContext> latestRuns = new ConcurrentHashMap<>();
+    private final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+    private final JobContext.UserSupplier scheduleUser;
+
+    /**
+     * @param scheduleUser the user as which scheduled runs act
+     */
+    public JobRegistry(JobContext.UserSupplier scheduleUser) {
+        this.scheduleUser = scheduleUser;
+    }
+
+    public synchronized JobRegistry register(SchedulableJob job) {
+        jobs.put(job.getServiceName(), job);
+        return this;
+    }
+
+    public synchronized boolean isRegistered(String serviceName) {
+        return jobs.containsKey(serviceName);
+    }
+
+    public synchronized Set<String> getServiceNames() {
+        return new LinkedHashSet<>(jobs.keySet());
+    }
+
+    /**
+     * @param user the admin who starts the run, null for scheduled runs
+     * @return runs the job of the service each time it is called and adds the details of its result to the given
+     * record of the run, a run which has been cancelled throws a {@link CancellationException}
+     */
+    public synchronized Function<ScheduleRun, RequestSummary> getRun(String serviceName, User user) {
+        SchedulableJob job = jobs.get(serviceName);
+        if (job == null) {
+            throw new IllegalArgumentException("No job is registered for " + serviceName);
+        }
+        JobContext.UserSupplier runUser = user != null ? () -> user : scheduleUser;
+        return record -> run(job, runUser, record);
+    }
+
+    private RequestSummary run(SchedulableJob job, JobContext.UserSupplier user, ScheduleRun record) {
+        String serviceName = job.getServiceName();
+        JobContext context = new JobContext(serviceName, user, checkpoints);
+        latestRuns.put(serviceName, context);
+        context.getCheckpoint().ifPresent(checkpoint -> log.info("Resuming " + serviceName + " after " + checkpoint));
+        try {
+            RequestSummary requestSummary = job.run(context);
+            checkpoints.remove(serviceName);
+            context.getDetails().ifPresent(record::setDetails);
+            context.setMessage(requestSummary.getMessage());
+            context.finish(RequestStatus.SUCCESS.equals(requestSummary.getRequestStatus())
+                    ? JobContext.State.FINISHED : JobContext.State.FAILED);
+            return requestSummary;
+        } catch (TException e) {
+            log.error("Run of " + serviceName + " failed", e);
+            context.finish(JobContext.State.FAILED);
+            return new RequestSummary(RequestStatus.FAILURE).setMessage(e.toString());
+        } catch (CancellationException e) {
+            context.finish(JobContext.State.CANCELLED);
+            throw e;
+        } catch (RuntimeException e) {
+            context.finish(JobContext.State.FAILED);
+            throw e;
+        }
+    }
+
+    /**
+     * Asks the running job of the service to stop at its next step.
+     *
+     * @return false if the service is not running
+     */
+    public boolean cancel(String serviceName) {
+        JobContext context = latestRuns.get(serviceName);
+        if (context == null || !context.isRunning()) {
+            return false;
+        }
+        context.cancel();
+        log.info("Cancelling the run of " + serviceName);
+        return true;
+    }
+
+    /**
+     * @return the progress of the running or last run of the service, FAILURE if the service is not registered
+     */
+    public RequestSummary getProgress(String serviceName) throws TException {
+        SchedulableJob job;
+        synchronized (this) {
+            job = jobs.get(serviceName);
+        }
+        if (job == null) {
+            return new RequestSummary(RequestStatus.FAILURE).setMessage("Service " + serviceName + " is not registered");
+        }
+        return job.getProgress(latestRuns.get(serviceName));
+    }
+}
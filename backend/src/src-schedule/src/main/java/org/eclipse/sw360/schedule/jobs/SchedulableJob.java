@@ -0,0 +1,45 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.apache.thrift.TException;
+
+/**
+ * Work which the schedule service runs in the background, on its schedule or on request of an admin. Jobs are
+ * registered in the {@link JobRegistry} under the name of their service.
+ *
+ * A job reports its progress to its {@link JobContext} and calls {@link JobContext#checkCancelled()} between its
+ * steps. After each step it may save a checkpoint, from which the next run resumes if this one is cancelled or fails.
+ */
+public interface SchedulableJob {
+
+    String getServiceName();
+
+    /**
+     * @return SUCCESS if the job has done its work, the message is recorded in the run history
+     */
+    RequestSummary run(JobContext context) throws TException;
+
+    /**
+     * @param latestRun the running or last run of the job, null if it has not run yet
+     */
+    default RequestSummary getProgress(JobContext latestRun) throws TException {
+        if (latestRun == null) {
+            return new RequestSummary(RequestStatus.SUCCESS)
+                    .setTotalElements(0)
+                    .setTotalAffectedElements(0)
+                    .setMessage("has not run yet");
+        }
+        return latestRun.getProgress();
+    }
+}
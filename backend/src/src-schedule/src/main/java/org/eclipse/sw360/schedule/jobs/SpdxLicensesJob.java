@@ -0,0 +1,44 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.apache.thrift.TException;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Imports the SPDX licenses which are not in the database yet
+ */
+public class SpdxLicensesJob implements SchedulableJob {
+
+    private final ThriftClients thriftClients;
+
+    public SpdxLicensesJob(ThriftClients thriftClients) {
+        this.thriftClients = thriftClients;
+    }
+
+    @Override
+    public String getServiceName() {
+        return ThriftClients.SPDX_LICENSES_SERVICE;
+    }
+
+    @Override
+    public RequestSummary run(JobContext context) throws TException {
+        RequestSummary requestSummary = thriftClients.makeLicenseClient().importAllSpdxLicenses(context.getUser());
+        context.setTotal(requestSummary.getTotalElements());
+        context.addDone(requestSummary.getTotalAffectedElements());
+        String mismatches = requestSummary.getMessage();
+        return requestSummary.setMessage("imported " + requestSummary.getTotalAffectedElements() + " of "
+                + requestSummary.getTotalElements() + " SPDX licenses" + (isNullOrEmpty(mismatches) ? "" : ". " + mismatches));
+    }
+}
@@ -11,6 +11,7 @@
  */
 package org.eclipse.sw360.schedule.service;
 
+import org.eclipse.sw360.schedule.jobs.*;
 import org.eclipse.sw360.schedule.timer.ScheduleConstants;
 import org.eclipse.sw360.schedule.timer.Scheduler;
 import org.eclipse.sw360.datahandler.common.SW360Utils;
@@ -18,41 +19,46 @@ import org.eclipse.sw360.datahandler.permissions.PermissionUtils;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
 import org.eclipse.sw360.datahandler.thrift.RequestStatusWithBoolean;
 import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.SW360Exception;
 import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
 import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleService;
 import org.eclipse.sw360.datahandler.thrift.users.User;
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
-import java.util.function.Supplier;
 
 public class ScheduleHandler implements ScheduleService.Iface {
 
     ThriftClients thriftClients;
+    JobRegistry jobRegistry;
     Logger log;
 
     public ScheduleHandler() {
         thriftClients = new ThriftClients();
         log = Logger.getLogger(ScheduleHandler.class);
+        // A service which has to be scheduled by the scheduler should be registered here!
+        jobRegistry = new JobRegistry(this::getScheduleUser)
+                .register(new CveSearchJob(thriftClients))
+                .register(new AttachmentVacuumJob(thriftClients))
+                .register(new AttachmentSha1Job(thriftClients))
+                .register(new DuplicatesJob(thriftClients))
+                .register(new SpdxLicensesJob(thriftClients));
     }
 
-    @FunctionalInterface
-    public interface SupplierThrowingTException {
-        RequestStatus get() throws TException;
-    }
-
-    private boolean wrapSupplierException(SupplierThrowingTException body, String serviceName){
-        Supplier<RequestStatus> wrappedBody = () -> {
-            try {
-                return body.get();
-            } catch (TException e) {
-                log.error("Was not able to schedule sync for client with name:" + serviceName + " message:" + e.getMessage(), e);
-                return RequestStatus.FAILURE;
-            }
-        };
-        return Scheduler.scheduleNextSync(wrappedBody, serviceName);
+    private User getScheduleUser() throws TException {
+        if (ScheduleConstants.JOBS_USER.isEmpty()) {
+            throw new SW360Exception("No user is configured for scheduled runs, set " + ScheduleConstants.JOBS_USER_PROPERTY_NAME);
+        }
+        User user = thriftClients.makeUserClient().getByEmail(ScheduleConstants.JOBS_USER);
+        if (user == null) {
+            throw new SW360Exception("The user " + ScheduleConstants.JOBS_USER + " for scheduled runs does not exist");
+        }
+        return user;
     }
 
     @Override
@@ -61,27 +67,46 @@ public class ScheduleHandler implements ScheduleService.Iface {
             log.info("Could not schedule " + serviceName + " because of invalid configuration.");
             return new RequestSummary(RequestStatus.FAILURE);
         }
+        if (!jobRegistry.isRegistered(serviceName)) {
+            log.error("Could not schedule service: " + serviceName + ". Reason: service is not registered in the job registry.");
+            return new RequestSummary(RequestStatus.FAILURE);
+        }
 
         Scheduler.cancelSyncJobOfService(serviceName);
 
-        boolean successSync = false;
-        switch (serviceName) {
-            case ThriftClients.CVESEARCH_SERVICE:
-                successSync = wrapSupplierException(() -> thriftClients.makeCvesearchClient().update(), serviceName);
-                break;
-            default:
-                log.error("Could not schedule service: " + serviceName + ". Reason: service is not registered in ThriftClients.");
-        }
+        boolean successSync = Scheduler.scheduleNextSync(jobRegistry.getRun(serviceName, null), serviceName);
 
         if (successSync){
             RequestSummary summary = new RequestSummary(RequestStatus.SUCCESS);
-            summary.setMessage(SW360Utils.getDateTimeString(Scheduler.getNextSync()));
+            Scheduler.getNextSync(serviceName).ifPresent(nextSync -> summary.setMessage(SW360Utils.getDateTimeString(nextSync)));
             return summary;
         } else {
             return new RequestSummary(RequestStatus.FAILURE);
         }
     }
 
+    @Override
+    public RequestSummary runService(String serviceName, User user) {
+        if (!PermissionUtils.isAdmin(user)) {
+            return new RequestSummary(RequestStatus.FAILURE);
+        }
+        if (!jobRegistry.isRegistered(serviceName)) {
+            return new RequestSummary(RequestStatus.FAILURE).setMessage("Service " + serviceName + " is not registered");
+        }
+        if (!Scheduler.runNow(jobRegistry.getRun(serviceName, user), serviceName)) {
+            return new RequestSummary(RequestStatus.FAILURE).setMessage("Service " + serviceName + " is running already");
+        }
+        return new RequestSummary(RequestStatus.SUCCESS).setMessage("Service " + serviceName + " has been started");
+    }
+
+    @Override
+    public RequestStatus cancelServiceRun(String serviceName, User user) {
+        if (!PermissionUtils.isAdmin(user)) {
+            return RequestStatus.FAILURE;
+        }
+        return jobRegistry.cancel(serviceName) ? RequestStatus.SUCCESS : RequestStatus.FAILURE;
+    }
+
     @Override
     public RequestStatus unscheduleService(String serviceName, User user) throws TException {
         if (!PermissionUtils.isAdmin(user)) {
@@ -135,6 +160,19 @@ public class ScheduleHandler implements ScheduleService.Iface {
         return syncDate.isPresent() ? syncDate.get().toString() : "";
     }
 
+    @Override
+    public RequestSummary getServiceProgress(String serviceName) throws TException {
+        return jobRegistry.getProgress(serviceName);
+    }
+
+    @Override
+    public List<ScheduleRun> getRunHistory(String serviceName, int limit, User user) {
+        if (!PermissionUtils.isAdmin(user)) {
+            return Collections.emptyList();
+        }
+        return Scheduler.getRunHistory(serviceName, limit);
+    }
+
     @Override
     public int getInterval(String serviceName){
         return ScheduleConstants.SYNC_INTERVAL_SEC.get(serviceName) != null ? ScheduleConstants.SYNC_INTERVAL_SEC.get(serviceName) : -1 ;
@@ -12,6 +12,7 @@
 package org.eclipse.sw360.schedule.service;
 
 import org.eclipse.sw360.schedule.timer.ScheduleConstants;
+import org.eclipse.sw360.schedule.timer.Scheduler;
 import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleService;
 import org.eclipse.sw360.projects.Sw360ThriftServlet;
 import org.apache.log4j.Logger;
@@ -41,6 +42,12 @@ public class ScheduleServlet extends Sw360ThriftServlet {
         }
     }
 
+    @Override
+    public void destroy() {
+        Scheduler.shutdown();
+        super.destroy();
+    }
+
     private void autoStart() throws TException {
         log.info("Auto-starting scheduling tasks in schedule service...");
         String[] servicesToSchedule = ScheduleConstants.autostartServices;
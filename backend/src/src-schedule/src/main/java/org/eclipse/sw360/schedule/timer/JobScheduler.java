@@ -0,0 +1,288 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+import org.eclipse.sw360.datahandler.common.SW360Utils;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRunOutcome;
+import org.apache.log4j.Logger;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.apache.log4j.Logger.getLogger;
+
+/**
+ * Runs the scheduled services on the threads of an executor.
+ *
+ * A service runs at the times of its {@link Schedule}, each run is delayed by a random jitter if one is configured.
+ * The next run is planned when the previous one has finished, so runs which have been missed because a run took
+ * longer than the interval, the executor was busy or the server was suspended are not caught up. A run which starts
+ * more than {@link #MISFIRE_THRESHOLD_MILLIS} ms late is handled according to the {@link MisfirePolicy} of the
+ * service. The same service never runs twice at the same time, also not if it has been scheduled again or run on
+ * request while it was running. A run which fails does not stop the schedule. A run which has been stopped by its
+ * service throws a {@link CancellationException}. Every run is recorded in the run history, the body of a service
+ * gets the record of its run to add the details of its result.
+ */
+public class JobScheduler {
+    private static final Logger log = getLogger(JobScheduler.class);
+
+    static final long MISFIRE_THRESHOLD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    private final Random random;
+    private final Supplier<RunHistory> history;
+    private final Map<String, ScheduledJob> scheduledJobs = new ConcurrentHashMap<>();
+    private final Set<String> runningServices = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param executor runs the services, its number of threads is the number of services which can run at once
+     * @param clock    the time at which runs are planned and recorded
+     * @param random   the jitter of the runs
+     * @param history  the history to which runs are recorded, asked for on every access
+     */
+    public JobScheduler(ScheduledExecutorService executor, Clock clock, Random random, Supplier<RunHistory> history) {
+        this.executor = executor;
+        this.clock = clock;
+        this.random = random;
+        this.history = history;
+    }
+
+    /**
+     * Schedules the service, replacing the schedule it had before. A run of the service which is still going on is not
+     * interrupted.
+     *
+     * @return false if the executor does not accept new runs
+     */
+    public synchronized boolean schedule(String serviceName, Function<ScheduleRun, RequestSummary> body, Schedule schedule) {
+        cancel(serviceName);
+
+        ScheduledJob job = new ScheduledJob(serviceName, body, schedule);
+        try {
+            job.scheduleNext();
+        } catch (RejectedExecutionException e) {
+            log.error("Could not schedule " + serviceName, e);
+            return false;
+        }
+        scheduledJobs.put(serviceName, job);
+        log.info("Scheduled " + serviceName + " with " + schedule + ", next run at "
+                + SW360Utils.getDateTimeString(new Date(job.nextRunAt)));
+        return true;
+    }
+
+    /**
+     * Runs the service once as soon as a thread of the executor is free, independent of its schedule.
+     *
+     * @return false if the service is running already or the executor does not accept new runs
+     */
+    public boolean runNow(String serviceName, Function<ScheduleRun, RequestSummary> body) {
+        if (isRunning(serviceName)) {
+            return false;
+        }
+        long requestedAt = clock.millis();
+        try {
+            executor.execute(() -> runExclusively(serviceName, body, requestedAt, clock.millis()));
+        } catch (RejectedExecutionException e) {
+            log.error("Could not run " + serviceName, e);
+            return false;
+        }
+        log.info("Requested run of " + serviceName);
+        return true;
+    }
+
+    public synchronized RequestStatus cancel(String serviceName) {
+        ScheduledJob job = scheduledJobs.remove(serviceName);
+        if (job != null) {
+            job.cancel();
+            log.info("Cancelled " + serviceName + ", which would have run next at "
+                    + SW360Utils.getDateTimeString(new Date(job.nextRunAt)));
+        }
+        return RequestStatus.SUCCESS;
+    }
+
+    public synchronized RequestStatus cancelAll() {
+        new ArrayList<>(scheduledJobs.keySet()).forEach(this::cancel);
+        return RequestStatus.SUCCESS;
+    }
+
+    /**
+     * Cancels all services and stops the executor. Runs which are going on are interrupted.
+     */
+    public synchronized void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    public boolean isScheduled(String serviceName) {
+        return scheduledJobs.containsKey(serviceName);
+    }
+
+    public boolean isAnyScheduled() {
+        return !scheduledJobs.isEmpty();
+    }
+
+    public boolean isRunning(String serviceName) {
+        return runningServices.contains(serviceName);
+    }
+
+    /**
+     * @return the time of the next run of the service including its jitter, empty if it is not scheduled
+     */
+    public Optional<Date> getNextRun(String serviceName) {
+        ScheduledJob job = scheduledJobs.get(serviceName);
+        return job == null ? Optional.empty() : Optional.of(new Date(job.nextRunAt));
+    }
+
+    /**
+     * @return the time of the first run of the schedule at or after the given time, without jitter
+     */
+    long getNextRunTime(Schedule schedule, long notBefore) {
+        long firstRun = LocalDate.now(clock).atStartOfDay(clock.getZone()).toInstant().toEpochMilli()
+                + TimeUnit.SECONDS.toMillis(schedule.getFirstRunOffsetSeconds());
+        long interval = TimeUnit.SECONDS.toMillis(schedule.getIntervalSeconds());
+        // the runs before the offset of today belong to the schedule as well
+        return notBefore + Math.floorMod(firstRun - notBefore, interval);
+    }
+
+    /**
+     * @return the latest runs of the service, newest first, empty if the history cannot be read
+     */
+    public List<ScheduleRun> getRunHistory(String serviceName, int limit) {
+        try {
+            return history.get().getRuns(serviceName, limit);
+        } catch (RuntimeException e) {
+            log.error("Could not read the run history of " + serviceName, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private void runExclusively(String serviceName, Function<ScheduleRun, RequestSummary> body, long scheduledAt, long startedAt) {
+        if (!runningServices.add(serviceName)) {
+            log.warn("Skipping run of " + serviceName + ", the previous run has not finished yet");
+            record(new ScheduleRun(serviceName, scheduledAt, startedAt, 0, ScheduleRunOutcome.SKIPPED)
+                    .setMessage("the previous run has not finished yet"));
+            return;
+        }
+        try {
+            run(serviceName, body, scheduledAt, startedAt);
+        } finally {
+            runningServices.remove(serviceName);
+        }
+    }
+
+    private void run(String serviceName, Function<ScheduleRun, RequestSummary> body, long scheduledAt, long startedAt) {
+        ScheduleRun run = new ScheduleRun(serviceName, scheduledAt, startedAt, 0, ScheduleRunOutcome.SUCCESS);
+        ScheduleRunOutcome outcome;
+        String message;
+        try {
+            RequestSummary requestSummary = body.apply(run);
+            message = requestSummary.getMessage();
+            if (RequestStatus.SUCCESS.equals(requestSummary.getRequestStatus())) {
+                outcome = ScheduleRunOutcome.SUCCESS;
+            } else {
+                outcome = ScheduleRunOutcome.FAILURE;
+                message = "finished with " + requestSummary.getRequestStatus() + (message != null ? ": " + message : "");
+            }
+        } catch (CancellationException e) {
+            log.info("Run of " + serviceName + " has been cancelled");
+            outcome = ScheduleRunOutcome.CANCELLED;
+            message = e.getMessage();
+        } catch (RuntimeException e) {
+            log.error("Run of " + serviceName + " failed", e);
+            outcome = ScheduleRunOutcome.FAILURE;
+            message = e.toString();
+        }
+        long durationMillis = clock.millis() - startedAt;
+        log.info("Run of " + serviceName + " finished after " + TimeUnit.MILLISECONDS.toSeconds(durationMillis)
+                + "s: " + outcome);
+        record(run.setDurationMillis(durationMillis).setOutcome(outcome).setMessage(message));
+    }
+
+    private void record(ScheduleRun run) {
+        try {
+            history.get().record(run);
+        } catch (RuntimeException e) {
+            log.error("Could not record " + run, e);
+        }
+    }
+
+    private class ScheduledJob {
+        private final String serviceName;
+        private final Function<ScheduleRun, RequestSummary> body;
+        private final Schedule schedule;
+
+        private volatile boolean cancelled = false;
+        private volatile long plannedAt = Long.MIN_VALUE;
+        private volatile long nextRunAt;
+        private ScheduledFuture<?> future;
+
+        private ScheduledJob(String serviceName, Function<ScheduleRun, RequestSummary> body, Schedule schedule) {
+            this.serviceName = serviceName;
+            this.body = body;
+            this.schedule = schedule;
+        }
+
+        synchronized void scheduleNext() {
+            if (cancelled) {
+                return;
+            }
+            long now = clock.millis();
+            // a run which has just been done is not planned again, even if no time has passed on the clock
+            plannedAt = getNextRunTime(schedule, plannedAt == Long.MIN_VALUE ? now : Math.max(now, plannedAt + 1));
+            nextRunAt = plannedAt + getJitterMillis();
+            future = executor.schedule(this::fire, Math.max(0, nextRunAt - now), TimeUnit.MILLISECONDS);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private long getJitterMillis() {
+            long maxJitter = TimeUnit.SECONDS.toMillis(schedule.getJitterSeconds());
+            return maxJitter > 0 ? (long) (random.nextDouble() * maxJitter) : 0;
+        }
+
+        private void fire() {
+            long scheduledAt = nextRunAt;
+            long startedAt = clock.millis();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                long lateMillis = startedAt - scheduledAt;
+                if (lateMillis > MISFIRE_THRESHOLD_MILLIS && schedule.getMisfirePolicy() == MisfirePolicy.SKIP) {
+                    log.warn("Skipping run of " + serviceName + ", which should have started "
+                            + TimeUnit.MILLISECONDS.toSeconds(lateMillis) + "s ago");
+                    record(new ScheduleRun(serviceName, scheduledAt, startedAt, 0, ScheduleRunOutcome.MISFIRED)
+                            .setMessage("started " + TimeUnit.MILLISECONDS.toSeconds(lateMillis) + "s late"));
+                } else {
+                    runExclusively(serviceName, body, scheduledAt, startedAt);
+                }
+            } finally {
+                try {
+                    scheduleNext();
+                } catch (RejectedExecutionException e) {
+                    log.error("Could not schedule the next run of " + serviceName, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+/**
+ * What happens to a run which starts too late, e.g. because the server was suspended or all threads were busy
+ */
+public enum MisfirePolicy {
+    /**
+     * run once as soon as possible, the other runs which have been missed are not caught up
+     */
+    RUN_ONCE,
+    /**
+     * do not run, wait for the next run instead
+     */
+    SKIP
+}
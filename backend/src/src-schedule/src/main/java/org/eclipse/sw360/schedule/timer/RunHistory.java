@@ -0,0 +1,28 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+
+import java.util.List;
+
+/**
+ * Keeps the runs of the scheduled services
+ */
+public interface RunHistory {
+
+    void record(ScheduleRun run);
+
+    /**
+     * @return the latest runs of the service, newest first
+     */
+    List<ScheduleRun> getRuns(String serviceName, int limit);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+import java.util.Optional;
+
+/**
+ * When a service runs: first at its offset after midnight and then once per interval, each run delayed by a random
+ * jitter of at most the given seconds
+ */
+public class Schedule {
+    private final int firstRunOffsetSeconds;
+    private final int intervalSeconds;
+    private final int jitterSeconds;
+    private final MisfirePolicy misfirePolicy;
+
+    public Schedule(int firstRunOffsetSeconds, int intervalSeconds, int jitterSeconds, MisfirePolicy misfirePolicy) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("interval has to be positive, but is " + intervalSeconds);
+        }
+        this.firstRunOffsetSeconds = firstRunOffsetSeconds;
+        this.intervalSeconds = intervalSeconds;
+        this.jitterSeconds = Math.max(0, jitterSeconds);
+        this.misfirePolicy = misfirePolicy;
+    }
+
+    /**
+     * @return the configured schedule of the service, empty if the service is not configured or invalid
+     */
+    public static Optional<Schedule> ofService(String serviceName) {
+        Integer firstRunOffset = ScheduleConstants.SYNC_FIRST_RUN_OFFSET_SEC.get(serviceName);
+        Integer interval = ScheduleConstants.SYNC_INTERVAL_SEC.get(serviceName);
+        if (ScheduleConstants.invalidConfiguredServices.contains(serviceName) || firstRunOffset == null || interval == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Schedule(firstRunOffset, interval,
+                ScheduleConstants.SYNC_JITTER_SEC.getOrDefault(serviceName, 0),
+                ScheduleConstants.SYNC_MISFIRE_POLICY.getOrDefault(serviceName, MisfirePolicy.RUN_ONCE)));
+    }
+
+    public int getFirstRunOffsetSeconds() {
+        return firstRunOffsetSeconds;
+    }
+
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public int getJitterSeconds() {
+        return jitterSeconds;
+    }
+
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "Schedule{firstRunOffset=" + firstRunOffsetSeconds + "s, interval=" + intervalSeconds + "s, jitter="
+                + jitterSeconds + "s, misfire=" + misfirePolicy + "}";
+    }
+}
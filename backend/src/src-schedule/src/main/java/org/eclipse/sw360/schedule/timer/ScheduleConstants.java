@@ -13,13 +13,13 @@
 package org.eclipse.sw360.schedule.timer;
 
 
+import com.google.common.collect.ImmutableMap;
+
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.thrift.ThriftClients;
 import org.apache.log4j.Logger;
 
-import java.util.HashSet;
-import java.util.Properties;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.apache.log4j.Logger.getLogger;
@@ -33,46 +33,96 @@ public class ScheduleConstants {
     private ScheduleConstants(){}
 
     public static final String PROPERTIES_FILE_PATH = "/sw360.properties";
-    public static final String CVESEARCH_OFFSET_PROPERTY_NAME = "schedule.cvesearch.firstOffset.seconds";
-    public static final String CVESEARCH_INTERVAL_PROPERTY_NAME = "schedule.cvesearch.interval.seconds";
+    // the schedule of a service is configured by the properties schedule.<key>.firstOffset.seconds, ...
+    public static final String OFFSET_PROPERTY_SUFFIX = ".firstOffset.seconds";
+    public static final String INTERVAL_PROPERTY_SUFFIX = ".interval.seconds";
+    public static final String JITTER_PROPERTY_SUFFIX = ".jitter.seconds";
+    public static final String MISFIRE_PROPERTY_SUFFIX = ".misfire";
+    public static final String THREADS_PROPERTY_NAME = "schedule.threads";
+    public static final String HISTORY_SIZE_PROPERTY_NAME = "schedule.history.size";
+    public static final String JOBS_USER_PROPERTY_NAME = "schedule.jobs.user";
     public static final String AUTOSTART_PROPERTY_NAME = "autostart";
-    public static final String CVESEARCH_OFFSET_DEFAULT  = 0 + "" ; // default 00:00 am, in seconds
-    public static final String CVESEARCH_INTERVAL_DEFAULT  = (24*60*60)+"" ; // default 24h, in seconds
+    public static final String OFFSET_DEFAULT  = 0 + "" ; // default 00:00 am, in seconds
+    public static final String INTERVAL_DEFAULT  = (24*60*60)+"" ; // default 24h, in seconds
+    public static final String JITTER_DEFAULT  = 0 + "" ; // default no jitter, in seconds
+    public static final String MISFIRE_DEFAULT  = MisfirePolicy.RUN_ONCE.name();
+    public static final String THREADS_DEFAULT = 2 + "";
+    public static final String HISTORY_SIZE_DEFAULT = 100 + ""; // runs kept per service
 
+    // property prefixes of the services which can be scheduled
+    public static final Map<String, String> SERVICE_PROPERTY_PREFIXES = ImmutableMap.<String, String>builder()
+            .put(ThriftClients.CVESEARCH_SERVICE, "schedule.cvesearch")
+            .put(ThriftClients.ATTACHMENT_VACUUM_SERVICE, "schedule.attachmentvacuum")
+            .put(ThriftClients.ATTACHMENT_SHA1_SERVICE, "schedule.attachmentsha1")
+            .put(ThriftClients.DUPLICATES_SERVICE, "schedule.duplicates")
+            .put(ThriftClients.SPDX_LICENSES_SERVICE, "schedule.spdxlicenses")
+            .build();
 
     // scheduler properties
     public static final ConcurrentHashMap<String, Integer> SYNC_FIRST_RUN_OFFSET_SEC = new ConcurrentHashMap<>();
     public static final ConcurrentHashMap<String, Integer> SYNC_INTERVAL_SEC = new ConcurrentHashMap<>();
+    public static final ConcurrentHashMap<String, Integer> SYNC_JITTER_SEC = new ConcurrentHashMap<>();
+    public static final ConcurrentHashMap<String, MisfirePolicy> SYNC_MISFIRE_POLICY = new ConcurrentHashMap<>();
     public static final String[] autostartServices;
+    public static final int THREADS;
+    public static final int HISTORY_SIZE;
+    // email of the user as which scheduled runs act, runs started by an admin act as that admin
+    public static final String JOBS_USER;
     public static Set<String> invalidConfiguredServices = new HashSet<>();
 
     static {
         Properties props = CommonUtils.loadProperties(ScheduleConstants.class, PROPERTIES_FILE_PATH);
 
-        if(! props.containsKey(CVESEARCH_OFFSET_PROPERTY_NAME)){
-            log.info("Property "+ CVESEARCH_OFFSET_PROPERTY_NAME + " not set. Using default value.");
+        SERVICE_PROPERTY_PREFIXES.forEach((service, prefix) -> loadSchedule(props, service, prefix));
+
+        THREADS = Math.max(1, parseInteger(props, THREADS_PROPERTY_NAME, THREADS_DEFAULT));
+        HISTORY_SIZE = Math.max(1, parseInteger(props, HISTORY_SIZE_PROPERTY_NAME, HISTORY_SIZE_DEFAULT));
+        JOBS_USER = props.getProperty(JOBS_USER_PROPERTY_NAME, "").trim();
+
+        String autostartServicesString = props.getProperty(AUTOSTART_PROPERTY_NAME, "");
+        autostartServices = autostartServicesString.split(",");
+    }
+
+    private static void loadSchedule(Properties props, String service, String prefix) {
+        loadInteger(props, prefix + OFFSET_PROPERTY_SUFFIX, OFFSET_DEFAULT, service, SYNC_FIRST_RUN_OFFSET_SEC);
+        loadInteger(props, prefix + INTERVAL_PROPERTY_SUFFIX, INTERVAL_DEFAULT, service, SYNC_INTERVAL_SEC);
+        if (SYNC_INTERVAL_SEC.containsKey(service) && SYNC_INTERVAL_SEC.get(service) <= 0) {
+            log.error("Property " + prefix + INTERVAL_PROPERTY_SUFFIX + " is not positive.");
+            invalidConfiguredServices.add(service);
         }
-        String cveSearchOffset  = props.getProperty(CVESEARCH_OFFSET_PROPERTY_NAME, CVESEARCH_OFFSET_DEFAULT);
+        loadInteger(props, prefix + JITTER_PROPERTY_SUFFIX, JITTER_DEFAULT, service, SYNC_JITTER_SEC);
+
+        String misfirePolicy = props.getProperty(prefix + MISFIRE_PROPERTY_SUFFIX, MISFIRE_DEFAULT);
         try {
-            SYNC_FIRST_RUN_OFFSET_SEC.put(ThriftClients.CVESEARCH_SERVICE, Integer.parseInt(cveSearchOffset));
-        } catch (NumberFormatException nfe){
-            log.error("Property " + CVESEARCH_OFFSET_PROPERTY_NAME + " is not an integer.");
-            invalidConfiguredServices.add(ThriftClients.CVESEARCH_SERVICE);
+            SYNC_MISFIRE_POLICY.put(service, MisfirePolicy.valueOf(misfirePolicy.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            log.error("Property " + prefix + MISFIRE_PROPERTY_SUFFIX + " is not one of " + Arrays.toString(MisfirePolicy.values()) + ".");
+            invalidConfiguredServices.add(service);
         }
+    }
 
-        if(! props.containsKey(CVESEARCH_INTERVAL_PROPERTY_NAME)){
-            log.info("Property "+ CVESEARCH_INTERVAL_PROPERTY_NAME + " not set. Using default value.");
+    private static void loadInteger(Properties props, String propertyName, String defaultValue, String serviceName,
+                                    Map<String, Integer> valuesByService) {
+        if(! props.containsKey(propertyName)){
+            log.info("Property "+ propertyName + " not set. Using default value.");
         }
-        String cveSearchInterval  = props.getProperty(CVESEARCH_INTERVAL_PROPERTY_NAME, CVESEARCH_INTERVAL_DEFAULT);
+        String value = props.getProperty(propertyName, defaultValue);
         try {
-            SYNC_INTERVAL_SEC.put(ThriftClients.CVESEARCH_SERVICE, Integer.parseInt(cveSearchInterval));
+            valuesByService.put(serviceName, Integer.parseInt(value.trim()));
         } catch (NumberFormatException nfe){
-            log.error("Property " + CVESEARCH_INTERVAL_PROPERTY_NAME + " is not an integer.");
-            invalidConfiguredServices.add(ThriftClients.CVESEARCH_SERVICE);
+            log.error("Property " + propertyName + " is not an integer.");
+            invalidConfiguredServices.add(serviceName);
         }
+    }
 
-        String autostartServicesString = props.getProperty(AUTOSTART_PROPERTY_NAME, "");
-        autostartServices = autostartServicesString.split(",");
+    private static int parseInteger(Properties props, String propertyName, String defaultValue) {
+        String value = props.getProperty(propertyName, defaultValue);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe){
+            log.error("Property " + propertyName + " is not an integer. Using default value.");
+            return Integer.parseInt(defaultValue);
+        }
     }
 
 }
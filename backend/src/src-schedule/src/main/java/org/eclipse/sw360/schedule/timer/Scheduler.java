@@ -11,121 +11,105 @@
  */
 package org.eclipse.sw360.schedule.timer;
 
-import org.eclipse.sw360.datahandler.common.CommonUtils;
-import org.eclipse.sw360.datahandler.common.SW360Utils;
+import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.sw360.datahandler.common.DatabaseSettings;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.schedule.db.ScheduleRunRepository;
 import org.apache.log4j.Logger;
 
+import java.net.MalformedURLException;
+import java.time.Clock;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Supplier;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 import static org.apache.log4j.Logger.getLogger;
 
 /**
- * creates new {@link TimerTask} which will be executed on the next valid time
+ * Schedules the services on one {@link JobScheduler} with {@link ScheduleConstants#THREADS} threads. The run history
+ * is kept in the database, which is connected on its first use.
  *
  * @author stefan.jaeger@evosoft.com
  */
 public class Scheduler {
     private static final Logger log = getLogger(Scheduler.class);
-    private static Date nextSync = null;
-    private static final ConcurrentHashMap<String, SW360Task> scheduledJobs = new ConcurrentHashMap<>();
 
-    private static Timer timer = null;
+    private static final JobScheduler jobScheduler = new JobScheduler(
+            Executors.newScheduledThreadPool(ScheduleConstants.THREADS,
+                    new ThreadFactoryBuilder().setNameFormat("sw360-schedule-%d").setDaemon(true).build()),
+            Clock.systemDefaultZone(),
+            new Random(),
+            Suppliers.memoize(Scheduler::connectRunHistory));
 
     private Scheduler() {
         //only static members
     }
 
-    public static Date getNextSync() {
-        return nextSync;
-    }
-
-    public static synchronized boolean scheduleNextSync(Supplier<RequestStatus> body, String serviceName) {
-        if (timer == null) {
-            timer = new Timer();
+    private static RunHistory connectRunHistory() {
+        try {
+            return new ScheduleRunRepository(new DatabaseConnector(DatabaseSettings.getConfiguredHttpClient(),
+                    DatabaseSettings.COUCH_DB_DATABASE), ScheduleConstants.HISTORY_SIZE);
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Could not connect to the database of the run history", e);
         }
-        ScheduleSyncTask syncTask = new ScheduleSyncTask(body, serviceName);
-        Integer firstRunOffset = ScheduleConstants.SYNC_FIRST_RUN_OFFSET_SEC.get(serviceName);
-        Integer syncInterval = ScheduleConstants.SYNC_INTERVAL_SEC.get(serviceName);
-        nextSync = getNextSyncDate(firstRunOffset, syncInterval);
+    }
 
-        try {
-            timer.scheduleAtFixedRate(syncTask, nextSync, syncInterval * 1000);
-        } catch (IllegalStateException e) {
-            log.error(e.getMessage(), e);
+    public static boolean scheduleNextSync(Function<ScheduleRun, RequestSummary> body, String serviceName) {
+        Optional<Schedule> schedule = Schedule.ofService(serviceName);
+        if (!schedule.isPresent()) {
+            log.error("Could not schedule " + serviceName + ", it has no valid schedule");
             return false;
         }
-
-        scheduledJobs.put(syncTask.getId(), syncTask);
-        log.info("New task scheduled. Interval=" + syncInterval + "sec " + syncTask.toString());
-        return true;
+        return jobScheduler.schedule(serviceName, body, schedule.get());
     }
 
-    private static Date getNextSyncDate(int firstRunOffset, int interval) {
-        GregorianCalendar calendar = new GregorianCalendar(); // use today 00:00:00.000 as base date
-        long now = calendar.getTime().getTime();
-        calendar.set(GregorianCalendar.HOUR_OF_DAY, 0);
-        calendar.set(GregorianCalendar.MINUTE, 0);
-        calendar.set(GregorianCalendar.SECOND, 0);
-        calendar.set(GregorianCalendar.MILLISECOND, 0);
-
-        calendar.add(GregorianCalendar.SECOND, firstRunOffset);//today with offset time as specified
+    public static boolean runNow(Function<ScheduleRun, RequestSummary> body, String serviceName) {
+        return jobScheduler.runNow(serviceName, body);
+    }
 
-        // if firstRunOffset is in the past compute next run
-        if (calendar.getTime().getTime() < now) {
-            long timeLeftToNextRunInMilliSeconds = interval * 1000 - ((now - calendar.getTime().getTime()) % (interval * 1000));
-            calendar.setTimeInMillis(now + timeLeftToNextRunInMilliSeconds);
+    /**
+     * @return the next run of the service if it is scheduled, otherwise the time at which it would run next if it was
+     * scheduled now, empty if the service has no valid schedule
+     */
+    public static Optional<Date> getNextSync(String serviceName) {
+        Optional<Date> nextRun = jobScheduler.getNextRun(serviceName);
+        if (nextRun.isPresent()) {
+            return nextRun;
         }
-        ;
-        return calendar.getTime();
+        return Schedule.ofService(serviceName)
+                .map(schedule -> new Date(jobScheduler.getNextRunTime(schedule, System.currentTimeMillis())));
     }
 
-    public static Optional<Date> getNextSync(String serviceName) {
+    public static RequestStatus cancelAllSyncJobs() {
+        return jobScheduler.cancelAll();
+    }
 
-        if (ScheduleConstants.invalidConfiguredServices.contains(serviceName)) {
-            return Optional.empty();
-        }
-        return Optional.of(getNextSyncDate(
-                ScheduleConstants.SYNC_FIRST_RUN_OFFSET_SEC.get(serviceName),
-                ScheduleConstants.SYNC_INTERVAL_SEC.get(serviceName)));
+    public static RequestStatus cancelSyncJobOfService(String serviceName) {
+        return jobScheduler.cancel(serviceName);
     }
 
-    public static synchronized RequestStatus cancelAllSyncJobs() {
-        return scheduledJobs.values().stream()
-                .map(Scheduler::cancelJob)
-                .reduce(RequestStatus.SUCCESS, CommonUtils::reduceRequestStatus);
+    public static boolean isServiceScheduled(String serviceName) {
+        return jobScheduler.isScheduled(serviceName);
     }
 
-    public static synchronized RequestStatus cancelSyncJobOfService(String serviceName) {
-        return scheduledJobs.values().stream()
-                .filter(job -> serviceName.equals(job.getName()))
-                .map(Scheduler::cancelJob)
-                .reduce(RequestStatus.SUCCESS, CommonUtils::reduceRequestStatus);
+    public static boolean isAnyServiceScheduled() {
+        return jobScheduler.isAnyScheduled();
     }
 
-    private static synchronized RequestStatus cancelJob(SW360Task job) {
-        long executionTime = job.scheduledExecutionTime();
-        try {
-            job.cancel();
-        } catch (IllegalStateException e) {
-            log.error(e.getMessage(), e);
-            return RequestStatus.FAILURE;
-        }
-        scheduledJobs.remove(job.getId());
-        log.info("Task " + job.getClass().getSimpleName() + " for " + SW360Utils.getDateTimeString(new Date(executionTime)) + " cancelled. " + job.toString());
-        return RequestStatus.SUCCESS;
+    public static boolean isServiceRunning(String serviceName) {
+        return jobScheduler.isRunning(serviceName);
     }
 
-    public static boolean isServiceScheduled(String serviceName) {
-        boolean scheduledJobsContainsMatchingJob = scheduledJobs.values().stream()
-                .filter(job -> serviceName.equals(job.getName()))
-                .findAny().isPresent();
-        return scheduledJobsContainsMatchingJob;
+    public static List<ScheduleRun> getRunHistory(String serviceName, int limit) {
+        return jobScheduler.getRunHistory(serviceName, limit);
     }
 
-    public static boolean isAnyServiceScheduled() {
-        return (!scheduledJobs.isEmpty());
+    public static void shutdown() {
+        jobScheduler.shutdown();
     }
 }
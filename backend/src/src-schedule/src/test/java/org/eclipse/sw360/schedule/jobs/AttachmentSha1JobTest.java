@@ -0,0 +1,173 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import com.google.common.collect.ImmutableList;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentService;
+import org.apache.thrift.TException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AttachmentSha1JobTest {
+
+    @Mock
+    private ThriftClients thriftClients;
+
+    @Mock
+    private AttachmentService.Iface attachmentClient;
+
+    private AttachmentSha1Job job;
+    private JobContext context;
+
+    // checkpoints of the runs by service, as kept by the registry
+    private final Map<String, String> checkpoints = new HashMap<>();
+    // the batches computed, in order
+    private final List<List<String>> batches = new ArrayList<>();
+    // the checkpoint when each batch was computed
+    private final List<Optional<String>> checkpointsBeforeBatches = new ArrayList<>();
+
+    @Before
+    public void setUp() throws TException {
+        job = new AttachmentSha1Job(thriftClients);
+        when(thriftClients.makeAttachmentClient()).thenReturn(attachmentClient);
+        givenComputation(ignored -> {}, 0);
+    }
+
+    @Test
+    public void testContentsUpToTheCheckpointAreSkipped() throws TException {
+        givenIdsWithoutSha1("d", "a", "c", "b");
+        checkpoints.put(ThriftClients.ATTACHMENT_SHA1_SERVICE, "b");
+
+        RequestSummary requestSummary = job.run(newContext());
+
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), contains("c", "d"));
+        assertThat(requestSummary.getTotalElements(), is(2));
+        assertThat(checkpoints.get(ThriftClients.ATTACHMENT_SHA1_SERVICE), is("d"));
+    }
+
+    @Test
+    public void testCheckpointIsTheLastContentOfTheLastBatch() throws TException {
+        List<String> ids = ids(2 * AttachmentSha1Job.BATCH_SIZE + 1);
+        givenIdsWithoutSha1(ids.toArray(new String[0]));
+
+        RequestSummary requestSummary = job.run(newContext());
+
+        assertThat(batches.size(), is(3));
+        assertThat(batches.get(2), contains(ids.get(2 * AttachmentSha1Job.BATCH_SIZE)));
+        assertThat(checkpointsBeforeBatches, contains(
+                Optional.empty(),
+                Optional.of(ids.get(AttachmentSha1Job.BATCH_SIZE - 1)),
+                Optional.of(ids.get(2 * AttachmentSha1Job.BATCH_SIZE - 1))));
+        assertThat(requestSummary.getRequestStatus(), is(RequestStatus.SUCCESS));
+        assertThat(requestSummary.getTotalAffectedElements(), is(ids.size()));
+    }
+
+    @Test
+    public void testCancelledRunIsResumedAfterTheLastBatchDone() throws TException {
+        List<String> ids = ids(2 * AttachmentSha1Job.BATCH_SIZE);
+        givenIdsWithoutSha1(ids.toArray(new String[0]));
+        givenComputation(JobContext::cancel, 0);
+
+        try {
+            job.run(newContext());
+            fail("the run should have been cancelled");
+        } catch (CancellationException e) {
+            assertThat(batches.size(), is(1));
+        }
+        givenComputation(ignored -> {}, 0);
+        job.run(newContext());
+
+        assertThat(batches.size(), is(2));
+        assertThat(batches.get(1), is(ids.subList(AttachmentSha1Job.BATCH_SIZE, ids.size())));
+    }
+
+    @Test
+    public void testContentsWhoseSha1CouldNotBeComputedAreCountedAsFailed() throws TException {
+        givenIdsWithoutSha1("a", "b", "c");
+        givenComputation(ignored -> {}, 1);
+
+        RequestSummary requestSummary = job.run(newContext());
+
+        assertThat(requestSummary.getRequestStatus(), is(RequestStatus.FAILURE));
+        assertThat(requestSummary.getTotalAffectedElements(), is(2));
+        assertThat(checkpoints.get(ThriftClients.ATTACHMENT_SHA1_SERVICE), is("c"));
+    }
+
+    @Test
+    public void testNothingIsComputedWithoutContentsAfterTheCheckpoint() throws TException {
+        givenIdsWithoutSha1("a", "b");
+        checkpoints.put(ThriftClients.ATTACHMENT_SHA1_SERVICE, "b");
+
+        RequestSummary requestSummary = job.run(newContext());
+
+        assertThat(requestSummary.getTotalElements(), is(0));
+        verify(attachmentClient, never()).computeAttachmentSha1s(anyListOf(String.class));
+    }
+
+    private JobContext newContext() {
+        context = new JobContext(ThriftClients.ATTACHMENT_SHA1_SERVICE, () -> null, checkpoints);
+        return context;
+    }
+
+    private void givenIdsWithoutSha1(String... ids) throws TException {
+        when(attachmentClient.getAttachmentContentIdsWithoutSha1()).thenReturn(ImmutableList.copyOf(ids));
+    }
+
+    /**
+     * Records the computed batches, then runs the given action with the context of the run and reports the sha1 of
+     * all but the given number of contents of the batch as computed
+     */
+    private void givenComputation(Consumer<JobContext> action, int failedPerBatch) throws TException {
+        when(attachmentClient.computeAttachmentSha1s(anyListOf(String.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            List<String> batch = (List<String>) invocation.getArguments()[0];
+            batches.add(ImmutableList.copyOf(batch));
+            checkpointsBeforeBatches.add(context.getCheckpoint());
+            action.accept(context);
+            return new RequestSummary(RequestStatus.SUCCESS)
+                    .setTotalElements(batch.size())
+                    .setTotalAffectedElements(batch.size() - failedPerBatch);
+        });
+    }
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> String.format("%04d", i))
+                .collect(Collectors.toList());
+    }
+}
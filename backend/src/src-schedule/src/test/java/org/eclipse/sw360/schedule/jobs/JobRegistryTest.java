@@ -0,0 +1,186 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.jobs;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.SW360Exception;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.apache.thrift.TException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JobRegistryTest {
+
+    private static final String SERVICE = "testService";
+
+    private final User scheduleUser = new User().setEmail("schedule@sw360.org");
+    private final User admin = new User().setEmail("admin@sw360.org");
+    private JobRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new JobRegistry(() -> scheduleUser);
+    }
+
+    @Test
+    public void testScheduledRunsActAsTheScheduleUser() throws TException {
+        List<User> users = new ArrayList<>();
+        registry.register(job(context -> {
+            users.add(context.getUser());
+            return new RequestSummary(RequestStatus.SUCCESS);
+        }));
+
+        registry.getRun(SERVICE, null).apply(new ScheduleRun());
+        registry.getRun(SERVICE, admin).apply(new ScheduleRun());
+
+        assertThat(users, contains(scheduleUser, admin));
+    }
+
+    @Test
+    public void testDetailsOfTheJobAreAddedToTheRecordOfTheRun() {
+        Map<String, Map<String, List<String>>> details = ImmutableMap.of("projects", ImmutableMap.of("project (1)", ImmutableList.of("P1", "P2")));
+        registry.register(job(context -> {
+            context.setDetails(details);
+            return new RequestSummary(RequestStatus.SUCCESS);
+        }));
+        ScheduleRun record = new ScheduleRun();
+
+        registry.getRun(SERVICE, null).apply(record);
+
+        assertThat(record.getDetails(), is(details));
+    }
+
+    @Test
+    public void testRunsWhichFailWithAnExceptionReturnFailure() {
+        registry.register(job(context -> {
+            throw new SW360Exception("service is down");
+        }));
+
+        RequestSummary requestSummary = registry.getRun(SERVICE, null).apply(new ScheduleRun());
+
+        assertThat(requestSummary.getRequestStatus(), is(RequestStatus.FAILURE));
+        assertThat(requestSummary.getMessage(), containsString("service is down"));
+    }
+
+    @Test
+    public void testRunningJobsCanBeCancelled() throws TException {
+        List<Boolean> cancelled = new ArrayList<>();
+        registry.register(job(context -> {
+            context.setTotal(10);
+            context.addDone(3);
+            cancelled.add(registry.cancel(SERVICE));
+            context.checkCancelled();
+            context.addDone(7);
+            return new RequestSummary(RequestStatus.SUCCESS);
+        }));
+
+        try {
+            registry.getRun(SERVICE, null).apply(new ScheduleRun());
+            fail("the run should have been cancelled");
+        } catch (CancellationException e) {
+            assertThat(e.getMessage(), is("cancelled after 3 of 10 done"));
+        }
+
+        assertThat(cancelled, contains(true));
+        assertThat(registry.cancel(SERVICE), is(false));
+        RequestSummary progress = registry.getProgress(SERVICE);
+        assertThat(progress.getTotalElements(), is(10));
+        assertThat(progress.getTotalAffectedElements(), is(3));
+        assertThat(progress.getMessage(), startsWith("cancelled: 3 of 10 done"));
+    }
+
+    @Test
+    public void testRunsResumeFromTheCheckpointOfAnUnfinishedRun() throws TException {
+        List<Optional<String>> checkpoints = new ArrayList<>();
+        registry.register(job(context -> {
+            checkpoints.add(context.getCheckpoint());
+            context.setCheckpoint("step " + checkpoints.size());
+            if (checkpoints.size() == 1) {
+                throw new IllegalStateException("service is down");
+            }
+            return new RequestSummary(RequestStatus.SUCCESS);
+        }));
+
+        try {
+            registry.getRun(SERVICE, null).apply(new ScheduleRun());
+            fail("the run should have failed");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("service is down"));
+        }
+        registry.getRun(SERVICE, null).apply(new ScheduleRun());
+        registry.getRun(SERVICE, null).apply(new ScheduleRun());
+
+        assertThat(checkpoints, contains(Optional.empty(), Optional.of("step 1"), Optional.empty()));
+    }
+
+    @Test
+    public void testProgressOfTheLatestRun() throws TException {
+        registry.register(job(context -> {
+            context.setTotal(4);
+            context.addDone(3);
+            context.addFailed(1);
+            return new RequestSummary(RequestStatus.FAILURE).setMessage("1 release source is missing");
+        }));
+
+        assertThat(registry.getProgress(SERVICE).getMessage(), is("has not run yet"));
+
+        registry.getRun(SERVICE, null).apply(new ScheduleRun());
+
+        RequestSummary progress = registry.getProgress(SERVICE);
+        assertThat(progress.getRequestStatus(), is(RequestStatus.SUCCESS));
+        assertThat(progress.getMessage(), startsWith("failed: 3 of 4 done, 1 failed, "));
+        assertThat(progress.getMessage(), endsWith(", 1 release source is missing"));
+    }
+
+    @Test
+    public void testUnregisteredServicesHaveNoProgress() throws TException {
+        assertThat(registry.isRegistered(SERVICE), is(false));
+        assertThat(registry.getProgress(SERVICE).getRequestStatus(), is(RequestStatus.FAILURE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredServicesCannotRun() {
+        registry.getRun(SERVICE, null);
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        RequestSummary run(JobContext context) throws TException;
+    }
+
+    private static SchedulableJob job(JobBody body) {
+        return new SchedulableJob() {
+            @Override
+            public String getServiceName() {
+                return SERVICE;
+            }
+
+            @Override
+            public RequestSummary run(JobContext context) throws TException {
+                return body.run(context);
+            }
+        };
+    }
+}
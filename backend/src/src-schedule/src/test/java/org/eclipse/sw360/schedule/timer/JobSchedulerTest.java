@@ -0,0 +1,357 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRunOutcome;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class JobSchedulerTest {
+
+    private static final String SERVICE = "testService";
+    private static final Instant START = Instant.parse("2019-03-01T10:30:00Z");
+    private static final int HOUR = 60 * 60;
+    private static final RequestSummary SUCCESS = new RequestSummary(RequestStatus.SUCCESS);
+
+    private ManualScheduledExecutorService executor;
+    private InMemoryRunHistory history;
+    private JobScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        executor = new ManualScheduledExecutorService(START, ZoneOffset.UTC);
+        history = new InMemoryRunHistory();
+        scheduler = new JobScheduler(executor, executor.getClock(), new Random(42), () -> history);
+    }
+
+    @Test
+    public void testRunsAtTheOffsetAndThenEveryInterval() {
+        List<Long> runs = new ArrayList<>();
+        scheduler.schedule(SERVICE, record -> {
+            runs.add(executor.millis());
+            return SUCCESS;
+        }, new Schedule(12 * HOUR, 6 * HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-01T12:00:00Z")));
+
+        executor.advance(Duration.ofDays(1));
+
+        assertThat(runs, contains(
+                millis("2019-03-01T12:00:00Z"),
+                millis("2019-03-01T18:00:00Z"),
+                millis("2019-03-02T00:00:00Z"),
+                millis("2019-03-02T06:00:00Z")));
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-02T12:00:00Z")));
+        assertThat(outcomes(), everyItem(is(ScheduleRunOutcome.SUCCESS)));
+    }
+
+    @Test
+    public void testRunsBeforeTheOffsetBelongToTheSchedule() {
+        scheduler.schedule(SERVICE, record -> SUCCESS, new Schedule(23 * HOUR, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-01T11:00:00Z")));
+    }
+
+    @Test
+    public void testFailingRunsDoNotStopTheSchedule() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("service is down");
+            }
+            return calls.get() == 2 ? new RequestSummary(RequestStatus.FAILURE).setMessage("no connection") : SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(3));
+
+        assertThat(outcomes(), contains(ScheduleRunOutcome.FAILURE, ScheduleRunOutcome.FAILURE, ScheduleRunOutcome.SUCCESS));
+        assertThat(history.runs.get(0).getMessage(), containsString("service is down"));
+        assertThat(history.runs.get(1).getMessage(), is("finished with FAILURE: no connection"));
+        assertThat(scheduler.isScheduled(SERVICE), is(true));
+        assertThat(executor.getPendingTasks(), is(1));
+    }
+
+    @Test
+    public void testRunsAreRecordedWithTheirDuration() {
+        scheduler.schedule(SERVICE, record -> {
+            executor.suspend(Duration.ofMinutes(5));
+            return SUCCESS;
+        }, new Schedule(11 * HOUR, 24 * HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(1));
+
+        ScheduleRun run = history.runs.get(0);
+        assertThat(run.getServiceName(), is(SERVICE));
+        assertThat(run.getScheduledAt(), is(millis("2019-03-01T11:00:00Z")));
+        assertThat(run.getStartedAt(), is(millis("2019-03-01T11:00:00Z")));
+        assertThat(run.getDurationMillis(), is(Duration.ofMinutes(5).toMillis()));
+    }
+
+    @Test
+    public void testMissedRunsAreRunOnceWithRunOncePolicy() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.suspend(Duration.ofHours(10));
+        executor.advance(Duration.ZERO);
+
+        assertThat(calls.get(), is(1));
+        ScheduleRun run = history.runs.get(0);
+        assertThat(run.getOutcome(), is(ScheduleRunOutcome.SUCCESS));
+        assertThat(run.getScheduledAt(), is(millis("2019-03-01T11:00:00Z")));
+        assertThat(run.getStartedAt(), is(millis("2019-03-01T20:30:00Z")));
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-01T21:00:00Z")));
+    }
+
+    @Test
+    public void testMissedRunsAreSkippedWithSkipPolicy() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.SKIP));
+
+        executor.suspend(Duration.ofHours(10));
+        executor.advance(Duration.ZERO);
+
+        assertThat(calls.get(), is(0));
+        assertThat(outcomes(), contains(ScheduleRunOutcome.MISFIRED));
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-01T21:00:00Z")));
+
+        executor.advance(Duration.ofMinutes(30));
+
+        assertThat(calls.get(), is(1));
+        assertThat(outcomes(), contains(ScheduleRunOutcome.MISFIRED, ScheduleRunOutcome.SUCCESS));
+    }
+
+    @Test
+    public void testSlightlyLateRunsAreNoMisfire() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.SKIP));
+
+        executor.suspend(Duration.ofMinutes(30).plusMillis(JobScheduler.MISFIRE_THRESHOLD_MILLIS));
+        executor.advance(Duration.ZERO);
+
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testRunsOfTheSameServiceDoNotOverlap() {
+        AtomicInteger secondCalls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            // scheduled again while running, the new schedule becomes due before this run has finished
+            scheduler.schedule(SERVICE, nextRecord -> {
+                secondCalls.incrementAndGet();
+                return SUCCESS;
+            }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+            executor.advance(Duration.ofMinutes(30));
+            return SUCCESS;
+        }, new Schedule(11 * HOUR, 24 * HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofMinutes(30));
+
+        assertThat(secondCalls.get(), is(0));
+        assertThat(outcomes(), contains(ScheduleRunOutcome.SKIPPED, ScheduleRunOutcome.SUCCESS));
+        assertThat(scheduler.isRunning(SERVICE), is(false));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(secondCalls.get(), is(1));
+        assertThat(executor.getPendingTasks(), is(1));
+    }
+
+    @Test
+    public void testSuccessfulRunsAreRecordedWithTheirMessage() {
+        scheduler.schedule(SERVICE, record -> new RequestSummary(RequestStatus.SUCCESS).setMessage("2 duplicate components"),
+                new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(outcomes(), contains(ScheduleRunOutcome.SUCCESS));
+        assertThat(history.runs.get(0).getMessage(), is("2 duplicate components"));
+    }
+
+    @Test
+    public void testDetailsAddedByTheBodyAreRecorded() {
+        scheduler.schedule(SERVICE, record -> {
+            record.setDetails(ImmutableMap.of("components", ImmutableMap.of("component", ImmutableList.of("C1", "C2"))));
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(history.runs.get(0).getDetails().get("components").get("component"), contains("C1", "C2"));
+    }
+
+    @Test
+    public void testCancelledRunsAreRecordedAsCancelled() {
+        scheduler.schedule(SERVICE, record -> {
+            throw new CancellationException("cancelled after 3 of 10 done");
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(outcomes(), contains(ScheduleRunOutcome.CANCELLED));
+        assertThat(history.runs.get(0).getMessage(), is("cancelled after 3 of 10 done"));
+        assertThat(scheduler.isScheduled(SERVICE), is(true));
+    }
+
+    @Test
+    public void testRunNowRunsOnceBesidesTheSchedule() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(11 * HOUR, 24 * HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        assertThat(scheduler.runNow(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }), is(true));
+        executor.advance(Duration.ZERO);
+
+        assertThat(calls.get(), is(1));
+        assertThat(history.runs.get(0).getStartedAt(), is(millis("2019-03-01T10:30:00Z")));
+        assertThat(scheduler.getNextRun(SERVICE).get().toInstant(), is(Instant.parse("2019-03-01T11:00:00Z")));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testRunNowDoesNotRunAServiceWhichIsRunning() {
+        List<Boolean> started = new ArrayList<>();
+        scheduler.schedule(SERVICE, record -> {
+            started.add(scheduler.runNow(SERVICE, nextRecord -> SUCCESS));
+            return SUCCESS;
+        }, new Schedule(11 * HOUR, 24 * HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(1));
+
+        assertThat(started, contains(false));
+        assertThat(outcomes(), contains(ScheduleRunOutcome.SUCCESS));
+    }
+
+    @Test
+    public void testJitterDelaysRunsWithinTheJitter() {
+        List<Long> runs = new ArrayList<>();
+        scheduler.schedule(SERVICE, record -> {
+            runs.add(executor.millis());
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 600, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofDays(1));
+
+        assertThat(runs, hasSize(24));
+        for (int i = 0; i < runs.size(); i++) {
+            long slot = millis("2019-03-01T11:00:00Z") + Duration.ofHours(i).toMillis();
+            assertThat(runs.get(i), allOf(greaterThanOrEqualTo(slot), lessThan(slot + Duration.ofMinutes(10).toMillis())));
+        }
+        assertThat(new HashSet<>(runs.stream().map(run -> run % Duration.ofHours(1).toMillis()).collect(Collectors.toList())),
+                hasSize(greaterThan(1)));
+    }
+
+    @Test
+    public void testCancelledServicesDoNotRunAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(2));
+        scheduler.cancel(SERVICE);
+        executor.advance(Duration.ofHours(2));
+
+        assertThat(calls.get(), is(2));
+        assertThat(scheduler.isScheduled(SERVICE), is(false));
+        assertThat(scheduler.isAnyScheduled(), is(false));
+        assertThat(scheduler.getNextRun(SERVICE).isPresent(), is(false));
+        assertThat(executor.getPendingTasks(), is(0));
+    }
+
+    @Test
+    public void testFailingHistoryDoesNotStopTheSchedule() {
+        scheduler = new JobScheduler(executor, executor.getClock(), new Random(42), () -> {
+            throw new IllegalStateException("database is down");
+        });
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule(SERVICE, record -> {
+            calls.incrementAndGet();
+            return SUCCESS;
+        }, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(3));
+
+        assertThat(calls.get(), is(3));
+        assertThat(scheduler.getRunHistory(SERVICE, 10), is(empty()));
+    }
+
+    @Test
+    public void testRunHistoryIsReadFromTheHistory() {
+        scheduler.schedule(SERVICE, record -> SUCCESS, new Schedule(0, HOUR, 0, MisfirePolicy.RUN_ONCE));
+
+        executor.advance(Duration.ofHours(3));
+
+        List<ScheduleRun> runs = scheduler.getRunHistory(SERVICE, 2);
+        assertThat(runs.stream().map(ScheduleRun::getStartedAt).collect(Collectors.toList()),
+                contains(millis("2019-03-01T13:00:00Z"), millis("2019-03-01T12:00:00Z")));
+    }
+
+    private List<ScheduleRunOutcome> outcomes() {
+        return history.runs.stream().map(ScheduleRun::getOutcome).collect(Collectors.toList());
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    private static class InMemoryRunHistory implements RunHistory {
+        private final List<ScheduleRun> runs = new ArrayList<>();
+
+        @Override
+        public void record(ScheduleRun run) {
+            runs.add(run);
+        }
+
+        @Override
+        public List<ScheduleRun> getRuns(String serviceName, int limit) {
+            return runs.stream()
+                    .filter(run -> serviceName.equals(run.getServiceName()))
+                    .sorted(Comparator.comparing(ScheduleRun::getStartedAt).reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.schedule.timer;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs scheduled tasks on the calling thread when the time of its clock is advanced. Only one-shot scheduling of
+ * runnables is supported, which is all the {@link JobScheduler} needs.
+ */
+class ManualScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final PriorityQueue<ManualTask> tasks = new PriorityQueue<>();
+    private final ZoneId zone;
+    private long now;
+    private long sequence = 0;
+    private boolean shutdown = false;
+
+    ManualScheduledExecutorService(Instant start, ZoneId zone) {
+        this.now = start.toEpochMilli();
+        this.zone = zone;
+    }
+
+    Clock getClock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now);
+            }
+        };
+    }
+
+    long millis() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward and runs every task which gets due on the way at its time. Tasks may advance the clock
+     * themselves, which then runs the tasks getting due during them.
+     */
+    void advance(Duration duration) {
+        long until = now + duration.toMillis();
+        ManualTask task;
+        while ((task = tasks.peek()) != null && task.dueAt <= until) {
+            tasks.poll();
+            now = Math.max(now, task.dueAt);
+            task.run();
+        }
+        now = Math.max(now, until);
+    }
+
+    /**
+     * Moves the clock forward without running any task, as if the server was suspended.
+     */
+    void suspend(Duration duration) {
+        now += duration.toMillis();
+    }
+
+    int getPendingTasks() {
+        return (int) tasks.stream().filter(task -> !task.isCancelled()).count();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        if (shutdown) {
+            throw new RejectedExecutionException("executor has been shut down");
+        }
+        ManualTask task = new ManualTask(command, now + unit.toMillis(delay), sequence++);
+        tasks.add(task);
+        return task;
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && tasks.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private class ManualTask implements ScheduledFuture<Object>, Runnable {
+        private final Runnable command;
+        private final long dueAt;
+        private final long order;
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        private ManualTask(Runnable command, long dueAt, long order) {
+            this.command = command;
+            this.dueAt = dueAt;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                done = true;
+                command.run();
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - now, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            ManualTask otherTask = (ManualTask) other;
+            int byDueAt = Long.compare(dueAt, otherTask.dueAt);
+            return byDueAt != 0 ? byDueAt : Long.compare(order, otherTask.order);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+}
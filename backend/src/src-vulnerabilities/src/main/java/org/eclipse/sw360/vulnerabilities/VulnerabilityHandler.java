@@ -13,9 +13,7 @@
 package org.eclipse.sw360.vulnerabilities;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 
 import org.eclipse.sw360.datahandler.common.DatabaseSettings;
 import org.eclipse.sw360.datahandler.db.ComponentDatabaseHandler;
@@ -38,7 +36,7 @@ import org.apache.thrift.TException;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.apache.log4j.Logger.getLogger;
@@ -52,6 +50,7 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
 
     private final static Logger log = getLogger(VulnerabilityHandler.class);
 
+    static final int DTO_BATCH_SIZE = 1000;
 
     private final VulnerabilityDatabaseHandler dbHandler;
     private final ComponentDatabaseHandler compHandler;
@@ -63,13 +62,20 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         projectDatabaseHandler = new ProjectDatabaseHandler(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_DATABASE, DatabaseSettings.COUCH_DB_ATTACHMENTS);
     }
 
+    VulnerabilityHandler(VulnerabilityDatabaseHandler dbHandler, ComponentDatabaseHandler compHandler,
+                         ProjectDatabaseHandler projectDatabaseHandler) {
+        this.dbHandler = dbHandler;
+        this.compHandler = compHandler;
+        this.projectDatabaseHandler = projectDatabaseHandler;
+    }
+
     @Override
     public List<VulnerabilityDTO> getVulnerabilitiesByReleaseId(String releaseId, User user) throws TException {
         if (!PermissionUtils.isUserAtLeast(UserGroup.USER, user)) {
             return Collections.emptyList();
         }
 
-        return getVulsByReleaseIds(Collections.singletonList(releaseId), user);
+        return getVulsByReleaseIds(Collections.singletonList(releaseId));
     }
 
     @Override
@@ -83,7 +89,7 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         }
 
         List<String> ids = releases.stream().map(Release::getId).collect(Collectors.toList());
-        return getVulsByReleaseIds(ids, user);
+        return getVulsByReleaseIds(ids);
     }
 
     @Override
@@ -92,7 +98,7 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
             return Collections.emptyList();
         }
         Set<String> releaseIds = projectDatabaseHandler.getProjectById(projectId, user).getReleaseIdToUsage().keySet();
-        return getVulsByReleaseIds(releaseIds, user);
+        return getVulsByReleaseIds(releaseIds);
     }
 
     @Override
@@ -101,7 +107,7 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
             return Collections.emptyList();
         }
 
-        return getVulsByReleaseIdsWithoutIncorrect(Collections.singletonList(releaseId), user);
+        return getVulsByReleaseIdsWithoutIncorrect(Collections.singletonList(releaseId));
     }
 
     @Override
@@ -112,7 +118,7 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         List<Release> releases = compHandler.getReleasesFromComponentId(componentId, user);
 
         List<String> ids = releases.stream().map(Release::getId).collect(Collectors.toList());
-        return getVulsByReleaseIdsWithoutIncorrect(ids, user);
+        return getVulsByReleaseIdsWithoutIncorrect(ids);
     }
 
     @Override
@@ -125,20 +131,20 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         if (project.isSetReleaseIdToUsage()) {
             releaseIds = project.getReleaseIdToUsage().keySet();
         }
-        return getVulsByReleaseIdsWithoutIncorrect(releaseIds, user);
+        return getVulsByReleaseIdsWithoutIncorrect(releaseIds);
     }
 
-    private List<VulnerabilityDTO> getVulsByReleaseIds(Collection<String> releaseIds, User user) {
+    private List<VulnerabilityDTO> getVulsByReleaseIds(Collection<String> releaseIds) {
         List<ReleaseVulnerabilityRelation> relations = getReleaseVulnerabilityRelationByReleaseIds(releaseIds);
-        return getDtosFromRelations(relations, user);
+        return getDtosFromRelations(relations);
     }
 
-    private List<VulnerabilityDTO> getVulsByReleaseIdsWithoutIncorrect(Collection<String> releaseIds, User user) {
+    private List<VulnerabilityDTO> getVulsByReleaseIdsWithoutIncorrect(Collection<String> releaseIds) {
         List<ReleaseVulnerabilityRelation> relations = getReleaseVulnerabilityRelationByReleaseIds(releaseIds);
         List<ReleaseVulnerabilityRelation> filteredRelations = relations.stream()
                 .filter(VulnerabilityHandler::releaseVulnerabilityRelationIsNotIncorrect)
                 .collect(Collectors.toList());
-        return getDtosFromRelations(filteredRelations, user);
+        return getDtosFromRelations(filteredRelations);
     }
 
     private List<ReleaseVulnerabilityRelation> getReleaseVulnerabilityRelationByReleaseIds(Collection<String> releaseIds) {
@@ -155,21 +161,61 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         return !VerificationState.INCORRECT.equals(currentState.getVerificationState());
     }
 
-    private List<VulnerabilityDTO> getDtosFromRelations(List<ReleaseVulnerabilityRelation> relations, User user) {
-        Set<String> vulnerabilityIds = relations.stream()
-                .map(ReleaseVulnerabilityRelation::getVulnerabilityId)
-                .collect(Collectors.toSet());
-
-        List<Vulnerability> vulnerabilities = dbHandler.getByIds(Vulnerability.class, vulnerabilityIds);
-        Map<String, Vulnerability> vulnerabilityMap= ThriftUtils.getIdMap(vulnerabilities);
-
-        LoadingCache<String, Release> releaseCache = makeReleaseCache(user);
-        LoadingCache<String, Component> componentCache = makeComponentCache(user);
+    /**
+     * Builds the DTOs in batches of {@value #DTO_BATCH_SIZE} relations. The vulnerabilities, releases and components
+     * of a batch are read with one query each, releases and components which have been read for an earlier batch are
+     * not read again.
+     */
+    private List<VulnerabilityDTO> getDtosFromRelations(List<ReleaseVulnerabilityRelation> relations) {
+        Map<String, Release> releasesById = new HashMap<>();
+        Map<String, Component> componentsById = new HashMap<>();
+        List<VulnerabilityDTO> dtos = new ArrayList<>(relations.size());
+
+        for (List<ReleaseVulnerabilityRelation> batch : Lists.partition(relations, DTO_BATCH_SIZE)) {
+            Set<String> vulnerabilityIds = batch.stream()
+                    .map(ReleaseVulnerabilityRelation::getVulnerabilityId)
+                    .collect(Collectors.toSet());
+            List<Vulnerability> vulnerabilities = dbHandler.getByIds(Vulnerability.class, vulnerabilityIds);
+            Map<String, Vulnerability> vulnerabilityMap = ThriftUtils.getIdMap(vulnerabilities);
+
+            Set<String> releaseIds = batch.stream()
+                    .map(ReleaseVulnerabilityRelation::getReleaseId)
+                    .collect(Collectors.toSet());
+            Collection<Release> newReleases = getMissing(releaseIds, releasesById, compHandler::getExistingReleases);
+
+            Set<String> componentIds = newReleases.stream()
+                    .filter(release -> StringUtils.isEmpty(release.getName()))
+                    .map(Release::getComponentId)
+                    .collect(Collectors.toSet());
+            getMissing(componentIds, componentsById, compHandler::getExistingComponentsShort);
+
+            for (ReleaseVulnerabilityRelation relation : batch) {
+                VulnerabilityDTO dto = getDtoFromRelation(relation, vulnerabilityMap.get(relation.getVulnerabilityId()));
+                dtos.add(enrichVulnerabilityDTO(dto, releasesById, componentsById));
+            }
+        }
+        return dtos;
+    }
 
-        return relations.stream()
-                .map(relation -> getDtoFromRelation(relation, vulnerabilityMap.get(relation.getVulnerabilityId())))
-                .map(dto -> enrichVulnerabilityDTO(dto, componentCache, releaseCache))
-                .collect(Collectors.toList());
+    /**
+     * Reads the documents whose ids are not in the map yet and adds them to it. Ids which are not found are added as
+     * well, so that they are not asked for again.
+     *
+     * @return the documents which have been read
+     */
+    private static <T> Collection<T> getMissing(Set<String> ids, Map<String, T> documentsById,
+                                                Function<Set<String>, List<T>> getByIds) {
+        Set<String> missingIds = ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !documentsById.containsKey(id))
+                .collect(Collectors.toSet());
+        if (missingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, T> documents = ThriftUtils.getIdMap(getByIds.apply(missingIds));
+        log.debug("read " + documents.size() + " of " + missingIds.size() + " documents");
+        missingIds.forEach(id -> documentsById.put(id, documents.get(id)));
+        return documents.values();
     }
 
     private VulnerabilityDTO getDtoFromRelation(ReleaseVulnerabilityRelation relation, Vulnerability vulnerability) {
@@ -185,52 +231,28 @@ public class VulnerabilityHandler implements VulnerabilityService.Iface {
         return dto;
     }
 
-    private VulnerabilityDTO enrichVulnerabilityDTO(VulnerabilityDTO dto, LoadingCache<String, Component> componentCache, LoadingCache<String, Release> releaseCache) {
-        String releaseId = dto.getIntReleaseId();
-        try {
-            Release release = releaseCache.get(releaseId);
-            if (release != null) {
-                dto.setIntComponentId(release.getComponentId());
-
-                String releaseName = "";
-                if (!StringUtils.isEmpty(release.getName())) {
-                    releaseName = release.getName() + " ";
-                    dto.setIntComponentName(release.getName());
-                } else {
-                    Component component = componentCache.get(release.getComponentId());
-                    if (component != null) {
-                        releaseName = component.getName() + " ";
-                        dto.setIntComponentName(component.getName());
-                    }
-                }
-                dto.setIntReleaseName(releaseName + release.getVersion());
+    private VulnerabilityDTO enrichVulnerabilityDTO(VulnerabilityDTO dto, Map<String, Release> releasesById, Map<String, Component> componentsById) {
+        Release release = releasesById.get(dto.getIntReleaseId());
+        if (release == null) {
+            return dto;
+        }
+        dto.setIntComponentId(release.getComponentId());
+
+        String releaseName = "";
+        if (!StringUtils.isEmpty(release.getName())) {
+            releaseName = release.getName() + " ";
+            dto.setIntComponentName(release.getName());
+        } else {
+            Component component = componentsById.get(release.getComponentId());
+            if (component != null) {
+                releaseName = component.getName() + " ";
+                dto.setIntComponentName(component.getName());
             }
-        } catch (ExecutionException e) {
-            log.error(e);
         }
+        dto.setIntReleaseName(releaseName + release.getVersion());
         return dto;
     }
 
-    private LoadingCache<String, Release> makeReleaseCache(User user) {
-        return CacheBuilder.newBuilder()
-                .build(new CacheLoader<String, Release>() {
-                    public Release load(String key) throws SW360Exception {
-                        log.error("loading " + key + " release from db.");
-                        return compHandler.getRelease(key, user);
-                    }
-                });
-    }
-
-    private LoadingCache<String, Component> makeComponentCache(User user) {
-        return CacheBuilder.newBuilder()
-                .build(new CacheLoader<String, Component>() {
-                    public Component load(String key) throws SW360Exception {
-                        log.error("loading " + key + " component from db.");
-                        return compHandler.getComponent(key, user);
-                    }
-                });
-    }
-
     @Override
     public List<ProjectVulnerabilityRating> getProjectVulnerabilityRatingByProjectId(String projectId, User user) {
         if (!PermissionUtils.isUserAtLeast(UserGroup.USER, user)) {
@@ -10,11 +10,14 @@
  */
 package org.eclipse.sw360.vulnerabilities.db;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 import org.eclipse.sw360.datahandler.common.DatabaseSettings;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
+import org.eclipse.sw360.datahandler.couchdb.DatabaseRepository;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.Vulnerability;
@@ -24,9 +27,13 @@ import org.eclipse.sw360.vulnerabilities.common.VulnerabilityMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.apache.thrift.TBase;
+import org.ektorp.DocumentOperationResult;
 
 import java.net.MalformedURLException;
 import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Class for accessing the CouchDB database
@@ -37,15 +44,32 @@ public class VulnerabilityDatabaseHandler {
 
     private static final Logger log = Logger.getLogger(VulnerabilityDatabaseHandler.class);
 
+    private static final int BULK_SIZE = 5000;
+    private static final int MAX_BULK_ATTEMPTS = 3;
+    private static final String CONFLICT = "conflict";
+
+    private static final BinaryOperator<ReleaseVulnerabilityRelation> SET_USED_NEEDLE = (existing, relation) -> {
+        if (relation.isSetUsedNeedle() && !relation.getUsedNeedle().equals(existing.getUsedNeedle())) {
+            existing.setUsedNeedle(relation.getUsedNeedle());
+        }
+        return existing;
+    };
+
     private final VulnerabilityRepository vulRepo;
     private final VulnerabilityRelationRepository relationRepo;
 
     public VulnerabilityDatabaseHandler() throws MalformedURLException {
-        DatabaseConnector db = new DatabaseConnector(DatabaseSettings.getConfiguredHttpClient(),
-                DatabaseSettings.COUCH_DB_VM);
+        this(new DatabaseConnector(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_VM));
+    }
 
-        vulRepo = new VulnerabilityRepository(db);
-        relationRepo = new VulnerabilityRelationRepository(db);
+    private VulnerabilityDatabaseHandler(DatabaseConnector db) {
+        this(new VulnerabilityRepository(db), new VulnerabilityRelationRepository(db));
+    }
+
+    @VisibleForTesting
+    VulnerabilityDatabaseHandler(VulnerabilityRepository vulRepo, VulnerabilityRelationRepository relationRepo) {
+        this.vulRepo = vulRepo;
+        this.relationRepo = relationRepo;
     }
 
     public <T extends TBase> RequestStatus add(T element) {
@@ -93,6 +117,131 @@ public class VulnerabilityDatabaseHandler {
         }
     }
 
+    /**
+     * Writes new and changed vulnerabilities in one bulk request. New vulnerabilities get their id set, changed ones
+     * get their last update date set as in {@link #update}. Changed vulnerabilities which conflict with a concurrent
+     * change are read again and written once more.
+     *
+     * @return the vulnerabilities which could not be written
+     */
+    public List<Vulnerability> addOrUpdateVulnerabilities(Collection<Vulnerability> vulnerabilities) {
+        List<Vulnerability> documents = vulnerabilities.stream()
+                .map(vulnerability -> vulnerability.isSetId() ? VulnerabilityMapper.setLastUpdate(vulnerability) : vulnerability)
+                .collect(Collectors.toList());
+
+        log.debug("writing " + documents.size() + " vulnerabilities via bulk");
+        return executeBulkWithRetries(vulRepo, documents, Vulnerability::getId, VulnerabilityMapper::updateFromVulnerability);
+    }
+
+    /**
+     * Adds new relations and copies the fields of the other relations onto the existing ones as
+     * {@link VulnerabilityMapper#updateFromReleaseVulnerabilityRelation} does. The existing relations are looked up by
+     * release and vulnerability id with one query, relations which do not change are not written and all others are
+     * written in bulk, both in batches of {@value #BULK_SIZE} relations.
+     *
+     * @return the given relations which could not be written
+     */
+    public List<ReleaseVulnerabilityRelation> addOrUpdateRelations(Collection<ReleaseVulnerabilityRelation> relations) {
+        return upsertRelations(relations, VulnerabilityMapper::updateFromReleaseVulnerabilityRelation);
+    }
+
+    private List<ReleaseVulnerabilityRelation> upsertRelations(Collection<ReleaseVulnerabilityRelation> relations,
+                                                              BinaryOperator<ReleaseVulnerabilityRelation> merge) {
+        List<ReleaseVulnerabilityRelation> failedRelations = new ArrayList<>();
+        for (List<ReleaseVulnerabilityRelation> batch : Iterables.partition(relations, BULK_SIZE)) {
+            Map<List<String>, ReleaseVulnerabilityRelation> existingRelations = relationRepo.getRelationsByIds(batch)
+                    .stream()
+                    .collect(Collectors.toMap(VulnerabilityDatabaseHandler::relationKey, Function.identity(), (first, second) -> first));
+
+            Map<List<String>, ReleaseVulnerabilityRelation> documents = new LinkedHashMap<>();
+            Map<List<String>, ReleaseVulnerabilityRelation> unchangedDocuments = new HashMap<>();
+            Map<List<String>, List<ReleaseVulnerabilityRelation>> relationsByKey = new HashMap<>();
+            for (ReleaseVulnerabilityRelation relation : batch) {
+                List<String> key = relationKey(relation);
+                relationsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(relation);
+
+                ReleaseVulnerabilityRelation document = documents.get(key);
+                if (document == null && existingRelations.containsKey(key)) {
+                    document = existingRelations.get(key);
+                    unchangedDocuments.put(key, document.deepCopy());
+                }
+                documents.put(key, document == null ? relation : merge.apply(document, relation));
+            }
+            List<ReleaseVulnerabilityRelation> changedDocuments = documents.entrySet().stream()
+                    .filter(entry -> !entry.getValue().equals(unchangedDocuments.get(entry.getKey())))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList());
+
+            log.debug("writing " + changedDocuments.size() + " of " + batch.size() + " relations via bulk");
+            for (ReleaseVulnerabilityRelation failed : executeBulkWithRetries(relationRepo, changedDocuments,
+                    ReleaseVulnerabilityRelation::getId, merge)) {
+                failedRelations.addAll(relationsByKey.get(relationKey(failed)));
+            }
+        }
+        return failedRelations;
+    }
+
+    private static List<String> relationKey(ReleaseVulnerabilityRelation relation) {
+        return Arrays.asList(relation.getReleaseId(), relation.getVulnerabilityId());
+    }
+
+    /**
+     * Writes the documents in bulk. Documents which conflict with a concurrent change are read again, the attempted
+     * change is applied to them with reapply and they are written again, up to {@value #MAX_BULK_ATTEMPTS} times.
+     *
+     * @return the documents which could not be written
+     */
+    private <T> List<T> executeBulkWithRetries(DatabaseRepository<T> repository, List<T> documents,
+                                               Function<T, String> getId, BinaryOperator<T> reapply) {
+        List<T> failed = new ArrayList<>();
+        List<T> pending = documents;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<DocumentOperationResult> results = repository.executeBulk(pending);
+            if (results == null) {
+                failed.addAll(pending);
+                break;
+            }
+            Map<String, DocumentOperationResult> errorsById = results.stream()
+                    .collect(Collectors.toMap(DocumentOperationResult::getId, Function.identity(), (first, second) -> first));
+
+            Map<String, T> conflicting = new HashMap<>();
+            for (T document : pending) {
+                String id = getId.apply(document);
+                DocumentOperationResult error = id == null ? null : errorsById.get(id);
+                if (id != null && error == null) {
+                    continue;
+                }
+                if (error != null && CONFLICT.equals(error.getError()) && attempt < MAX_BULK_ATTEMPTS) {
+                    conflicting.put(id, document);
+                } else {
+                    // new documents which could not be created did not get an id
+                    log.error("error on bulk writing " + document.getClass().getSimpleName() + " " + id + ": "
+                            + (error == null ? "not created" : error.getError() + " " + error.getReason()));
+                    failed.add(document);
+                }
+            }
+            if (conflicting.isEmpty()) {
+                break;
+            }
+
+            log.info("retrying " + conflicting.size() + " conflicting documents, attempt " + (attempt + 1));
+            Map<String, T> currentDocuments = repository.get(conflicting.keySet()).stream()
+                    .collect(Collectors.toMap(getId, Function.identity(), (first, second) -> first));
+            pending = new ArrayList<>();
+            for (Map.Entry<String, T> conflict : conflicting.entrySet()) {
+                T current = currentDocuments.get(conflict.getKey());
+                if (current == null) {
+                    log.error("error on bulk writing " + conflict.getValue().getClass().getSimpleName() + " "
+                            + conflict.getKey() + ": removed concurrently");
+                    failed.add(conflict.getValue());
+                } else {
+                    pending.add(reapply.apply(current, conflict.getValue()));
+                }
+            }
+        }
+        return failed;
+    }
+
     public RequestStatus addRelationIfNecessary(String releaseId, String vulnerabilityId, Optional<String> usedNeedle) {
         ReleaseVulnerabilityRelation relation = getRelationByIds(releaseId, vulnerabilityId);
         if (relation != null) {
@@ -111,32 +260,21 @@ public class VulnerabilityDatabaseHandler {
     }
 
     public RequestStatus addRelationsIfNecessary(String releaseId, List<String> vulnerabilityIds) {
-        RequestStatus requestStatus = RequestStatus.SUCCESS;
-        for (String vulnerabilityId : vulnerabilityIds) {
-            RequestStatus singleOperationStatus = addRelationIfNecessary(releaseId, vulnerabilityId, Optional.empty());
-            if (RequestStatus.FAILURE.equals(singleOperationStatus)) {
-                requestStatus = RequestStatus.FAILURE;
-            }
-        }
-        return requestStatus;
+        List<ReleaseVulnerabilityRelation> relations = vulnerabilityIds.stream()
+                .map(vulnerabilityId -> new ReleaseVulnerabilityRelation(releaseId, vulnerabilityId))
+                .collect(Collectors.toList());
+        return upsertRelations(relations, SET_USED_NEEDLE).isEmpty() ? RequestStatus.SUCCESS : RequestStatus.FAILURE;
     }
 
     public RequestStatus addRelationsIfNecessary(String releaseId, Map<String, List<String>> needlesToVulnerabilityIds) {
-        RequestStatus requestStatus = RequestStatus.SUCCESS;
+        List<ReleaseVulnerabilityRelation> relations = new ArrayList<>();
         for (Map.Entry<String, List<String>> needleWithVulnerabilityIds : needlesToVulnerabilityIds.entrySet()) {
             String usedNeedle = needleWithVulnerabilityIds.getKey();
-            List<String> vulnerabilityIds = needleWithVulnerabilityIds.getValue();
-
-            for (String vulnerabilityId : vulnerabilityIds) {
-                RequestStatus singleOperationStatus = addRelationIfNecessary(releaseId,
-                        vulnerabilityId,
-                        Optional.ofNullable(usedNeedle));
-                if (RequestStatus.FAILURE.equals(singleOperationStatus)) {
-                    requestStatus = RequestStatus.FAILURE;
-                }
+            for (String vulnerabilityId : needleWithVulnerabilityIds.getValue()) {
+                relations.add(new ReleaseVulnerabilityRelation(releaseId, vulnerabilityId).setUsedNeedle(usedNeedle));
             }
         }
-        return requestStatus;
+        return upsertRelations(relations, SET_USED_NEEDLE).isEmpty() ? RequestStatus.SUCCESS : RequestStatus.FAILURE;
     }
 
     public <T extends TBase> RequestStatus update(T element) {
@@ -227,6 +365,13 @@ public class VulnerabilityDatabaseHandler {
         return vulRepo.getVulnerabilitiesByExternalIdOrVulnerableConfig(externalId, vulnerableConfig);
     }
 
+    public List<Vulnerability> getByExternalIds(Collection<String> externalIds) {
+        if (externalIds == null || externalIds.isEmpty()) {
+            return ImmutableList.of();
+        }
+        return vulRepo.getVulnerabilitiesByExternalIds(externalIds);
+    }
+
     public ReleaseVulnerabilityRelation getRelationByIds(String releaseId, String vulnerabilityId) {
         if (StringUtils.isEmpty(releaseId) || StringUtils.isEmpty(vulnerabilityId)) {
             log.error("releaseId/vulnerabilityId cannot be null " + releaseId + " " + vulnerabilityId);
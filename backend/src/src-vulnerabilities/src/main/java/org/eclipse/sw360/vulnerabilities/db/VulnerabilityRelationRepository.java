@@ -14,11 +14,13 @@ import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseConnector;
 import org.eclipse.sw360.datahandler.couchdb.DatabaseRepository;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
+import org.ektorp.ComplexKey;
 import org.ektorp.support.View;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * CRUD access for the ReleaseVulnerabilityRelation class
@@ -63,6 +65,14 @@ public class VulnerabilityRelationRepository extends DatabaseRepository<ReleaseV
         return null;
     }
 
+    @View(name = "byids", map = BY_IDs_VIEW)
+    public List<ReleaseVulnerabilityRelation> getRelationsByIds(Collection<ReleaseVulnerabilityRelation> relations) {
+        Set<ComplexKey> keys = relations.stream()
+                .map(relation -> ComplexKey.of(relation.getReleaseId(), relation.getVulnerabilityId()))
+                .collect(Collectors.toSet());
+        return queryView(createQuery("byids").includeDocs(true).keys(keys));
+    }
+
     @View(name = "byReleaseId", map = BY_RELEASE_ID_VIEW)
     public List<ReleaseVulnerabilityRelation> getRelationsByReleaseIds(Collection<String> releaseIds) {
         return queryByIds("byReleaseId", releaseIds);
@@ -16,6 +16,8 @@ import org.eclipse.sw360.datahandler.couchdb.DatabaseRepository;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.Vulnerability;
 import org.ektorp.support.View;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -64,6 +66,11 @@ public class VulnerabilityRepository extends DatabaseRepository<Vulnerability> {
         return null;
     }
 
+    @View(name = "byexternalid", map = BY_EXTERNALID_VIEW)
+    public List<Vulnerability> getVulnerabilitiesByExternalIds(Collection<String> externalIds) {
+        return get(queryForIdsAsValue("byexternalid", new HashSet<>(externalIds)));
+    }
+
     @View(name = "bylastupdate", map = BY_LAST_UPDATE_VIEW)
     public List<Vulnerability> getVulnerabilitiesByLastUpdate(int limit) {
         List<String> ids = getIdListByView("bylastupdate", true, limit);
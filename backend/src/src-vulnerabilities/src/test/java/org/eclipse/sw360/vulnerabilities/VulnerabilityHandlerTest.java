@@ -0,0 +1,162 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.vulnerabilities;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.sw360.datahandler.db.ComponentDatabaseHandler;
+import org.eclipse.sw360.datahandler.db.ProjectDatabaseHandler;
+import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.datahandler.thrift.users.UserGroup;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.Vulnerability;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.VulnerabilityDTO;
+import org.eclipse.sw360.vulnerabilities.db.VulnerabilityDatabaseHandler;
+import org.apache.thrift.TException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VulnerabilityHandlerTest {
+
+    private static final int BATCH_SIZE = VulnerabilityHandler.DTO_BATCH_SIZE;
+
+    @Mock
+    private VulnerabilityDatabaseHandler dbHandler;
+
+    @Mock
+    private ComponentDatabaseHandler compHandler;
+
+    @Mock
+    private ProjectDatabaseHandler projectDatabaseHandler;
+
+    private VulnerabilityHandler handler;
+    private final User user = new User().setEmail("user@sw360.org").setUserGroup(UserGroup.USER);
+
+    private final List<ReleaseVulnerabilityRelation> relations = new ArrayList<>();
+    private final Map<String, Release> releases = new HashMap<>();
+    private final Map<String, Component> components = new HashMap<>();
+    // the ids of every read of releases and components, in order
+    private final List<Set<String>> releaseReads = new ArrayList<>();
+    private final List<Set<String>> componentReads = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        handler = new VulnerabilityHandler(dbHandler, compHandler, projectDatabaseHandler);
+
+        when(dbHandler.getRelationsByReleaseIds(anyCollectionOf(String.class))).thenReturn(relations);
+        when(dbHandler.getByIds(eq(Vulnerability.class), anyCollectionOf(String.class))).thenAnswer(invocation ->
+                ids(invocation.getArguments()[1]).stream()
+                        .map(id -> new Vulnerability(id).setId(id))
+                        .collect(Collectors.toList()));
+        when(compHandler.getExistingReleases(anySetOf(String.class))).thenAnswer(invocation -> {
+            Set<String> ids = ids(invocation.getArguments()[0]);
+            releaseReads.add(ids);
+            return ids.stream().filter(releases::containsKey).map(releases::get).collect(Collectors.toList());
+        });
+        when(compHandler.getExistingComponentsShort(anySetOf(String.class))).thenAnswer(invocation -> {
+            Set<String> ids = ids(invocation.getArguments()[0]);
+            componentReads.add(ids);
+            return ids.stream().filter(components::containsKey).map(components::get).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    public void testReleasesAreReadOncePerBatchOfRelations() throws TException {
+        IntStream.range(0, BATCH_SIZE + 1).forEach(i -> givenRelation("R" + i, "V" + i));
+        IntStream.range(0, BATCH_SIZE + 1).forEach(i -> givenRelease("R" + i, "release", "C1"));
+
+        List<VulnerabilityDTO> dtos = handler.getVulnerabilitiesByReleaseId("R0", user);
+
+        assertThat(dtos.size(), is(BATCH_SIZE + 1));
+        assertThat(releaseReads.size(), is(2));
+        assertThat(releaseReads.get(0).size(), is(BATCH_SIZE));
+        assertThat(releaseReads.get(1), is(ImmutableSet.of("R" + BATCH_SIZE)));
+    }
+
+    @Test
+    public void testReleasesReadForAnEarlierBatchAreNotReadAgain() throws TException {
+        IntStream.range(0, BATCH_SIZE).forEach(i -> givenRelation("R1", "V" + i));
+        givenRelation("R1", "V" + BATCH_SIZE);
+        givenRelation("R2", "V" + (BATCH_SIZE + 1));
+        givenRelease("R1", "release", "C1");
+        givenRelease("R2", "release", "C1");
+
+        handler.getVulnerabilitiesByReleaseId("R1", user);
+
+        assertThat(releaseReads, contains(ImmutableSet.of("R1"), ImmutableSet.of("R2")));
+    }
+
+    @Test
+    public void testComponentsAreOnlyReadForReleasesWithoutAName() throws TException {
+        givenRelation("R1", "V1");
+        givenRelation("R2", "V2");
+        givenRelease("R1", "named", "C1");
+        givenRelease("R2", "", "C2");
+        components.put("C2", new Component("component").setId("C2"));
+
+        List<VulnerabilityDTO> dtos = handler.getVulnerabilitiesByReleaseId("R1", user);
+
+        assertThat(componentReads, contains(ImmutableSet.of("C2")));
+        assertThat(dtos.get(0).getIntReleaseName(), is("named 1.0"));
+        assertThat(dtos.get(1).getIntReleaseName(), is("component 1.0"));
+        assertThat(dtos.get(1).getIntComponentName(), is("component"));
+    }
+
+    @Test
+    public void testRelationsOfAMissingReleaseAreNotEnriched() throws TException {
+        IntStream.range(0, BATCH_SIZE).forEach(i -> givenRelation("R1", "V" + i));
+        givenRelation("R1", "V" + BATCH_SIZE);
+        givenRelation("R2", "V" + (BATCH_SIZE + 1));
+        givenRelease("R2", "release", "C1");
+
+        List<VulnerabilityDTO> dtos = handler.getVulnerabilitiesByReleaseId("R1", user);
+
+        assertThat(dtos.size(), is(BATCH_SIZE + 2));
+        assertThat(dtos.get(0).getIntReleaseId(), is("R1"));
+        assertThat(dtos.get(0).getIntReleaseName(), is(nullValue()));
+        assertThat(dtos.get(BATCH_SIZE + 1).getIntReleaseName(), is("release 1.0"));
+        assertThat(releaseReads, contains(ImmutableSet.of("R1"), ImmutableSet.of("R2")));
+        verify(compHandler, never()).getExistingComponentsShort(anySetOf(String.class));
+    }
+
+    private void givenRelation(String releaseId, String vulnerabilityId) {
+        relations.add(new ReleaseVulnerabilityRelation(releaseId, vulnerabilityId));
+    }
+
+    private void givenRelease(String id, String name, String componentId) {
+        releases.put(id, new Release(name, "1.0", componentId).setId(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> ids(Object argument) {
+        return new HashSet<>((Collection<String>) argument);
+    }
+}
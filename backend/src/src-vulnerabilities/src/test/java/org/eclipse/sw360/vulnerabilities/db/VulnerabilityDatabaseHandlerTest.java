@@ -0,0 +1,194 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.vulnerabilities.db;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.sw360.datahandler.thrift.RequestStatus;
+import org.eclipse.sw360.datahandler.thrift.vulnerabilities.ReleaseVulnerabilityRelation;
+import org.ektorp.DocumentOperationResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VulnerabilityDatabaseHandlerTest {
+
+    @Mock
+    private VulnerabilityRepository vulRepo;
+
+    @Mock
+    private VulnerabilityRelationRepository relationRepo;
+
+    private VulnerabilityDatabaseHandler handler;
+
+    // copies of the documents of every bulk request, in order
+    private final List<List<ReleaseVulnerabilityRelation>> bulkRequests = new ArrayList<>();
+    // results of the next bulk requests by document id, the bulk request succeeds once these are used up
+    private final Queue<Map<String, String>> bulkErrors = new LinkedList<>();
+
+    @Before
+    public void setUp() {
+        handler = new VulnerabilityDatabaseHandler(vulRepo, relationRepo);
+
+        when(relationRepo.getRelationsByIds(anyCollectionOf(ReleaseVulnerabilityRelation.class))).thenReturn(ImmutableList.of());
+        when(relationRepo.executeBulk(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> documents = (Collection<?>) invocation.getArguments()[0];
+            bulkRequests.add(documents.stream()
+                    .map(document -> ((ReleaseVulnerabilityRelation) document).deepCopy())
+                    .collect(Collectors.toList()));
+
+            Map<String, String> errors = bulkErrors.isEmpty() ? ImmutableMap.of() : bulkErrors.remove();
+            List<DocumentOperationResult> results = new ArrayList<>();
+            for (Object document : documents) {
+                ReleaseVulnerabilityRelation relation = (ReleaseVulnerabilityRelation) document;
+                if (errors.containsKey(relation.getId())) {
+                    results.add(DocumentOperationResult.newInstance(relation.getId(), errors.get(relation.getId()), "reason"));
+                } else if (!relation.isSetId()) {
+                    // as the bulk request of the connector does for created documents
+                    relation.setId(relation.getReleaseId() + "-" + relation.getVulnerabilityId());
+                }
+            }
+            return results;
+        });
+    }
+
+    @Test
+    public void testUnchangedRelationsAreNotWritten() {
+        givenExistingRelations(existing("r1", "1", "R1", "V1").setUsedNeedle("needle"));
+
+        RequestStatus status = handler.addRelationsIfNecessary("R1", ImmutableMap.of("needle", ImmutableList.of("V1")));
+
+        assertThat(status, is(RequestStatus.SUCCESS));
+        verify(relationRepo, never()).executeBulk(anyCollection());
+    }
+
+    @Test
+    public void testOnlyChangedAndNewRelationsAreWritten() {
+        givenExistingRelations(
+                existing("r1", "1", "R1", "V1").setUsedNeedle("needle"),
+                existing("r2", "1", "R1", "V2").setUsedNeedle("old needle"));
+
+        RequestStatus status = handler.addRelationsIfNecessary("R1", ImmutableMap.of("needle", ImmutableList.of("V1", "V2", "V3")));
+
+        assertThat(status, is(RequestStatus.SUCCESS));
+        assertThat(bulkRequests.size(), is(1));
+        assertThat(vulnerabilityIds(bulkRequests.get(0)), containsInAnyOrder("V2", "V3"));
+        assertThat(bulkRequests.get(0).stream().allMatch(relation -> "needle".equals(relation.getUsedNeedle())), is(true));
+    }
+
+    @Test
+    public void testRelationsOfTheSameReleaseAndVulnerabilityAreWrittenOnce() {
+        List<ReleaseVulnerabilityRelation> failed = handler.addOrUpdateRelations(ImmutableList.of(
+                new ReleaseVulnerabilityRelation("R1", "V1").setMatchedBy("first"),
+                new ReleaseVulnerabilityRelation("R1", "V2").setMatchedBy("other"),
+                new ReleaseVulnerabilityRelation("R1", "V1").setMatchedBy("second")));
+
+        assertThat(failed, is(empty()));
+        assertThat(bulkRequests.size(), is(1));
+        assertThat(vulnerabilityIds(bulkRequests.get(0)), contains("V1", "V2"));
+        assertThat(bulkRequests.get(0).get(0).getMatchedBy(), is("second"));
+    }
+
+    @Test
+    public void testConflictingRelationIsReadAgainAndWrittenWithTheChangeReapplied() {
+        givenExistingRelations(existing("r1", "1", "R1", "V1").setUsedNeedle("old needle"));
+        bulkErrors.add(ImmutableMap.of("r1", "conflict"));
+        when(relationRepo.get(anyCollectionOf(String.class)))
+                .thenReturn(ImmutableList.of(existing("r1", "2", "R1", "V1").setUsedNeedle("old needle").setMatchedBy("concurrent")));
+
+        RequestStatus status = handler.addRelationsIfNecessary("R1", ImmutableMap.of("needle", ImmutableList.of("V1")));
+
+        assertThat(status, is(RequestStatus.SUCCESS));
+        assertThat(bulkRequests.size(), is(2));
+        ReleaseVulnerabilityRelation retried = bulkRequests.get(1).get(0);
+        assertThat(retried.getRevision(), is("2"));
+        assertThat(retried.getUsedNeedle(), is("needle"));
+        assertThat(retried.getMatchedBy(), is("concurrent"));
+        verify(relationRepo).get(ImmutableSet.of("r1"));
+    }
+
+    @Test
+    public void testConflictsAreGivenUpAfterMaxBulkAttempts() {
+        ReleaseVulnerabilityRelation relation = new ReleaseVulnerabilityRelation("R1", "V1").setUsedNeedle("needle");
+        givenExistingRelations(existing("r1", "1", "R1", "V1"));
+        for (int i = 0; i < 5; i++) {
+            bulkErrors.add(ImmutableMap.of("r1", "conflict"));
+        }
+        when(relationRepo.get(anyCollectionOf(String.class)))
+                .thenAnswer(invocation -> ImmutableList.of(existing("r1", "2", "R1", "V1")));
+
+        List<ReleaseVulnerabilityRelation> failed = handler.addOrUpdateRelations(ImmutableList.of(relation));
+
+        assertThat(failed, contains(relation));
+        verify(relationRepo, times(3)).executeBulk(anyCollection());
+        verify(relationRepo, times(2)).get(anyCollectionOf(String.class));
+    }
+
+    @Test
+    public void testFailedDocumentsAreMappedBackToAllTheirInputRelations() {
+        ReleaseVulnerabilityRelation first = new ReleaseVulnerabilityRelation("R1", "V1").setMatchedBy("first");
+        ReleaseVulnerabilityRelation second = new ReleaseVulnerabilityRelation("R1", "V1").setMatchedBy("second");
+        ReleaseVulnerabilityRelation other = new ReleaseVulnerabilityRelation("R1", "V2").setMatchedBy("other");
+        givenExistingRelations(existing("r1", "1", "R1", "V1"), existing("r2", "1", "R1", "V2"));
+        bulkErrors.add(ImmutableMap.of("r1", "forbidden"));
+
+        List<ReleaseVulnerabilityRelation> failed = handler.addOrUpdateRelations(ImmutableList.of(first, other, second));
+
+        assertThat(failed, containsInAnyOrder(first, second));
+        verify(relationRepo, never()).get(anyCollectionOf(String.class));
+    }
+
+    @Test
+    public void testRelationRemovedConcurrentlyIsReportedAsFailed() {
+        ReleaseVulnerabilityRelation relation = new ReleaseVulnerabilityRelation("R1", "V1").setMatchedBy("matcher");
+        givenExistingRelations(existing("r1", "1", "R1", "V1"));
+        bulkErrors.add(ImmutableMap.of("r1", "conflict"));
+        when(relationRepo.get(anyCollectionOf(String.class))).thenReturn(ImmutableList.of());
+
+        List<ReleaseVulnerabilityRelation> failed = handler.addOrUpdateRelations(ImmutableList.of(relation));
+
+        assertThat(failed, contains(relation));
+        assertThat(bulkRequests.size(), is(1));
+    }
+
+    private void givenExistingRelations(ReleaseVulnerabilityRelation... relations) {
+        // the handler changes the documents it reads, so every call gets its own copies
+        when(relationRepo.getRelationsByIds(anyCollectionOf(ReleaseVulnerabilityRelation.class))).thenAnswer(invocation ->
+                Arrays.stream(relations).map(ReleaseVulnerabilityRelation::deepCopy).collect(Collectors.toList()));
+    }
+
+    private static ReleaseVulnerabilityRelation existing(String id, String revision, String releaseId, String vulnerabilityId) {
+        return new ReleaseVulnerabilityRelation(releaseId, vulnerabilityId).setId(id).setRevision(revision);
+    }
+
+    private static List<String> vulnerabilityIds(List<ReleaseVulnerabilityRelation> relations) {
+        return relations.stream().map(ReleaseVulnerabilityRelation::getVulnerabilityId).collect(Collectors.toList());
+    }
+}
@@ -236,6 +236,7 @@ public class PortalConstants {
     public static final String DUPLICATE_RELEASE_SOURCES = "duplicateReleaseSources";
     public static final String DUPLICATE_COMPONENTS = "duplicateComponents";
     public static final String DUPLICATE_PROJECTS = "duplicateProjects";
+    public static final String DUPLICATES_SEARCHED_AT = "duplicatesSearchedAt";
     public static final String ACTION_DELETE_ALL_LICENSE_INFORMATION = "deleteAllLicenseInformation";
     public static final String ACTION_IMPORT_SPDX_LICENSE_INFORMATION = "importSpdxLicenseInformation";
 
@@ -280,6 +281,13 @@ public class PortalConstants {
     public static final String CVESEARCH_OFFSET = "cvesearchOffset";
     public static final String CVESEARCH_INTERVAL = "cvesearchInterval";
     public static final String CVESEARCH_NEXT_SYNC = "cvesearchNextSync";
+    public static final String CVESEARCH_PROGRESS = "cvesearchProgress";
+    public static final String CVESEARCH_RUN_HISTORY = "cvesearchRunHistory";
+    public static final String MAINTENANCE_SERVICES = "maintenanceServices";
+    public static final String SCHEDULED_SERVICES = "scheduledServices";
+    public static final String SERVICE_NEXT_SYNCS = "serviceNextSyncs";
+    public static final String SERVICE_PROGRESS = "serviceProgress";
+    public static final String SERVICE_NAME = "serviceName";
 
     //! Specialized keys for licenseInfo
     public static final String LICENSE_INFO_OUTPUT_FORMATS = "licenseInfoOutputFormats";
@@ -363,6 +371,7 @@ public class PortalConstants {
 
     public static final String CLEANUP = "Cleanup";
     public static final String DUPLICATES = "Duplicates";
+    public static final String DUPLICATES_SEARCH = "DuplicatesSearch";
     public static final String DOWNLOAD = "Download";
     public static final String DOWNLOAD_SAMPLE = "DownloadSample";
     public static final String DOWNLOAD_ATTACHMENT_INFO = "DownloadAttachmentInfo";
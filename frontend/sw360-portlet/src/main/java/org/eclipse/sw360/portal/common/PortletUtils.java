@@ -11,6 +11,7 @@
 package org.eclipse.sw360.portal.common;
 
 import com.google.common.collect.Sets;
+import com.google.common.net.HttpHeaders;
 import com.liferay.portal.kernel.json.JSONArray;
 import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONObject;
@@ -37,6 +38,11 @@ import org.eclipse.sw360.datahandler.thrift.vulnerabilities.VulnerabilityDTO;
 import org.eclipse.sw360.portal.users.UserCacheHolder;
 
 import javax.portlet.PortletRequest;
+import javax.portlet.ResourceResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -371,4 +377,17 @@ public class PortletUtils {
     public static Map<String,String> getAdditionalDataMapFromRequest(PortletRequest request) {
         return getMapFromRequest(request, PortalConstants.ADDITIONAL_DATA_KEY, PortalConstants.ADDITIONAL_DATA_VALUE);
     }
+
+    /**
+     * Sets the headers of a file download and returns the stream to write the file to, so that large files are
+     * written to the response directly instead of being kept in memory first
+     */
+    public static OutputStream getFileDownloadStream(ResourceResponse response, String filename, String contentType) throws IOException {
+        String asciiFilename = filename.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8.name()).replace("+", "%20");
+        response.setContentType(contentType);
+        response.setProperty(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + asciiFilename + "\"; filename*=UTF-8''" + encodedFilename);
+        return response.getPortletOutputStream();
+    }
 }
@@ -10,24 +10,33 @@
  */
 package org.eclipse.sw360.portal.portlets.admin;
 
+import com.liferay.portal.kernel.json.JSONFactoryUtil;
+import com.liferay.portal.kernel.json.JSONObject;
+import org.eclipse.sw360.datahandler.common.SW360Constants;
+import org.eclipse.sw360.datahandler.common.SW360Utils;
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
-import org.eclipse.sw360.datahandler.thrift.components.ComponentService;
-import org.eclipse.sw360.datahandler.thrift.projects.ProjectService;
+import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRunOutcome;
+import org.eclipse.sw360.datahandler.thrift.users.User;
 import org.eclipse.sw360.portal.common.PortalConstants;
 import org.eclipse.sw360.portal.portlets.Sw360Portlet;
+import org.eclipse.sw360.portal.users.UserCacheHolder;
 
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import javax.portlet.*;
 
-import static org.eclipse.sw360.datahandler.common.CommonUtils.allAreEmptyOrNull;
-import static org.eclipse.sw360.datahandler.common.CommonUtils.oneIsNull;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyMap;
+import static org.eclipse.sw360.datahandler.common.CommonUtils.nullToEmptyString;
 import static org.eclipse.sw360.portal.common.PortalConstants.DATABASE_SANITATION_PORTLET_NAME;
 
 @org.osgi.service.component.annotations.Component(
@@ -62,36 +71,56 @@ public class DatabaseSanitationPortlet extends Sw360Portlet {
     public void serveResource(ResourceRequest request, ResourceResponse response) throws IOException, PortletException {
         String action = request.getParameter(PortalConstants.ACTION);
         if (PortalConstants.DUPLICATES.equals(action)) {
-                 serveDuplicates(request,response);
+            serveDuplicates(request, response);
+        } else if (PortalConstants.DUPLICATES_SEARCH.equals(action)) {
+            startDuplicatesSearch(request, response);
         }
     }
 
-    private void serveDuplicates(ResourceRequest request, ResourceResponse response) throws IOException, PortletException {
+    private void startDuplicatesSearch(ResourceRequest request, ResourceResponse response) {
+        try {
+            User user = UserCacheHolder.getUserFromRequest(request);
+            renderRequestSummary(request, response,
+                    thriftClients.makeScheduleClient().runService(ThriftClients.DUPLICATES_SERVICE, user));
+        } catch (TException e) {
+            log.error("Could not start the search for duplicates", e);
+            renderRequestStatus(request, response, RequestStatus.FAILURE);
+        }
+    }
 
-        Map<String, List<String>> duplicateComponents=null;
-        Map<String, List<String>> duplicateReleases=null;
-        Map<String, List<String>> duplicateReleaseSources=null;
-        Map<String, List<String>> duplicateProjects=null;
+    private void serveDuplicates(ResourceRequest request, ResourceResponse response) throws IOException, PortletException {
+        List<ScheduleRun> latestRuns;
         try {
-            final ComponentService.Iface componentClient = thriftClients.makeComponentClient();
-            duplicateComponents = componentClient.getDuplicateComponents();
-            duplicateReleases = componentClient.getDuplicateReleases();
-            duplicateReleaseSources = componentClient.getDuplicateReleaseSources();
-            final ProjectService.Iface projectClient = thriftClients.makeProjectClient();
-            duplicateProjects =  projectClient.getDuplicateProjects();
+            User user = UserCacheHolder.getUserFromRequest(request);
+            latestRuns = thriftClients.makeScheduleClient().getRunHistory(ThriftClients.DUPLICATES_SERVICE, 1, user);
         } catch (TException e) {
-            log.error("Error in component client", e);
+            log.error("Could not read the latest search for duplicates", e);
+            renderRequestStatus(request, response, RequestStatus.FAILURE);
+            return;
+        }
+
+        if (latestRuns.isEmpty()) {
+            JSONObject jsonObject = JSONFactoryUtil.createJSONObject();
+            jsonObject.put("result", "NONE");
+            writeJSON(request, response, jsonObject);
+            return;
         }
+        ScheduleRun latestRun = latestRuns.get(0);
+        String searchedAt = SW360Utils.getDateTimeString(new Date(latestRun.getStartedAt()));
+        Map<String, Map<String, List<String>>> duplicates = nullToEmptyMap(latestRun.getDetails());
 
-        if(oneIsNull(duplicateComponents,duplicateReleases,duplicateProjects,duplicateReleaseSources)) {
-            renderRequestStatus(request,response, RequestStatus.FAILURE);
-        } else if(allAreEmptyOrNull(duplicateComponents, duplicateReleases, duplicateProjects, duplicateReleaseSources)) {
-            renderRequestStatus(request,response, RequestStatus.SUCCESS);
+        if (latestRun.getOutcome() != ScheduleRunOutcome.SUCCESS || !latestRun.isSetDetails()) {
+            renderRequestSummary(request, response, new RequestSummary(RequestStatus.FAILURE)
+                    .setMessage("The search of " + searchedAt + " did not complete: " + nullToEmptyString(latestRun.getMessage())));
+        } else if (duplicates.values().stream().allMatch(Map::isEmpty)) {
+            renderRequestSummary(request, response, new RequestSummary(RequestStatus.SUCCESS)
+                    .setMessage("No duplicate identifiers were found by the search of " + searchedAt));
         } else {
-            request.setAttribute(PortalConstants.DUPLICATE_RELEASES, duplicateReleases);
-            request.setAttribute(PortalConstants.DUPLICATE_RELEASE_SOURCES, duplicateReleaseSources);
-            request.setAttribute(PortalConstants.DUPLICATE_COMPONENTS, duplicateComponents);
-            request.setAttribute(PortalConstants.DUPLICATE_PROJECTS, duplicateProjects);
+            request.setAttribute(PortalConstants.DUPLICATES_SEARCHED_AT, searchedAt);
+            request.setAttribute(PortalConstants.DUPLICATE_RELEASES, nullToEmptyMap(duplicates.get(SW360Constants.DUPLICATE_RELEASES)));
+            request.setAttribute(PortalConstants.DUPLICATE_RELEASE_SOURCES, nullToEmptyMap(duplicates.get(SW360Constants.DUPLICATE_RELEASE_SOURCES)));
+            request.setAttribute(PortalConstants.DUPLICATE_COMPONENTS, nullToEmptyMap(duplicates.get(SW360Constants.DUPLICATE_COMPONENTS)));
+            request.setAttribute(PortalConstants.DUPLICATE_PROJECTS, nullToEmptyMap(duplicates.get(SW360Constants.DUPLICATE_PROJECTS)));
             include("/html/admin/databaseSanitation/duplicatesAjax.jsp", request, response, PortletRequest.RESOURCE_PHASE);
         }
     }
@@ -17,6 +17,7 @@ import com.liferay.portal.kernel.upload.UploadPortletRequest;
 import com.liferay.portal.kernel.util.PortalUtil;
 
 import org.eclipse.sw360.datahandler.thrift.RequestSummary;
+import org.eclipse.sw360.datahandler.thrift.ThriftClients;
 import org.eclipse.sw360.datahandler.thrift.licenses.LicenseService;
 import org.eclipse.sw360.datahandler.thrift.users.User;
 import org.eclipse.sw360.exporter.LicsExporter;
@@ -129,8 +130,7 @@ public class LicenseAdminPortlet extends Sw360Portlet {
 
     private void importLicensesFromSPDX(ResourceRequest request, ResourceResponse response) throws TException {
         User user = UserCacheHolder.getUserFromRequest(request);
-        LicenseService.Iface licenseClient = thriftClients.makeLicenseClient();
-        RequestSummary requestSummary = licenseClient.importAllSpdxLicenses(user);
+        RequestSummary requestSummary = thriftClients.makeScheduleClient().runService(ThriftClients.SPDX_LICENSES_SERVICE, user);
         renderRequestSummary(request, response, requestSummary);
     }
 
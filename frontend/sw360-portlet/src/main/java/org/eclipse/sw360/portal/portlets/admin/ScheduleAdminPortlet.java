@@ -11,10 +11,14 @@
  */
 package org.eclipse.sw360.portal.portlets.admin;
 
+import com.google.common.collect.ImmutableMap;
+
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.thrift.*;
+import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun;
 import org.eclipse.sw360.datahandler.thrift.schedule.ScheduleService;
 import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.portal.common.ErrorMessages;
 import org.eclipse.sw360.portal.common.PortalConstants;
 import org.eclipse.sw360.portal.common.UsedAsLiferayAction;
 import org.eclipse.sw360.portal.portlets.Sw360Portlet;
@@ -25,6 +29,7 @@ import org.apache.thrift.TException;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
 
 import java.io.IOException;
+import java.util.*;
 
 import javax.portlet.*;
 
@@ -52,6 +57,15 @@ public class ScheduleAdminPortlet extends Sw360Portlet {
 
     private static final Logger log = Logger.getLogger(ScheduleAdminPortlet.class);
 
+    private static final int RUN_HISTORY_LIMIT = 10;
+
+    // services which run in the background instead of on request of an admin portlet
+    private static final Map<String, String> MAINTENANCE_SERVICES = ImmutableMap.of(
+            ThriftClients.ATTACHMENT_VACUUM_SERVICE, "Attachment Cleanup",
+            ThriftClients.ATTACHMENT_SHA1_SERVICE, "Attachment SHA-1 Computation",
+            ThriftClients.DUPLICATES_SERVICE, "Duplicate Detection",
+            ThriftClients.SPDX_LICENSES_SERVICE, "SPDX License Import");
+
 
     @Override
     public void doView(RenderRequest request, RenderResponse response) throws IOException, PortletException {
@@ -60,6 +74,7 @@ public class ScheduleAdminPortlet extends Sw360Portlet {
     }
 
     private void prepareStandardView(RenderRequest request, RenderResponse response) {
+        request.setAttribute(PortalConstants.CVESEARCH_RUN_HISTORY, Collections.emptyList());
         try {
             User user = UserCacheHolder.getUserFromRequest(request);
             ScheduleService.Iface scheduleClient = new ThriftClients().makeScheduleClient();
@@ -74,10 +89,47 @@ public class ScheduleAdminPortlet extends Sw360Portlet {
             request.setAttribute(PortalConstants.CVESEARCH_INTERVAL, CommonUtils.formatTime(intervalInSeconds));
             String nextSync = scheduleClient.getNextSync(ThriftClients.CVESEARCH_SERVICE);
             request.setAttribute(PortalConstants.CVESEARCH_NEXT_SYNC, nextSync);
+            List<ScheduleRun> runHistory = scheduleClient.getRunHistory(ThriftClients.CVESEARCH_SERVICE, RUN_HISTORY_LIMIT, user);
+            request.setAttribute(PortalConstants.CVESEARCH_RUN_HISTORY, runHistory);
         } catch (TException te) {
             log.error(te.getMessage());
         }
 
+        // the progress comes from the CVE search service itself, which may be down while the schedule service is up
+        String progressMessage = "";
+        try {
+            RequestSummary progress = new ThriftClients().makeScheduleClient().getServiceProgress(ThriftClients.CVESEARCH_SERVICE);
+            progressMessage = CommonUtils.nullToEmptyString(progress.getMessage());
+        } catch (TException te) {
+            log.warn("Could not get progress of the CVE search: " + te.getMessage());
+        }
+        request.setAttribute(PortalConstants.CVESEARCH_PROGRESS, progressMessage);
+
+        prepareMaintenanceServices(request);
+    }
+
+    private void prepareMaintenanceServices(RenderRequest request) {
+        Set<String> scheduledServices = new HashSet<>();
+        Map<String, String> nextSyncs = new HashMap<>();
+        Map<String, String> progress = new HashMap<>();
+        try {
+            User user = UserCacheHolder.getUserFromRequest(request);
+            ScheduleService.Iface scheduleClient = thriftClients.makeScheduleClient();
+            for (String serviceName : MAINTENANCE_SERVICES.keySet()) {
+                RequestStatusWithBoolean isScheduled = scheduleClient.isServiceScheduled(serviceName, user);
+                if (RequestStatus.SUCCESS.equals(isScheduled.getRequestStatus()) && isScheduled.isAnswerPositive()) {
+                    scheduledServices.add(serviceName);
+                }
+                nextSyncs.put(serviceName, scheduleClient.getNextSync(serviceName));
+                progress.put(serviceName, CommonUtils.nullToEmptyString(scheduleClient.getServiceProgress(serviceName).getMessage()));
+            }
+        } catch (TException te) {
+            log.error("Could not get the state of the maintenance services: " + te.getMessage());
+        }
+        request.setAttribute(PortalConstants.MAINTENANCE_SERVICES, MAINTENANCE_SERVICES);
+        request.setAttribute(PortalConstants.SCHEDULED_SERVICES, scheduledServices);
+        request.setAttribute(PortalConstants.SERVICE_NEXT_SYNCS, nextSyncs);
+        request.setAttribute(PortalConstants.SERVICE_PROGRESS, progress);
     }
 
     private boolean isCveSearchScheduled(ScheduleService.Iface scheduleClient, User user) throws TException{
@@ -122,6 +174,61 @@ public class ScheduleAdminPortlet extends Sw360Portlet {
         }
     }
 
+    @UsedAsLiferayAction
+    public void scheduleService(ActionRequest request, ActionResponse response) throws PortletException, IOException {
+        try {
+            RequestSummary requestSummary =
+                    thriftClients.makeScheduleClient().scheduleService(request.getParameter(PortalConstants.SERVICE_NAME));
+            setSessionMessage(request, requestSummary.getRequestStatus(), "Task", "schedule");
+        } catch (TException e) {
+            log.error(e);
+        }
+    }
+
+    @UsedAsLiferayAction
+    public void unscheduleService(ActionRequest request, ActionResponse response) throws PortletException, IOException {
+        try {
+            User user = UserCacheHolder.getUserFromRequest(request);
+            RequestStatus requestStatus =
+                    thriftClients.makeScheduleClient().unscheduleService(request.getParameter(PortalConstants.SERVICE_NAME), user);
+            setSessionMessage(request, requestStatus, "Task", "unschedule");
+        } catch (TException e) {
+            log.error(e);
+        }
+    }
+
+    @UsedAsLiferayAction
+    public void runService(ActionRequest request, ActionResponse response) throws PortletException, IOException {
+        try {
+            User user = UserCacheHolder.getUserFromRequest(request);
+            RequestSummary requestSummary =
+                    thriftClients.makeScheduleClient().runService(request.getParameter(PortalConstants.SERVICE_NAME), user);
+            setActionMessage(request, requestSummary.getRequestStatus(), "Task started successfully!");
+        } catch (TException e) {
+            log.error(e);
+        }
+    }
+
+    @UsedAsLiferayAction
+    public void cancelServiceRun(ActionRequest request, ActionResponse response) throws PortletException, IOException {
+        try {
+            User user = UserCacheHolder.getUserFromRequest(request);
+            RequestStatus requestStatus =
+                    thriftClients.makeScheduleClient().cancelServiceRun(request.getParameter(PortalConstants.SERVICE_NAME), user);
+            setActionMessage(request, requestStatus, "Task is being cancelled.");
+        } catch (TException e) {
+            log.error(e);
+        }
+    }
+
+    private void setActionMessage(ActionRequest request, RequestStatus requestStatus, String successMessage) throws PortletException {
+        if (RequestStatus.SUCCESS.equals(requestStatus)) {
+            setSessionMessage(request, successMessage);
+        } else {
+            setSW360SessionError(request, ErrorMessages.DEFAULT_ERROR_MESSAGE);
+        }
+    }
+
     @UsedAsLiferayAction
     public void unscheduleAllServices(ActionRequest request, ActionResponse response) throws PortletException, IOException {
         try {
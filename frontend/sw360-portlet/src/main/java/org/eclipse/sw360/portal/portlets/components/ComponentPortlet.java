@@ -22,7 +22,6 @@ import com.liferay.portal.kernel.json.JSONArray;
 import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONObject;
 import com.liferay.portal.kernel.portlet.LiferayPortletURL;
-import com.liferay.portal.kernel.portlet.PortletResponseUtil;
 import com.liferay.portal.kernel.portlet.PortletURLFactoryUtil;
 import com.liferay.portal.kernel.servlet.SessionMessages;
 import com.liferay.portal.kernel.theme.ThemeDisplay;
@@ -393,11 +392,11 @@ public class ComponentPortlet extends FossologyAwarePortlet {
         try {
             boolean extendedByReleases = Boolean.valueOf(request.getParameter(PortalConstants.EXTENDED_EXCEL_EXPORT));
             List<Component> components = getFilteredComponentList(request);
-            ComponentExporter exporter = new ComponentExporter(thriftClients.makeComponentClient(), components, user,
+            ComponentExporter exporter = new ComponentExporter(thriftClients.makeComponentClient(), user,
                     extendedByReleases);
             String filename = String.format("components-%s.xlsx", SW360Utils.getCreatedOn());
-            PortletResponseUtil.sendFile(request, response, filename, exporter.makeExcelExport(components),
-                    CONTENT_TYPE_OPENXML_SPREADSHEET);
+            exporter.writeExcelExport(components,
+                    PortletUtils.getFileDownloadStream(response, filename, CONTENT_TYPE_OPENXML_SPREADSHEET));
         } catch (IOException | SW360Exception e) {
             log.error("An error occurred while generating the Excel export", e);
             response.setProperty(ResourceResponse.HTTP_STATUS_CODE,
@@ -13,7 +13,6 @@ package org.eclipse.sw360.portal.portlets.licenses;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.liferay.portal.kernel.portlet.PortletResponseUtil;
 import com.liferay.portal.kernel.servlet.SessionMessages;
 
 import org.eclipse.sw360.datahandler.common.CommonUtils;
@@ -27,6 +26,7 @@ import org.eclipse.sw360.datahandler.thrift.users.UserGroup;
 import org.eclipse.sw360.exporter.LicenseExporter;
 import org.eclipse.sw360.portal.common.ErrorMessages;
 import org.eclipse.sw360.portal.common.PortalConstants;
+import org.eclipse.sw360.portal.common.PortletUtils;
 import org.eclipse.sw360.portal.common.UsedAsLiferayAction;
 import org.eclipse.sw360.portal.portlets.Sw360Portlet;
 import org.eclipse.sw360.portal.users.UserCacheHolder;
@@ -105,7 +105,7 @@ public class LicensesPortlet extends Sw360Portlet {
             LicenseService.Iface client = thriftClients.makeLicenseClient();
             List<License> licenses = client.getLicenseSummaryForExport();
 
-            PortletResponseUtil.sendFile(request, response, "Licenses.xlsx", exporter.makeExcelExport(licenses), CONTENT_TYPE_OPENXML_SPREADSHEET);
+            exporter.writeExcelExport(licenses, PortletUtils.getFileDownloadStream(response, "Licenses.xlsx", CONTENT_TYPE_OPENXML_SPREADSHEET));
         } catch (IOException | TException e) {
             log.error("An error occurred while generating the Excel export", e);
             response.setProperty(ResourceResponse.HTTP_STATUS_CODE,
@@ -531,9 +531,8 @@ public class ProjectPortlet extends FossologyAwarePortlet {
                     thriftClients.makeComponentClient(),
                     thriftClients.makeProjectClient(),
                     user,
-                    projects,
                     extendedByReleases);
-            PortletResponseUtil.sendFile(request, response, filename, exporter.makeExcelExport(projects), CONTENT_TYPE_OPENXML_SPREADSHEET);
+            exporter.writeExcelExport(projects, PortletUtils.getFileDownloadStream(response, filename, CONTENT_TYPE_OPENXML_SPREADSHEET));
         } catch (IOException | SW360Exception e) {
             log.error("An error occurred while generating the Excel export", e);
             response.setProperty(ResourceResponse.HTTP_STATUS_CODE,
@@ -553,12 +552,11 @@ public class ProjectPortlet extends FossologyAwarePortlet {
             if (project != null) {
                 List<ReleaseClearingStatusData> releaseStringMap = client.getReleaseClearingStatuses(id, user);
                 List<Release> releases = releaseStringMap.stream().map(ReleaseClearingStatusData::getRelease).sorted(Comparator.comparing(SW360Utils::printFullname)).collect(Collectors.toList());
-                ReleaseExporter exporter = new ReleaseExporter(thriftClients.makeComponentClient(), releases,
-                        user, releaseStringMap);
+                ReleaseExporter exporter = new ReleaseExporter(thriftClients.makeComponentClient(), user,
+                        releaseStringMap);
 
-                PortletResponseUtil.sendFile(request, response,
-                        String.format("releases-%s-%s-%s.xlsx", project.getName(), project.getVersion(), SW360Utils.getCreatedOn()),
-                        exporter.makeExcelExport(releases), CONTENT_TYPE_OPENXML_SPREADSHEET);
+                String filename = String.format("releases-%s-%s-%s.xlsx", project.getName(), project.getVersion(), SW360Utils.getCreatedOn());
+                exporter.writeExcelExport(releases, PortletUtils.getFileDownloadStream(response, filename, CONTENT_TYPE_OPENXML_SPREADSHEET));
             }
         } catch (IOException | TException e) {
             log.error("An error occurred while generating the Excel export", e);
@@ -59,9 +59,9 @@
                         callback();
 
                         if(data.result == 'SUCCESS')
-                            $dialog.success("I deleted " + data.totalAffectedObjects + " out of " + data.totalObjects + " attachments in the database.", true);
+                            $dialog.success("I started the cleanup in the background. Its result is shown in the Schedule Administration.", true);
                         else {
-                            $dialog.alert("I could not cleanup the attachments!");
+                            $dialog.alert("I could not start the cleanup of the attachments! " + (data.message || ""));
                         }
                     },
                     error: function () {
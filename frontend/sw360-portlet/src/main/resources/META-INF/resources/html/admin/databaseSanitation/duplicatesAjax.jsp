@@ -25,6 +25,9 @@
 
 <jsp:useBean id="duplicateProjects" type="java.util.Map<java.lang.String,  java.util.List<java.lang.String>>"
              scope="request"/>
+<jsp:useBean id="duplicatesSearchedAt" type="java.lang.String" scope="request"/>
+
+<p>Found by the search of <sw360:out value="${duplicatesSearchedAt}"/></p>
 
 <core_rt:if test="${duplicateReleases.size()>0}">
     <h4>Releases with the same identifier [name(version)]</h4>
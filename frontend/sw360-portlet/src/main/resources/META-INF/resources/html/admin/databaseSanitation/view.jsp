@@ -20,6 +20,9 @@
 <portlet:resourceURL var="getDuplicatesURL">
     <portlet:param name="<%=PortalConstants.ACTION%>" value='<%=PortalConstants.DUPLICATES%>'/>
 </portlet:resourceURL>
+<portlet:resourceURL var="startDuplicatesSearchURL">
+    <portlet:param name="<%=PortalConstants.ACTION%>" value='<%=PortalConstants.DUPLICATES_SEARCH%>'/>
+</portlet:resourceURL>
 
 <div class="container">
     <div class="row portlet-toolbar">
@@ -27,6 +30,7 @@
             <div class="btn-toolbar" role="toolbar">
                 <div class="btn-group" role="group">
                     <button type="button" class="btn btn-primary" data-action="search-duplicates">Search duplicate identifiers</button>
+                    <button type="button" class="btn btn-secondary" data-action="show-duplicates">Show latest result</button>
                 </div>
             </div>
         </div>
@@ -38,7 +42,7 @@
         <div class="col">
             <div id="duplicateSearch">
                 <div class="alert alert-info" data-type="progress" style="display: none;">
-                    <p>Searching for duplicate identifiers...</p>
+                    <p>Loading the latest search for duplicate identifiers...</p>
                     <div class="progress">
                         <div class="progress-bar progress-bar-striped progress-bar-animated" role="progressbar" aria-valuenow="100" aria-valuemin="0" aria-valuemax="100" style="width: 100%"></div>
                     </div>
@@ -57,19 +61,39 @@
 <%@ include file="/html/utils/includes/requirejs.jspf" %>
 <script>
     require(['jquery', 'bridges/datatables' ], function($, datatables) {
+        var $container = $('#duplicateSearch'),
+            $tables = $container.find('div[data-type="tables"]'),
+            $progress = $container.find('.alert[data-type="progress"]'),
+            $result = $container.find('.alert[data-type="result"]');
+
+        // the search runs in the background, the latest result recorded by the schedule service is shown
         $('.portlet-toolbar button[data-action="search-duplicates"]').on("click", function() {
-            var $container = $('#duplicateSearch'),
-                $tables = $container.find('div[data-type="tables"]'),
-                $progress = $container.find('.alert[data-type="progress"]'),
-                $result = $container.find('.alert[data-type="result"]');
+            jQuery.ajax({
+                type: 'POST',
+                url: '<%=startDuplicatesSearchURL%>',
+                cache: false,
+                data: "",
+                success: function (data) {
+                    if (data.result == 'SUCCESS') {
+                        showResult('alert-info', "The search for duplicate identifiers has been started in the background. Show the latest result when it has finished.");
+                    } else {
+                        showResult('alert-danger', "Could not start the search for duplicate identifiers. " + (data.message || ""));
+                    }
+                },
+                error: function () {
+                    showResult('alert-danger', "Could not start the search for duplicate identifiers");
+                }
+            });
+        });
 
-            $tables.html('');
-            $progress.show();
+        $('.portlet-toolbar button[data-action="show-duplicates"]').on("click", showLatestResult);
 
+        showLatestResult();
+
+        function showLatestResult() {
+            $tables.html('');
             $result.hide();
-            $result.removeClass('alert-danger');
-            $result.removeClass('alert-warning');
-            $result.removeClass('alert-success');
+            $progress.show();
 
             jQuery.ajax({
                 type: 'POST',
@@ -79,18 +103,16 @@
                 success: function (data) {
                     $progress.hide();
 
-                    if (data.result == 'SUCCESS') {
-                        $result.addClass('alert-success');
-                        $result.text("No duplicate identifiers were found");
+                    if (data.result == 'NONE') {
+                        showResult('alert-info', "No search for duplicate identifiers has run yet");
+                    } else if (data.result == 'SUCCESS') {
+                        showResult('alert-success', data.message);
                     } else if (data.result == 'FAILURE') {
-                        $result.addClass('alert-danger');
-                        $result.text("Error in looking for duplicate identifiers");
+                        showResult('alert-danger', data.message || "Error in looking for duplicate identifiers");
                     } else {
-                        $result.addClass('alert-warning');
-                        $result.text('The following duplicate identifiers were found.');
+                        showResult('alert-warning', 'The following duplicate identifiers were found.');
                         $tables.append(data);
                     }
-                    $result.show();
 
                     setupDatatables('#duplicateReleasesTable');
                     setupDatatables('#duplicateReleaseSourcesTable');
@@ -99,12 +121,17 @@
                 },
                 error: function () {
                     $progress.hide();
-
-                    $result.addClass('alert-danger');
-                    $result.text("Error in looking for duplicate identifiers");
+                    showResult('alert-danger', "Error in looking for duplicate identifiers");
                 }
             });
-        });
+        }
+
+        function showResult(alertClass, text) {
+            $result.removeClass('alert-info alert-danger alert-warning alert-success');
+            $result.addClass(alertClass);
+            $result.text(text);
+            $result.show();
+        }
 
         function setupDatatables(tableId) {
             if($(tableId)) {
@@ -116,9 +116,9 @@ require(['jquery', 'modules/dialog', 'modules/validation'], function($, dialog,
                 callback();
             }).done(function (data) {
                 if (data.result == 'SUCCESS') {
-                    $dialog.success("I imported " + data.totalAffectedObjects + " out of " + data.totalObjects + " SPDX licenses. " + data.message, true);
+                    $dialog.success("I started the import of the SPDX licenses in the background. Its result is shown in the Schedule Administration.", true);
                 }else {
-                    $dialog.alert("I could not import all SPDX license information!");
+                    $dialog.alert("I could not start the import of the SPDX license information! " + (data.message || ""));
                 }
             }).fail(function(){
                 $dialog.alert('Something went wrong.');
@@ -1,4 +1,8 @@
-<%@ page import="org.eclipse.sw360.portal.common.PortalConstants" %><%--
+<%@ page import="org.eclipse.sw360.portal.common.PortalConstants" %>
+<%@ page import="org.eclipse.sw360.datahandler.common.CommonUtils" %>
+<%@ page import="org.eclipse.sw360.datahandler.common.SW360Utils" %>
+<%@ page import="org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun" %>
+<%@ page import="java.util.Date" %><%--
   ~ Copyright (c) Bosch Software Innovations GmbH 2016.
   ~
   ~ SPDX-License-Identifier: EPL-1.0
@@ -18,6 +22,12 @@
 <jsp:useBean id='cvesearchOffset' type="java.lang.String" scope="request"/>
 <jsp:useBean id='cvesearchInterval' type="java.lang.String" scope="request"/>
 <jsp:useBean id='cvesearchNextSync' type="java.lang.String" scope="request"/>
+<jsp:useBean id='cvesearchProgress' type="java.lang.String" scope="request"/>
+<jsp:useBean id='cvesearchRunHistory' type="java.util.List<org.eclipse.sw360.datahandler.thrift.schedule.ScheduleRun>" scope="request"/>
+<jsp:useBean id='maintenanceServices' type="java.util.Map<java.lang.String, java.lang.String>" scope="request"/>
+<jsp:useBean id='scheduledServices' type="java.util.Set<java.lang.String>" scope="request"/>
+<jsp:useBean id='serviceNextSyncs' type="java.util.Map<java.lang.String, java.lang.String>" scope="request"/>
+<jsp:useBean id='serviceProgress' type="java.util.Map<java.lang.String, java.lang.String>" scope="request"/>
 
 
 <portlet:defineObjects/>
@@ -62,6 +72,36 @@
                     <th>Next Synchronization</th>
                     <td>${cvesearchNextSync}</td>
                 </tr>
+                <tr>
+                    <th>Last Full Update</th>
+                    <td><sw360:out value="${cvesearchProgress}"/></td>
+                </tr>
+            </table>
+            <h5>Latest Runs</h5>
+            <table class="table bordered-table">
+                <thead>
+                    <tr>
+                        <th>Started</th>
+                        <th>Duration</th>
+                        <th>Outcome</th>
+                        <th>Message</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <core_rt:if test="${empty cvesearchRunHistory}">
+                        <tr>
+                            <td colspan="4">No runs yet</td>
+                        </tr>
+                    </core_rt:if>
+                    <% for (ScheduleRun run : cvesearchRunHistory) { %>
+                        <tr>
+                            <td><%=SW360Utils.getDateTimeString(new Date(run.getStartedAt()))%></td>
+                            <td><%=CommonUtils.formatTime((int) (run.getDurationMillis() / 1000))%> (hh:mm:ss)</td>
+                            <td><%=run.getOutcome()%></td>
+                            <td><sw360:out value="<%=CommonUtils.nullToEmptyString(run.getMessage())%>"/></td>
+                        </tr>
+                    <% } %>
+                </tbody>
             </table>
             <form class="form mt-3">
                 <div class="form-group">
@@ -70,5 +110,54 @@
                 </div>
             </form>
         </div>
+        <div class="col-6">
+            <h4>Maintenance Tasks</h4>
+            <table class="table bordered-table">
+                <thead>
+                    <tr>
+                        <th>Task</th>
+                        <th>Next Run</th>
+                        <th>Latest Run</th>
+                        <th>Actions</th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <core_rt:forEach items="${maintenanceServices}" var="service">
+                        <portlet:actionURL var="scheduleServiceURL" name="scheduleService">
+                            <portlet:param name="<%=PortalConstants.SERVICE_NAME%>" value="${service.key}"/>
+                        </portlet:actionURL>
+                        <portlet:actionURL var="unscheduleServiceURL" name="unscheduleService">
+                            <portlet:param name="<%=PortalConstants.SERVICE_NAME%>" value="${service.key}"/>
+                        </portlet:actionURL>
+                        <portlet:actionURL var="runServiceURL" name="runService">
+                            <portlet:param name="<%=PortalConstants.SERVICE_NAME%>" value="${service.key}"/>
+                        </portlet:actionURL>
+                        <portlet:actionURL var="cancelServiceRunURL" name="cancelServiceRun">
+                            <portlet:param name="<%=PortalConstants.SERVICE_NAME%>" value="${service.key}"/>
+                        </portlet:actionURL>
+                        <core_rt:set var="serviceIsScheduled" value="${scheduledServices.contains(service.key)}"/>
+                        <tr>
+                            <td><sw360:out value="${service.value}"/></td>
+                            <td><core_rt:if test="${serviceIsScheduled}">${serviceNextSyncs[service.key]}</core_rt:if></td>
+                            <td><sw360:out value="${serviceProgress[service.key]}"/></td>
+                            <td>
+                                <div class="btn-group btn-group-sm" role="group">
+                                    <core_rt:choose>
+                                        <core_rt:when test="${serviceIsScheduled}">
+                                            <button type="button" class="btn btn-light" onclick="window.location.href='${unscheduleServiceURL}'">Unschedule</button>
+                                        </core_rt:when>
+                                        <core_rt:otherwise>
+                                            <button type="button" class="btn btn-light" onclick="window.location.href='${scheduleServiceURL}'">Schedule</button>
+                                        </core_rt:otherwise>
+                                    </core_rt:choose>
+                                    <button type="button" class="btn btn-light" onclick="window.location.href='${runServiceURL}'">Run now</button>
+                                    <button type="button" class="btn btn-light" onclick="window.location.href='${cancelServiceRunURL}'">Cancel run</button>
+                                </div>
+                            </td>
+                        </tr>
+                    </core_rt:forEach>
+                </tbody>
+            </table>
+        </div>
     </div>
 </div>
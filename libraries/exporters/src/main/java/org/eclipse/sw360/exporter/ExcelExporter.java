@@ -11,6 +11,7 @@
 package org.eclipse.sw360.exporter;
 
 
+import com.google.common.collect.Iterators;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
@@ -25,6 +26,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -40,9 +43,31 @@ public class ExcelExporter<T, U extends ExporterHelper<T>> {
         this.helper = helper;
     }
 
+    /**
+     * Number of documents for which the rows are made together, see {@link #preparePage(List)}
+     */
+    public static final int PAGE_SIZE = 500;
+
+    /**
+     * Makes the export in memory, use {@link #writeExcelExport(List, OutputStream)} for large exports.
+     */
     public InputStream makeExcelExport(List<T> documents) throws IOException, SW360Exception {
-        final SXSSFWorkbook workbook = new SXSSFWorkbook();
-        final ByteArrayInputStream stream;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeExcelExport(documents, out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    public void writeExcelExport(List<T> documents, OutputStream out) throws IOException, SW360Exception {
+        writeExcelExport(Iterators.partition(documents.iterator(), PAGE_SIZE), out);
+    }
+
+    /**
+     * Writes the export to the given stream. The pages are only requested while the rows are made, and the
+     * rows which have been made are kept in compressed temporary files, so the memory needed does not depend on
+     * the number of documents.
+     */
+    public void writeExcelExport(Iterator<List<T>> pages, OutputStream out) throws IOException, SW360Exception {
+        final SXSSFWorkbook workbook = new SXSSFWorkbook(null, SXSSFWorkbook.DEFAULT_WINDOW_SIZE, true);
         try {
             SXSSFSheet sheet = workbook.createSheet("Data");
 
@@ -56,28 +81,36 @@ public class ExcelExporter<T, U extends ExporterHelper<T>> {
             fillRow(headerRow, headerNames, headerStyle);
 
             /** Create data rows */
-            fillValues(sheet, documents, cellStyle);
+            int nextExcelSheetRow = 1;
+            while (pages.hasNext()) {
+                List<T> page = pages.next();
+                preparePage(page);
+                nextExcelSheetRow = fillValues(sheet, page, cellStyle, nextExcelSheetRow);
+            }
 
             // removed autosizing of spreadsheet columns for performance reasons
 
-            /** Copy the streams */
-            final ByteArrayOutputStream out = new ByteArrayOutputStream();
             workbook.write(out);
-            stream = new ByteArrayInputStream(out.toByteArray());
-        }finally{
+        } finally {
             workbook.dispose();
         }
-        return stream;
     }
 
     /**
-     * Convert all documents to
+     * Called before the rows of a page of documents are made, e.g. to load the data linked by these documents
+     * in one go
+     */
+    protected void preparePage(List<T> page) throws SW360Exception {
+    }
+
+    /**
+     * Convert all documents to rows starting at the given row number
+     *
+     * @return number of the next row
      */
-    private void fillValues(Sheet sheet, List<T> documents, CellStyle style) throws SW360Exception {
-        int numberoOfDocuments = documents.size();
-        int nextExcelSheetRow = 1;
-        for (int currentDocNumber = 0; currentDocNumber < numberoOfDocuments; currentDocNumber++) {
-            T document = documents.get(currentDocNumber);
+    private int fillValues(Sheet sheet, List<T> documents, CellStyle style, int firstExcelSheetRow) throws SW360Exception {
+        int nextExcelSheetRow = firstExcelSheetRow;
+        for (T document : documents) {
             SubTable table = helper.makeRows(document);
             for(int currentTableRow = 0; currentTableRow < table.getnRows(); currentTableRow ++){
                 List<String> rowValues = table.getRow(currentTableRow);
@@ -86,6 +119,7 @@ public class ExcelExporter<T, U extends ExporterHelper<T>> {
                 fillRow(row, rowValues, style);
             }
         }
+        return nextExcelSheetRow;
     }
 
     /**
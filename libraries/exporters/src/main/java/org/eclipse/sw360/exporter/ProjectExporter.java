@@ -84,12 +84,17 @@ public class ProjectExporter extends ExcelExporter<Project, ProjectHelper> {
 
     public static List<String> HEADERS_EXTENDED_BY_RELEASES = ExporterHelper.addSubheadersWithPrefixesAsNeeded(HEADERS, ReleaseExporter.HEADERS, "release: ");
 
-    public ProjectExporter(ComponentService.Iface componentClient, ProjectService.Iface projectClient, User user, List<Project> projects, boolean extendedByReleases) throws SW360Exception {
+    private final User user;
+    private final boolean extendedByReleases;
+
+    public ProjectExporter(ComponentService.Iface componentClient, ProjectService.Iface projectClient, User user, boolean extendedByReleases) throws SW360Exception {
         super(new ProjectHelper(projectClient, user, extendedByReleases, new ReleaseHelper(componentClient, user)));
-        preloadRelatedDataFor(projects, extendedByReleases, user);
+        this.user = user;
+        this.extendedByReleases = extendedByReleases;
     }
 
-    private void preloadRelatedDataFor(List<Project> projects, boolean withLinkedOfLinked, User user) throws SW360Exception {
+    @Override
+    protected void preparePage(List<Project> projects) throws SW360Exception {
         Function<Function<Project, Map<String, ?>>, Set<String>> extractIds = mapExtractor -> projects
                 .stream()
                 .map(mapExtractor)
@@ -99,15 +104,15 @@ public class ProjectExporter extends ExcelExporter<Project, ProjectHelper> {
                 .collect(Collectors.toSet());
 
         Set<String> linkedProjectIds = extractIds.apply(Project::getLinkedProjects);
-        Map<String, Project> projectsById = ThriftUtils.getIdMap(helper.getProjects(linkedProjectIds, user));
+        Map<String, Project> projectsById = ThriftUtils.getIdMap(helper.loadProjects(linkedProjectIds, user));
         helper.setPreloadedLinkedProjects(projectsById);
 
         Set<String> linkedReleaseIds = extractIds.apply(Project::getReleaseIdToUsage);
-        preloadLinkedReleases(linkedReleaseIds, withLinkedOfLinked);
+        preloadLinkedReleases(linkedReleaseIds, extendedByReleases);
     }
 
     private void preloadLinkedReleases(Set<String> linkedReleaseIds, boolean withLinkedOfLinked) throws SW360Exception {
-        Map<String, Release> releasesById = ThriftUtils.getIdMap(helper.getReleases(linkedReleaseIds));
+        Map<String, Release> releasesById = ThriftUtils.getIdMap(helper.loadReleases(linkedReleaseIds));
         if (withLinkedOfLinked) {
             Set<String> linkedOfLinkedReleaseIds = releasesById
                     .values()
@@ -119,7 +124,7 @@ public class ProjectExporter extends ExcelExporter<Project, ProjectHelper> {
                     .collect(Collectors.toSet());
 
             Map<String, Release> joinedMap = new HashMap<>();
-            Map<String, Release> linkedOfLinkedReleasesById = ThriftUtils.getIdMap(helper.getReleases(linkedOfLinkedReleaseIds));
+            Map<String, Release> linkedOfLinkedReleasesById = ThriftUtils.getIdMap(helper.loadReleases(linkedOfLinkedReleaseIds));
             joinedMap.putAll(releasesById);
             joinedMap.putAll(linkedOfLinkedReleasesById);
             releasesById = joinedMap;
@@ -74,10 +74,9 @@ public class ReleaseExporter extends ExcelExporter<Release, ReleaseHelper> {
 
     public static final List<String> HEADERS_EXTENDED_BY_ADDITIONAL_DATA = makeHeadersForExtendedExport();
 
-    public ReleaseExporter(ComponentService.Iface cClient, List<Release> releases, User user,
+    public ReleaseExporter(ComponentService.Iface cClient, User user,
             List<ReleaseClearingStatusData> releaseClearingStatuses) throws SW360Exception {
         super(new ReleaseHelper(cClient, user, releaseClearingStatuses));
-        preloadLinkedReleasesFor(releases);
     }
 
     private static List<String> makeHeaders() {
@@ -132,7 +131,8 @@ public class ReleaseExporter extends ExcelExporter<Release, ReleaseHelper> {
         }
     }
 
-    private void preloadLinkedReleasesFor(List<Release> releases) throws SW360Exception {
+    @Override
+    protected void preparePage(List<Release> releases) throws SW360Exception {
         Set<String> linkedReleaseIds = releases
                 .stream()
                 .map(Release::getReleaseIdToRelationship)
@@ -141,7 +141,7 @@ public class ReleaseExporter extends ExcelExporter<Release, ReleaseHelper> {
                 .flatMap(Set::stream)
                 .collect(Collectors.toSet());
 
-        Map<String, Release> releasesById = ThriftUtils.getIdMap(helper.getReleases(linkedReleaseIds));
+        Map<String, Release> releasesById = ThriftUtils.getIdMap(helper.loadReleases(linkedReleaseIds));
         helper.setPreloadedLinkedReleases(releasesById, true);
     }
 }
@@ -110,6 +110,10 @@ public class ComponentHelper implements ExporterHelper<Component> {
         return releaseHelper.getReleases(ids);
     }
 
+    public List<Release> loadReleases(Set<String> ids) throws SW360Exception {
+        return releaseHelper.loadReleases(ids);
+    }
+
     public void setPreloadedLinkedReleases(Map<String, Release> preloadedLinkedReleases, boolean componentsNeeded)
             throws SW360Exception {
         releaseHelper.setPreloadedLinkedReleases(preloadedLinkedReleases, componentsNeeded);
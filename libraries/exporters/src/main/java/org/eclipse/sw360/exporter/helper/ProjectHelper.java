@@ -131,10 +131,21 @@ public class ProjectHelper implements ExporterHelper<Project> {
         return releaseHelper.getReleases(ids);
     }
 
+    public List<Release> loadReleases(Set<String> ids) throws SW360Exception {
+        return releaseHelper.loadReleases(ids);
+    }
+
     public List<Project> getProjects(Set<String> ids, User user) throws SW360Exception {
         if (preloadedLinkedProjects != null) {
             return getPreloadedProjects(ids);
         }
+        return loadProjects(ids, user);
+    }
+
+    /**
+     * Loads the projects from the backend, regardless of the projects which have been preloaded
+     */
+    public List<Project> loadProjects(Set<String> ids, User user) throws SW360Exception {
         List<Project> projects;
         try {
             projects = projectClient.getProjectsById(new ArrayList<>(ids), user);
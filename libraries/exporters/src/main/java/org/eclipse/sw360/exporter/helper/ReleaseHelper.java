@@ -40,6 +40,9 @@ public class ReleaseHelper implements ExporterHelper<Release> {
     private final User user;
     private Map<Release, ReleaseClearingStatusData> releaseClearingStatusDataByRelease = null;
     private Map<String, Release> preloadedLinkedReleases = null;
+    // components of the releases with clearing status, kept for the whole export
+    private Map<String, Component> releaseClearingStatusComponents = Collections.emptyMap();
+    // components of the releases with clearing status and of the preloaded linked releases of the current page
     private Map<String, Component> preloadedComponents = null;
 
     /**
@@ -85,6 +88,7 @@ public class ReleaseHelper implements ExporterHelper<Release> {
         if (this.releaseClearingStatuses != null) {
             batchloadComponents(this.releaseClearingStatuses.stream().map(rcs -> rcs.getRelease().getComponentId())
                     .collect(Collectors.toSet()));
+            this.releaseClearingStatusComponents = new HashMap<>(this.preloadedComponents);
             this.releaseClearingStatusDataByRelease = releaseClearingStatuses.stream().collect(Collectors.toMap(ReleaseClearingStatusData::getRelease, rcs -> rcs));
         }
     }
@@ -255,9 +259,14 @@ public class ReleaseHelper implements ExporterHelper<Release> {
         return !nullToEmptyList(releaseClearingStatuses).isEmpty();
     }
 
+    /**
+     * Replaces the preloaded linked releases, usually those of the next page of the export. The components preloaded
+     * for the replaced releases are dropped, so only the components of one page are held at a time.
+     */
     public void setPreloadedLinkedReleases(Map<String, Release> preloadedLinkedReleases, boolean componentsNeeded)
             throws SW360Exception {
         this.preloadedLinkedReleases = preloadedLinkedReleases;
+        this.preloadedComponents = new HashMap<>(releaseClearingStatusComponents);
 
         if (componentsNeeded) {
             this.batchloadComponents(
@@ -279,12 +288,7 @@ public class ReleaseHelper implements ExporterHelper<Release> {
         if (preloadedLinkedReleases != null){
             return getPreloadedReleases(ids);
         }
-        List<Release> releasesByIdsForExport;
-        try {
-            releasesByIdsForExport = cClient.getReleasesByIdsForExport(nullToEmptySet(ids));
-        } catch (TException e) {
-            throw new SW360Exception("Error fetching release information");
-        }
+        List<Release> releasesByIdsForExport = loadReleases(ids);
 
         // update preload cache so that it is available on next call to this method
         setPreloadedLinkedReleases(ThriftUtils.getIdMap(releasesByIdsForExport), false);
@@ -292,6 +296,17 @@ public class ReleaseHelper implements ExporterHelper<Release> {
         return releasesByIdsForExport;
     }
 
+    /**
+     * Loads the releases from the backend, regardless of the releases which have been preloaded
+     */
+    public List<Release> loadReleases(Set<String> ids) throws SW360Exception {
+        try {
+            return cClient.getReleasesByIdsForExport(nullToEmptySet(ids));
+        } catch (TException e) {
+            throw new SW360Exception("Error fetching release information");
+        }
+    }
+
     private List<Release> getPreloadedReleases(Set<String> ids) {
         return ids.stream().map(preloadedLinkedReleases::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.exporter;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.eclipse.sw360.datahandler.thrift.vendors.Vendor;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ExcelExporterTest {
+
+    @Test
+    public void testExportIsWrittenPageByPage() throws Exception {
+        List<Vendor> vendors = IntStream.range(0, ExcelExporter.PAGE_SIZE * 2 + 1)
+                .mapToObj(i -> new Vendor("vendor" + i, "Vendor " + i, "https://vendor" + i + ".org"))
+                .collect(Collectors.toList());
+        List<Integer> pageSizes = new ArrayList<>();
+        VendorExporter exporter = new VendorExporter() {
+            @Override
+            protected void preparePage(List<Vendor> page) {
+                pageSizes.add(page.size());
+            }
+        };
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.writeExcelExport(vendors, out);
+
+        assertThat(pageSizes, contains(ExcelExporter.PAGE_SIZE, ExcelExporter.PAGE_SIZE, 1));
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Data");
+            assertThat(sheet.getLastRowNum(), is(vendors.size()));
+            assertThat(sheet.getRow(0).getCell(0).getStringCellValue(), is("Vendor Fullname"));
+            assertThat(sheet.getRow(vendors.size()).getCell(0).getStringCellValue(), is("Vendor " + (vendors.size() - 1)));
+        }
+    }
+}
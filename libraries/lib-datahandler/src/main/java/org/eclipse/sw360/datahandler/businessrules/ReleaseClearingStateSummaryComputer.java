@@ -16,7 +16,9 @@ import org.eclipse.sw360.datahandler.thrift.components.Release;
 import org.eclipse.sw360.datahandler.thrift.components.ReleaseClearingStateSummary;
 import org.eclipse.sw360.datahandler.thrift.fossology.FossologyService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * In earlier days, this computer was important and did a lot of computation.
@@ -30,17 +32,20 @@ import java.util.List;
 public class ReleaseClearingStateSummaryComputer {
 
     public static ReleaseClearingStateSummary computeReleaseClearingStateSummary(List<Release> releases, String clearingTeam) {
-        ReleaseClearingStateSummary summary = new ReleaseClearingStateSummary(0, 0, 0, 0, 0);
-
         if (releases == null) {
-            return summary;
+            return new ReleaseClearingStateSummary(0, 0, 0, 0, 0);
         }
+        return computeReleaseClearingStateSummary(releases.stream().map(Release::getClearingState).collect(Collectors.toList()));
+    }
+
+    public static ReleaseClearingStateSummary computeReleaseClearingStateSummary(Collection<ClearingState> clearingStates) {
+        ReleaseClearingStateSummary summary = new ReleaseClearingStateSummary(0, 0, 0, 0, 0);
 
-        for (Release release : releases) {
-            if (release.getClearingState() == null) {
+        for (ClearingState clearingState : clearingStates) {
+            if (clearingState == null) {
                 summary.newRelease++;
             } else {
-                switch (release.getClearingState()) {
+                switch (clearingState) {
                 case NEW_CLEARING:
                     summary.newRelease++;
                     break;
@@ -33,6 +33,7 @@ public class DatabaseSettings {
     public static final String COUCH_DB_CONFIG;
     public static final String COUCH_DB_USERS;
     public static final String COUCH_DB_VM;
+    public static final String COUCH_DB_LICENSEINFO_RESULTS;
 
     public static final int LUCENE_SEARCH_LIMIT;
     public static final boolean LUCENE_LEADING_WILDCARD;
@@ -51,6 +52,7 @@ public class DatabaseSettings {
         COUCH_DB_CONFIG = props.getProperty("couchdb.config", "sw360config");
         COUCH_DB_USERS = props.getProperty("couchdb.usersdb", "sw360users");
         COUCH_DB_VM = props.getProperty("couchdb.vulnerability_management", "sw360vm");
+        COUCH_DB_LICENSEINFO_RESULTS = props.getProperty("couchdb.licenseinfo_results", "sw360licenseinfo");
 
         LUCENE_SEARCH_LIMIT = Integer.parseInt(props.getProperty("lucenesearch.limit", "25"));
         LUCENE_LEADING_WILDCARD = Boolean.parseBoolean(props.getProperty("lucenesearch.leading.wildcard", "false"));
@@ -80,6 +80,12 @@ public class SW360Constants {
     public static final Collection<AttachmentType> SOURCE_CODE_ATTACHMENT_TYPES = Arrays.asList(AttachmentType.SOURCE, AttachmentType.SOURCE_SELF);
     public static final String CONTENT_TYPE_OPENXML_SPREADSHEET = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
+    // keys of the details of a run of the duplicates service
+    public static final String DUPLICATE_COMPONENTS = "components";
+    public static final String DUPLICATE_RELEASES = "releases";
+    public static final String DUPLICATE_RELEASE_SOURCES = "release sources";
+    public static final String DUPLICATE_PROJECTS = "projects";
+
     public static final String NOTIFICATION_CLASS_RELEASE = "release";
     public static final String NOTIFICATION_CLASS_MODERATION_REQUEST = "moderation";
     public static final String NOTIFICATION_CLASS_COMPONENT = "component";
@@ -0,0 +1,289 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.datahandler.common.CommonUtils;
+import org.eclipse.sw360.datahandler.thrift.SW360Exception;
+import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentContent;
+
+import java.io.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
+
+/**
+ * Streams bundles of attachments as zip file.
+ *
+ * The zip file is written to a pipe on a bounded pool of named threads, so that a slow download only blocks its own
+ * writer and too many concurrent bundles are rejected instead of starting a thread each. While one attachment is
+ * compressed, the next one is already opened and its first bytes are read. Attachments which are compressed already
+ * are written without compressing them again. If an attachment cannot be read, the reader of the bundle gets an
+ * {@link IOException} instead of a zip file which silently misses entries.
+ */
+public class AttachmentBundleStreamer {
+    private static final Logger log = Logger.getLogger(AttachmentBundleStreamer.class);
+
+    public static final String PROPERTIES_FILE_PATH = "/sw360.properties";
+
+    private static final Set<String> DEFAULT_STORED_EXTENSIONS = ImmutableSet.of(
+            "zip", "jar", "war", "ear", "apk", "whl", "nupkg", "gem", "rpm", "deb",
+            "gz", "tgz", "bz2", "tbz2", "xz", "txz", "lz", "lzma", "zst", "7z", "rar",
+            "jpg", "jpeg", "png", "gif", "mp3", "mp4",
+            "docx", "xlsx", "pptx", "odt", "ods", "odp");
+
+    private static AttachmentBundleStreamer instance;
+
+    private final int bufferSize;
+    private final int prefetchSize;
+    private final int compressionLevel;
+    private final Set<String> storedExtensions;
+    private final ThreadPoolExecutor bundleExecutor;
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    @FunctionalInterface
+    public interface AttachmentOpener {
+        InputStream open(AttachmentContent attachment) throws SW360Exception;
+    }
+
+    /**
+     * @param maxConcurrentBundles number of bundles which are written at the same time
+     * @param maxQueuedBundles     number of bundles waiting for a writer, further bundles are rejected
+     * @param bufferSize           size of the pipe to the reader and of the copy buffer
+     * @param prefetchSize         number of bytes of the next attachment read while the current one is compressed
+     * @param compressionLevel     compression level of all entries which are not compressed already
+     * @param storedExtensions     extensions of files which are compressed already
+     */
+    public AttachmentBundleStreamer(int maxConcurrentBundles, int maxQueuedBundles, int bufferSize, int prefetchSize,
+                                    int compressionLevel, Set<String> storedExtensions) {
+        this.bufferSize = bufferSize;
+        this.prefetchSize = prefetchSize;
+        this.compressionLevel = compressionLevel;
+        this.storedExtensions = storedExtensions;
+
+        bundleExecutor = new ThreadPoolExecutor(maxConcurrentBundles, maxConcurrentBundles, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueuedBundles)),
+                new ThreadFactoryBuilder().setNameFormat("attachment-bundle-%d").setDaemon(true).build());
+        bundleExecutor.allowCoreThreadTimeOut(true);
+        // at most one prefetch per bundle, if none is free the next attachment is opened when it is needed
+        prefetchExecutor = new ThreadPoolExecutor(0, maxConcurrentBundles, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("attachment-bundle-prefetch-%d").setDaemon(true).build());
+    }
+
+    public static synchronized AttachmentBundleStreamer getInstance() {
+        if (instance == null) {
+            Properties props = CommonUtils.loadProperties(AttachmentBundleStreamer.class, PROPERTIES_FILE_PATH);
+            String storedExtensions = props.getProperty("attachment.bundle.stored.extensions");
+
+            instance = new AttachmentBundleStreamer(
+                    Integer.parseInt(props.getProperty("attachment.bundle.max.concurrent", "8")),
+                    Integer.parseInt(props.getProperty("attachment.bundle.max.queued", "32")),
+                    Integer.parseInt(props.getProperty("attachment.bundle.buffer.size", "65536")),
+                    Integer.parseInt(props.getProperty("attachment.bundle.prefetch.size", "1048576")),
+                    Integer.parseInt(props.getProperty("attachment.bundle.compression.level", String.valueOf(Deflater.DEFAULT_COMPRESSION))),
+                    storedExtensions == null ? DEFAULT_STORED_EXTENSIONS : ImmutableSet.copyOf(
+                            Splitter.on(',').trimResults().omitEmptyStrings().split(storedExtensions.toLowerCase(Locale.ROOT))));
+        }
+        return instance;
+    }
+
+    /**
+     * @param attachmentsByEntryName attachments by the name of their entry in the zip file, in the order of the entries
+     * @return stream of the zip file, which has to be closed also if it is not read to the end
+     * @throws SW360Exception if too many bundles are being written already
+     */
+    public InputStream streamBundle(Map<String, AttachmentContent> attachmentsByEntryName, AttachmentOpener opener)
+            throws IOException, SW360Exception {
+        List<Map.Entry<String, AttachmentContent>> entries = ImmutableList.copyOf(attachmentsByEntryName.entrySet());
+        BundlePipe pipe = new BundlePipe(bufferSize);
+        PipedOutputStream out = new PipedOutputStream(pipe);
+
+        try {
+            bundleExecutor.execute(() -> writeBundle(entries, opener, pipe, out));
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected bundle of " + entries.size() + " attachments, " + bundleExecutor.getActiveCount()
+                    + " bundles are being written and " + bundleExecutor.getQueue().size() + " are waiting");
+            throw new SW360Exception("Too many attachment bundles are being downloaded, please try again later");
+        }
+        return pipe;
+    }
+
+    int getCompressionLevel(String entryName) {
+        String lowerCaseName = entryName.toLowerCase(Locale.ROOT);
+        int extensionStart = lowerCaseName.indexOf('.');
+        while (extensionStart >= 0) {
+            if (storedExtensions.contains(lowerCaseName.substring(extensionStart + 1))) {
+                return Deflater.NO_COMPRESSION;
+            }
+            extensionStart = lowerCaseName.indexOf('.', extensionStart + 1);
+        }
+        return compressionLevel;
+    }
+
+    private void writeBundle(List<Map.Entry<String, AttachmentContent>> entries, AttachmentOpener opener,
+                             BundlePipe pipe, PipedOutputStream out) {
+        CompletableFuture<InputStream> next = null;
+        try {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, bufferSize));
+            byte[] buffer = new byte[bufferSize];
+
+            for (int i = 0; i < entries.size(); i++) {
+                Map.Entry<String, AttachmentContent> entry = entries.get(i);
+                CompletableFuture<InputStream> current = next;
+                next = null;
+                InputStream attachmentStream = current != null ? await(current) : opener.open(entry.getValue());
+                if (i + 1 < entries.size()) {
+                    next = prefetch(entries.get(i + 1).getValue(), opener);
+                }
+
+                try (InputStream in = attachmentStream) {
+                    zip.setLevel(getCompressionLevel(entry.getKey()));
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    int length;
+                    while ((length = in.read(buffer)) >= 0) {
+                        zip.write(buffer, 0, length);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            zip.close();
+        } catch (IOException | SW360Exception | RuntimeException e) {
+            if (pipe.isClosedByReader()) {
+                log.debug("Download of attachment bundle has been aborted", e);
+            } else {
+                log.error("Failed to write attachment bundle", e);
+            }
+            // the zip file is not finished on purpose, the reader must not take it for a complete one
+            pipe.fail(e);
+            closeQuietly(out, log);
+        } finally {
+            if (next != null) {
+                next.thenAccept(stream -> closeQuietly(stream, log));
+            }
+        }
+    }
+
+    private CompletableFuture<InputStream> prefetch(AttachmentContent attachment, AttachmentOpener opener) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return openPrefetched(attachment, opener);
+                } catch (IOException | SW360Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, prefetchExecutor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private InputStream openPrefetched(AttachmentContent attachment, AttachmentOpener opener) throws IOException, SW360Exception {
+        InputStream stream = opener.open(attachment);
+        try {
+            byte[] head = new byte[prefetchSize];
+            int length = ByteStreams.read(stream, head, 0, head.length);
+            InputStream headStream = new ByteArrayInputStream(head, 0, length);
+            if (length < head.length) {
+                stream.close();
+                return headStream;
+            }
+            return new SequenceInputStream(headStream, stream);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(stream, log);
+            throw e;
+        }
+    }
+
+    private static InputStream await(CompletableFuture<InputStream> prefetched) throws IOException, SW360Exception {
+        try {
+            return prefetched.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SW360Exception("Interrupted while waiting for the next attachment of the bundle");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof SW360Exception) {
+                throw (SW360Exception) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Could not read the next attachment of the bundle", cause);
+        }
+    }
+
+    /**
+     * Pipe which lets the reader know if the writer failed, a plain pipe just ends as if the zip file was complete.
+     */
+    private static class BundlePipe extends PipedInputStream {
+        private volatile Exception failure;
+        private volatile boolean closedByReader;
+
+        BundlePipe(int pipeSize) {
+            super(pipeSize);
+        }
+
+        void fail(Exception failure) {
+            this.failure = failure;
+        }
+
+        boolean isClosedByReader() {
+            return closedByReader;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            checkFailure();
+            int read = super.read();
+            if (read < 0) {
+                checkFailure();
+            }
+            return read;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            checkFailure();
+            int read = super.read(b, off, len);
+            if (read < 0) {
+                checkFailure();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closedByReader = true;
+            super.close();
+        }
+
+        private void checkFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Could not write attachment bundle", failure);
+            }
+        }
+    }
+}
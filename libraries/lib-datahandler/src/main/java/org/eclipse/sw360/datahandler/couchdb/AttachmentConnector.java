@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -102,34 +103,74 @@ public class AttachmentConnector extends AttachmentStreamConnector {
     }
 
     public String getSha1FromAttachmentContentId(String attachmentContentId) {
-        InputStream attachmentStream = null;
         try {
-            AttachmentContent attachmentContent = getAttachmentContent(attachmentContentId);
-            attachmentStream = readAttachmentStream(attachmentContent);
-            return sha1Hex(attachmentStream);
+            return getOrComputeSha1(getAttachmentContent(attachmentContentId));
         } catch (SW360Exception e) {
             log.error("Problem retrieving content of attachment", e);
             return "";
-        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * @return the sha1 stored with the attachment content or, for content uploaded before it was stored, the sha1
+     * computed from the content, which is stored then
+     */
+    public String getOrComputeSha1(AttachmentContent attachmentContent) {
+        if (attachmentContent == null) {
+            return "";
+        }
+        if (!isNullOrEmpty(attachmentContent.getSha1())) {
+            return attachmentContent.getSha1();
+        }
+
+        InputStream attachmentStream = null;
+        String sha1;
+        try {
+            attachmentStream = readAttachmentStream(attachmentContent);
+            sha1 = sha1Hex(attachmentStream);
+        } catch (IOException | RuntimeException e) {
             log.error("Problem computing the sha1 checksum", e);
             return "";
         } finally {
             closeQuietly(attachmentStream, log);
         }
+
+        storeSha1(attachmentContent, sha1);
+        return sha1;
     }
 
     public void setSha1ForAttachments(Set<Attachment> attachments){
+        Set<String> attachmentContentIds = attachments.stream()
+                .filter(attachment -> isNullOrEmpty(attachment.getSha1()))
+                .map(Attachment::getAttachmentContentId)
+                .collect(Collectors.toSet());
+        if (attachmentContentIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> sha1ById = connector.get(AttachmentContent.class, attachmentContentIds, true).stream()
+                .collect(Collectors.toMap(AttachmentContent::getId, this::getOrComputeSha1, (sha1, other) -> sha1));
         for(Attachment attachment : attachments){
             if(isNullOrEmpty(attachment.getSha1())){
-                String sha1 = getSha1FromAttachmentContentId(attachment.getAttachmentContentId());
-                attachment.setSha1(sha1);
+                attachment.setSha1(sha1ById.getOrDefault(attachment.getAttachmentContentId(), ""));
             }
         }
     }
 
+    /**
+     * Only looks at the sha1 and file names the attachments carry, attachments without sha1 are no duplicates by sha1.
+     */
     public static boolean isDuplicateAttachment(Set<Attachment> attachments) {
-        boolean duplicateSha1 = attachments.parallelStream().collect(Collectors.groupingBy(Attachment::getSha1)).size() < attachments.size();
-        boolean duplicateFileName = attachments.parallelStream().collect(Collectors.groupingBy(Attachment::getFilename)).size() < attachments.size();
-        return (duplicateSha1 || duplicateFileName);
+        Set<String> sha1s = new HashSet<>();
+        Set<String> fileNames = new HashSet<>();
+        for (Attachment attachment : attachments) {
+            if (!isNullOrEmpty(attachment.getSha1()) && !sha1s.add(attachment.getSha1())) {
+                return true;
+            }
+            if (!fileNames.add(attachment.getFilename())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
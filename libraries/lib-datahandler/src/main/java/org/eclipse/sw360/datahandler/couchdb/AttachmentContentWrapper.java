@@ -30,6 +30,7 @@ public class AttachmentContentWrapper extends DocumentWrapper<AttachmentContent>
     public String filename; // required
     public String contentType; // required
     public String partsCount; // optional
+    public String sha1; // optional
 
 
     @Override
@@ -39,6 +40,7 @@ public class AttachmentContentWrapper extends DocumentWrapper<AttachmentContent>
         contentType = source.getContentType();
         remoteUrl = source.getRemoteUrl();
         partsCount = source.getPartsCount();
+        sha1 = source.getSha1();
         remoteUrl = source.getRemoteUrl();
         onlyRemote = source.isOnlyRemote();
     }
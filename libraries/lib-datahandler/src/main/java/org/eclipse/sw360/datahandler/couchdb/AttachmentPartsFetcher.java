@@ -0,0 +1,186 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.log4j.Logger;
+import org.eclipse.sw360.datahandler.common.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.eclipse.sw360.datahandler.common.CommonUtils.closeQuietly;
+
+/**
+ * Reads the parts of attachments which have been uploaded in parts.
+ *
+ * The parts are downloaded on a shared pool of named threads, a window of parts ahead of the one being read are
+ * downloaded at the same time and kept in memory until they are read in order. Closing the stream stops fetching
+ * further parts and closes the connections of the parts being downloaded.
+ */
+public class AttachmentPartsFetcher {
+    private static final Logger log = Logger.getLogger(AttachmentPartsFetcher.class);
+
+    public static final String PROPERTIES_FILE_PATH = "/sw360.properties";
+
+    private static AttachmentPartsFetcher instance;
+
+    private final int readAhead;
+    private final ExecutorService executor;
+
+    /**
+     * @param readAhead number of parts downloaded ahead of the part which is being read
+     * @param threads   number of threads downloading parts for all attachments together
+     */
+    public AttachmentPartsFetcher(int readAhead, int threads) {
+        this.readAhead = Math.max(1, readAhead);
+
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("attachment-parts-%d").setDaemon(true).build());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        executor = threadPoolExecutor;
+    }
+
+    public static synchronized AttachmentPartsFetcher getInstance() {
+        if (instance == null) {
+            Properties props = CommonUtils.loadProperties(AttachmentPartsFetcher.class, PROPERTIES_FILE_PATH);
+
+            instance = new AttachmentPartsFetcher(
+                    Integer.parseInt(props.getProperty("attachment.parts.readahead", "4")),
+                    Integer.parseInt(props.getProperty("attachment.parts.threads", "16")));
+        }
+        return instance;
+    }
+
+    /**
+     * @param partsCount number of parts, the first part is part 1
+     * @param partOpener opens a part by its number
+     * @return stream of all parts in order, which has to be closed also if it is not read to the end
+     */
+    public InputStream readParts(int partsCount, IntFunction<InputStream> partOpener) {
+        return new ReadAheadInputStream(partsCount, partOpener);
+    }
+
+    private class ReadAheadInputStream extends InputStream {
+        private final int partsCount;
+        private final IntFunction<InputStream> partOpener;
+        private final Deque<CompletableFuture<byte[]>> partsInFlight = new ArrayDeque<>();
+        private final Set<InputStream> openStreams = ConcurrentHashMap.newKeySet();
+        private int nextPart = 1; // the first is part 1 not 0!
+        private ByteArrayInputStream current = new ByteArrayInputStream(new byte[0]);
+        private volatile boolean closed = false;
+
+        ReadAheadInputStream(int partsCount, IntFunction<InputStream> partOpener) {
+            this.partsCount = partsCount;
+            this.partOpener = partOpener;
+            fillWindow();
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return nextAvailable() ? current.read() : -1;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            return nextAvailable() ? current.read(b, off, len) : -1;
+        }
+
+        @Override
+        public synchronized int available() {
+            return closed ? 0 : current.available();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            partsInFlight.forEach(part -> part.cancel(false));
+            partsInFlight.clear();
+            openStreams.forEach(stream -> closeQuietly(stream, log));
+            current = new ByteArrayInputStream(new byte[0]);
+        }
+
+        private boolean nextAvailable() throws IOException {
+            while (current.available() == 0) {
+                if (closed || partsInFlight.isEmpty()) {
+                    return false;
+                }
+                current = new ByteArrayInputStream(await(partsInFlight.poll()));
+                fillWindow();
+            }
+            return true;
+        }
+
+        private void fillWindow() {
+            while (partsInFlight.size() < readAhead && nextPart <= partsCount) {
+                int part = nextPart++;
+                partsInFlight.add(CompletableFuture.supplyAsync(() -> download(part), executor));
+            }
+        }
+
+        private byte[] download(int part) {
+            if (closed) {
+                throw new CancellationException();
+            }
+            InputStream stream = null;
+            try {
+                stream = partOpener.apply(part);
+                if (stream == null) {
+                    throw new IOException("cannot read from null Stream");
+                }
+                openStreams.add(stream);
+                if (closed) {
+                    throw new CancellationException();
+                }
+                return ByteStreams.toByteArray(stream);
+            } catch (IOException | RuntimeException e) {
+                throw new CompletionException(new IOException("Cannot read part " + part + " of the attachment", e));
+            } finally {
+                if (stream != null) {
+                    openStreams.remove(stream);
+                    closeQuietly(stream, log);
+                }
+            }
+        }
+
+        private byte[] await(CompletableFuture<byte[]> part) throws IOException {
+            try {
+                return part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new InterruptedIOException("Interrupted while reading the parts of an attachment");
+            } catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+}
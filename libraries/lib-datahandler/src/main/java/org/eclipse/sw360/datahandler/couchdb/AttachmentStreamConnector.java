@@ -11,10 +11,13 @@
  */
 package org.eclipse.sw360.datahandler.couchdb;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
 import org.eclipse.sw360.datahandler.common.CommonUtils;
-import org.eclipse.sw360.datahandler.common.ConcatClosingInputStream;
 import org.eclipse.sw360.datahandler.common.DatabaseSettings;
 import org.eclipse.sw360.datahandler.common.Duration;
 import org.eclipse.sw360.datahandler.permissions.PermissionUtils;
@@ -26,15 +29,15 @@ import org.ektorp.DocumentNotFoundException;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.net.MalformedURLException;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import static org.eclipse.sw360.datahandler.common.CommonUtils.getExtensionFromFileName;
 import static org.eclipse.sw360.datahandler.common.SW360Assert.assertNotNull;
@@ -48,9 +51,16 @@ import static org.eclipse.sw360.datahandler.common.SW360Assert.assertNotNull;
 public class AttachmentStreamConnector {
     private static Logger log = Logger.getLogger(AttachmentStreamConnector.class);
 
+    // sha1 of attachments which are being uploaded in parts, by attachment content id
+    private static final Cache<String, PartsDigest> PARTS_DIGESTS = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
     protected final DatabaseConnector connector;
     private final AttachmentContentDownloader attachmentContentDownloader;
     private final Duration downloadTimeout;
+    private final AttachmentBundleStreamer bundleStreamer;
+    private final AttachmentPartsFetcher partsFetcher;
 
     /**
      * @param downloadTimeout timeout for downloading remote attachments
@@ -66,9 +76,17 @@ public class AttachmentStreamConnector {
     }
 
     public AttachmentStreamConnector(DatabaseConnector connector, AttachmentContentDownloader attachmentContentDownloader, Duration downloadTimeout) {
+        this(connector, attachmentContentDownloader, downloadTimeout, AttachmentBundleStreamer.getInstance(),
+                AttachmentPartsFetcher.getInstance());
+    }
+
+    public AttachmentStreamConnector(DatabaseConnector connector, AttachmentContentDownloader attachmentContentDownloader, Duration downloadTimeout,
+                                     AttachmentBundleStreamer bundleStreamer, AttachmentPartsFetcher partsFetcher) {
         this.connector = connector;
         this.attachmentContentDownloader = attachmentContentDownloader;
         this.downloadTimeout = downloadTimeout;
+        this.bundleStreamer = bundleStreamer;
+        this.partsFetcher = partsFetcher;
     }
 
     /**
@@ -105,54 +123,26 @@ public class AttachmentStreamConnector {
     public <T> InputStream getAttachmentBundleStream(Set<AttachmentContent> attachments, User user, T context) throws IOException, SW360Exception {
         assertNotNull(context);
 
-        PipedInputStream in = new PipedInputStream();
-        PipedOutputStream out = new PipedOutputStream(in);
-
-        new Thread(() -> {
-            Map<String, Integer> fileNameUsageMap = new HashMap<>();
-            byte[] buffer = new byte[1024];
-            int length;
-
-            try(ZipOutputStream zip = new ZipOutputStream(out)){
-                for(AttachmentContent attachment : attachments) {
-                    ZipEntry zipEntry;
-
-                    String originalFileName = attachment.getFilename();
-                    if (!fileNameUsageMap.containsKey(originalFileName)) {
-                        fileNameUsageMap.put(originalFileName, 0);
-                        zipEntry = new ZipEntry(originalFileName);
-                    } else {
-                        int count = fileNameUsageMap.get(originalFileName);
-                        count += 1;
-                        fileNameUsageMap.put(originalFileName, count);
-                        zipEntry = getDeduplicatedZipEntry(originalFileName, fileNameUsageMap);
-                    }
-
-                    zip.putNextEntry(zipEntry);
-                    try(InputStream attachmentStream = unsafeGetAttachmentStream(attachment)) {
-                        while ((length = attachmentStream.read(buffer)) >= 0) {
-                            zip.write(buffer, 0, length);
-                        }
-                    } catch (TException e) {
-                        log.error("failed to get AttachmentStream, maybe due to permission problems", e);
-                    }
-
-                    zip.closeEntry();
-                }
-            } catch (IOException e) {
-                log.error("failed to write zip stream", e);
-            }
-        }).start();
+        Set<String> usedEntryNames = new HashSet<>();
+        Map<String, AttachmentContent> attachmentsByEntryName = new LinkedHashMap<>();
+        for (AttachmentContent attachment : attachments) {
+            ZipEntry zipEntry = getDeduplicatedZipEntry(attachment.getFilename(), usedEntryNames);
+            attachmentsByEntryName.put(zipEntry.getName(), attachment);
+        }
 
-        return in;
+        return bundleStreamer.streamBundle(attachmentsByEntryName, this::unsafeGetAttachmentStream);
     }
 
-    protected ZipEntry getDeduplicatedZipEntry(String fileName, Map<String, Integer> fileNameUsageMap) {
-        if (fileNameUsageMap.containsKey(fileName)) {
-            return new ZipEntry(printAcceptedZipEntryName(fileName, fileNameUsageMap.get(fileName)));
-        } else {
-            return new ZipEntry(fileName);
+    /**
+     * Returns an entry named after the file, numbered like "name (1).ext" if the name is already used by another entry,
+     * and marks the name of the entry as used
+     */
+    protected ZipEntry getDeduplicatedZipEntry(String fileName, Set<String> usedEntryNames) {
+        String entryName = fileName;
+        for (int count = 1; !usedEntryNames.add(entryName); count++) {
+            entryName = printAcceptedZipEntryName(fileName, count);
         }
+        return new ZipEntry(entryName);
     }
 
     protected String printAcceptedZipEntryName(String fileName, int count) {
@@ -201,61 +191,84 @@ public class AttachmentStreamConnector {
     }
 
     protected InputStream getConcatenatedAttachmentPartsStream(final AttachmentContent attachment, final int partsCount) {
-        Iterator<InputStream> streams = new Iterator<InputStream>() {
-            int part = 1; // the first is part 1 not 0!
-
-            @Override
-            public boolean hasNext() {
-                return part <= partsCount; // the first is part 1 not 0!
-            }
-
-            @Override
-            public InputStream next() {
-                String attachmentId = attachment.getId();
-                String partFileName = getPartFileName(attachment, part);
-                part++;
-                try {
-                    return connector.getAttachment(attachmentId, partFileName);
-                } catch (DocumentNotFoundException e) {
-                    log.error("Cannot find part " + (part - 1) + " of attachment " + attachmentId, e);
-                    return null;
-                }
+        String attachmentId = attachment.getId();
+        return partsFetcher.readParts(partsCount, part -> {
+            try {
+                return connector.getAttachment(attachmentId, getPartFileName(attachment, part));
+            } catch (DocumentNotFoundException e) {
+                log.error("Cannot find part " + part + " of attachment " + attachmentId, e);
+                throw e;
             }
-
-            @Override
-            public void remove() {
-                //this should be a no-op.
-            }
-        };
-
-        return new ConcatClosingInputStream(streams);
+        });
     }
 
     /**
-     * Upload a single part attachment using the provided metadata
+     * Upload a single part attachment using the provided metadata, its sha1 is computed on the way and stored with
+     * the metadata. The metadata is updated to the revision written by the upload.
      */
     public void uploadAttachment(AttachmentContent attachment, InputStream stream) throws SW360Exception {
-        addAttachmentTo(attachment.getId(), attachment.getFilename(), stream);
+        MessageDigest digest = DigestUtils.getSha1Digest();
+        attachment.setRevision(addAttachmentTo(attachment.getId(), attachment.getFilename(), new DigestInputStream(stream, digest)));
+        storeSha1(attachment, Hex.encodeHexString(digest.digest()));
     }
 
     /**
-     * Upload a part of an attachment using the provided metadata
+     * Upload a part of an attachment using the provided metadata. While the parts are uploaded one after another, the
+     * sha1 of the whole attachment is computed on the way and stored with the metadata after the last part. The
+     * metadata is updated to the revision written by the upload.
+     *
+     * The running sha1 only lives in this JVM and only covers an unbroken sequence of parts starting at part 1. A part
+     * that is repeated, retried after a failure, skipped or uploaded to another node breaks the sequence: the running
+     * sha1 is dropped and the attachment is left to the attachmentSha1Service of the schedule service.
      */
     public void uploadAttachmentPart(AttachmentContent attachmentContent, int part, InputStream stream) throws SW360Exception {
         // Extract required data
         assertNotNull(attachmentContent);
 
+        String attachmentContentId = attachmentContent.getId();
         String partFileName = getPartFileName(attachmentContent, part);
 
-        addAttachmentTo(attachmentContent.getId(), partFileName, stream);
+        // the digest is taken out while the part is written, so that an upload which fails or is repeated leaves none
+        PartsDigest partsDigest = PARTS_DIGESTS.asMap().remove(attachmentContentId);
+        if (part == 1) {
+            partsDigest = new PartsDigest();
+        } else if (partsDigest != null && partsDigest.nextPart != part) {
+            log.info("Part " + part + " of attachment " + attachmentContentId + " does not follow part "
+                    + (partsDigest.nextPart - 1) + ", its sha1 is left to be computed later");
+            partsDigest = null;
+        }
+        if (partsDigest == null) {
+            attachmentContent.setRevision(addAttachmentTo(attachmentContentId, partFileName, stream));
+            return;
+        }
+
+        attachmentContent.setRevision(addAttachmentTo(attachmentContentId, partFileName, new DigestInputStream(stream, partsDigest.digest)));
+        partsDigest.nextPart++;
+        if (attachmentContent.isSetPartsCount() && CommonUtils.toUnsignedInt(attachmentContent.getPartsCount()) == part) {
+            storeSha1(attachmentContent, Hex.encodeHexString(partsDigest.digest.digest()));
+        } else {
+            PARTS_DIGESTS.put(attachmentContentId, partsDigest);
+        }
     }
 
-    private void addAttachmentTo(String attachmentContentId, String filename, InputStream stream) {
+    protected void storeSha1(AttachmentContent attachment, String sha1) {
+        attachment.setSha1(sha1);
+        try {
+            connector.update(attachment);
+        } catch (RuntimeException e) {
+            log.warn("Could not store sha1 of attachment " + attachment.getId(), e);
+        }
+    }
+
+    /**
+     * @return the revision of the attachment content document after adding the attachment
+     */
+    private String addAttachmentTo(String attachmentContentId, String filename, InputStream stream) {
         String contentType = "application/octet-stream";
 
         AttachmentInputStream attachmentInputStream = new AttachmentInputStream(filename, stream, contentType);
         String revision = connector.getCurrentRevision(attachmentContentId);
-        connector.createAttachment(attachmentContentId, revision, attachmentInputStream);
+        return connector.createAttachment(attachmentContentId, revision, attachmentInputStream);
     }
 
     /**
@@ -270,4 +283,9 @@ public class AttachmentStreamConnector {
     private String getPartFileName(AttachmentContent attachment, int part) {
         return attachment.getFilename() + "_part" + part;
     }
+
+    private static class PartsDigest {
+        private final MessageDigest digest = DigestUtils.getSha1Digest();
+        private int nextPart = 1; // the first is part 1 not 0!
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+/**
+ * Resolves an update conflict (HTTP 409) for documents of one type.
+ *
+ * The strategy gets the revision the attempted document was based on, the document currently stored in the database
+ * and the document which could not be written. It has to bring the attempted document into the state that should be
+ * written on top of the current one. The connector takes care of the revision and retries the update.
+ */
+@FunctionalInterface
+public interface ConflictResolutionStrategy<T> {
+
+    /**
+     * Strategy which simply overwrites the current document with the attempted one
+     */
+    ConflictResolutionStrategy<Object> LAST_WRITE_WINS = (base, current, attempted) -> true;
+
+    /**
+     * @param base      the revision the attempted document was based on, null if it is not available anymore
+     * @param current   the document as it is currently stored in the database
+     * @param attempted the document that could not be written, may be modified in place
+     * @return true if the attempted document should be written again, false to give up and report the conflict
+     */
+    boolean merge(T base, T current, T attempted);
+}
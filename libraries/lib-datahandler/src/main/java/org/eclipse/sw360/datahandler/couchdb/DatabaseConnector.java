@@ -15,8 +15,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -28,6 +30,7 @@ import org.ektorp.BulkDeleteDocument;
 import org.ektorp.DbAccessException;
 import org.ektorp.DocumentNotFoundException;
 import org.ektorp.DocumentOperationResult;
+import org.ektorp.Options;
 import org.ektorp.Security;
 import org.ektorp.SecurityGroup;
 import org.ektorp.Status;
@@ -46,11 +49,15 @@ public class DatabaseConnector extends StdCouchDbConnector {
 
     private static final Logger log = Logger.getLogger(DatabaseConnector.class);
 
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
     private final String dbName;
     private final DatabaseInstance instance;
 
     private String adminRole = "_admin";
 
+    private final Map<Class<?>, ConflictResolutionStrategy<?>> conflictResolutionStrategies = new ConcurrentHashMap<>();
+
     /**
      * Create a connection to the database
      *
@@ -177,23 +184,103 @@ public class DatabaseConnector extends StdCouchDbConnector {
         return get(type, ids, false);
     }
 
+    /**
+     * Registers the strategy used to resolve update conflicts of documents of the given type. Without a registered
+     * strategy an update conflict is reported to the caller as before.
+     */
+    public <T> void setConflictResolutionStrategy(Class<T> type, ConflictResolutionStrategy<? super T> strategy) {
+        if (strategy == null) {
+            conflictResolutionStrategies.remove(type);
+        } else {
+            conflictResolutionStrategies.put(type, strategy);
+        }
+    }
+
+    /**
+     * Updates the document with the revision it currently holds. Only wrapped documents (see
+     * {@link ThriftUtils#isMapped(Class)}) are read before writing, as their wrapper has to carry the stored
+     * attachment stubs. On an update conflict the registered {@link ConflictResolutionStrategy} of the document type,
+     * if any, merges the document onto the current revision, given the revision it was based on, and the write is
+     * retried.
+     *
+     * @throws UpdateConflictException if the conflict is not resolved
+     */
     @Override
     public void update(Object document) {
         if (document != null) {
-                final Class documentClass = document.getClass();
-                if (ThriftUtils.isMapped(documentClass)) {
-                    DocumentWrapper wrapper = getDocumentWrapper(document, documentClass);
-                    if (wrapper != null) {
-                        super.update(wrapper);
-                    }
-                } else {
-                    super.update(document);
+            final Class documentClass = document.getClass();
+            if (ThriftUtils.isMapped(documentClass)) {
+                DocumentWrapper wrapper = getDocumentWrapper(document, documentClass);
+                if (wrapper != null) {
+                    super.update(wrapper);
+                    Documents.setRevision(document, wrapper.getRevision());
                 }
+            } else {
+                updateResolvingConflicts(document, documentClass);
+            }
         } else {
             log.warn("Ignore updating a null document.");
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void updateResolvingConflicts(Object document, Class documentClass) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                super.update(document);
+                return;
+            } catch (UpdateConflictException e) {
+                if (attempt >= MAX_CONFLICT_RETRIES || !resolveConflict(document, documentClass)) {
+                    throw e;
+                }
+                log.info("Retrying update of document " + Documents.getId(document) + " after resolving a conflict");
+            }
+        }
+    }
+
+    /**
+     * Merges the document onto the currently stored revision using the registered strategy.
+     *
+     * @return true if the document now carries the current revision and should be written again
+     */
+    @SuppressWarnings("unchecked")
+    private boolean resolveConflict(Object document, Class documentClass) {
+        ConflictResolutionStrategy<Object> strategy = (ConflictResolutionStrategy<Object>) conflictResolutionStrategies.get(documentClass);
+        if (strategy == null) {
+            return false;
+        }
+
+        String documentId = Documents.getId(document);
+        Object current = get(documentClass, documentId);
+        if (current == null) {
+            return false;
+        }
+        Object base = getRevision(documentClass, documentId, Documents.getRevision(document));
+        if (!strategy.merge(base, current, document)) {
+            return false;
+        }
+        Documents.setRevision(document, Documents.getRevision(current));
+        return true;
+    }
+
+    /**
+     * Reads an earlier revision of a document, null if it is not available anymore, e.g. after a compaction
+     */
+    private <T> T getRevision(Class<T> type, String id, String revision) {
+        if (revision == null) {
+            return null;
+        }
+        try {
+            return super.get(type, id, new Options().revision(revision));
+        } catch (DocumentNotFoundException e) {
+            log.info("Revision " + revision + " of document " + id + " is not available anymore");
+            return null;
+        } catch (DbAccessException e) {
+            log.error("Revision " + revision + " of document " + id + " could not be successfully converted to " + type.getName(), e);
+            return null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private DocumentWrapper getDocumentWrapper(Object document, Class documentClass) {
         final Class<? extends DocumentWrapper> wrapperClass = ThriftUtils.getWrapperClass(documentClass);
@@ -209,9 +296,9 @@ public class DatabaseConnector extends StdCouchDbConnector {
             log.error("round trip from database is not identity for id " + documentId);
             return null;
         }
-        if (!wrapper.getRevision().equals(Documents.getRevision(document))) {
+        if (!wrapper.getRevision().equals(Documents.getRevision(document)) && !resolveConflict(document, documentClass)) {
             log.error("concurrent access to document " + documentId);
-            return null;
+            throw new UpdateConflictException(documentId, Documents.getRevision(document));
         }
 
         wrapper.updateNonMetadata(document);
@@ -210,6 +210,13 @@ public class DatabaseRepository<T> extends CouchDbRepositorySupport<T> {
         return connector.get(type, ids);
     }
 
+    /**
+     * Same as {@link #get(Collection)}, but ids of documents which do not exist are skipped instead of failing the query
+     */
+    public List<T> getExisting(Collection<String> ids) {
+        return connector.get(type, ids, true);
+    }
+
 
     /**
      * Creates, updates all objects in the supplied collection.
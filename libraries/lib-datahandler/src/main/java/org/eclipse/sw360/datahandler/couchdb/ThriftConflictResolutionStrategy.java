@@ -0,0 +1,71 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.log4j.Logger;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TFieldIdEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.eclipse.sw360.datahandler.thrift.ThriftUtils.copyFields;
+
+/**
+ * Resolves update conflicts of thrift documents with a field by field three-way merge against the revision the
+ * attempted document was based on:
+ * <ul>
+ * <li>fields changed only by the attempted update keep the attempted values</li>
+ * <li>fields changed only concurrently are taken over from the current document</li>
+ * <li>fields changed on both sides to different values cannot be merged, the conflict is reported to the caller</li>
+ * </ul>
+ * The conflict is reported as well if the base revision is not available anymore.
+ */
+public class ThriftConflictResolutionStrategy<T extends TBase<T, F>, F extends TFieldIdEnum> implements ConflictResolutionStrategy<T> {
+
+    private static final Logger log = Logger.getLogger(ThriftConflictResolutionStrategy.class);
+
+    private final List<F> fields;
+
+    /**
+     * @param fields all fields of the document type, e.g. {@code Project._Fields.values()}
+     */
+    public ThriftConflictResolutionStrategy(F[] fields) {
+        this.fields = ImmutableList.copyOf(fields);
+    }
+
+    @Override
+    public boolean merge(T base, T current, T attempted) {
+        if (base == null) {
+            log.info("The revision the update is based on is not available anymore, the conflict cannot be resolved");
+            return false;
+        }
+
+        List<F> changedConcurrently = new ArrayList<>();
+        for (F field : fields) {
+            Object baseValue = base.getFieldValue(field);
+            Object currentValue = current.getFieldValue(field);
+            Object attemptedValue = attempted.getFieldValue(field);
+            if (Objects.equals(baseValue, currentValue) || Objects.equals(currentValue, attemptedValue)) {
+                continue;
+            }
+            if (!Objects.equals(baseValue, attemptedValue)) {
+                log.info("Field " + field.getFieldName() + " has been changed concurrently, the conflict cannot be resolved");
+                return false;
+            }
+            changedConcurrently.add(field);
+        }
+        copyFields(current, attempted, changedConcurrently);
+        return true;
+    }
+}
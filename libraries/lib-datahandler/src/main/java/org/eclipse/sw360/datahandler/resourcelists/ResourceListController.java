@@ -41,6 +41,20 @@ public class ResourceListController<T> {
         return new PaginationResult<>(sortedResources.subList(fromIndex, toIndex), sortedResources.size(), paginationOptions);
     }
 
+    /**
+     * Wraps a page which has already been sorted and cut out of the full list, e.g. by the database
+     */
+    public PaginationResult<T> createPaginationResultForPage(List<T> page, int totalCount, PaginationOptions<T> paginationOptions) throws PaginationParameterException {
+        if(totalCount == 0) {
+            if(paginationOptions.getPageNumber() != 0) {
+                throw new PaginationParameterException(PAGINATION_PARAMETER_EXCEPTION_MESSAGE);
+            }
+        } else if(paginationOptions.getOffset() >= totalCount) {
+            throw new PaginationParameterException(PAGINATION_PARAMETER_EXCEPTION_MESSAGE);
+        }
+        return new PaginationResult<>(page, totalCount, paginationOptions);
+    }
+
     private List<T> sortList(List<T> resources, Comparator<T> comparator) {
         if(comparator == null) {
             return resources;
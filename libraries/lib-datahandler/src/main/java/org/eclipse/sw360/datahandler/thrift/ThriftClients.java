@@ -12,10 +12,6 @@
  */
 package org.eclipse.sw360.datahandler.thrift;
 
-import org.apache.http.HttpHost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
 import org.eclipse.sw360.datahandler.common.CommonUtils;
 import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentService;
 import org.eclipse.sw360.datahandler.thrift.codescoop.CodescoopService;
@@ -33,13 +29,8 @@ import org.eclipse.sw360.datahandler.thrift.users.UserService;
 import org.eclipse.sw360.datahandler.thrift.vendors.VendorService;
 import org.eclipse.sw360.datahandler.thrift.vulnerabilities.VulnerabilityService;
 import org.apache.log4j.Logger;
-import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.THttpClient;
-import org.apache.thrift.transport.TTransportException;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.Properties;
 
 import static org.apache.log4j.Logger.getLogger;
@@ -60,6 +51,11 @@ public class ThriftClients {
     public static final String BACKEND_PROXY_URL;
     public static final int THRIFT_CONNECTION_TIMEOUT;
     public static final int THRIFT_READ_TIMEOUT;
+    public static final int THRIFT_POOL_MAX_TOTAL;
+    public static final int THRIFT_POOL_MAX_PER_ROUTE;
+    public static final int THRIFT_POOL_IDLE_TIMEOUT;
+
+    private static final ThriftConnectionPool connectionPool;
 
     //! Service addresses
     private static final String ATTACHMENT_SERVICE_URL = "/attachments/thrift";
@@ -79,9 +75,12 @@ public class ThriftClients {
     private static final String WSIMPORT_SERVICE_URL = "/wsimport/thrift";
     private static final String CODESCOOP_SERVICE_URL = "/codescoop/thrift";
 
-    // A service which has to be scheduled by the scheduler should be registered here!
-    // names of services that can be scheduled by the schedule service, i.e. that have an "update" method
+    // names of services that can be scheduled by the schedule service, each has a job in its job registry
     public static final String CVESEARCH_SERVICE = "cvesearchService";
+    public static final String ATTACHMENT_VACUUM_SERVICE = "attachmentVacuumService";
+    public static final String ATTACHMENT_SHA1_SERVICE = "attachmentSha1Service";
+    public static final String DUPLICATES_SERVICE = "duplicatesService";
+    public static final String SPDX_LICENSES_SERVICE = "spdxLicensesService";
 
     static {
         Properties props = CommonUtils.loadProperties(ThriftClients.class, PROPERTIES_FILE_PATH);
@@ -92,40 +91,31 @@ public class ThriftClients {
         // maximum timeout for connecting and reading
         THRIFT_CONNECTION_TIMEOUT = Integer.valueOf(props.getProperty("backend.timeout.connection", "5000"));
         THRIFT_READ_TIMEOUT = Integer.valueOf(props.getProperty("backend.timeout.read", "600000"));
+        // connections are pooled per backend service
+        THRIFT_POOL_MAX_TOTAL = Integer.valueOf(props.getProperty("backend.pool.max.total", "50"));
+        THRIFT_POOL_MAX_PER_ROUTE = Integer.valueOf(props.getProperty("backend.pool.max.per.route", "20"));
+        THRIFT_POOL_IDLE_TIMEOUT = Integer.valueOf(props.getProperty("backend.pool.timeout.idle", "60000"));
 
         log.info("The following configuration will be used for connections to the backend:\n" +
             "\tURL                      : " + BACKEND_URL + "\n" +
             "\tProxy                    : " + BACKEND_PROXY_URL + "\n" +
             "\tTimeout Connecting (ms)  : " + THRIFT_CONNECTION_TIMEOUT + "\n" +
-            "\tTimeout Read (ms)        : " + THRIFT_READ_TIMEOUT + "\n");
+            "\tTimeout Read (ms)        : " + THRIFT_READ_TIMEOUT + "\n" +
+            "\tPool max connections     : " + THRIFT_POOL_MAX_TOTAL + "\n" +
+            "\tPool max per service     : " + THRIFT_POOL_MAX_PER_ROUTE + "\n" +
+            "\tPool idle timeout (ms)   : " + THRIFT_POOL_IDLE_TIMEOUT + "\n");
+
+        connectionPool = new ThriftConnectionPool(BACKEND_PROXY_URL, THRIFT_CONNECTION_TIMEOUT, THRIFT_READ_TIMEOUT,
+                THRIFT_POOL_MAX_TOTAL, THRIFT_POOL_MAX_PER_ROUTE, THRIFT_POOL_IDLE_TIMEOUT);
     }
     public ThriftClients() {
     }
 
     /**
-     * Creates a Thrift Compact Protocol object linked to the given address
+     * Creates a Thrift Compact Protocol object linked to the given address, backed by the shared connection pool
      */
     private static TProtocol makeProtocol(String url, String service) {
-        THttpClient thriftClient = null;
-        final String destinationAddress = url + service;
-        try {
-            if (BACKEND_PROXY_URL != null) {
-                URL proxyUrl = new URL(BACKEND_PROXY_URL);
-                HttpHost proxy = new HttpHost(proxyUrl.getHost(), proxyUrl.getPort(), proxyUrl.getProtocol());
-                DefaultProxyRoutePlanner routePlanner = new DefaultProxyRoutePlanner(proxy);
-                CloseableHttpClient httpClient = HttpClients.custom().setRoutePlanner(routePlanner).build();
-                thriftClient = new THttpClient(destinationAddress, httpClient);
-            } else {
-                thriftClient = new THttpClient(destinationAddress);
-            }
-            thriftClient.setConnectTimeout(THRIFT_CONNECTION_TIMEOUT);
-            thriftClient.setReadTimeout(THRIFT_READ_TIMEOUT);
-        } catch (TTransportException e) {
-            log.error("cannot connect to backend on " + destinationAddress, e);
-        } catch (MalformedURLException e) {
-            log.error("cannot connect via http proxy (REASON:MalformedURLException) to thrift backend", e);
-        }
-        return new TCompactProtocol(thriftClient);
+        return connectionPool.makeProtocol(url + service);
     }
 
     public AttachmentService.Iface makeAttachmentClient() {
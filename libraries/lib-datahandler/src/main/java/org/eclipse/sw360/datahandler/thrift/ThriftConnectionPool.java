@@ -0,0 +1,139 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.thrift;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.log4j.Logger;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.THttpClient;
+import org.apache.thrift.transport.TTransportException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.log4j.Logger.getLogger;
+
+/**
+ * Keeps one pooled, keep-alive capable http client per backend service and hands out
+ * Thrift protocols which are backed by it. Thrift clients themselves are cheap and not
+ * thread safe, so callers still create one per use, but the underlying TCP (and TLS)
+ * connections are reused across clients.
+ */
+public class ThriftConnectionPool implements Closeable {
+
+    private static final Logger log = getLogger(ThriftConnectionPool.class);
+
+    private final String proxyUrl;
+    private final int connectionTimeout;
+    private final int readTimeout;
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final int idleTimeout;
+
+    private final Map<String, PooledClient> clientsByService = new ConcurrentHashMap<>();
+
+    public ThriftConnectionPool(String proxyUrl, int connectionTimeout, int readTimeout, int maxTotal, int maxPerRoute, int idleTimeout) {
+        this.proxyUrl = proxyUrl;
+        this.connectionTimeout = connectionTimeout;
+        this.readTimeout = readTimeout;
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Creates a Thrift Compact Protocol object linked to the given address, using a pooled connection
+     */
+    public TProtocol makeProtocol(String destinationAddress) {
+        THttpClient thriftClient = null;
+        try {
+            // timeouts are part of the default request config of the pooled client, THttpClient#setConnectTimeout
+            // would try to modify the (unsupported) legacy params of the shared client
+            thriftClient = new THttpClient(destinationAddress, getPooledClient(destinationAddress).httpClient);
+        } catch (TTransportException e) {
+            log.error("cannot connect to backend on " + destinationAddress, e);
+        }
+        return new TCompactProtocol(thriftClient);
+    }
+
+    int getLeasedConnections(String destinationAddress) {
+        PooledClient pooledClient = clientsByService.get(destinationAddress);
+        return pooledClient == null ? 0 : pooledClient.connectionManager.getTotalStats().getLeased();
+    }
+
+    int getAvailableConnections(String destinationAddress) {
+        PooledClient pooledClient = clientsByService.get(destinationAddress);
+        return pooledClient == null ? 0 : pooledClient.connectionManager.getTotalStats().getAvailable();
+    }
+
+    private PooledClient getPooledClient(String destinationAddress) {
+        return clientsByService.computeIfAbsent(destinationAddress, address -> new PooledClient());
+    }
+
+    @Override
+    public void close() {
+        for (PooledClient pooledClient : clientsByService.values()) {
+            try {
+                pooledClient.httpClient.close();
+            } catch (IOException e) {
+                log.warn("could not close pooled connections to backend", e);
+            }
+        }
+        clientsByService.clear();
+    }
+
+    private class PooledClient {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+
+        private PooledClient() {
+            connectionManager = new PoolingHttpClientConnectionManager(idleTimeout, TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+            // revalidate connections which have been idle for a while, the backend may have closed them meanwhile
+            connectionManager.setValidateAfterInactivity(1000);
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(connectionTimeout)
+                    .setSocketTimeout(readTimeout)
+                    .setConnectionRequestTimeout(connectionTimeout)
+                    .build();
+
+            HttpClientBuilder builder = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .evictExpiredConnections()
+                    .evictIdleConnections((long) idleTimeout, TimeUnit.MILLISECONDS);
+
+            if (proxyUrl != null) {
+                try {
+                    URL proxy = new URL(proxyUrl);
+                    builder.setRoutePlanner(new DefaultProxyRoutePlanner(new HttpHost(proxy.getHost(), proxy.getPort(), proxy.getProtocol())));
+                } catch (MalformedURLException e) {
+                    log.error("cannot connect via http proxy (REASON:MalformedURLException) to thrift backend", e);
+                }
+            }
+            httpClient = builder.build();
+        }
+    }
+}
@@ -79,6 +79,8 @@ struct AttachmentContent {
     20: required string filename,
     21: optional string contentType,
     22: optional string partsCount,
+    // sha1 of the content, computed while it is uploaded
+    23: optional string sha1,
 }
 
 /**
@@ -196,6 +198,17 @@ service AttachmentService {
       **/
     string getSha1FromAttachmentContentId(1: string attachmentContentId);
 
+    /**
+      * returns the ids of the attachment contents stored before their sha1 was computed on upload, sorted
+      **/
+    list<string> getAttachmentContentIdsWithoutSha1();
+
+    /**
+      * computes and stores the sha1 of the given attachment contents
+      * returns the number of given contents as total elements and the number of computed sha1s as affected elements
+      **/
+    RequestSummary computeAttachmentSha1s(1: list<string> attachmentContentIds);
+
     /**
      * Creates a new attachment usage object. The given usage object must not exist in the database, yet.
      */
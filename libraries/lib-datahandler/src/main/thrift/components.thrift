@@ -25,6 +25,7 @@ typedef sw360.DocumentState DocumentState
 typedef sw360.ReleaseRelationship ReleaseRelationship
 typedef sw360.MainlineState MainlineState
 typedef sw360.ProjectReleaseRelationship ProjectReleaseRelationship
+typedef sw360.PaginationData PaginationData
 typedef attachments.Attachment Attachment
 typedef attachments.FilledAttachment FilledAttachment
 typedef users.User User
@@ -366,6 +367,11 @@ struct ReleaseClearingStatusData {
     4: optional string mainlineStates, // comma separated list of mainline states for display; possibly abbreviated
 }
 
+struct ComponentPage {
+    1: required list<Component> components,
+    2: required i32 totalCount, // number of components in all pages
+}
+
 service ComponentService {
 
     /**
@@ -384,6 +390,12 @@ service ComponentService {
      **/
     list<Component> getRecentComponentsSummary(1: i32 limit, 2: User user);
 
+    /**
+     * one page of the summary of all components visible to user, sorted and paged in the database. Sortable fields
+     * are name, createdOn, createdBy and componentType, ties are ordered by name
+     **/
+    ComponentPage getComponentSummaryPage(1: PaginationData pagination, 2: User user);
+
     /**
      * total number of components in the DB, irrespective of whether the user may see them or not
      **/
@@ -17,6 +17,7 @@ namespace java org.eclipse.sw360.datahandler.thrift.cvesearch
 namespace php sw360.thrift.cvesearch
 
 typedef sw360.RequestStatus RequestStatus
+typedef sw360.RequestSummary RequestSummary
 
 enum UpdateType {
     NEW = 0,
@@ -59,5 +60,11 @@ service CveSearchService {
       **/
    RequestStatus update();
 
+    /**
+      * progress of the running or last full update, totalElements is the number of releases, totalAffectedElements
+      * the number of releases which are done, the message tells how many of them failed
+      **/
+    RequestSummary getUpdateProgress();
+
     set<string> findCpes(1: string vendor, 2: string product, 3:string version);
 }
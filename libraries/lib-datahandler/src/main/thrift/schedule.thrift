@@ -22,16 +22,54 @@ typedef sw360.RequestStatusWithBoolean RequestStatusWithBoolean
 typedef sw360.RequestSummary RequestSummary
 typedef users.User User
 
+enum ScheduleRunOutcome {
+    SUCCESS = 0,
+    FAILURE = 1,
+    // the previous run of the service had not finished yet
+    SKIPPED = 2,
+    // the run started too late and the misfire policy of the service is to skip it
+    MISFIRED = 3,
+    // the run has been cancelled before it was done
+    CANCELLED = 4,
+}
+
+struct ScheduleRun {
+    1: optional string id,
+    2: optional string revision,
+    3: optional string type = "schedulerun",
+
+    10: required string serviceName,
+    // milliseconds since the epoch
+    11: required i64 scheduledAt,
+    12: required i64 startedAt,
+    13: required i64 durationMillis,
+    14: required ScheduleRunOutcome outcome,
+    15: optional string message,
+    // findings of the run by kind, e.g. the ids of duplicate documents by kind and by their identifier
+    16: optional map<string, map<string, list<string>>> details,
+}
+
 service ScheduleService {
     /*
      * a service with service name is scheduled
-     * serviceName has to be registered in ThriftClients
-     * service must provide an "update" method
-     *
-     * user has to be admin, otherwise FAILURE is returned
+     * serviceName has to be one of the services registered in the job registry of the schedule service
      */
     RequestSummary scheduleService(1: string serviceName);
 
+    /*
+     * runs the service once in the background, independent of its schedule
+     * FAILURE if the service is not registered or is already running
+     * user has to be admin, otherwise FAILURE is returned
+     */
+    RequestSummary runService(1: string serviceName, 2: User user);
+
+    /*
+     * asks the running service to stop, it stops at its next checkpoint
+     * FAILURE if the service is not running
+     * user has to be admin, otherwise FAILURE is returned
+     */
+    RequestStatus cancelServiceRun(1: string serviceName, 2: User user);
+
     /*
      * all tasks with  name serviceName are cancelled
      * user has to be admin, otherwise FAILURE is returned
@@ -54,4 +92,15 @@ service ScheduleService {
     string getNextSync(1: string serviceName);
 
     i32 getInterval(1: string serviceName);
+
+    /*
+     * progress of the running or last run of the service, FAILURE if the service is not registered
+     */
+    RequestSummary getServiceProgress(1: string serviceName);
+
+    /*
+     * the latest runs of the service, newest first
+     * user has to be admin, otherwise an empty list is returned
+     */
+    list<ScheduleRun> getRunHistory(1: string serviceName, 2: i32 limit, 3: User user);
 }
@@ -142,6 +142,17 @@ struct RequestStatusWithBoolean {
   2: optional bool answerPositive;
 }
 
+/**
+ * One page of a sorted list. The page number starts at 0, sortField is the name of a field of the listed type, if
+ * it is not set or not sortable the default order of the list is used.
+ */
+struct PaginationData {
+  1: required i32 pageNumber;
+  2: required i32 pageSize;
+  3: optional string sortField;
+  4: optional bool ascending = true;
+}
+
 /**
  * May be used to identify a source where the source can be of type project, component or release.
  * Using this type over a string allows the user to see which type of source the id is.
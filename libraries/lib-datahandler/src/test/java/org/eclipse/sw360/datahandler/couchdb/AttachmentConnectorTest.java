@@ -10,6 +10,8 @@
  */
 package org.eclipse.sw360.datahandler.couchdb;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
 import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentContent;
 import org.eclipse.sw360.datahandler.thrift.attachments.CheckStatus;
@@ -24,6 +26,8 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static org.eclipse.sw360.datahandler.common.Duration.durationOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -97,5 +101,30 @@ public class AttachmentConnectorTest {
         verify(connector).deleteIds(expectedIdsToDelete, AttachmentContent.class);
     }
 
+    @Test
+    public void testSetSha1ForAttachmentsUsesStoredSha1() throws Exception {
+        Attachment withoutSha1 = new Attachment("a1cid", "a1.txt");
+        Attachment withSha1 = new Attachment("a2cid", "a2.txt").setSha1("known");
+        when(connector.get(AttachmentContent.class, ImmutableSet.of("a1cid"), true))
+                .thenReturn(ImmutableList.of(new AttachmentContent("a1.txt").setId("a1cid").setSha1("stored")));
+
+        attachmentConnector.setSha1ForAttachments(ImmutableSet.of(withoutSha1, withSha1));
+
+        assertThat(withoutSha1.getSha1(), is("stored"));
+        assertThat(withSha1.getSha1(), is("known"));
+        verify(connector, never()).getAttachment(anyString(), anyString());
+    }
 
+    @Test
+    public void testIsDuplicateAttachment() throws Exception {
+        assertThat(AttachmentConnector.isDuplicateAttachment(ImmutableSet.of(
+                new Attachment("a1", "a.txt").setSha1("sha1"),
+                new Attachment("a2", "b.txt").setSha1("sha1"))), is(true));
+        assertThat(AttachmentConnector.isDuplicateAttachment(ImmutableSet.of(
+                new Attachment("a1", "a.txt").setSha1("sha1"),
+                new Attachment("a2", "a.txt").setSha1("other"))), is(true));
+        assertThat(AttachmentConnector.isDuplicateAttachment(ImmutableSet.of(
+                new Attachment("a1", "a.txt"),
+                new Attachment("a2", "b.txt"))), is(false));
+    }
 }
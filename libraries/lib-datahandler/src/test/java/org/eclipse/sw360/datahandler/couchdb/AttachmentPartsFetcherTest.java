@@ -0,0 +1,121 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class AttachmentPartsFetcherTest {
+
+    private static final int PARTS = 8;
+    private static final int PART_SIZE = 1024;
+    private static final long LATENCY_MILLIS = 200;
+
+    @Test
+    public void testPartsAreReadInOrder() throws Exception {
+        AttachmentPartsFetcher fetcher = new AttachmentPartsFetcher(4, 4);
+
+        try (InputStream stream = fetcher.readParts(PARTS, part -> slowPart(part, (PARTS - part) * 20))) {
+            byte[] content = ByteStreams.toByteArray(stream);
+
+            assertThat(content.length, is(PARTS * PART_SIZE));
+            for (int i = 0; i < content.length; i++) {
+                assertThat(content[i], is((byte) (i / PART_SIZE + 1)));
+            }
+        }
+    }
+
+    @Test
+    public void testPartsAreFetchedInParallel() throws Exception {
+        AttachmentPartsFetcher fetcher = new AttachmentPartsFetcher(4, 4);
+
+        long start = System.currentTimeMillis();
+        try (InputStream stream = fetcher.readParts(PARTS, part -> slowPart(part, LATENCY_MILLIS))) {
+            assertThat(ByteStreams.toByteArray(stream).length, is(PARTS * PART_SIZE));
+        }
+        long millis = System.currentTimeMillis() - start;
+
+        // one after another it takes PARTS * LATENCY_MILLIS, with a window of 4 about a quarter of it
+        assertThat(millis, lessThan(PARTS * LATENCY_MILLIS * 3 / 4));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingPartFailsTheRead() throws Exception {
+        AttachmentPartsFetcher fetcher = new AttachmentPartsFetcher(4, 4);
+
+        try (InputStream stream = fetcher.readParts(PARTS, part -> part == 3 ? null : slowPart(part, 0))) {
+            ByteStreams.exhaust(stream);
+        }
+    }
+
+    @Test
+    public void testCloseStopsFetching() throws Exception {
+        AttachmentPartsFetcher fetcher = new AttachmentPartsFetcher(2, 2);
+        AtomicInteger opened = new AtomicInteger();
+        Set<Integer> closed = ConcurrentHashMap.newKeySet();
+        CountDownLatch downloading = new CountDownLatch(2);
+
+        InputStream stream = fetcher.readParts(100, part -> {
+            opened.incrementAndGet();
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    downloading.countDown();
+                    while (!closed.contains(part)) {
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                    throw new IOException("connection closed");
+                }
+
+                @Override
+                public void close() {
+                    closed.add(part);
+                }
+            };
+        });
+        assertTrue(downloading.await(5, TimeUnit.SECONDS));
+        stream.close();
+
+        Thread.sleep(100);
+        assertThat(closed, containsInAnyOrder(1, 2));
+        assertThat(opened.get(), is(2));
+        assertThat(stream.read(), is(-1));
+    }
+
+    private static InputStream slowPart(int part, long latencyMillis) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] content = new byte[PART_SIZE];
+        Arrays.fill(content, (byte) part);
+        return new ByteArrayInputStream(content);
+    }
+}
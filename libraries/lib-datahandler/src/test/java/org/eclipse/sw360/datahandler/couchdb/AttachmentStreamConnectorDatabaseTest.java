@@ -0,0 +1,125 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentContent;
+import org.ektorp.CouchDbInstance;
+import org.ektorp.impl.StdCouchDbInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.sw360.datahandler.common.Duration.durationOf;
+import static org.eclipse.sw360.datahandler.couchdb.DatabaseTestProperties.COUCH_DB_DATABASE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Uploads attachments to the test database, so that the sha1 has to be stored with the revision written by the upload
+ */
+public class AttachmentStreamConnectorDatabaseTest {
+
+    private DatabaseConnector connector;
+    private AttachmentStreamConnector attachmentStreamConnector;
+
+    @Before
+    public void setUp() throws Exception {
+        connector = new DatabaseConnector(DatabaseTestProperties.getConfiguredHttpClient(), COUCH_DB_DATABASE);
+        attachmentStreamConnector = new AttachmentStreamConnector(connector, durationOf(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        CouchDbInstance dbInstance = new StdCouchDbInstance(DatabaseTestProperties.getConfiguredHttpClient());
+        if (dbInstance.checkIfDbExists(COUCH_DB_DATABASE)) {
+            dbInstance.deleteDatabase(COUCH_DB_DATABASE);
+        }
+    }
+
+    @Test
+    public void testUploadAttachmentStoresSha1() throws Exception {
+        AttachmentContent attachment = addAttachmentContent("single", null);
+        String createdRevision = attachment.getRevision();
+
+        attachmentStreamConnector.uploadAttachment(attachment, stream("content"));
+
+        AttachmentContent stored = connector.get(AttachmentContent.class, "single");
+        assertThat(stored.getSha1(), is(DigestUtils.sha1Hex("content")));
+        assertThat(stored.getRevision(), is(not(createdRevision)));
+        assertThat(read(attachmentStreamConnector.unsafeGetAttachmentStream(stored)), is("content"));
+    }
+
+    @Test
+    public void testUploadAttachmentPartsStoresSha1AfterLastPart() throws Exception {
+        AttachmentContent attachment = addAttachmentContent("parts", "2");
+
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 1, stream("con"));
+        assertThat(connector.get(AttachmentContent.class, "parts").getSha1(), is(nullValue()));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 2, stream("tent"));
+
+        AttachmentContent stored = connector.get(AttachmentContent.class, "parts");
+        assertThat(stored.getSha1(), is(DigestUtils.sha1Hex("content")));
+        assertThat(read(attachmentStreamConnector.unsafeGetAttachmentStream(stored)), is("content"));
+    }
+
+    @Test
+    public void testUploadAttachmentPartsWithRepeatedPartStoresNoSha1() throws Exception {
+        AttachmentContent attachment = addAttachmentContent("repeated", "3");
+
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 1, stream("co"));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 2, stream("nt"));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 2, stream("nt"));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 3, stream("ent"));
+
+        AttachmentContent stored = connector.get(AttachmentContent.class, "repeated");
+        assertThat(stored.getSha1(), is(nullValue()));
+        assertThat(read(attachmentStreamConnector.unsafeGetAttachmentStream(stored)), is("content"));
+    }
+
+    @Test
+    public void testUploadAttachmentPartsRestartedFromFirstPartStoresSha1() throws Exception {
+        AttachmentContent attachment = addAttachmentContent("restarted", "2");
+
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 1, stream("con"));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 1, stream("con"));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 2, stream("tent"));
+
+        assertThat(connector.get(AttachmentContent.class, "restarted").getSha1(), is(DigestUtils.sha1Hex("content")));
+    }
+
+    private AttachmentContent addAttachmentContent(String id, String partsCount) {
+        AttachmentContent attachment = new AttachmentContent().setId(id).setFilename("fil").setOnlyRemote(false);
+        if (partsCount != null) {
+            attachment.setPartsCount(partsCount);
+        }
+        connector.add(attachment);
+        return attachment;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream stream) throws Exception {
+        try (InputStream toRead = stream) {
+            return new String(ByteStreams.toByteArray(toRead), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -11,6 +11,9 @@
 package org.eclipse.sw360.datahandler.couchdb;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import org.eclipse.sw360.datahandler.common.Duration;
 import org.eclipse.sw360.datahandler.thrift.Visibility;
 import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
@@ -26,18 +29,27 @@ import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.eclipse.sw360.datahandler.common.Duration.durationOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -54,7 +66,10 @@ public class AttachmentStreamConnectorTest {
 
     @Before
     public void setUp() throws Exception {
-        attachmentStreamConnector = new AttachmentStreamConnector(connector, attachmentContentDownloader, durationOf(5, TimeUnit.SECONDS));
+        AttachmentBundleStreamer bundleStreamer = new AttachmentBundleStreamer(2, 2, 1024, 16,
+                Deflater.DEFAULT_COMPRESSION, ImmutableSet.of("zip"));
+        attachmentStreamConnector = new AttachmentStreamConnector(connector, attachmentContentDownloader, durationOf(5, TimeUnit.SECONDS),
+                bundleStreamer, new AttachmentPartsFetcher(2, 2));
     }
 
     @Test
@@ -136,21 +151,18 @@ public class AttachmentStreamConnectorTest {
         String attachmentId = "id";
         when(attachment.getId()).thenReturn(attachmentId);
 
-        AttachmentInputStream part1 = mock(AttachmentInputStream.class);
+        AttachmentInputStream part1 = spy(attachmentInputStream(attachmentId, new byte[]{1}));
         when(connector.getAttachment(attachmentId, "fil_part1")).thenReturn(part1);
 
-        AttachmentInputStream part2 = mock(AttachmentInputStream.class);
+        AttachmentInputStream part2 = spy(attachmentInputStream(attachmentId, new byte[]{2}));
         when(connector.getAttachment(attachmentId, "fil_part2")).thenReturn(part2);
 
-        when(part1.read()).thenReturn(1, -1);
-        when(part2.read()).thenReturn(2, -1);
         InputStream attachmentStream = attachmentStreamConnector.getAttachmentStream(attachment, dummyUser,
                 new Project()
                         .setVisbility(Visibility.ME_AND_MODERATORS)
                         .setCreatedBy(dummyUser.getEmail())
                         .setAttachments(Collections.singleton(new Attachment().setAttachmentContentId(attachmentId))));
 
-        verifyZeroInteractions(part2);
         assertThat(attachmentStream.read(), is(1));
         assertThat(attachmentStream.read(), is(2));
         verify(part1).close();
@@ -171,12 +183,11 @@ public class AttachmentStreamConnectorTest {
         String attachmentId = "id";
         when(attachment.getId()).thenReturn(attachmentId);
 
-        AttachmentInputStream part1 = mock(AttachmentInputStream.class);
+        AttachmentInputStream part1 = spy(attachmentInputStream(attachmentId, new byte[]{1}));
         when(connector.getAttachment(attachmentId, "fil_part1")).thenReturn(part1);
 
         when(connector.getAttachment(attachmentId, "fil_part2")).thenThrow(new DocumentNotFoundException(""));
 
-        when(part1.read()).thenReturn(1, -1);
         InputStream attachmentStream = attachmentStreamConnector.getAttachmentStream(attachment, dummyUser,
                 new Project()
                         .setVisbility(Visibility.ME_AND_MODERATORS)
@@ -195,6 +206,76 @@ public class AttachmentStreamConnectorTest {
         verify(part1).close();
     }
 
+    @Test
+    public void testGetAttachmentBundleStream() throws Exception {
+        String text = repeat("All work and no play makes Jack a dull boy. ", 1000);
+        when(connector.getAttachment("1", "README.txt")).thenReturn(attachmentInputStream("1", text));
+        when(connector.getAttachment("2", "README.txt")).thenReturn(attachmentInputStream("2", "short"));
+        when(connector.getAttachment("3", "sources.zip")).thenReturn(attachmentInputStream("3", text));
+
+        InputStream bundle = attachmentStreamConnector.getAttachmentBundleStream(ImmutableSet.of(
+                new AttachmentContent().setId("1").setFilename("README.txt"),
+                new AttachmentContent().setId("2").setFilename("README.txt"),
+                new AttachmentContent().setId("3").setFilename("sources.zip")), dummyUser, new Project());
+
+        try (ZipInputStream zip = new ZipInputStream(bundle)) {
+            ZipEntry first = zip.getNextEntry();
+            assertThat(first.getName(), is("README.txt"));
+            assertThat(new String(ByteStreams.toByteArray(zip), StandardCharsets.UTF_8), is(text));
+            assertThat(first.getCompressedSize(), lessThan(first.getSize() / 10));
+
+            assertThat(zip.getNextEntry().getName(), is("README (1).txt"));
+            assertThat(new String(ByteStreams.toByteArray(zip), StandardCharsets.UTF_8), is("short"));
+
+            ZipEntry archive = zip.getNextEntry();
+            assertThat(archive.getName(), is("sources.zip"));
+            assertThat(new String(ByteStreams.toByteArray(zip), StandardCharsets.UTF_8), is(text));
+            assertThat(archive.getCompressedSize(), greaterThanOrEqualTo(archive.getSize()));
+
+            assertThat(zip.getNextEntry(), nullValue());
+        }
+    }
+
+    @Test
+    public void testGetAttachmentBundleStreamFailsIfAnAttachmentCannotBeRead() throws Exception {
+        when(connector.getAttachment("1", "first.txt")).thenReturn(attachmentInputStream("1", repeat("first ", 1000)));
+        when(connector.getAttachment("2", "second.txt")).thenThrow(new DocumentNotFoundException("/sw360attachments/2"));
+
+        InputStream bundle = attachmentStreamConnector.getAttachmentBundleStream(ImmutableSet.of(
+                new AttachmentContent().setId("1").setFilename("first.txt"),
+                new AttachmentContent().setId("2").setFilename("second.txt")), dummyUser, new Project());
+
+        try {
+            ByteStreams.exhaust(bundle);
+            fail("expected Exception not thrown");
+        } catch (IOException expected) {
+            assertThat(expected.getCause() instanceof DocumentNotFoundException, is(true));
+        } finally {
+            bundle.close();
+        }
+    }
+
+    @Test
+    public void testCompressionLevel() {
+        AttachmentBundleStreamer bundleStreamer = new AttachmentBundleStreamer(1, 1, 1024, 16, 9, ImmutableSet.of("zip", "gz"));
+        assertThat(bundleStreamer.getCompressionLevel("sources.ZIP"), is(Deflater.NO_COMPRESSION));
+        assertThat(bundleStreamer.getCompressionLevel("sources-1.0.tar.gz"), is(Deflater.NO_COMPRESSION));
+        assertThat(bundleStreamer.getCompressionLevel("zip.txt"), is(9));
+        assertThat(bundleStreamer.getCompressionLevel("zip"), is(9));
+    }
+
+    @Test
+    public void testUploadAttachmentPartsOutOfOrderStoresNoSha1() throws Exception {
+        consumeCreatedAttachments();
+        AttachmentContent attachment = new AttachmentContent().setId("unordered").setFilename("fil").setPartsCount("2");
+
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 2, new ByteArrayInputStream("tent".getBytes(StandardCharsets.UTF_8)));
+        attachmentStreamConnector.uploadAttachmentPart(attachment, 1, new ByteArrayInputStream("con".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(attachment.isSetSha1(), is(false));
+        verify(connector, never()).update(any());
+    }
+
     @Test
     public void testPrintAcceptedZipEntryName() {
         assertThat(attachmentStreamConnector.printAcceptedZipEntryName("source.zip", 0), is("source (0).zip"));
@@ -205,12 +286,66 @@ public class AttachmentStreamConnectorTest {
 
     @Test
     public void testGetDeduplicatedZipEntry() {
-        Map<String, Integer> fileNameUsageMap = new HashMap<>();
-        ZipEntry zipEntry =  attachmentStreamConnector.getDeduplicatedZipEntry("source.zip", fileNameUsageMap);
+        Set<String> usedEntryNames = new HashSet<>();
+        ZipEntry zipEntry =  attachmentStreamConnector.getDeduplicatedZipEntry("source.zip", usedEntryNames);
         assertThat(zipEntry.getName(), is("source.zip"));
-        fileNameUsageMap.put("source.zip", 1);
-        ZipEntry zipEntry2 =  attachmentStreamConnector.getDeduplicatedZipEntry("source.zip", fileNameUsageMap);
+        ZipEntry zipEntry2 =  attachmentStreamConnector.getDeduplicatedZipEntry("source.zip", usedEntryNames);
         assertThat(zipEntry2.getName(), is("source (1).zip"));
     }
 
+    @Test
+    public void testGetDeduplicatedZipEntryDoesNotReuseAnExistingFileName() {
+        Set<String> usedEntryNames = new HashSet<>();
+        assertThat(attachmentStreamConnector.getDeduplicatedZipEntry("README (1).txt", usedEntryNames).getName(), is("README (1).txt"));
+        assertThat(attachmentStreamConnector.getDeduplicatedZipEntry("README.txt", usedEntryNames).getName(), is("README.txt"));
+        assertThat(attachmentStreamConnector.getDeduplicatedZipEntry("README.txt", usedEntryNames).getName(), is("README (2).txt"));
+        assertThat(attachmentStreamConnector.getDeduplicatedZipEntry("README (1).txt", usedEntryNames).getName(), is("README (1) (1).txt"));
+    }
+
+    @Test
+    public void testGetAttachmentBundleStreamKeepsAttachmentsWhoseNamesCollideWithDeduplicatedNames() throws Exception {
+        when(connector.getAttachment("1", "README.txt")).thenReturn(attachmentInputStream("1", "first"));
+        when(connector.getAttachment("2", "README.txt")).thenReturn(attachmentInputStream("2", "second"));
+        when(connector.getAttachment("3", "README (1).txt")).thenReturn(attachmentInputStream("3", "third"));
+
+        InputStream bundle = attachmentStreamConnector.getAttachmentBundleStream(ImmutableSet.of(
+                new AttachmentContent().setId("1").setFilename("README.txt"),
+                new AttachmentContent().setId("2").setFilename("README.txt"),
+                new AttachmentContent().setId("3").setFilename("README (1).txt")), dummyUser, new Project());
+
+        Map<String, String> contentByEntryName = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(bundle)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                contentByEntryName.put(entry.getName(), new String(ByteStreams.toByteArray(zip), StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(contentByEntryName, is(ImmutableMap.of(
+                "README.txt", "first",
+                "README (1).txt", "second",
+                "README (1) (1).txt", "third")));
+    }
+
+    private void consumeCreatedAttachments() {
+        when(connector.getCurrentRevision(anyString())).thenReturn("1-revision");
+        when(connector.createAttachment(anyString(), anyString(), any(AttachmentInputStream.class))).then(invocation -> {
+            ByteStreams.exhaust((InputStream) invocation.getArguments()[2]);
+            return "2-revision";
+        });
+    }
+
+    private static AttachmentInputStream attachmentInputStream(String id, String content) {
+        return attachmentInputStream(id, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static AttachmentInputStream attachmentInputStream(String id, byte[] content) {
+        return new AttachmentInputStream(id, new ByteArrayInputStream(content), "application/octet-stream");
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
 }
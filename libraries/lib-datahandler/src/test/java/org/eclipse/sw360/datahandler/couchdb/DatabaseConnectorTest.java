@@ -13,9 +13,11 @@ package org.eclipse.sw360.datahandler.couchdb;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import org.eclipse.sw360.datahandler.thrift.attachments.AttachmentContent;
 import org.eclipse.sw360.testthrift.TestObject;
 import org.ektorp.CouchDbConnector;
 import org.ektorp.CouchDbInstance;
+import org.ektorp.UpdateConflictException;
 import org.ektorp.http.HttpClient;
 import org.ektorp.http.StdHttpClient;
 import org.ektorp.impl.StdCouchDbConnector;
@@ -31,6 +33,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class DatabaseConnectorTest {
 
@@ -134,6 +137,64 @@ public class DatabaseConnectorTest {
         rev = object1.getRevision();
     }
 
+    @Test(expected = UpdateConflictException.class)
+    public void testUpdateWithStaleRevisionConflicts() throws Exception {
+        TestObject concurrent = connector.get(TestObject.class, id);
+        concurrent.setText("Concurrent text");
+        connector.update(concurrent);
+
+        object.setText("Some new text");
+        connector.update(object);
+    }
+
+    @Test
+    public void testUpdateWithStaleRevisionIsResolvedByStrategy() throws Exception {
+        TestObject concurrent = connector.get(TestObject.class, id);
+        concurrent.setName("Concurrent name");
+        connector.update(concurrent);
+
+        String basedOn = object.getRevision();
+        connector.setConflictResolutionStrategy(TestObject.class, (base, current, attempted) -> {
+            assertEquals(basedOn, base.getRevision());
+            attempted.setName(current.getName());
+            return true;
+        });
+        object.setText("Some new text");
+        connector.update(object);
+
+        TestObject object1 = connector.get(TestObject.class, id);
+        assertEquals("Concurrent name", object1.getName());
+        assertEquals("Some new text", object1.getText());
+        assertEquals(object.getRevision(), object1.getRevision());
+        assertNotEquals(concurrent.getRevision(), object1.getRevision());
+    }
+
+    @Test(expected = UpdateConflictException.class)
+    public void testUpdateConflictIsReportedIfStrategyGivesUp() throws Exception {
+        TestObject concurrent = connector.get(TestObject.class, id);
+        connector.update(concurrent);
+
+        connector.setConflictResolutionStrategy(TestObject.class, (base, current, attempted) -> false);
+        connector.update(object);
+    }
+
+    @Test
+    public void testUpdateOfWrappedDocumentWithStaleRevisionConflicts() throws Exception {
+        DatabaseConnector thriftConnector = new DatabaseConnector(DatabaseTestProperties.getConfiguredHttpClient(), COUCH_DB_DATABASE);
+        AttachmentContent attachmentContent = new AttachmentContent().setId("content").setFilename("file");
+        thriftConnector.add(attachmentContent);
+        AttachmentContent concurrent = thriftConnector.get(AttachmentContent.class, "content");
+        thriftConnector.update(concurrent.setSha1("concurrent"));
+        assertEquals(concurrent.getRevision(), thriftConnector.get(AttachmentContent.class, "content").getRevision());
+
+        try {
+            thriftConnector.update(attachmentContent.setSha1("stale"));
+            fail("expected UpdateConflictException not thrown");
+        } catch (UpdateConflictException expected) {
+            assertEquals("concurrent", thriftConnector.get(AttachmentContent.class, "content").getSha1());
+        }
+    }
+
     @Test
     public void testContainsDocument() throws Exception {
         assertTrue(connector.contains(id));
@@ -0,0 +1,78 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.couchdb;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.sw360.datahandler.thrift.components.ExternalTool;
+import org.eclipse.sw360.datahandler.thrift.components.ExternalToolProcess;
+import org.eclipse.sw360.datahandler.thrift.components.Release;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ThriftConflictResolutionStrategyTest {
+
+    private final ThriftConflictResolutionStrategy<Release, Release._Fields> strategy =
+            new ThriftConflictResolutionStrategy<>(Release._Fields.values());
+
+    private final Release base = new Release().setId("R1").setRevision("1").setName("name").setVersion("1")
+            .setCreatedBy("creator").setCreatedOn("2019-01-01");
+
+    @Test
+    public void testMergeKeepsAttemptedChangesAndTakesOverConcurrentChanges() {
+        Release current = base.deepCopy().setRevision("2").setVersion("2")
+                .setExternalToolProcesses(ImmutableSet.of(new ExternalToolProcess().setExternalTool(ExternalTool.FOSSOLOGY)));
+        Release attempted = base.deepCopy().setName("attempted");
+
+        assertThat(strategy.merge(base, current, attempted), is(true));
+        assertThat(attempted.getName(), is("attempted"));
+        assertThat(attempted.getVersion(), is("2"));
+        assertThat(attempted.getExternalToolProcesses(), is(current.getExternalToolProcesses()));
+        assertThat(attempted.getCreatedBy(), is("creator"));
+    }
+
+    @Test
+    public void testMergeAcceptsTheSameChangeOnBothSides() {
+        Release current = base.deepCopy().setRevision("2").setName("renamed");
+        Release attempted = base.deepCopy().setName("renamed");
+
+        assertThat(strategy.merge(base, current, attempted), is(true));
+        assertThat(attempted.getName(), is("renamed"));
+    }
+
+    @Test
+    public void testMergeGivesUpIfBothSidesChangedAField() {
+        Release current = base.deepCopy().setRevision("2").setName("concurrent").setVersion("2");
+        Release attempted = base.deepCopy().setName("attempted");
+
+        assertThat(strategy.merge(base, current, attempted), is(false));
+        assertThat(attempted.getName(), is("attempted"));
+        assertThat(attempted.getVersion(), is("1"));
+    }
+
+    @Test
+    public void testMergeGivesUpIfAttemptedUnsetsAConcurrentlyChangedField() {
+        Release current = base.deepCopy().setRevision("2").setCreatedBy("someone else");
+        Release attempted = base.deepCopy();
+        attempted.unsetCreatedBy();
+
+        assertThat(strategy.merge(base, current, attempted), is(false));
+    }
+
+    @Test
+    public void testMergeGivesUpWithoutBaseRevision() {
+        Release current = base.deepCopy().setRevision("2").setVersion("2");
+        Release attempted = base.deepCopy().setName("attempted");
+
+        assertThat(strategy.merge(null, current, attempted), is(false));
+    }
+}
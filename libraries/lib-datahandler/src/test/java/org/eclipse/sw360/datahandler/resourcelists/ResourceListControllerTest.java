@@ -119,4 +119,21 @@ public class ResourceListControllerTest {
         resourceListController.applyPagingToList(tmpList, paginationOptions);
     }
 
+    @Test
+    public void testPaginationResultForPage() throws PaginationParameterException, ResourceClassNotFoundException {
+        PaginationOptions paginationOptions = new PaginationOptions(1, 2, null);
+        List<Component> page = unsortedComponents.subList(2, 4);
+        PaginationResult paginationResult = resourceListController.createPaginationResultForPage(page, unsortedComponents.size(), paginationOptions);
+        assertEquals(page, paginationResult.getResources());
+        assertEquals(unsortedComponents.size(), paginationResult.getTotalCount());
+        assertEquals(3, paginationResult.getTotalPageCount());
+    }
+
+    @Test
+    public void testPaginationResultForPageInvalidPage() throws PaginationParameterException, ResourceClassNotFoundException {
+        PaginationOptions paginationOptions = new PaginationOptions(3, 4, null);
+        thrown.expect(PaginationParameterException.class);
+        resourceListController.createPaginationResultForPage(new ArrayList<>(), unsortedComponents.size(), paginationOptions);
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.sw360.datahandler.thrift;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TIOStreamTransport;
+import org.eclipse.sw360.datahandler.test.TestServiceHandler;
+import org.eclipse.sw360.testthrift.TestObject;
+import org.eclipse.sw360.testthrift.TestService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ThriftConnectionPoolTest {
+
+    private static final int MAX_PER_ROUTE = 4;
+    private static final int CALLERS = 16;
+    private static final int CALLS_PER_CALLER = 50;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ThriftConnectionPool pool;
+    private String destinationAddress;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        TestService.Processor<TestServiceHandler> processor = new TestService.Processor<>(new TestServiceHandler());
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/test/thrift", exchange -> serveThrift(processor, exchange));
+        serverExecutor = Executors.newFixedThreadPool(CALLERS);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        destinationAddress = "http://127.0.0.1:" + server.getAddress().getPort() + "/test/thrift";
+        pool = new ThriftConnectionPool(null, 5000, 5000, 10, MAX_PER_ROUTE, 60000);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConnectionsAreReusedUnderConcurrentLoad() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(this::callRepeatedly));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS), is(CALLS_PER_CALLER));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(requests.get(), is(CALLERS * CALLS_PER_CALLER));
+        // every distinct client port is one TCP connection
+        assertThat(clientPorts.size(), is(both(greaterThan(0)).and(lessThanOrEqualTo(MAX_PER_ROUTE))));
+        assertThat(pool.getLeasedConnections(destinationAddress), is(0));
+        assertThat(pool.getAvailableConnections(destinationAddress), is(clientPorts.size()));
+    }
+
+    @Test
+    public void testSequentialClientsShareOneConnection() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            TestService.Iface client = new TestService.Client(pool.makeProtocol(destinationAddress));
+            assertThat(client.test(new TestObject().setName("name" + i)).getText(), is(TestServiceHandler.testText));
+        }
+
+        assertThat(requests.get(), is(10));
+        assertThat(clientPorts.size(), is(1));
+    }
+
+    private int callRepeatedly() throws TException {
+        int successful = 0;
+        for (int i = 0; i < CALLS_PER_CALLER; i++) {
+            // clients are not thread safe and are therefore created per call, just like ThriftClients is used
+            TestService.Iface client = new TestService.Client(pool.makeProtocol(destinationAddress));
+            TestObject result = client.test(new TestObject().setName("name" + i));
+            if (TestServiceHandler.testText.equals(result.getText()) && ("name" + i).equals(result.getName())) {
+                successful++;
+            }
+        }
+        return successful;
+    }
+
+    private void serveThrift(TestService.Processor<TestServiceHandler> processor, HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            TIOStreamTransport transport = new TIOStreamTransport(in, response);
+            processor.process(new TCompactProtocol(transport), new TCompactProtocol(transport));
+        } catch (TException e) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-thrift");
+        exchange.sendResponseHeaders(200, response.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            response.writeTo(out);
+        }
+    }
+}
@@ -22,9 +22,6 @@ import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.transport.THttpClient;
 import org.apache.thrift.transport.TTransportException;
 import org.eclipse.sw360.commonIO.AttachmentFrontendUtils;
-import org.eclipse.sw360.datahandler.common.DatabaseSettings;
-import org.eclipse.sw360.datahandler.common.Duration;
-import org.eclipse.sw360.datahandler.couchdb.AttachmentConnector;
 import org.eclipse.sw360.datahandler.thrift.Source;
 import org.eclipse.sw360.datahandler.thrift.attachments.*;
 import org.eclipse.sw360.datahandler.thrift.users.User;
@@ -44,12 +41,10 @@ import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -64,8 +59,6 @@ public class Sw360AttachmentService {
     private final RestControllerHelper restControllerHelper;
 
     private static final Logger log = Logger.getLogger(Sw360AttachmentService.class);
-    private final Duration downloadTimeout = Duration.durationOf(30, TimeUnit.SECONDS);
-    private AttachmentConnector attachmentConnector;
 
     public List<AttachmentUsage> getAttachemntUsages(String projectId) throws TException {
         AttachmentService.Iface attachmentClient = getThriftAttachmentClient();
@@ -123,9 +116,9 @@ public class Sw360AttachmentService {
         String contentType = file.getContentType();
         final AttachmentContent attachmentContent = makeAttachmentContent(fileName, contentType);
 
-        final AttachmentConnector attachmentConnector = getConnector();
         Attachment attachment = new AttachmentFrontendUtils().uploadAttachmentContent(attachmentContent, file.getInputStream(), sw360User);
-        attachment.setSha1(attachmentConnector.getSha1FromAttachmentContentId(attachmentContent.getId()));
+        // the sha1 has been computed while uploading the content
+        attachment.setSha1(attachmentContent.getSha1());
 
         AttachmentType attachmentType = newAttachment.getAttachmentType();
         if (attachmentType != null) {
@@ -169,22 +162,6 @@ public class Sw360AttachmentService {
         }
     }
 
-    private AttachmentConnector getConnector() throws TException {
-        if (attachmentConnector == null) makeConnector();
-        return attachmentConnector;
-    }
-
-    private synchronized void makeConnector() throws TException {
-        if (attachmentConnector == null) {
-            try {
-                attachmentConnector = new AttachmentConnector(DatabaseSettings.getConfiguredHttpClient(), DatabaseSettings.COUCH_DB_ATTACHMENTS, downloadTimeout);
-            } catch (MalformedURLException e) {
-                log.error("Invalid database address received...", e);
-                throw new TException(e);
-            }
-        }
-    }
-
     private AttachmentService.Iface getThriftAttachmentClient() throws TTransportException {
         THttpClient thriftClient = new THttpClient(thriftServerUrl + "/attachments/thrift");
         TProtocol protocol = new TCompactProtocol(thriftClient);
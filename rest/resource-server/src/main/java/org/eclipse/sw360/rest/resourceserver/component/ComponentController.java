@@ -20,6 +20,7 @@ import org.eclipse.sw360.datahandler.resourcelists.ResourceClassNotFoundExceptio
 import org.eclipse.sw360.datahandler.thrift.RequestStatus;
 import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
 import org.eclipse.sw360.datahandler.thrift.components.Component;
+import org.eclipse.sw360.datahandler.thrift.components.ComponentPage;
 import org.eclipse.sw360.datahandler.thrift.components.Release;
 import org.eclipse.sw360.datahandler.thrift.projects.Project;
 import org.eclipse.sw360.datahandler.thrift.users.User;
@@ -99,15 +100,19 @@ public class ComponentController implements ResourceProcessor<RepositoryLinksRes
 
         User sw360User = restControllerHelper.getSw360UserFromAuthentication();
 
-        List<Component> allComponents = new ArrayList<>();
+        PaginationResult<Component> paginationResult;
         if (name != null && !name.isEmpty()) {
-            allComponents.addAll(componentService.searchComponentByName(name));
+            List<Component> allComponents = new ArrayList<>(componentService.searchComponentByName(name));
+            paginationResult = restControllerHelper.createPaginationResult(request, pageable, allComponents, SW360Constants.TYPE_COMPONENT);
+        } else if (restControllerHelper.requestContainsPaging(request)) {
+            // sorted and paged in the database, only the requested page is transferred
+            ComponentPage page = componentService.getComponentsPageForUser(restControllerHelper.paginationDataFromPageable(pageable), sw360User);
+            paginationResult = restControllerHelper.createPaginationResultForPage(pageable, page.getComponents(), page.getTotalCount(), SW360Constants.TYPE_COMPONENT);
         } else {
-            allComponents.addAll(componentService.getComponentsForUser(sw360User));
+            List<Component> allComponents = new ArrayList<>(componentService.getComponentsForUser(sw360User));
+            paginationResult = restControllerHelper.createPaginationResult(request, pageable, allComponents, SW360Constants.TYPE_COMPONENT);
         }
 
-        PaginationResult<Component> paginationResult = restControllerHelper.createPaginationResult(request, pageable, allComponents, SW360Constants.TYPE_COMPONENT);
-
         List<Resource<Component>> componentResources = new ArrayList<>();
         paginationResult.getResources().stream()
                 .filter(component -> componentType == null || (component.isSetComponentType() && componentType.equals(component.componentType.name())))
@@ -11,6 +11,7 @@
 package org.eclipse.sw360.rest.resourceserver.core;
 
 import org.eclipse.sw360.datahandler.resourcelists.*;
+import org.eclipse.sw360.datahandler.thrift.PaginationData;
 import org.eclipse.sw360.datahandler.thrift.attachments.Attachment;
 import org.eclipse.sw360.datahandler.thrift.components.Component;
 import org.eclipse.sw360.datahandler.thrift.components.Release;
@@ -49,6 +50,8 @@ import org.springframework.security.authentication.AuthenticationServiceExceptio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import lombok.NonNull;
@@ -91,11 +94,26 @@ public class RestControllerHelper<T> {
     private static final String PAGINATION_KEY_LAST = "last";
     private static final String PAGINATION_PARAM_PAGE = "page";
     public static final String PAGINATION_PARAM_PAGE_ENTRIES = "page_entries";
+    private static final String REQUEST_USER_ATTRIBUTE_PREFIX = RestControllerHelper.class.getName() + ".user.";
 
+    /**
+     * Resolves the user once per request, later calls during the same request get a copy of the same user
+     */
     public User getSw360UserFromAuthentication() {
         try {
             String userId = (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            return userService.getUserByEmailOrExternalId(userId);
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            String attributeName = REQUEST_USER_ATTRIBUTE_PREFIX + userId;
+            User sw360User = requestAttributes != null ?
+                    (User) requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST) : null;
+            if (sw360User == null) {
+                sw360User = userService.getUserByEmailOrExternalId(userId);
+                if (requestAttributes != null && sw360User != null) {
+                    requestAttributes.setAttribute(attributeName, new User(sw360User), RequestAttributes.SCOPE_REQUEST);
+                }
+                return sw360User;
+            }
+            return new User(sw360User);
         } catch (RuntimeException e) {
             throw new AuthenticationServiceException("Could not load user from authentication.");
         }
@@ -112,7 +130,25 @@ public class RestControllerHelper<T> {
         return paginationResult;
     }
 
-    private boolean requestContainsPaging(HttpServletRequest request) {
+    /**
+     * Same as {@link #createPaginationResult(HttpServletRequest, Pageable, List, String)} for a page which has already
+     * been sorted and paged by the backend, see {@link #paginationDataFromPageable(Pageable)}
+     */
+    public PaginationResult<T> createPaginationResultForPage(Pageable pageable, List<T> page, int totalCount, String resourceType) throws ResourceClassNotFoundException, PaginationParameterException {
+        PaginationOptions<T> paginationOptions = paginationOptionsFromPageable(pageable, resourceType);
+        return resourceListController.createPaginationResultForPage(page, totalCount, paginationOptions);
+    }
+
+    public PaginationData paginationDataFromPageable(Pageable pageable) {
+        PaginationData paginationData = new PaginationData(pageable.getPageNumber(), pageable.getPageSize());
+        Sort.Order order = firstOrderFromPageable(pageable);
+        if (order != null) {
+            paginationData.setSortField(order.getProperty()).setAscending(order.isAscending());
+        }
+        return paginationData;
+    }
+
+    public boolean requestContainsPaging(HttpServletRequest request) {
         return request.getParameterMap().containsKey(PAGINATION_PARAM_PAGE) || request.getParameterMap().containsKey(PAGINATION_PARAM_PAGE_ENTRIES);
     }
 
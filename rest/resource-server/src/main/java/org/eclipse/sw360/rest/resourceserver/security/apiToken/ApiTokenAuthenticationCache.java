@@ -0,0 +1,109 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.sw360.rest.resourceserver.security.apiToken;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.sw360.datahandler.thrift.users.RestApiToken;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers successful API token authentications, so that the BCrypt hash of a token and the lookup of its user are
+ * only done once per token and time to live.
+ *
+ * Tokens are not kept in memory. The cache key is an HMAC-SHA256 of the token with a secret which is generated per
+ * process, so the keys are worthless outside of it and cheap to compute on every request.
+ *
+ * Tokens are revoked in the portal, which cannot reach this cache. A revoked token is accepted until its entry
+ * expires, so the time to live is capped at {@value #MAX_TIME_TO_LIVE_SECONDS} seconds whatever is configured.
+ */
+class ApiTokenAuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SECRET_LENGTH = 32;
+    static final long MAX_TIME_TO_LIVE_SECONDS = 300;
+
+    private final SecretKeySpec secret;
+    private final ThreadLocal<Mac> macs;
+    private final Cache<String, Entry> entries;
+
+    ApiTokenAuthenticationCache(long timeToLiveSeconds, long maximumSize) {
+        byte[] secretBytes = new byte[SECRET_LENGTH];
+        new SecureRandom().nextBytes(secretBytes);
+        secret = new SecretKeySpec(secretBytes, HMAC_ALGORITHM);
+        macs = ThreadLocal.withInitial(this::createMac);
+        entries = CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.min(timeToLiveSeconds, MAX_TIME_TO_LIVE_SECONDS), TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    Optional<Entry> get(String token) {
+        return Optional.ofNullable(entries.getIfPresent(keyOf(token)));
+    }
+
+    void put(String token, User user, RestApiToken restApiToken, Date tokenExpireDate) {
+        entries.put(keyOf(token), new Entry(user, new RestApiToken(restApiToken), tokenExpireDate));
+    }
+
+    void invalidate(String token) {
+        entries.invalidate(keyOf(token));
+    }
+
+    private String keyOf(String token) {
+        return Base64.getEncoder().encodeToString(macs.get().doFinal(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not create " + HMAC_ALGORITHM + " for the API token cache", e);
+        }
+    }
+
+    static class Entry {
+        private final User user;
+        private final RestApiToken restApiToken;
+        private final Date tokenExpireDate;
+
+        private Entry(User user, RestApiToken restApiToken, Date tokenExpireDate) {
+            this.user = user;
+            this.restApiToken = restApiToken;
+            this.tokenExpireDate = tokenExpireDate;
+        }
+
+        User getUser() {
+            return user;
+        }
+
+        RestApiToken getRestApiToken() {
+            return restApiToken;
+        }
+
+        boolean isExpired() {
+            return tokenExpireDate.before(new Date());
+        }
+    }
+}
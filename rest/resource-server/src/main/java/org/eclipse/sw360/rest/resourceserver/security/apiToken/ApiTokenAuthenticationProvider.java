@@ -40,6 +40,11 @@ import java.util.stream.Collectors;
 import static java.lang.Math.min;
 import static org.eclipse.sw360.rest.resourceserver.Sw360ResourceServer.*;
 
+/**
+ * Authenticates requests by API token. Successful authentications are cached for rest.apitoken.cache.ttl.seconds,
+ * at most {@value ApiTokenAuthenticationCache#MAX_TIME_TO_LIVE_SECONDS} seconds, so a token revoked in the portal
+ * is accepted for at most that long.
+ */
 @Profile("!SECURITY_MOCK")
 @Component
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -50,6 +55,9 @@ public class ApiTokenAuthenticationProvider implements AuthenticationProvider {
     @NotNull
     private final Sw360UserService userService;
 
+    private final ApiTokenAuthenticationCache authenticationCache = new ApiTokenAuthenticationCache(
+            Long.parseLong(API_TOKEN_CACHE_TTL_SECONDS), Long.parseLong(API_TOKEN_CACHE_MAX_SIZE));
+
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         if (authentication.isAuthenticated()) {
@@ -57,16 +65,28 @@ public class ApiTokenAuthenticationProvider implements AuthenticationProvider {
             return authentication;
         }
 
-        // Get the corresponding sw360 user and restApiToken based on entered token
         String tokenFromAuthentication = (String) authentication.getCredentials();
+        Optional<ApiTokenAuthenticationCache.Entry> cached = authenticationCache.get(tokenFromAuthentication);
+        if (cached.isPresent()) {
+            if (cached.get().isExpired()) {
+                authenticationCache.invalidate(tokenFromAuthentication);
+                throw new CredentialsExpiredException("Your entered API token is expired.");
+            }
+            log.trace("Cached token authentication for user: " + cached.get().getUser().getEmail());
+            return authenticatedApiUser(cached.get().getUser(), tokenFromAuthentication, cached.get().getRestApiToken());
+        }
+
+        // Get the corresponding sw360 user and restApiToken based on entered token
         String tokenHash = BCrypt.hashpw(tokenFromAuthentication, API_TOKEN_HASH_SALT);
         User sw360User = getUserFromTokenHash(tokenHash);
         Optional<RestApiToken> restApiToken = getApiTokenFromUser(tokenHash, sw360User);
 
         if (restApiToken.isPresent()) {
-            if (!isApiTokenExpired(restApiToken.get())) {
+            Date tokenExpireDate = getApiTokenExpireDate(restApiToken.get());
+            if (!tokenExpireDate.before(new Date())) {
                 // User authenticated successfully
                 log.trace("Valid token authentication for user: " + sw360User.getEmail());
+                authenticationCache.put(tokenFromAuthentication, sw360User, restApiToken.get(), tokenExpireDate);
                 return authenticatedApiUser(sw360User, tokenFromAuthentication, restApiToken.get());
             } else {
                 throw new CredentialsExpiredException("Your entered API token is expired.");
@@ -93,13 +113,12 @@ public class ApiTokenAuthenticationProvider implements AuthenticationProvider {
                 .findFirst();
     }
 
-    private boolean isApiTokenExpired(RestApiToken restApiToken) {
+    private Date getApiTokenExpireDate(RestApiToken restApiToken) {
         String configExpireDays = restApiToken.getAuthorities().contains("WRITE") ?
                 API_TOKEN_MAX_VALIDITY_WRITE_IN_DAYS : API_TOKEN_MAX_VALIDITY_READ_IN_DAYS;
         Date createdOn = SW360Utils.getDateFromTimeString(restApiToken.createdOn);
-        Date tokenExpireDate = DateUtils.addDays(createdOn,
+        return DateUtils.addDays(createdOn,
                 min(restApiToken.getNumberOfDaysValid(), Integer.parseInt(configExpireDays)));
-        return tokenExpireDate.before(new Date());
     }
 
     private Set<GrantedAuthority> getGrantedAuthoritiesFromApiToken(RestApiToken restApiToken) {
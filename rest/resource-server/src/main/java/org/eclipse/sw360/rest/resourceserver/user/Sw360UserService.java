@@ -11,6 +11,9 @@
 
 package org.eclipse.sw360.rest.resourceserver.user;
 
+import com.google.common.cache.Cache;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocol;
@@ -22,12 +25,36 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Reads users from the user service. Users resolved by email are shared by all requests for
+ * {@value #USER_CACHE_TTL_SECONDS} seconds; the resource server does not write users, so changes made in the portal
+ * or by other services are seen after at most that long.
+ */
 @Service
 public class Sw360UserService {
+    static final long USER_CACHE_TTL_SECONDS = 30;
+    private static final long USER_CACHE_MAX_SIZE = 1000;
+
     @Value("${sw360.thrift-server-url:http://localhost:8080}")
     private String thriftServerUrl;
 
+    // copies of the users resolved by email, callers get copies of these as well
+    private final Cache<String, User> usersByEmail;
+
+    public Sw360UserService() {
+        this(Ticker.systemTicker());
+    }
+
+    Sw360UserService(Ticker ticker) {
+        usersByEmail = CacheBuilder.newBuilder()
+                .expireAfterWrite(USER_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+                .maximumSize(USER_CACHE_MAX_SIZE)
+                .ticker(ticker)
+                .build();
+    }
+
     public List<User> getAllUsers() {
         try {
             UserService.Iface sw360UserClient = getThriftUserClient();
@@ -38,18 +65,27 @@ public class Sw360UserService {
     }
 
     public User getUserByEmail(String email) {
+        User cachedUser = usersByEmail.getIfPresent(email);
+        if (cachedUser != null) {
+            return new User(cachedUser);
+        }
         try {
             UserService.Iface sw360UserClient = getThriftUserClient();
-            return sw360UserClient.getByEmail(email);
+            return cache(sw360UserClient.getByEmail(email));
         } catch (TException e) {
             throw new RuntimeException(e);
         }
     }
 
     public User getUserByEmailOrExternalId(String userIdentifier) {
+        // the backend tries the email first as well, so a cached user with this email is the result
+        User cachedUser = usersByEmail.getIfPresent(userIdentifier);
+        if (cachedUser != null) {
+            return new User(cachedUser);
+        }
         try {
             UserService.Iface sw360UserClient = getThriftUserClient();
-            return sw360UserClient.getByEmailOrExternalId(userIdentifier, userIdentifier);
+            return cache(sw360UserClient.getByEmailOrExternalId(userIdentifier, userIdentifier));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -73,7 +109,14 @@ public class Sw360UserService {
         }
     }
 
-    private UserService.Iface getThriftUserClient() throws TTransportException {
+    private User cache(User user) {
+        if (user != null && user.isSetEmail()) {
+            usersByEmail.put(user.getEmail(), new User(user));
+        }
+        return user;
+    }
+
+    UserService.Iface getThriftUserClient() throws TTransportException {
         THttpClient thriftClient = new THttpClient(thriftServerUrl + "/users/thrift");
         TProtocol protocol = new TCompactProtocol(thriftClient);
         return new UserService.Client(protocol);
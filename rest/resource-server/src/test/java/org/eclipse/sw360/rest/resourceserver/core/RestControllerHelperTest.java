@@ -0,0 +1,95 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.sw360.rest.resourceserver.core;
+
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.rest.resourceserver.license.Sw360LicenseService;
+import org.eclipse.sw360.rest.resourceserver.user.Sw360UserService;
+import org.eclipse.sw360.rest.resourceserver.vendor.Sw360VendorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RestControllerHelperTest {
+
+    private static final String EMAIL = "admin@sw360.org";
+
+    private final Sw360UserService userService = mock(Sw360UserService.class);
+    private RestControllerHelper<Object> helper;
+
+    @Before
+    public void setUp() {
+        helper = new RestControllerHelper<>(userService, mock(Sw360VendorService.class), mock(Sw360LicenseService.class));
+        // the user service returns a new user on every call, as it does for cached users
+        when(userService.getUserByEmailOrExternalId(EMAIL))
+                .thenAnswer(invocation -> new User().setEmail(EMAIL).setDepartment("department"));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(EMAIL, null));
+        startRequest();
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testUserIsReadOncePerRequest() {
+        helper.getSw360UserFromAuthentication();
+        helper.getSw360UserFromAuthentication();
+        helper.getSw360UserFromAuthentication();
+
+        verify(userService, times(1)).getUserByEmailOrExternalId(EMAIL);
+    }
+
+    @Test
+    public void testChangesToAReturnedUserDoNotChangeTheUserOfTheRequest() {
+        helper.getSw360UserFromAuthentication().setDepartment("changed");
+        helper.getSw360UserFromAuthentication().setDepartment("changed as well");
+
+        assertEquals("department", helper.getSw360UserFromAuthentication().getDepartment());
+    }
+
+    @Test
+    public void testUserIsReadAgainByTheNextRequest() {
+        helper.getSw360UserFromAuthentication();
+        startRequest();
+        helper.getSw360UserFromAuthentication();
+
+        verify(userService, times(2)).getUserByEmailOrExternalId(EMAIL);
+    }
+
+    @Test
+    public void testUserIsReadOnEveryCallOutsideOfARequest() {
+        RequestContextHolder.resetRequestAttributes();
+
+        helper.getSw360UserFromAuthentication();
+        helper.getSw360UserFromAuthentication();
+
+        verify(userService, times(2)).getUserByEmailOrExternalId(EMAIL);
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
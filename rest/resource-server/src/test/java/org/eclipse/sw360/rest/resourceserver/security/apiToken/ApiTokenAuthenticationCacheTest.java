@@ -0,0 +1,64 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.sw360.rest.resourceserver.security.apiToken;
+
+import org.eclipse.sw360.datahandler.thrift.users.RestApiToken;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ApiTokenAuthenticationCacheTest {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private ApiTokenAuthenticationCache cache;
+    private User user;
+    private RestApiToken restApiToken;
+
+    @Before
+    public void setUp() {
+        cache = new ApiTokenAuthenticationCache(60, 100);
+        user = new User().setEmail("admin@sw360.org");
+        restApiToken = new RestApiToken().setName("token").setToken("hash");
+    }
+
+    @Test
+    public void testOnlyTheSameTokenHits() {
+        cache.put("secret", user, restApiToken, new Date(System.currentTimeMillis() + DAY_MILLIS));
+
+        assertTrue(cache.get("secret").isPresent());
+        assertEquals("admin@sw360.org", cache.get("secret").get().getUser().getEmail());
+        assertFalse(cache.get("Secret").isPresent());
+        assertFalse(cache.get("secret ").isPresent());
+    }
+
+    @Test
+    public void testExpiredToken() {
+        cache.put("secret", user, restApiToken, new Date(System.currentTimeMillis() - DAY_MILLIS));
+
+        assertTrue(cache.get("secret").get().isExpired());
+    }
+
+    @Test
+    public void testDisabledWithoutTimeToLive() {
+        cache = new ApiTokenAuthenticationCache(0, 100);
+        cache.put("secret", user, restApiToken, new Date(System.currentTimeMillis() + DAY_MILLIS));
+
+        assertFalse(cache.get("secret").isPresent());
+    }
+}
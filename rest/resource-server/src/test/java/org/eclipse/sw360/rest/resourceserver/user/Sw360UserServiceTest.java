@@ -0,0 +1,99 @@
+/*
+ * Copyright Siemens AG, 2019. Part of the SW360 Portal Project.
+ *
+ * SPDX-License-Identifier: EPL-1.0
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.sw360.rest.resourceserver.user;
+
+import com.google.common.base.Ticker;
+import org.apache.thrift.TException;
+import org.eclipse.sw360.datahandler.thrift.users.User;
+import org.eclipse.sw360.datahandler.thrift.users.UserService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class Sw360UserServiceTest {
+
+    private static final String EMAIL = "admin@sw360.org";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final UserService.Iface userClient = mock(UserService.Iface.class);
+    private Sw360UserService userService;
+
+    @Before
+    public void setUp() throws TException {
+        userService = new Sw360UserService(new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        }) {
+            @Override
+            UserService.Iface getThriftUserClient() {
+                return userClient;
+            }
+        };
+        // every read returns a new user, as the thrift client does
+        when(userClient.getByEmail(EMAIL)).thenAnswer(invocation -> user());
+        when(userClient.getByEmailOrExternalId(anyString(), anyString())).thenAnswer(invocation -> user());
+    }
+
+    @Test
+    public void testUserIsReadOnceWithinTheTimeToLive() throws TException {
+        userService.getUserByEmail(EMAIL);
+        userService.getUserByEmail(EMAIL);
+        userService.getUserByEmailOrExternalId(EMAIL);
+
+        verify(userClient, times(1)).getByEmail(EMAIL);
+        verify(userClient, times(0)).getByEmailOrExternalId(anyString(), anyString());
+    }
+
+    @Test
+    public void testChangesToAReturnedUserDoNotChangeTheCachedUser() {
+        userService.getUserByEmail(EMAIL).setDepartment("changed");
+        userService.getUserByEmail(EMAIL).setDepartment("changed as well");
+
+        assertEquals("department", userService.getUserByEmail(EMAIL).getDepartment());
+    }
+
+    @Test
+    public void testUserIsReadAgainAfterTheTimeToLive() throws TException {
+        userService.getUserByEmail(EMAIL);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(Sw360UserService.USER_CACHE_TTL_SECONDS) - 1);
+        userService.getUserByEmail(EMAIL);
+        verify(userClient, times(1)).getByEmail(EMAIL);
+
+        nanos.addAndGet(1);
+        userService.getUserByEmail(EMAIL);
+        verify(userClient, times(2)).getByEmail(EMAIL);
+    }
+
+    @Test
+    public void testUserResolvedByExternalIdIsCachedByEmail() throws TException {
+        userService.getUserByEmailOrExternalId("external");
+        userService.getUserByEmail(EMAIL);
+
+        verify(userClient, times(1)).getByEmailOrExternalId("external", "external");
+        verify(userClient, times(0)).getByEmail(EMAIL);
+    }
+
+    private static User user() {
+        return new User().setEmail(EMAIL).setDepartment("department");
+    }
+}